@@ -34,6 +34,7 @@ import com.hazelcast.util.ExceptionUtil;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.concurrent.Future;
 
 /**
  * Iterator for iterating map entries in the {@code partitionId}. The values are not fetched one-by-one but rather in batches.
@@ -50,20 +51,31 @@ public class ClientMapQueryPartitionIterator<K, V, R> extends AbstractMapQueryPa
 
     public ClientMapQueryPartitionIterator(ClientMapProxy<K, V> mapProxy, ClientContext context, int fetchSize,
                                            int partitionId, Predicate<K, V> predicate, Projection<Entry<K, V>, R> projection) {
-        super(mapProxy, fetchSize, partitionId, predicate, projection);
+        this(mapProxy, context, fetchSize, partitionId, predicate, projection, false);
+    }
+
+    public ClientMapQueryPartitionIterator(ClientMapProxy<K, V> mapProxy, ClientContext context, int fetchSize,
+                                           int partitionId, Predicate<K, V> predicate, Projection<Entry<K, V>, R> projection,
+                                           boolean prefetch) {
+        super(mapProxy, fetchSize, partitionId, predicate, projection, prefetch);
         this.mapProxy = mapProxy;
         this.context = context;
     }
 
     @Override
-    protected List<Data> fetch() {
+    protected Future<?> requestSegment() {
         final HazelcastClientInstanceImpl client = (HazelcastClientInstanceImpl) context.getHazelcastInstance();
         final ClientMessage request = MapFetchWithQueryCodec.encodeRequest(mapProxy.getName(), lastTableIndex, fetchSize,
                 getSerializationService().toData(query.getProjection()),
                 getSerializationService().toData(query.getPredicate()));
         final ClientInvocation clientInvocation = new ClientInvocation(client, request, mapProxy.getName(), partitionId);
+        return clientInvocation.invoke();
+    }
+
+    @Override
+    protected List<Data> readSegment(Future<?> request) {
         try {
-            final ClientInvocationFuture f = clientInvocation.invoke();
+            final ClientInvocationFuture f = (ClientInvocationFuture) request;
             final MapFetchWithQueryCodec.ResponseParameters responseParameters = MapFetchWithQueryCodec.decodeResponse(f.get());
 
             final List<Data> results = responseParameters.results;
@@ -121,6 +121,7 @@ import com.hazelcast.map.impl.DataAwareEntryEvent;
 import com.hazelcast.map.impl.LazyMapEntry;
 import com.hazelcast.map.impl.ListenerAdapter;
 import com.hazelcast.map.impl.SimpleEntryView;
+import com.hazelcast.map.impl.iterator.MapQueryIterator;
 import com.hazelcast.map.impl.querycache.subscriber.QueryCacheEndToEndProvider;
 import com.hazelcast.map.impl.querycache.subscriber.QueryCacheRequest;
 import com.hazelcast.map.impl.querycache.subscriber.SubscriberContext;
@@ -1805,6 +1806,42 @@ public class ClientMapProxy<K, V> extends ClientProxy
                 predicate, projection);
     }
 
+    /**
+     * Returns an iterator streaming the result of the projection on entries of all
+     * partitions which satisfy the {@code predicate}. The {@link Iterator#remove()}
+     * method is not supported and will throw an {@link UnsupportedOperationException}.
+     * <p>
+     * Unlike {@link #entrySet(Predicate)} and {@link #values(Predicate)}, the result
+     * is never fully materialized, neither on the members nor on the client. The
+     * partitions are queried one after another in batches of {@code fetchSize} items
+     * using the same machinery as {@link #iterator(int, int, Projection, Predicate)}.
+     * The next batch of a partition is requested while the current one is being
+     * consumed, but not before, so a slow consumer is never sent more than a single
+     * batch ahead and the memory held by the iterator stays bounded.
+     * Predicates of type {@link PagingPredicate} are not supported.
+     * <p>
+     * <b>NOTE</b>
+     * Iterating the map should be done only when the {@link IMap} is not being
+     * mutated and the cluster is stable (there are no migrations or membership changes).
+     * In other cases, the iterator may not return some entries or may return an entry twice.
+     *
+     * @param fetchSize  the size of the batches which will be sent when iterating the data
+     * @param projection the projection to apply before returning the value. {@code null} value is not allowed
+     * @param predicate  the predicate which the entries must match. {@code null} value is not allowed
+     * @param <R>        the return type
+     * @return the iterator for the projected entries
+     * @throws IllegalArgumentException if the predicate is of type {@link PagingPredicate}
+     */
+    public <R> Iterator<R> iterator(int fetchSize, Projection<Map.Entry<K, V>, R> projection, Predicate<K, V> predicate) {
+        checkNotNull(projection, NULL_PROJECTION_IS_NOT_ALLOWED);
+        checkNotNull(predicate, NULL_PREDICATE_IS_NOT_ALLOWED);
+        checkNotPagingPredicate(predicate, "iterator");
+        int partitionCount = getContext().getPartitionService().getPartitionCount();
+        return new MapQueryIterator<>(partitionCount, partitionId ->
+                new ClientMapQueryPartitionIterator<>(this, getContext(), fetchSize, partitionId,
+                        predicate, projection, true));
+    }
+
     @Override
     public ICompletableFuture<EventJournalInitialSubscriberState> subscribeToEventJournal(int partitionId) {
         final ClientMessage request = MapEventJournalSubscribeCodec.encodeRequest(name);
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.map;
+
+import com.hazelcast.client.map.impl.ClientMapQueryPartitionIterator;
+import com.hazelcast.client.proxy.ClientMapProxy;
+import com.hazelcast.client.test.TestHazelcastFactory;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.projection.Projection;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ClientMapQueryIteratorTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    private TestHazelcastFactory factory;
+    private HazelcastInstance server;
+    private ClientMapProxy<String, Integer> proxy;
+
+    @Before
+    public void setup() {
+        factory = new TestHazelcastFactory();
+        server = factory.newHazelcastInstance(getConfig());
+        factory.newHazelcastInstance(getConfig());
+        HazelcastInstance client = factory.newHazelcastClient();
+        proxy = (ClientMapProxy<String, Integer>) client.<String, Integer>getMap(randomMapName());
+    }
+
+    @After
+    public void teardown() {
+        factory.terminateAll();
+    }
+
+    @Test
+    public void test_HasNext_Returns_False_On_EmptyMap() {
+        final Iterator<Integer> iterator = proxy.iterator(10, new GetValueProjection<>(), Predicates.alwaysTrue());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void test_next_Throws_Exception_On_EmptyMap() {
+        proxy.iterator(10, new GetValueProjection<>(), Predicates.alwaysTrue()).next();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_paging_predicate_throws_exception() {
+        proxy.iterator(10, new GetValueProjection<>(), Predicates.pagingPredicate(10));
+    }
+
+    @Test
+    public void test_streams_matching_values() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            proxy.put("key" + i, i);
+        }
+
+        final Predicate<String, Integer> predicate = new EvenPredicate();
+        final List<Integer> streamed = collectAll(proxy.iterator(7, new GetValueProjection<>(), predicate));
+
+        assertEquals(sorted(proxy.values(predicate)), sorted(streamed));
+    }
+
+    @Test
+    public void test_prefetching_partition_iterator_returns_same_results() {
+        final int partitionId = 1;
+        for (int i = 0; i < 100; i++) {
+            proxy.put(generateKeyForPartition(server, partitionId), i);
+        }
+
+        final List<Integer> fetched = collectAll(new ClientMapQueryPartitionIterator<>(proxy, proxy.getContext(), 10,
+                partitionId, Predicates.<String, Integer>alwaysTrue(), new GetValueProjection<>(), false));
+        final List<Integer> prefetched = collectAll(new ClientMapQueryPartitionIterator<>(proxy, proxy.getContext(), 10,
+                partitionId, Predicates.<String, Integer>alwaysTrue(), new GetValueProjection<>(), true));
+
+        assertEquals(100, fetched.size());
+        assertEquals(fetched, prefetched);
+    }
+
+    private static <T> List<T> collectAll(Iterator<T> iterator) {
+        final List<T> collected = new ArrayList<>();
+        while (iterator.hasNext()) {
+            collected.add(iterator.next());
+        }
+        return collected;
+    }
+
+    private static List<Integer> sorted(Iterable<Integer> values) {
+        final List<Integer> sorted = new ArrayList<>();
+        for (Integer value : values) {
+            sorted.add(value);
+        }
+        Collections.sort(sorted);
+        return sorted;
+    }
+
+    private static class EvenPredicate implements Predicate<String, Integer> {
+        @Override
+        public boolean apply(Entry<String, Integer> mapEntry) {
+            return mapEntry.getValue() % 2 == 0;
+        }
+    }
+
+    private static class GetValueProjection<T> implements Projection<Map.Entry<String, T>, T> {
+        @Override
+        public T transform(Map.Entry<String, T> input) {
+            return input.getValue();
+        }
+    }
+}
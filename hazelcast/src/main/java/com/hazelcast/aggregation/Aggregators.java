@@ -16,6 +16,7 @@
 
 package com.hazelcast.aggregation;
 
+import com.hazelcast.aggregation.impl.ApproximateDistinctCountAggregator;
 import com.hazelcast.aggregation.impl.BigDecimalAverageAggregator;
 import com.hazelcast.aggregation.impl.BigDecimalSumAggregator;
 import com.hazelcast.aggregation.impl.BigIntegerAverageAggregator;
@@ -35,6 +36,7 @@ import com.hazelcast.aggregation.impl.MaxByAggregator;
 import com.hazelcast.aggregation.impl.MinAggregator;
 import com.hazelcast.aggregation.impl.MinByAggregator;
 import com.hazelcast.aggregation.impl.NumberAverageAggregator;
+import com.hazelcast.aggregation.impl.QuantileAggregator;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -113,6 +115,64 @@ public final class Aggregators {
         return new DistinctValuesAggregator<I, R>(attributePath);
     }
 
+    // ---------------------------------------------------------------------------------------------------------
+    // approximate aggregators
+    // ---------------------------------------------------------------------------------------------------------
+
+    /**
+     * @param <I> type of the input object.
+     * @return an aggregator that estimates the number of the distinct input values using a HyperLogLog.
+     * Uses a fixed amount of memory regardless of the number of the values, the typical error is below 1%.
+     * Accepts null input values.
+     * Aggregation result type Long.
+     */
+    public static <I> Aggregator<I, Long> approximateDistinctCount() {
+        return new ApproximateDistinctCountAggregator<I>();
+    }
+
+    /**
+     * @param attributePath the attribute path
+     * @param <I> type of the input object.
+     * @return an aggregator that estimates the number of the distinct input values extracted from the given
+     * attributePath using a HyperLogLog.
+     * Uses a fixed amount of memory regardless of the number of the values, the typical error is below 1%.
+     * Accepts null input values and null extracted values.
+     * Aggregation result type Long.
+     */
+    public static <I> Aggregator<I, Long> approximateDistinctCount(String attributePath) {
+        return new ApproximateDistinctCountAggregator<I>(attributePath);
+    }
+
+    /**
+     * @param quantile the quantile from 0.0 to 1.0, e.g. 0.99 for the 99th percentile.
+     * @param <I> type of the input object.
+     * @return an aggregator that estimates the value at the given quantile of the input values.
+     * Uses a bounded amount of memory regardless of the number of the values, the estimated value is within
+     * 1% of the actual one.
+     * Does NOT accept null input values.
+     * Accepts generic Number input values.
+     * Aggregation result type is Double, null if there are no input values.
+     */
+    public static <I> Aggregator<I, Double> quantile(double quantile) {
+        return new QuantileAggregator<I>(quantile);
+    }
+
+    /**
+     * @param attributePath the attribute path
+     * @param quantile the quantile from 0.0 to 1.0, e.g. 0.99 for the 99th percentile.
+     * @param <I> type of the input object.
+     * @return an aggregator that estimates the value at the given quantile of the input values extracted from
+     * the given attributePath.
+     * Uses a bounded amount of memory regardless of the number of the values, the estimated value is within
+     * 1% of the actual one.
+     * Does NOT accept null input values.
+     * Accepts generic Number input values.
+     * Aggregation result type is Double, null if there are no input values.
+     */
+    public static <I> Aggregator<I, Double> quantile(String attributePath, double quantile) {
+        return new QuantileAggregator<I>(attributePath, quantile);
+    }
+
     // ---------------------------------------------------------------------------------------------------------
     // average aggregators
     // ---------------------------------------------------------------------------------------------------------
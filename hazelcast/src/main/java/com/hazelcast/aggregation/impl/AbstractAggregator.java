@@ -20,6 +20,7 @@ import com.hazelcast.aggregation.Aggregator;
 import com.hazelcast.internal.json.NonTerminalJsonValue;
 import com.hazelcast.query.impl.Extractable;
 import com.hazelcast.query.impl.getters.MultiResult;
+import com.hazelcast.query.impl.getters.PrimitiveValueConsumer;
 
 import java.util.List;
 import java.util.Map;
@@ -36,6 +37,10 @@ import java.util.Map;
  * <li>If the attributePath is null and the input object is an instance of Map.Entry the Map.Entry.getValue() will be
  * accumulated instead of the whole input object.
  * </li>
+ * <li>If the aggregator implements {@link PrimitiveValueConsumer}, the numeric attribute values are passed to it as
+ * primitives, without boxing them, whenever the extraction supports that. Such values are not passed to
+ * {@link #accumulateExtracted}.
+ * </li>
  * </ul>
  *
  * @param <I> input type
@@ -46,6 +51,8 @@ public abstract class AbstractAggregator<I, E, R> extends Aggregator<I, R> {
 
     protected String attributePath;
 
+    private transient PrimitiveValueHolder primitiveValueHolder;
+
     public AbstractAggregator() {
         this(null);
     }
@@ -58,6 +65,10 @@ public abstract class AbstractAggregator<I, E, R> extends Aggregator<I, R> {
     public final void accumulate(I entry) {
 
         E extractedValue = extract(entry);
+        if (extractedValue == PrimitiveValueConsumer.CONSUMED) {
+            primitiveValueHolder.passTo((PrimitiveValueConsumer) this);
+            return;
+        }
         if (extractedValue instanceof MultiResult) {
             boolean nullEmptyTargetSkipped = false;
             @SuppressWarnings("unchecked")
@@ -89,6 +100,12 @@ public abstract class AbstractAggregator<I, E, R> extends Aggregator<I, R> {
                 return (T) ((Map.Entry) input).getValue();
             }
         } else if (input instanceof Extractable) {
+            if (this instanceof PrimitiveValueConsumer) {
+                if (primitiveValueHolder == null) {
+                    primitiveValueHolder = new PrimitiveValueHolder();
+                }
+                return (T) ((Extractable) input).getAttributeValue(attributePath, primitiveValueHolder);
+            }
             return (T) ((Extractable) input).getAttributeValue(attributePath);
         }
         throw new IllegalArgumentException("Can't extract " + attributePath + " from the given input");
@@ -50,8 +50,10 @@ public final class AggregatorDataSerializerHook implements DataSerializerHook {
     public static final int MAX_BY = 17;
     public static final int MIN_BY = 18;
     public static final int CANONICALIZING_SET = 19;
+    public static final int APPROXIMATE_DISTINCT_COUNT = 20;
+    public static final int QUANTILE = 21;
 
-    private static final int LEN = CANONICALIZING_SET + 1;
+    private static final int LEN = QUANTILE + 1;
 
     @Override
     public int getFactoryId() {
@@ -163,6 +165,16 @@ public final class AggregatorDataSerializerHook implements DataSerializerHook {
                 return new CanonicalizingHashSet();
             }
         };
+        constructors[APPROXIMATE_DISTINCT_COUNT] = new ConstructorFunction<Integer, IdentifiedDataSerializable>() {
+            public IdentifiedDataSerializable createNew(Integer arg) {
+                return new ApproximateDistinctCountAggregator();
+            }
+        };
+        constructors[QUANTILE] = new ConstructorFunction<Integer, IdentifiedDataSerializable>() {
+            public IdentifiedDataSerializable createNew(Integer arg) {
+                return new QuantileAggregator();
+            }
+        };
 
         return new ArrayDataSerializableFactory(constructors);
     }
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.aggregation.impl;
+
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.cardinality.impl.hyperloglog.HyperLogLog;
+import com.hazelcast.cardinality.impl.hyperloglog.impl.HyperLogLogImpl;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.query.impl.Numbers;
+
+import java.io.IOException;
+
+import static com.hazelcast.util.HashUtil.MurmurHash3_fmix;
+
+/**
+ * Estimates the number of the distinct input values using a {@link
+ * HyperLogLog}, so the memory used by the aggregator doesn't depend on the
+ * number of the values.
+ * <p>
+ * The numbers are hashed by their canonical representations, so the values
+ * considered equal by {@link DistinctValuesAggregator} are counted once. The
+ * strings are hashed using all the 64 bits of the hash, the values of the
+ * other types are hashed by their {@link Object#hashCode() hash codes}.
+ *
+ * @param <I> input type
+ */
+public final class ApproximateDistinctCountAggregator<I> extends AbstractAggregator<I, Object, Long>
+        implements IdentifiedDataSerializable {
+
+    private static final long NULL_HASH = 0x9E3779B97F4A7C15L;
+    private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    private HyperLogLog hyperLogLog = new HyperLogLogImpl();
+
+    public ApproximateDistinctCountAggregator() {
+        super();
+    }
+
+    public ApproximateDistinctCountAggregator(String attributePath) {
+        super(attributePath);
+    }
+
+    @Override
+    public void accumulateExtracted(I entry, Object value) {
+        hyperLogLog.add(hash64(value));
+    }
+
+    @Override
+    public void combine(Aggregator aggregator) {
+        ApproximateDistinctCountAggregator other = (ApproximateDistinctCountAggregator) aggregator;
+        hyperLogLog.merge(other.hyperLogLog);
+    }
+
+    @Override
+    public Long aggregate() {
+        return hyperLogLog.estimate();
+    }
+
+    @Override
+    public int getFactoryId() {
+        return AggregatorDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return AggregatorDataSerializerHook.APPROXIMATE_DISTINCT_COUNT;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeUTF(attributePath);
+        out.writeObject(hyperLogLog);
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        this.attributePath = in.readUTF();
+        this.hyperLogLog = in.readObject();
+    }
+
+    static long hash64(Object value) {
+        if (value == null) {
+            return NULL_HASH;
+        } else if (value instanceof String) {
+            return hash64((String) value);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return MurmurHash3_fmix(((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            double doubleValue = ((Number) value).doubleValue();
+            long longValue = (long) doubleValue;
+            // the integral values are equal to the corresponding longs
+            if (Numbers.equalDoubles(doubleValue, (double) longValue)) {
+                return MurmurHash3_fmix(longValue);
+            }
+            return MurmurHash3_fmix(Double.doubleToLongBits(doubleValue) ^ NULL_HASH);
+        }
+        return MurmurHash3_fmix((long) value.hashCode());
+    }
+
+    private static long hash64(String value) {
+        // 64-bit FNV-1a, the 32-bit hash codes collide too often for the
+        // large cardinalities
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < value.length(); ++i) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return MurmurHash3_fmix(hash);
+    }
+
+}
@@ -48,7 +48,16 @@ public final class DistinctValuesAggregator<I, R> extends AbstractAggregator<I,
     @Override
     public void combine(Aggregator aggregator) {
         DistinctValuesAggregator distinctValuesAggregator = (DistinctValuesAggregator) aggregator;
-        this.values.addAllInternal(distinctValuesAggregator.values);
+        CanonicalizingHashSet<R> otherValues = distinctValuesAggregator.values;
+        if (otherValues.size() > values.size()) {
+            // the smaller set is merged into the larger one, the combined
+            // aggregator is not used after the combination
+            otherValues.addAllInternal(values);
+            values = otherValues;
+            distinctValuesAggregator.values = new CanonicalizingHashSet<R>();
+        } else {
+            values.addAllInternal(otherValues);
+        }
     }
 
     @Override
@@ -21,11 +21,12 @@ import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.query.impl.Numbers;
+import com.hazelcast.query.impl.getters.PrimitiveValueConsumer;
 
 import java.io.IOException;
 
 public final class IntegerAverageAggregator<I> extends AbstractAggregator<I, Number, Double>
-        implements IdentifiedDataSerializable {
+        implements IdentifiedDataSerializable, PrimitiveValueConsumer {
 
     private long sum;
 
@@ -45,6 +46,18 @@ public final class IntegerAverageAggregator<I> extends AbstractAggregator<I, Num
         sum += Numbers.asIntExactly(value);
     }
 
+    @Override
+    public void acceptLong(long value) {
+        count++;
+        sum += Numbers.longAsIntExactly(value);
+    }
+
+    @Override
+    public void acceptDouble(double value) {
+        count++;
+        sum += Numbers.doubleAsIntExactly(value);
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         IntegerAverageAggregator integerAverageAggregator = (IntegerAverageAggregator) aggregator;
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.aggregation.impl;
+
+import com.hazelcast.query.impl.getters.PrimitiveValueConsumer;
+
+/**
+ * Holds the last value extracted as a primitive until it's passed to the
+ * aggregator, so the failures of the aggregator aren't reported as the
+ * extraction failures.
+ */
+final class PrimitiveValueHolder implements PrimitiveValueConsumer {
+
+    private boolean integral;
+    private long longValue;
+    private double doubleValue;
+
+    @Override
+    public void acceptLong(long value) {
+        integral = true;
+        longValue = value;
+    }
+
+    @Override
+    public void acceptDouble(double value) {
+        integral = false;
+        doubleValue = value;
+    }
+
+    /**
+     * Passes the held value to the given consumer.
+     */
+    void passTo(PrimitiveValueConsumer consumer) {
+        if (integral) {
+            consumer.acceptLong(longValue);
+        } else {
+            consumer.acceptDouble(doubleValue);
+        }
+    }
+
+}
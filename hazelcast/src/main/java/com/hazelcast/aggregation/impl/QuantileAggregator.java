@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.aggregation.impl;
+
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+
+import java.io.IOException;
+
+/**
+ * Estimates the value at the given quantile of the input numbers using a
+ * {@link QuantileSketch}, so the memory used by the aggregator doesn't depend
+ * on the number of the values.
+ *
+ * @param <I> input type
+ */
+public final class QuantileAggregator<I> extends AbstractAggregator<I, Number, Double>
+        implements IdentifiedDataSerializable {
+
+    private double quantile;
+    private QuantileSketch sketch = new QuantileSketch();
+
+    public QuantileAggregator() {
+        super();
+    }
+
+    public QuantileAggregator(double quantile) {
+        super();
+        this.quantile = checkQuantile(quantile);
+    }
+
+    public QuantileAggregator(String attributePath, double quantile) {
+        super(attributePath);
+        this.quantile = checkQuantile(quantile);
+    }
+
+    @Override
+    public void accumulateExtracted(I entry, Number value) {
+        sketch.add(value.doubleValue());
+    }
+
+    @Override
+    public void combine(Aggregator aggregator) {
+        QuantileAggregator other = (QuantileAggregator) aggregator;
+        sketch.merge(other.sketch);
+    }
+
+    @Override
+    public Double aggregate() {
+        return sketch.getQuantile(quantile);
+    }
+
+    @Override
+    public int getFactoryId() {
+        return AggregatorDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return AggregatorDataSerializerHook.QUANTILE;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeUTF(attributePath);
+        out.writeDouble(quantile);
+        sketch.writeData(out);
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        this.attributePath = in.readUTF();
+        this.quantile = in.readDouble();
+        this.sketch = new QuantileSketch();
+        this.sketch.readData(in);
+    }
+
+    private static double checkQuantile(double quantile) {
+        if (!(quantile >= 0.0 && quantile <= 1.0)) {
+            throw new IllegalArgumentException("Quantile must be in [0, 1]: " + quantile);
+        }
+        return quantile;
+    }
+
+}
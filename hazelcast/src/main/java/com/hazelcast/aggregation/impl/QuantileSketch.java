@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.aggregation.impl;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Mergeable sketch estimating the quantiles of a stream of the numbers with a
+ * bounded relative error.
+ * <p>
+ * The values are counted in the buckets having logarithmically growing
+ * widths, so any estimated quantile is within the relative accuracy of the
+ * actual one (see the DDSketch paper: https://arxiv.org/abs/1908.10693). The
+ * number of the buckets is bounded: once the bound is reached the lowest
+ * buckets are collapsed, so only the accuracy of the lowest quantiles
+ * degrades for the extremely wide ranges of the values.
+ * <p>
+ * The sketches built for the separate parts of the stream are merged
+ * without the loss of accuracy.
+ */
+final class QuantileSketch {
+
+    /**
+     * The default relative accuracy of the estimated quantiles.
+     */
+    static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+
+    /**
+     * The maximum number of the buckets for each sign of the values, about
+     * 16 KB of the counts: enough to cover 17 orders of magnitude with the
+     * default accuracy.
+     */
+    static final int MAX_BUCKET_COUNT = 2048;
+
+    /**
+     * The values closer to zero are counted as zeros.
+     */
+    private static final double MIN_INDEXABLE_VALUE = Double.MIN_NORMAL;
+
+    private double relativeAccuracy;
+    private double gamma;
+    private double multiplier;
+
+    private final Buckets positive = new Buckets();
+    private final Buckets negative = new Buckets();
+    private long zeroCount;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    QuantileSketch() {
+        this(DEFAULT_RELATIVE_ACCURACY);
+    }
+
+    QuantileSketch(double relativeAccuracy) {
+        if (relativeAccuracy <= 0.0 || relativeAccuracy >= 1.0) {
+            throw new IllegalArgumentException("Relative accuracy must be in (0, 1): " + relativeAccuracy);
+        }
+        init(relativeAccuracy);
+    }
+
+    private void init(double relativeAccuracy) {
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.multiplier = 1 / Math.log(gamma);
+    }
+
+    /**
+     * @return the number of the values added.
+     */
+    long getCount() {
+        return count;
+    }
+
+    /**
+     * Adds the given value to this sketch.
+     */
+    void add(double value) {
+        if (Double.isNaN(value)) {
+            throw new IllegalArgumentException("Can't add NaN to a quantile sketch");
+        }
+        if (value > MIN_INDEXABLE_VALUE) {
+            positive.add(index(value), 1);
+        } else if (value < -MIN_INDEXABLE_VALUE) {
+            negative.add(index(-value), 1);
+        } else {
+            ++zeroCount;
+        }
+        ++count;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Merges the given sketch into this one, both sketches must have the
+     * same relative accuracy.
+     */
+    void merge(QuantileSketch other) {
+        if (Double.compare(relativeAccuracy, other.relativeAccuracy) != 0) {
+            throw new IllegalArgumentException("Can't merge the quantile sketches of different accuracies: "
+                    + relativeAccuracy + " and " + other.relativeAccuracy);
+        }
+        positive.merge(other.positive);
+        negative.merge(other.negative);
+        zeroCount += other.zeroCount;
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Estimates the value at the given quantile.
+     *
+     * @param quantile the quantile from {@code 0.0} to {@code 1.0}.
+     * @return the estimated value or {@code null} if nothing was added.
+     */
+    Double getQuantile(double quantile) {
+        if (count == 0) {
+            return null;
+        }
+
+        long rank = (long) (quantile * (count - 1));
+        double value;
+        if (rank < negative.count) {
+            // the negative values are visited from the largest magnitude
+            value = -value(negative.indexOfRank(negative.count - 1 - rank));
+        } else if (rank < negative.count + zeroCount) {
+            value = 0.0;
+        } else {
+            value = value(positive.indexOfRank(rank - negative.count - zeroCount));
+        }
+        return Math.max(min, Math.min(max, value));
+    }
+
+    void writeData(ObjectDataOutput out) throws IOException {
+        out.writeDouble(relativeAccuracy);
+        out.writeLong(zeroCount);
+        out.writeLong(count);
+        out.writeDouble(min);
+        out.writeDouble(max);
+        positive.writeData(out);
+        negative.writeData(out);
+    }
+
+    void readData(ObjectDataInput in) throws IOException {
+        init(in.readDouble());
+        zeroCount = in.readLong();
+        count = in.readLong();
+        min = in.readDouble();
+        max = in.readDouble();
+        positive.readData(in);
+        negative.readData(in);
+    }
+
+    private int index(double value) {
+        return (int) Math.ceil(Math.log(value) * multiplier);
+    }
+
+    private double value(int index) {
+        // the value having the same relative distance to the bounds of the
+        // bucket: gamma^(index - 1) and gamma^index
+        return 2 * Math.pow(gamma, index) / (gamma + 1);
+    }
+
+    /**
+     * The counts of the values in the contiguous range of the bucket indexes.
+     */
+    private static final class Buckets {
+
+        private static final long[] EMPTY = new long[0];
+
+        private long[] counts = EMPTY;
+        private int offset;
+        private long count;
+
+        void add(int index, long valueCount) {
+            if (counts.length == 0) {
+                counts = new long[1];
+                offset = index;
+            }
+            int position = index - offset;
+            if (position < 0) {
+                position = extendDown(index);
+            } else if (position >= counts.length) {
+                position = extendUp(index);
+            }
+            counts[position] += valueCount;
+            count += valueCount;
+        }
+
+        void merge(Buckets other) {
+            for (int i = 0; i < other.counts.length; ++i) {
+                if (other.counts[i] != 0) {
+                    add(other.offset + i, other.counts[i]);
+                }
+            }
+        }
+
+        /**
+         * @return the index of the bucket containing the value of the given
+         * rank in the ascending order.
+         */
+        int indexOfRank(long rank) {
+            long seen = 0;
+            for (int i = 0; i < counts.length; ++i) {
+                seen += counts[i];
+                if (seen > rank) {
+                    return offset + i;
+                }
+            }
+            return offset + counts.length - 1;
+        }
+
+        /**
+         * @return the position of the bucket for the given index below the
+         * current range, the lowest index if the range can't be extended.
+         */
+        private int extendDown(int index) {
+            int highest = offset + counts.length - 1;
+            int newOffset = Math.max(index, highest - MAX_BUCKET_COUNT + 1);
+            long[] newCounts = new long[highest - newOffset + 1];
+            System.arraycopy(counts, 0, newCounts, offset - newOffset, counts.length);
+            counts = newCounts;
+            offset = newOffset;
+            return 0;
+        }
+
+        /**
+         * @return the position of the bucket for the given index above the
+         * current range, the lowest buckets are collapsed if the range can't
+         * be extended.
+         */
+        private int extendUp(int index) {
+            int newOffset = Math.max(offset, index - MAX_BUCKET_COUNT + 1);
+            long[] newCounts = new long[index - newOffset + 1];
+            int shift = newOffset - offset;
+            // the collapsed counts are added to the lowest kept bucket
+            long collapsed = 0;
+            for (int i = 0; i < Math.min(shift, counts.length); ++i) {
+                collapsed += counts[i];
+            }
+            if (shift < counts.length) {
+                System.arraycopy(counts, shift, newCounts, 0, counts.length - shift);
+            }
+            newCounts[0] += collapsed;
+            counts = newCounts;
+            offset = newOffset;
+            return counts.length - 1;
+        }
+
+        void writeData(ObjectDataOutput out) throws IOException {
+            out.writeInt(offset);
+            out.writeLongArray(counts);
+        }
+
+        void readData(ObjectDataInput in) throws IOException {
+            offset = in.readInt();
+            counts = in.readLongArray();
+            count = 0;
+            for (long c : counts) {
+                count += c;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Buckets{offset=" + offset + ", counts=" + Arrays.toString(counts) + '}';
+        }
+
+    }
+
+}
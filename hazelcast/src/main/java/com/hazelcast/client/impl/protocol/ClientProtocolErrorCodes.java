@@ -120,6 +120,7 @@ public final class ClientProtocolErrorCodes {
     public static final int LEADER_DEMOTED_EXCEPTION = 95;
     public static final int STALE_APPEND_REQUEST_EXCEPTION = 96;
     public static final int NOT_LEADER_EXCEPTION = 97;
+    public static final int OPERATION_QUEUE_OVERLOAD = 98;
 
     // These exception codes are reserved to by used by hazelcast-jet project
     public static final int JET_EXCEPTIONS_RANGE_START = 500;
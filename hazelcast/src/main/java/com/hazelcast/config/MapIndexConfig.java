@@ -89,6 +89,13 @@ public class MapIndexConfig implements IdentifiedDataSerializable {
 
     /**
      * Sets the attribute that is going to be indexed.
+     * <p>
+     * A bitmap index, suitable for low-cardinality attributes like a status
+     * or a category, may be requested by wrapping the attribute as {@code
+     * BITMAP(attribute)}. Bitmap indexes are unordered and speed up equality,
+     * {@code IN} and inequality predicates, especially when such predicates
+     * on several bitmap-indexed attributes are combined using {@code AND}
+     * and {@code OR}.
      *
      * @param attribute the attribute that is going to be indexed
      * @return the updated MapIndexConfig
@@ -24,6 +24,7 @@ import java.nio.ByteOrder;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.Map;
 import java.util.Set;
@@ -49,6 +50,7 @@ public class SerializationConfig {
     private boolean enableSharedObject = true;
     private boolean allowUnsafe;
     private final Set<ClassDefinition> classDefinitions;
+    private final Set<String> compactClasses;
     private JavaSerializationFilterConfig javaSerializationFilterConfig;
 
     public SerializationConfig() {
@@ -58,6 +60,7 @@ public class SerializationConfig {
         portableFactories = new HashMap<Integer, PortableFactory>();
         serializerConfigs = new LinkedList<SerializerConfig>();
         classDefinitions = new HashSet<ClassDefinition>();
+        compactClasses = new LinkedHashSet<String>();
     }
 
     public SerializationConfig(SerializationConfig serializationConfig) {
@@ -79,6 +82,7 @@ public class SerializationConfig {
         enableSharedObject = serializationConfig.enableSharedObject;
         allowUnsafe = serializationConfig.allowUnsafe;
         classDefinitions = new HashSet<ClassDefinition>(serializationConfig.classDefinitions);
+        compactClasses = new LinkedHashSet<String>(serializationConfig.compactClasses);
         javaSerializationFilterConfig = serializationConfig.javaSerializationFilterConfig == null
                 ? null : new JavaSerializationFilterConfig(serializationConfig.javaSerializationFilterConfig);
     }
@@ -330,6 +334,57 @@ public class SerializationConfig {
         return this;
     }
 
+    /**
+     * @return names of the classes serialized in the compact format
+     * @see #addCompactClass(String)
+     */
+    public Set<String> getCompactClasses() {
+        return compactClasses;
+    }
+
+    /**
+     * Registers a class to be serialized in the compact format.
+     * <p>
+     * The schema of a compact class is derived from its non-static,
+     * non-transient fields, so no serialization code has to be written for
+     * it. The schemas are identified by the fingerprints of the classes and
+     * are not sent along with the serialized objects, so all the members and
+     * clients must register the same compact classes. The queries read the
+     * fields of the compact objects directly from their serialized form.
+     * <p>
+     * A compact class must have a no-arg constructor.
+     *
+     * @param className name of the class to be serialized in the compact format
+     * @return configured {@link com.hazelcast.config.SerializationConfig} for chaining
+     */
+    public SerializationConfig addCompactClass(String className) {
+        isNotNull(className, "className");
+        compactClasses.add(className);
+        return this;
+    }
+
+    /**
+     * @param compactClass the class to be serialized in the compact format
+     * @return configured {@link com.hazelcast.config.SerializationConfig} for chaining
+     * @see #addCompactClass(String)
+     */
+    public SerializationConfig addCompactClass(Class<?> compactClass) {
+        isNotNull(compactClass, "compactClass");
+        return addCompactClass(compactClass.getName());
+    }
+
+    /**
+     * @param compactClasses names of the classes to be serialized in the compact format
+     * @return configured {@link com.hazelcast.config.SerializationConfig} for chaining
+     * @see #addCompactClass(String)
+     */
+    public SerializationConfig setCompactClasses(Set<String> compactClasses) {
+        isNotNull(compactClasses, "compactClasses");
+        this.compactClasses.clear();
+        this.compactClasses.addAll(compactClasses);
+        return this;
+    }
+
     /**
      * Default value is {@code true} (enabled).
      * When enabled, serialization system will check for class definitions error at start and throw an Serialization
@@ -482,6 +537,7 @@ public class SerializationConfig {
                 + ", serializerConfigs=" + serializerConfigs
                 + ", checkClassDefErrors=" + checkClassDefErrors
                 + ", classDefinitions=" + classDefinitions
+                + ", compactClasses=" + compactClasses
                 + ", byteOrder=" + byteOrder
                 + ", useNativeByteOrder=" + useNativeByteOrder
                 + ", javaSerializationFilterConfig=" + javaSerializationFilterConfig
@@ -543,6 +599,9 @@ public class SerializationConfig {
         if (!classDefinitions.equals(that.classDefinitions)) {
             return false;
         }
+        if (!compactClasses.equals(that.compactClasses)) {
+            return false;
+        }
         return javaSerializationFilterConfig != null
                 ? javaSerializationFilterConfig.equals(that.javaSerializationFilterConfig)
                 : that.javaSerializationFilterConfig == null;
@@ -565,6 +624,7 @@ public class SerializationConfig {
         result = 31 * result + (enableSharedObject ? 1 : 0);
         result = 31 * result + (allowUnsafe ? 1 : 0);
         result = 31 * result + classDefinitions.hashCode();
+        result = 31 * result + compactClasses.hashCode();
         result = 31 * result + (javaSerializationFilterConfig != null ? javaSerializationFilterConfig.hashCode() : 0);
         return result;
     }
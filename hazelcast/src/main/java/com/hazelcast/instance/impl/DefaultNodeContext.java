@@ -40,9 +40,13 @@ import java.util.List;
 import java.util.Properties;
 
 import static com.hazelcast.config.ConfigAccessor.getActiveMemberNetworkConfig;
+import static com.hazelcast.internal.util.ThreadAffinity.newThreadAffinity;
 import static com.hazelcast.spi.properties.GroupProperty.IO_BALANCER_INTERVAL_SECONDS;
+import static com.hazelcast.spi.properties.GroupProperty.IO_INPUT_THREAD_AFFINITY;
 import static com.hazelcast.spi.properties.GroupProperty.IO_INPUT_THREAD_COUNT;
+import static com.hazelcast.spi.properties.GroupProperty.IO_OUTPUT_THREAD_AFFINITY;
 import static com.hazelcast.spi.properties.GroupProperty.IO_OUTPUT_THREAD_COUNT;
+import static com.hazelcast.spi.properties.GroupProperty.IO_WRITE_COALESCING_DELAY_MICROS;
 import static java.util.Arrays.asList;
 import static java.util.Collections.unmodifiableList;
 
@@ -172,6 +176,9 @@ public class DefaultNodeContext implements NodeContext {
                         .errorHandler(errorHandler)
                         .inputThreadCount(props.getInteger(IO_INPUT_THREAD_COUNT))
                         .outputThreadCount(props.getInteger(IO_OUTPUT_THREAD_COUNT))
-                        .balancerIntervalSeconds(props.getInteger(IO_BALANCER_INTERVAL_SECONDS)));
+                        .inputThreadAffinity(newThreadAffinity(props, IO_INPUT_THREAD_AFFINITY))
+                        .outputThreadAffinity(newThreadAffinity(props, IO_OUTPUT_THREAD_AFFINITY))
+                        .balancerIntervalSeconds(props.getInteger(IO_BALANCER_INTERVAL_SECONDS))
+                        .writeCoalescingDelayMicros(props.getInteger(IO_WRITE_COALESCING_DELAY_MICROS)));
     }
 }
@@ -75,6 +75,7 @@ import com.hazelcast.nio.ClassLoaderUtil;
 import com.hazelcast.nio.IOService;
 import com.hazelcast.nio.MemberSocketInterceptor;
 import com.hazelcast.nio.tcp.DefaultChannelInitializerProvider;
+import com.hazelcast.nio.tcp.GatheringPacketEncoder;
 import com.hazelcast.nio.tcp.PacketDecoder;
 import com.hazelcast.nio.tcp.PacketEncoder;
 import com.hazelcast.nio.tcp.TcpIpConnection;
@@ -87,6 +88,7 @@ import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.spi.impl.eventservice.impl.EventServiceImpl;
 import com.hazelcast.spi.impl.servicemanager.ServiceManager;
 import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.util.ByteArrayProcessor;
 import com.hazelcast.util.ConstructorFunction;
 import com.hazelcast.util.ExceptionUtil;
@@ -270,6 +272,14 @@ public class DefaultNodeExtension implements NodeExtension {
     @Override
     public OutboundHandler[] createOutboundHandlers(EndpointQualifier qualifier,
             TcpIpConnection connection, IOService ioService) {
+        HazelcastProperties properties = node.getProperties();
+        // a compressing handler is appended when compression is enabled, so the packets can't be written as is
+        if (properties.getBoolean(GroupProperty.IO_WRITE_GATHER_ENABLED)
+                && !properties.getBoolean(GroupProperty.IO_COMPRESSION_ENABLED)) {
+            // the packets are written to the socket as is, so the payloads don't need to be copied
+            int gatherThreshold = properties.getInteger(GroupProperty.IO_WRITE_GATHER_THRESHOLD_BYTES);
+            return new OutboundHandler[]{new GatheringPacketEncoder(gatherThreshold)};
+        }
         return new OutboundHandler[]{new PacketEncoder()};
     }
 
@@ -118,11 +118,10 @@ public final class ConfigValidator {
      */
     public static void checkMapConfig(MapConfig mapConfig, NativeMemoryConfig nativeMemoryConfig,
                                       MergePolicyProvider mergePolicyProvider, HazelcastProperties properties) {
-        checkNotNativeWhenOpenSource(mapConfig.getInMemoryFormat());
+        checkNativeConfig(mapConfig, nativeMemoryConfig);
 
         boolean enterprise = getBuildInfo().isEnterprise();
         if (enterprise) {
-            checkNativeConfig(mapConfig, nativeMemoryConfig);
             checkHotRestartSpecificConfig(mapConfig, properties);
         }
         checkMapMergePolicy(mapConfig, mergePolicyProvider);
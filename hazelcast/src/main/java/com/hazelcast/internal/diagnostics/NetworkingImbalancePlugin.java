@@ -19,6 +19,7 @@ package com.hazelcast.internal.diagnostics;
 import com.hazelcast.internal.networking.Networking;
 import com.hazelcast.internal.networking.nio.NioNetworking;
 import com.hazelcast.internal.networking.nio.NioThread;
+import com.hazelcast.internal.networking.nio.iobalancer.IOBalancer;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.nio.NetworkingService;
 import com.hazelcast.nio.tcp.TcpIpNetworkingService;
@@ -98,6 +99,8 @@ public class NetworkingImbalancePlugin extends DiagnosticsPlugin {
         render(writer, networking.getOutputThreads());
         writer.endSection();
 
+        renderBalancerDecisions(writer);
+
         writer.endSection();
     }
 
@@ -142,6 +145,19 @@ public class NetworkingImbalancePlugin extends DiagnosticsPlugin {
         }
     }
 
+    private void renderBalancerDecisions(DiagnosticsLogWriter writer) {
+        IOBalancer ioBalancer = networking.getIOBalancer();
+        if (ioBalancer == null) {
+            return;
+        }
+
+        writer.startSection("BalancerDecisions");
+        for (String decision : ioBalancer.getDecisionLog()) {
+            writer.writeEntry(decision);
+        }
+        writer.endSection();
+    }
+
     private String toPercentage(long amount, long total) {
         final double percentage;
         if (amount == 0L) {
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.memory.impl;
+
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.internal.memory.impl.UnsafeUtil.UNSAFE;
+import static com.hazelcast.internal.memory.impl.UnsafeUtil.UNSAFE_AVAILABLE;
+import static com.hazelcast.util.Preconditions.checkPositive;
+
+/**
+ * {@link MemoryAllocator} which allocates blocks of native memory through
+ * {@link sun.misc.Unsafe#allocateMemory(long)} and bounds the total amount of
+ * allocated memory by a fixed capacity.
+ * <p>
+ * The allocator is thread-safe: the used memory counter is reserved with a CAS
+ * loop before the actual allocation takes place, so concurrent partition threads
+ * can never overshoot the configured capacity.
+ */
+public final class UnsafeMallocAllocator implements MemoryAllocator {
+
+    private final long capacity;
+    private final AtomicLong usedMemory = new AtomicLong();
+
+    public UnsafeMallocAllocator(long capacity) {
+        if (!UNSAFE_AVAILABLE) {
+            throw new IllegalStateException("sun.misc.Unsafe is not available, native memory cannot be allocated");
+        }
+        this.capacity = checkPositive(capacity, "capacity should be positive");
+    }
+
+    @Override
+    public long allocate(long size) {
+        reserve(size);
+        long address;
+        try {
+            address = UNSAFE.allocateMemory(size);
+        } catch (OutOfMemoryError e) {
+            usedMemory.addAndGet(-size);
+            throw new NativeOutOfMemoryError("Not enough contiguous memory available! Cannot allocate " + size
+                    + " bytes!", e);
+        }
+        UNSAFE.setMemory(address, size, (byte) 0);
+        return address;
+    }
+
+    @Override
+    public long reallocate(long address, long currentSize, long newSize) {
+        long diff = newSize - currentSize;
+        if (diff > 0) {
+            reserve(diff);
+        }
+        long newAddress;
+        try {
+            newAddress = UNSAFE.reallocateMemory(address, newSize);
+        } catch (OutOfMemoryError e) {
+            if (diff > 0) {
+                usedMemory.addAndGet(-diff);
+            }
+            throw new NativeOutOfMemoryError("Not enough contiguous memory available! Cannot reallocate " + newSize
+                    + " bytes!", e);
+        }
+        if (diff > 0) {
+            UNSAFE.setMemory(newAddress + currentSize, diff, (byte) 0);
+        } else {
+            usedMemory.addAndGet(diff);
+        }
+        return newAddress;
+    }
+
+    @Override
+    public void free(long address, long size) {
+        UNSAFE.freeMemory(address);
+        usedMemory.addAndGet(-size);
+    }
+
+    @Override
+    public void dispose() {
+        // blocks are owned and freed by their users
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    public long getUsedMemory() {
+        return usedMemory.get();
+    }
+
+    public long getFreeMemory() {
+        return capacity - usedMemory.get();
+    }
+
+    private void reserve(long size) {
+        for (; ; ) {
+            long used = usedMemory.get();
+            long newUsed = used + size;
+            if (newUsed > capacity) {
+                throw new NativeOutOfMemoryError("Not enough native memory available! Cannot allocate " + size
+                        + " bytes! Capacity: " + capacity + ", used: " + used);
+            }
+            if (usedMemory.compareAndSet(used, newUsed)) {
+                return;
+            }
+        }
+    }
+}
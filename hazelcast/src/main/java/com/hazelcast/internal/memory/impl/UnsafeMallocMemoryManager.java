@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.memory.impl;
+
+import com.hazelcast.internal.memory.MemoryManager;
+
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+
+/**
+ * {@link MemoryManager} for native memory which combines an {@link UnsafeMallocAllocator}
+ * with the default global memory accessor, and exposes the usage statistics of the allocator.
+ */
+public final class UnsafeMallocMemoryManager extends MemoryManagerBean {
+
+    private final UnsafeMallocAllocator allocator;
+
+    public UnsafeMallocMemoryManager(long capacity) {
+        this(new UnsafeMallocAllocator(capacity));
+    }
+
+    private UnsafeMallocMemoryManager(UnsafeMallocAllocator allocator) {
+        super(allocator, MEM);
+        this.allocator = allocator;
+    }
+
+    public long getCapacity() {
+        return allocator.getCapacity();
+    }
+
+    public long getUsedMemory() {
+        return allocator.getUsedMemory();
+    }
+
+    public long getFreeMemory() {
+        return allocator.getFreeMemory();
+    }
+}
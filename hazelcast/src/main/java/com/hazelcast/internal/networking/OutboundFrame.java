@@ -54,4 +54,11 @@ public interface OutboundFrame {
      * @return The frame length.
      */
     int getFrameLength();
+
+    /**
+     * Called when this frame is discarded without being written, e.g. because
+     * the channel it was written to has been closed.
+     */
+    default void onDiscard() {
+    }
 }
@@ -51,4 +51,20 @@ public interface MigratablePipeline {
      * @return total load recorded by this pipeline
      */
     long load();
+
+    /**
+     * Get the total time in nanoseconds this pipeline has spent processing on its {@link NioThread}. Unlike the
+     * {@link #load()}, it also reflects how expensive the processing is, e.g. because of large payloads.
+     *
+     * @return total processing time in nanoseconds
+     */
+    long processTimeNanos();
+
+    /**
+     * Get the number of bytes that are waiting to be processed by this pipeline. A growing backlog can indicate
+     * that the {@link NioThread} owning this pipeline can't keep up.
+     *
+     * @return the number of pending bytes
+     */
+    long bytesPending();
 }
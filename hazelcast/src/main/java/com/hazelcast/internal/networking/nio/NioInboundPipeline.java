@@ -37,6 +37,7 @@ import static com.hazelcast.util.Preconditions.checkNotNull;
 import static com.hazelcast.util.collection.ArrayUtils.append;
 import static com.hazelcast.util.collection.ArrayUtils.replaceFirst;
 import static java.lang.System.currentTimeMillis;
+import static java.lang.System.nanoTime;
 import static java.lang.Thread.currentThread;
 import static java.nio.channels.SelectionKey.OP_READ;
 
@@ -94,6 +95,12 @@ public final class NioInboundPipeline extends NioPipeline implements InboundPipe
         }
     }
 
+    @Override
+    public long bytesPending() {
+        // everything that is received is processed immediately, so there is no backlog to report
+        return 0;
+    }
+
     @Probe(name = "idleTimeMs")
     private long idleTimeMs() {
         return Math.max(currentTimeMillis() - lastReadTime, 0);
@@ -105,6 +112,15 @@ public final class NioInboundPipeline extends NioPipeline implements InboundPipe
 
     @Override
     void process() throws Exception {
+        long startNanos = nanoTime();
+        try {
+            process0();
+        } finally {
+            processTimeNanos.inc(nanoTime() - startNanos);
+        }
+    }
+
+    private void process0() throws Exception {
         processCount.inc();
         // we are going to set the timestamp even if the channel is going to fail reading. In that case
         // the connection is going to be closed anyway.
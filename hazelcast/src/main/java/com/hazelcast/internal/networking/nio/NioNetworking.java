@@ -29,6 +29,7 @@ import com.hazelcast.internal.networking.InboundHandler;
 import com.hazelcast.internal.networking.Networking;
 import com.hazelcast.internal.networking.OutboundHandler;
 import com.hazelcast.internal.networking.nio.iobalancer.IOBalancer;
+import com.hazelcast.internal.util.ThreadAffinity;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.LoggingService;
 import com.hazelcast.util.concurrent.BackoffIdleStrategy;
@@ -51,6 +52,7 @@ import static com.hazelcast.util.ThreadUtil.createThreadPoolName;
 import static com.hazelcast.util.concurrent.BackoffIdleStrategy.createBackoffIdleStrategy;
 import static java.util.Collections.newSetFromMap;
 import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.logging.Level.FINE;
 
@@ -92,11 +94,14 @@ public final class NioNetworking implements Networking {
     private final int balancerIntervalSeconds;
     private final int inputThreadCount;
     private final int outputThreadCount;
+    private final ThreadAffinity inputThreadAffinity;
+    private final ThreadAffinity outputThreadAffinity;
     private final Set<NioChannel> channels = newSetFromMap(new ConcurrentHashMap<NioChannel, Boolean>());
     private final ChannelCloseListener channelCloseListener = new ChannelCloseListenerImpl();
     private final SelectorMode selectorMode;
     private final BackoffIdleStrategy idleStrategy;
     private final boolean selectorWorkaroundTest;
+    private final long writeCoalescingDelayNanos;
     private volatile ExecutorService closeListenerExecutor;
     private volatile IOBalancer ioBalancer;
     private volatile NioThread[] inputThreads;
@@ -118,14 +123,18 @@ public final class NioNetworking implements Networking {
         this.threadNamePrefix = ctx.threadNamePrefix;
         this.metricsRegistry = ctx.metricsRegistry;
         this.loggingService = ctx.loggingService;
-        this.inputThreadCount = ctx.inputThreadCount;
-        this.outputThreadCount = ctx.outputThreadCount;
+        this.inputThreadAffinity = ctx.inputThreadAffinity;
+        this.outputThreadAffinity = ctx.outputThreadAffinity;
+        this.inputThreadCount = inputThreadAffinity.isEnabled() ? inputThreadAffinity.getThreadCount() : ctx.inputThreadCount;
+        this.outputThreadCount = outputThreadAffinity.isEnabled()
+                ? outputThreadAffinity.getThreadCount() : ctx.outputThreadCount;
         this.logger = loggingService.getLogger(NioNetworking.class);
         this.errorHandler = ctx.errorHandler;
         this.balancerIntervalSeconds = ctx.balancerIntervalSeconds;
         this.selectorMode = ctx.selectorMode;
         this.selectorWorkaroundTest = ctx.selectorWorkaroundTest;
         this.idleStrategy = ctx.idleStrategy;
+        this.writeCoalescingDelayNanos = MICROSECONDS.toNanos(ctx.writeCoalescingDelayMicros);
         metricsRegistry.scanAndRegister(this, "tcp");
     }
 
@@ -157,6 +166,10 @@ public final class NioNetworking implements Networking {
         }
 
         logger.log(selectorMode != SELECT ? Level.INFO : FINE, "IO threads selector mode is " + selectorMode);
+        if (inputThreadAffinity.isEnabled() || outputThreadAffinity.isEnabled()) {
+            logger.info("IO input threads affinity is " + inputThreadAffinity
+                    + ", IO output threads affinity is " + outputThreadAffinity);
+        }
 
         if (metricsRegistryScheduled.compareAndSet(false, true) && metricsRegistry.minimumLevel().isEnabled(ProbeLevel.DEBUG)) {
             metricsRegistry.scheduleAtFixedRate(new PublishAllTask(), 1, SECONDS, ProbeLevel.INFO);
@@ -181,6 +194,7 @@ public final class NioNetworking implements Networking {
                     idleStrategy);
             thread.id = i;
             thread.setSelectorWorkaroundTest(selectorWorkaroundTest);
+            thread.setAllowedCpus(inputThreadAffinity.getAllowedCpus(i));
             inThreads[i] = thread;
             metricsRegistry.scanAndRegister(thread, "tcp.inputThread[" + thread.getName() + "]");
             thread.start();
@@ -197,6 +211,7 @@ public final class NioNetworking implements Networking {
                     idleStrategy);
             thread.id = i;
             thread.setSelectorWorkaroundTest(selectorWorkaroundTest);
+            thread.setAllowedCpus(outputThreadAffinity.getAllowedCpus(i));
             outThreads[i] = thread;
             metricsRegistry.scanAndRegister(thread, "tcp.outputThread[" + thread.getName() + "]");
             thread.start();
@@ -272,7 +287,8 @@ public final class NioNetworking implements Networking {
                 threads[index],
                 errorHandler,
                 loggingService.getLogger(NioOutboundPipeline.class),
-                ioBalancer);
+                ioBalancer,
+                writeCoalescingDelayNanos);
     }
 
     private NioInboundPipeline newInboundPipeline(NioChannel channel) {
@@ -371,7 +387,10 @@ public final class NioNetworking implements Networking {
         private ChannelErrorHandler errorHandler;
         private int inputThreadCount = 1;
         private int outputThreadCount = 1;
+        private ThreadAffinity inputThreadAffinity = ThreadAffinity.DISABLED;
+        private ThreadAffinity outputThreadAffinity = ThreadAffinity.DISABLED;
         private int balancerIntervalSeconds;
+        private int writeCoalescingDelayMicros;
         // The selector mode determines how IO threads will block (or not) on the Selector:
         //  select:         this is the default mode, uses Selector.select(long timeout)
         //  selectnow:      use Selector.selectNow()
@@ -430,9 +449,24 @@ public final class NioNetworking implements Networking {
             return this;
         }
 
+        public Context inputThreadAffinity(ThreadAffinity inputThreadAffinity) {
+            this.inputThreadAffinity = inputThreadAffinity;
+            return this;
+        }
+
+        public Context outputThreadAffinity(ThreadAffinity outputThreadAffinity) {
+            this.outputThreadAffinity = outputThreadAffinity;
+            return this;
+        }
+
         public Context balancerIntervalSeconds(int balancerIntervalSeconds) {
             this.balancerIntervalSeconds = balancerIntervalSeconds;
             return this;
         }
+
+        public Context writeCoalescingDelayMicros(int writeCoalescingDelayMicros) {
+            this.writeCoalescingDelayMicros = writeCoalescingDelayMicros;
+            return this;
+        }
     }
 }
@@ -44,6 +44,7 @@ import static com.hazelcast.util.collection.ArrayUtils.append;
 import static com.hazelcast.util.collection.ArrayUtils.replaceFirst;
 import static java.lang.Math.max;
 import static java.lang.System.currentTimeMillis;
+import static java.lang.System.nanoTime;
 import static java.lang.Thread.currentThread;
 import static java.nio.channels.SelectionKey.OP_WRITE;
 
@@ -60,6 +61,8 @@ public final class NioOutboundPipeline
 
     private OutboundHandler[] handlers = new OutboundHandler[0];
     private ByteBuffer sendBuffer;
+    // set instead of the sendBuffer when the last handler produces buffers for a gathering write
+    private ByteBuffer[] sendBuffers;
 
     private final AtomicBoolean scheduled = new AtomicBoolean(false);
     @Probe(name = "bytesWritten")
@@ -68,9 +71,17 @@ public final class NioOutboundPipeline
     private final SwCounter normalFramesWritten = newSwCounter();
     @Probe(name = "priorityFramesWritten")
     private final SwCounter priorityFramesWritten = newSwCounter();
+    @Probe(name = "socketWrites")
+    private final SwCounter socketWrites = newSwCounter();
+    // the maximum time small frames are kept in the sendBuffer to be written together with the next ones
+    private final long writeCoalescingDelayNanos;
 
     private volatile long lastWriteTime;
 
+    private long lastFlushNanos;
+    // the time the bytes in the sendBuffer were held back for the first time; 0 if they are not held back
+    private long coalescingStartNanos;
+
     private long bytesWrittenLastPublish;
     private long normalFramesWrittenLastPublish;
     private long priorityFramesWrittenLastPublish;
@@ -81,7 +92,17 @@ public final class NioOutboundPipeline
                         ChannelErrorHandler errorHandler,
                         ILogger logger,
                         IOBalancer balancer) {
+        this(channel, owner, errorHandler, logger, balancer, 0);
+    }
+
+    NioOutboundPipeline(NioChannel channel,
+                        NioThread owner,
+                        ChannelErrorHandler errorHandler,
+                        ILogger logger,
+                        IOBalancer balancer,
+                        long writeCoalescingDelayNanos) {
         super(channel, owner, errorHandler, OP_WRITE, logger, balancer);
+        this.writeCoalescingDelayNanos = writeCoalescingDelayNanos;
     }
 
     @Override
@@ -107,6 +128,7 @@ public final class NioOutboundPipeline
     }
 
     @Probe(name = "writeQueuePendingBytes", level = DEBUG)
+    @Override
     public long bytesPending() {
         return bytesPending(writeQueue);
     }
@@ -129,6 +151,12 @@ public final class NioOutboundPipeline
         return max(currentTimeMillis() - lastWriteTime, 0);
     }
 
+    @Probe(level = DEBUG)
+    private double framesPerWrite() {
+        long writes = socketWrites.get();
+        return writes == 0 ? 0 : (double) (normalFramesWritten.get() + priorityFramesWritten.get()) / writes;
+    }
+
     @Probe(level = DEBUG)
     private long isScheduled() {
         return scheduled.get() ? 1 : 0;
@@ -183,8 +211,17 @@ public final class NioOutboundPipeline
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public void process() throws Exception {
+        long startNanos = nanoTime();
+        try {
+            process0();
+        } finally {
+            processTimeNanos.inc(nanoTime() - startNanos);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void process0() throws Exception {
         processCount.inc();
 
         OutboundHandler[] localHandlers = handlers;
@@ -204,9 +241,15 @@ public final class NioOutboundPipeline
             }
         }
 
+        if (pipelineStatus == CLEAN && holdBackSendBuffer()) {
+            // the pipeline stays scheduled, so frames offered in the meantime don't cause a wakeup and are
+            // encoded when the owner processes the pipeline again at the end of the coalescing delay.
+            return;
+        }
+
         flushToSocket();
 
-        if (sendBuffer.remaining() > 0) {
+        if (hasRemaining()) {
             pipelineStatus = DIRTY;
         }
 
@@ -268,16 +311,75 @@ public final class NioOutboundPipeline
         owner().addTask(this);
     }
 
+    /**
+     * Checks if writing the sendBuffer should be delayed so that it gets written together with frames that
+     * are offered shortly after. This is only done for a small amount of pending bytes and only if the
+     * previous write was recent; an idle connection writes immediately so that the latency isn't affected.
+     * <p>
+     * The bytes are held back for at most the writeCoalescingDelayNanos, the owner is asked to process this
+     * pipeline again once the delay has passed.
+     *
+     * @return true if the sendBuffer should not be written yet.
+     */
+    private boolean holdBackSendBuffer() {
+        if (writeCoalescingDelayNanos == 0 || sendBuffer == null) {
+            return false;
+        }
+
+        int pending = sendBuffer.remaining();
+        if (pending == 0 || pending >= sendBuffer.capacity() / 2) {
+            return false;
+        }
+
+        long now = nanoTime();
+        if (coalescingStartNanos == 0) {
+            if (now - lastFlushNanos > writeCoalescingDelayNanos) {
+                // the connection has been idle
+                return false;
+            }
+            coalescingStartNanos = now;
+            owner().addDelayedTask(this, now + writeCoalescingDelayNanos);
+            return true;
+        }
+        return now - coalescingStartNanos < writeCoalescingDelayNanos;
+    }
+
     private void flushToSocket() throws IOException {
         lastWriteTime = currentTimeMillis();
-        int written = socketChannel.write(sendBuffer);
+        coalescingStartNanos = 0;
+        long written = sendBuffers == null ? socketChannel.write(sendBuffer) : socketChannel.write(sendBuffers);
+        if (written > 0) {
+            socketWrites.inc();
+            if (writeCoalescingDelayNanos > 0) {
+                lastFlushNanos = nanoTime();
+            }
+        }
         bytesWritten.inc(written);
         //System.out.println(channel+" bytes written:"+written);
     }
 
+    private boolean hasRemaining() {
+        if (sendBuffers == null) {
+            return sendBuffer.remaining() > 0;
+        }
+
+        for (ByteBuffer buffer : sendBuffers) {
+            if (buffer.hasRemaining()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     void drainWriteQueues() {
-        writeQueue.clear();
-        priorityWriteQueue.clear();
+        discardFrames(writeQueue);
+        discardFrames(priorityWriteQueue);
+    }
+
+    private static void discardFrames(Queue<OutboundFrame> queue) {
+        for (OutboundFrame frame = queue.poll(); frame != null; frame = queue.poll()) {
+            frame.onDiscard();
+        }
     }
 
     @Override
@@ -342,7 +444,14 @@ public final class NioOutboundPipeline
 
     private void updatePipeline(OutboundHandler[] newHandlers) {
         this.handlers = newHandlers;
-        this.sendBuffer = newHandlers.length == 0 ? null : (ByteBuffer) newHandlers[newHandlers.length - 1].dst();
+        Object dst = newHandlers.length == 0 ? null : newHandlers[newHandlers.length - 1].dst();
+        if (dst instanceof ByteBuffer[]) {
+            this.sendBuffer = null;
+            this.sendBuffers = (ByteBuffer[]) dst;
+        } else {
+            this.sendBuffer = (ByteBuffer) dst;
+            this.sendBuffers = null;
+        }
 
         OutboundHandler prev = null;
         for (OutboundHandler handler : handlers) {
@@ -352,6 +461,9 @@ public final class NioOutboundPipeline
                 Object src = prev.dst();
                 if (src instanceof ByteBuffer) {
                     handler.src(src);
+                } else if (src instanceof ByteBuffer[]) {
+                    throw new IllegalArgumentException("handler " + prev + " writes directly to the socket, "
+                            + "it must be the last handler in the pipeline");
                 }
             }
             prev = handler;
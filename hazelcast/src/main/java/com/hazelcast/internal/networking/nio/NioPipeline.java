@@ -46,6 +46,9 @@ public abstract class NioPipeline implements MigratablePipeline, Runnable {
     // the number of time the NioPipeline.process() method has been called.
     @Probe
     protected final SwCounter processCount = newSwCounter();
+    // the total time spent in the NioPipeline.process() method.
+    @Probe(level = DEBUG)
+    protected final SwCounter processTimeNanos = newSwCounter();
     protected final ILogger logger;
     protected final NioChannel channel;
     protected final SocketChannel socketChannel;
@@ -110,6 +113,11 @@ public abstract class NioPipeline implements MigratablePipeline, Runnable {
         return owner;
     }
 
+    @Override
+    public long processTimeNanos() {
+        return processTimeNanos.get();
+    }
+
     void start() {
         addTaskAndWakeup(new NioPipelineTask(this) {
             @Override
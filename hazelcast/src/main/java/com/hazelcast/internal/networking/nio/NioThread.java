@@ -19,6 +19,7 @@ package com.hazelcast.internal.networking.nio;
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.metrics.ProbeLevel;
 import com.hazelcast.internal.networking.ChannelErrorHandler;
+import com.hazelcast.internal.util.ThreadAffinity;
 import com.hazelcast.internal.util.counters.SwCounter;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.spi.impl.operationexecutor.OperationHostileThread;
@@ -30,10 +31,13 @@ import java.nio.channels.ClosedChannelException;
 import java.nio.channels.SelectableChannel;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
+import java.util.BitSet;
 import java.util.Iterator;
+import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.Random;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.hazelcast.internal.metrics.ProbeLevel.INFO;
 import static com.hazelcast.internal.networking.nio.SelectorMode.SELECT_NOW;
@@ -41,7 +45,11 @@ import static com.hazelcast.internal.networking.nio.SelectorOptimizer.newSelecto
 import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
 import static com.hazelcast.util.EmptyStatement.ignore;
 import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.lang.System.currentTimeMillis;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 public class NioThread extends Thread implements OperationHostileThread {
 
@@ -75,6 +83,8 @@ public class NioThread extends Thread implements OperationHostileThread {
 
     @Probe(name = "taskQueueSize")
     private final Queue<Runnable> taskQueue = new ConcurrentLinkedQueue<Runnable>();
+    // ordered by the deadline; only accessed by this thread
+    private final Queue<DelayedTask> delayedTasks = new PriorityQueue<DelayedTask>();
     @Probe
     private final SwCounter eventCount = newSwCounter();
     @Probe
@@ -87,6 +97,9 @@ public class NioThread extends Thread implements OperationHostileThread {
 
     private final ILogger logger;
 
+    // true while this thread is (about to be) blocked on the selector; only then a wakeup is needed
+    private final AtomicBoolean wakeupNeeded = new AtomicBoolean();
+
     private Selector selector;
 
     private final ChannelErrorHandler errorHandler;
@@ -103,6 +116,9 @@ public class NioThread extends Thread implements OperationHostileThread {
     // set to true while testing
     private boolean selectorWorkaroundTest;
 
+    // the CPUs this thread is pinned to; null if not pinned
+    private BitSet allowedCpus;
+
     public NioThread(String threadName,
                      ILogger logger,
                      ChannelErrorHandler errorHandler) {
@@ -136,6 +152,24 @@ public class NioThread extends Thread implements OperationHostileThread {
         this.selectorWorkaroundTest = selectorWorkaroundTest;
     }
 
+    /**
+     * Sets the CPUs this thread is pinned to when it starts.
+     *
+     * @param allowedCpus the allowed CPUs; null if the thread should not be pinned.
+     */
+    void setAllowedCpus(BitSet allowedCpus) {
+        this.allowedCpus = allowedCpus;
+    }
+
+    /**
+     * Checks if this thread is pinned to CPUs.
+     *
+     * @return true if pinned, false otherwise.
+     */
+    public boolean isPinned() {
+        return allowedCpus != null;
+    }
+
     public long bytesTransceived() {
         return bytesTransceived;
     }
@@ -201,17 +235,36 @@ public class NioThread extends Thread implements OperationHostileThread {
     /**
      * Adds a task to be executed by the NioThread and wakes up the selector so that it will
      * eventually pick up the task.
+     * <p>
+     * The selector is only woken up if the NioThread is blocked on it and no other thread woke
+     * it up already. So there is at most one (expensive) wakeup per select, no matter how many
+     * tasks are added while the NioThread is busy.
      *
      * @param task the task to add.
      * @throws NullPointerException if task is null
      */
     public void addTaskAndWakeup(Runnable task) {
         taskQueue.add(task);
-        if (selectMode != SELECT_NOW) {
+        if (selectMode != SELECT_NOW && wakeupNeeded.compareAndSet(true, false)) {
             selector.wakeup();
         }
     }
 
+    /**
+     * Adds a task to be executed by this NioThread once the given deadline has
+     * passed. The selector doesn't block beyond the deadline, but since it has
+     * a millisecond resolution, the task may run up to a millisecond late.
+     * <p>
+     * This method should only be called by this NioThread.
+     *
+     * @param task          the task to add
+     * @param deadlineNanos the {@link System#nanoTime()} the task should be executed at
+     */
+    void addDelayedTask(Runnable task, long deadlineNanos) {
+        assert currentThread() == this : "addDelayedTask can only be called by the NioThread itself";
+        delayedTasks.add(new DelayedTask(task, deadlineNanos));
+    }
+
     @Override
     public void run() {
         // This outer loop is a bit complex but it takes care of a lot of stuff:
@@ -221,6 +274,10 @@ public class NioThread extends Thread implements OperationHostileThread {
         //
         // The idea about this approach is that the runSelectNowLoop and runSelectLoop are
         // as clean as possible and don't contain any logic that isn't happening on the happy-path.
+        if (allowedCpus != null && !ThreadAffinity.pinCurrentThread(allowedCpus)) {
+            logger.warning(getName() + " could not be pinned to CPUs " + allowedCpus);
+        }
+
         try {
             for (; ; ) {
                 try {
@@ -275,7 +332,7 @@ public class NioThread extends Thread implements OperationHostileThread {
         while (!stop) {
             processTaskQueue();
 
-            int selectedKeys = selector.select(SELECT_WAIT_TIME_MILLIS);
+            int selectedKeys = select();
             if (selectedKeys > 0) {
                 processSelectionKeys();
             }
@@ -288,11 +345,12 @@ public class NioThread extends Thread implements OperationHostileThread {
             processTaskQueue();
 
             long before = currentTimeMillis();
-            int selectedKeys = selector.select(SELECT_WAIT_TIME_MILLIS);
+            int selectedKeys = select();
             if (selectedKeys > 0) {
                 idleCount = 0;
                 processSelectionKeys();
-            } else if (!taskQueue.isEmpty()) {
+            } else if (!taskQueue.isEmpty() || !delayedTasks.isEmpty()) {
+                // woken up by a task or by the deadline of a delayed task
                 idleCount = 0;
             } else {
                 // no keys were selected, not interrupted by wakeup therefore we hit an issue with JDK/network stack
@@ -307,6 +365,34 @@ public class NioThread extends Thread implements OperationHostileThread {
         }
     }
 
+    private int select() throws IOException {
+        wakeupNeeded.set(true);
+        try {
+            // a task added before the flag was set didn't wake up the selector, so we must not block
+            long timeoutMillis = taskQueue.isEmpty() ? selectTimeoutMillis() : 0;
+            return timeoutMillis == 0 ? selector.selectNow() : selector.select(timeoutMillis);
+        } finally {
+            wakeupNeeded.set(false);
+        }
+    }
+
+    /**
+     * Returns the time the selector can block until the nearest deadline of
+     * the delayed tasks, rounded up to whole milliseconds; 0 if the deadline
+     * has passed.
+     */
+    private long selectTimeoutMillis() {
+        DelayedTask task = delayedTasks.peek();
+        if (task == null) {
+            return SELECT_WAIT_TIME_MILLIS;
+        }
+        long delayNanos = task.deadlineNanos - nanoTime();
+        if (delayNanos <= 0) {
+            return 0;
+        }
+        return min(NANOSECONDS.toMillis(delayNanos + MILLISECONDS.toNanos(1) - 1), SELECT_WAIT_TIME_MILLIS);
+    }
+
     private boolean selectorBugDetected(int idleCount) {
         return idleCount > SELECT_IDLE_COUNT_THRESHOLD
                 || (selectorWorkaroundTest && RANDOM.nextInt(TEST_SELECTOR_BUG_PROBABILITY) == 1);
@@ -332,7 +418,7 @@ public class NioThread extends Thread implements OperationHostileThread {
     }
 
     private boolean processTaskQueue() {
-        boolean tasksProcessed = false;
+        boolean tasksProcessed = processDelayedTasks();
         while (!stop) {
             Runnable task = taskQueue.poll();
             if (task == null) {
@@ -345,6 +431,26 @@ public class NioThread extends Thread implements OperationHostileThread {
         return tasksProcessed;
     }
 
+    private boolean processDelayedTasks() {
+        if (delayedTasks.isEmpty()) {
+            return false;
+        }
+
+        boolean tasksProcessed = false;
+        long now = nanoTime();
+        while (!stop) {
+            DelayedTask task = delayedTasks.peek();
+            if (task == null || task.deadlineNanos - now > 0) {
+                break;
+            }
+            delayedTasks.poll();
+            task.task.run();
+            completedTaskCount.inc();
+            tasksProcessed = true;
+        }
+        return tasksProcessed;
+    }
+
     private void processSelectionKeys() {
         lastSelectTimeMs = currentTimeMillis();
         Iterator<SelectionKey> it = selector.selectedKeys().iterator();
@@ -425,4 +531,21 @@ public class NioThread extends Thread implements OperationHostileThread {
     public String toString() {
         return getName();
     }
+
+    private static final class DelayedTask implements Comparable<DelayedTask> {
+
+        private final Runnable task;
+        private final long deadlineNanos;
+
+        DelayedTask(Runnable task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        @Override
+        public int compareTo(DelayedTask that) {
+            long diff = deadlineNanos - that.deadlineNanos;
+            return diff < 0 ? -1 : (diff > 0 ? 1 : 0);
+        }
+    }
 }
@@ -28,6 +28,10 @@ import com.hazelcast.logging.LoggingService;
 import com.hazelcast.nio.EndpointManager;
 import com.hazelcast.spi.properties.GroupProperty;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 
@@ -35,6 +39,8 @@ import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
 import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
 import static com.hazelcast.spi.properties.GroupProperty.IO_BALANCER_INTERVAL_SECONDS;
 import static com.hazelcast.spi.properties.GroupProperty.IO_THREAD_COUNT;
+import static com.hazelcast.util.StringUtil.timeToString;
+import static java.lang.System.currentTimeMillis;
 
 /**
  * It attempts to detect and fix a selector imbalance problem.
@@ -54,6 +60,9 @@ import static com.hazelcast.spi.properties.GroupProperty.IO_THREAD_COUNT;
  *
  * Measuring interval can be customized via {@link GroupProperty#IO_BALANCER_INTERVAL_SECONDS}
  *
+ * The last decisions of the balancer, together with the load that caused them,
+ * are kept in a decision log. See {@link #getDecisionLog()}.
+ *
  * It doesn't leverage {@link com.hazelcast.nio.ConnectionListener} capability
  * provided by {@link EndpointManager} to observe connections
  * as it has to be notified right after a physical TCP connection is created whilst
@@ -62,6 +71,7 @@ import static com.hazelcast.spi.properties.GroupProperty.IO_THREAD_COUNT;
  */
 public class IOBalancer {
     private static final String PROP_MONKEY_BALANCER = "hazelcast.io.balancer.monkey";
+    private static final int DECISION_LOG_CAPACITY = 32;
     private final ILogger logger;
 
     private final int balancerIntervalSeconds;
@@ -71,6 +81,7 @@ public class IOBalancer {
     private final LoadTracker outLoadTracker;
     private final String hzName;
     private final BlockingQueue<Runnable> workQueue = new LinkedBlockingQueue<Runnable>();
+    private final Deque<String> decisionLog = new ArrayDeque<String>(DECISION_LOG_CAPACITY);
     private volatile boolean enabled;
     private IOBalancerThread ioBalancerThread;
 
@@ -78,6 +89,14 @@ public class IOBalancer {
     @Probe
     private final SwCounter imbalanceDetectedCount = newSwCounter();
 
+    // only IOBalancerThread will write to this field.
+    @Probe
+    private final SwCounter migrationScheduledCount = newSwCounter();
+
+    // only IOBalancerThread will write to this field.
+    @Probe
+    private final SwCounter migrationCandidateNotFoundCount = newSwCounter();
+
     // multiple threads can update this field.
     @Probe
     private final MwCounter migrationCompletedCount = newMwCounter();
@@ -142,6 +161,28 @@ public class IOBalancer {
         }
     }
 
+    /**
+     * Returns the last decisions of the balancer, oldest first. Each decision
+     * contains the load of the threads and of the pipeline involved.
+     *
+     * @return a copy of the decision log
+     */
+    public List<String> getDecisionLog() {
+        synchronized (decisionLog) {
+            return new ArrayList<String>(decisionLog);
+        }
+    }
+
+    @Probe
+    private double inboundMinMaxLoadRatio() {
+        return inLoadTracker.minMaxLoadRatio();
+    }
+
+    @Probe
+    private double outboundMinMaxLoadRatio() {
+        return outLoadTracker.minMaxLoadRatio();
+    }
+
     void rebalance() {
         scheduleMigrationIfNeeded(inLoadTracker);
         scheduleMigrationIfNeeded(outLoadTracker);
@@ -151,7 +192,7 @@ public class IOBalancer {
         LoadImbalance loadImbalance = loadTracker.updateImbalance();
         if (strategy.imbalanceDetected(loadImbalance)) {
             imbalanceDetectedCount.inc();
-            tryMigrate(loadImbalance);
+            tryMigrate(loadTracker, loadImbalance);
         } else {
             if (logger.isFinestEnabled()) {
                 long min = loadImbalance.minimumLoad;
@@ -190,6 +231,12 @@ public class IOBalancer {
             return false;
         }
 
+        if (isPinned(inputThreads) || isPinned(outputThreads)) {
+            logger.info("I/O Balancer is disabled as the I/O threads are pinned to CPUs. Moving a channel to another"
+                    + " I/O thread would move it to other CPUs.");
+            return false;
+        }
+
         if (logger.isFinestEnabled()) {
             logger.finest("I/O Balancer is enabled. Scanning every " + balancerIntervalSeconds + " seconds for imbalances.");
         }
@@ -197,20 +244,45 @@ public class IOBalancer {
         return true;
     }
 
-    private void tryMigrate(LoadImbalance loadImbalance) {
+    private static boolean isPinned(NioThread[] threads) {
+        for (NioThread thread : threads) {
+            if (thread.isPinned()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void tryMigrate(LoadTracker loadTracker, LoadImbalance loadImbalance) {
+        NioThread srcOwner = loadImbalance.srcOwner;
+        NioThread dstOwner = loadImbalance.dstOwner;
+        String imbalance = srcOwner + " (load=" + loadImbalance.maximumLoad + ") and "
+                + dstOwner + " (load=" + loadImbalance.minimumLoad + ")";
+
         MigratablePipeline pipeline = strategy.findPipelineToMigrate(loadImbalance);
         if (pipeline == null) {
-            logger.finest("I/O imbalance is detected, but no suitable migration candidate is found.");
+            migrationCandidateNotFoundCount.inc();
+            logDecision("Imbalance between " + imbalance + " detected, but no suitable migration candidate is found.");
             return;
         }
 
-        NioThread dstOwner = loadImbalance.dstOwner;
+        migrationScheduledCount.inc();
+        logDecision("Imbalance between " + imbalance + " detected, scheduling migration of pipeline "
+                + pipeline + " (" + loadTracker.describeLoad(pipeline) + ")");
+        pipeline.requestMigration(dstOwner);
+    }
+
+    private void logDecision(String decision) {
         if (logger.isFinestEnabled()) {
-            NioThread srcOwner = loadImbalance.srcOwner;
-            logger.finest("Scheduling migration of pipeline " + pipeline
-                    + " from " + srcOwner + " to " + dstOwner);
+            logger.finest(decision);
+        }
+
+        synchronized (decisionLog) {
+            if (decisionLog.size() == DECISION_LOG_CAPACITY) {
+                decisionLog.removeFirst();
+            }
+            decisionLog.addLast(timeToString(currentTimeMillis()) + " " + decision);
         }
-        pipeline.requestMigration(dstOwner);
     }
 
     public void signalMigrationComplete() {
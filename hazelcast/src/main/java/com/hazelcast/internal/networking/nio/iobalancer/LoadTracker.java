@@ -31,11 +31,28 @@ import static com.hazelcast.util.StringUtil.LINE_SEPARATOR;
 /**
  * Tracks the load of of NioThread(s) and creates a mapping between NioThread -> NioPipeline.
  * <p>
+ * The load of a pipeline is not just its {@link MigratablePipeline#load()}: a pipeline moving
+ * a few large payloads can keep its NioThread busy while its load looks low. So the share of
+ * the pipeline in the total {@link MigratablePipeline#processTimeNanos() processing time} and in
+ * the total {@link MigratablePipeline#bytesPending() backlog} is added to it, expressed in the
+ * same unit as the load.
+ * <p>
  * This class is not thread-safe with the exception of
  * {@link #addPipeline(MigratablePipeline)}   and
  * {@link #removePipeline(MigratablePipeline)}
  */
 class LoadTracker {
+
+    /**
+     * The weight of the share of a pipeline in the total processing time.
+     */
+    static final double PROCESS_TIME_WEIGHT = 1;
+
+    /**
+     * The weight of the share of a pipeline in the total backlog.
+     */
+    static final double BYTES_PENDING_WEIGHT = 0.5;
+
     private final ILogger logger;
 
     //all known IO ioThreads. we assume no. of ioThreads is constant during a lifespan of a member
@@ -44,17 +61,28 @@ class LoadTracker {
 
     //load per pipeline since an instance started
     private final ItemCounter<MigratablePipeline> lastLoadCounter = new ItemCounter<MigratablePipeline>();
+    //processing time per pipeline since an instance started
+    private final ItemCounter<MigratablePipeline> lastProcessTimeCounter = new ItemCounter<MigratablePipeline>();
 
     //load per NioThread since last calculation
     private final ItemCounter<NioThread> ownerLoad = new ItemCounter<NioThread>();
-    //load per pipeline since last calculation
+    //weighted load per pipeline since last calculation
     private final ItemCounter<MigratablePipeline> pipelineLoadCount = new ItemCounter<MigratablePipeline>();
+    //load, as reported by the pipeline, since last calculation
+    private final ItemCounter<MigratablePipeline> pipelineRawLoadCount = new ItemCounter<MigratablePipeline>();
+    //processing time per pipeline since last calculation
+    private final ItemCounter<MigratablePipeline> pipelineProcessTime = new ItemCounter<MigratablePipeline>();
+    //backlog per pipeline at the last calculation
+    private final ItemCounter<MigratablePipeline> pipelineBytesPending = new ItemCounter<MigratablePipeline>();
 
     //contains all known pipelines
     private final Set<MigratablePipeline> pipelines = new HashSet<MigratablePipeline>();
 
     private final LoadImbalance imbalance;
 
+    //ratio between the load of the least and the most busy NioThread at the last calculation
+    private volatile double minMaxLoadRatio = 1;
+
     LoadTracker(NioThread[] ioThreads, ILogger logger) {
         this.logger = logger;
 
@@ -82,6 +110,32 @@ class LoadTracker {
         return imbalance;
     }
 
+    /**
+     * Returns the ratio between the load of the least busy and the most busy
+     * NioThread at the last calculation; 1 if the load is perfectly balanced.
+     * <p>
+     * This method is thread-safe.
+     *
+     * @return the ratio
+     */
+    double minMaxLoadRatio() {
+        return minMaxLoadRatio;
+    }
+
+    /**
+     * Describes the load of the pipeline at the last calculation, so the reason
+     * of a migration can be explained.
+     *
+     * @param pipeline the pipeline
+     * @return the description
+     */
+    String describeLoad(MigratablePipeline pipeline) {
+        return "load=" + pipelineLoadCount.get(pipeline)
+                + ", rawLoad=" + pipelineRawLoadCount.get(pipeline)
+                + ", processTimeNanos=" + pipelineProcessTime.get(pipeline)
+                + ", bytesPending=" + pipelineBytesPending.get(pipeline);
+    }
+
     // just for testing
     Set<MigratablePipeline> getPipelines() {
         return pipelines;
@@ -119,16 +173,60 @@ class LoadTracker {
                 imbalance.dstOwner = owner;
             }
         }
+
+        if (imbalance.srcOwner == null || imbalance.maximumLoad <= 0) {
+            minMaxLoadRatio = 1;
+        } else {
+            minMaxLoadRatio = (double) imbalance.minimumLoad / imbalance.maximumLoad;
+        }
     }
 
     private void updateNewWorkingImbalance() {
+        long totalRawLoad = 0;
+        long totalProcessTime = 0;
+        long totalBytesPending = 0;
         for (MigratablePipeline pipeline : pipelines) {
-            updatePipelineState(pipeline);
+            long rawLoad = getLoadSinceLastCheck(pipeline);
+            long processTime = getProcessTimeSinceLastCheck(pipeline);
+            long bytesPending = pipeline.bytesPending();
+            pipelineRawLoadCount.set(pipeline, rawLoad);
+            pipelineProcessTime.set(pipeline, processTime);
+            pipelineBytesPending.set(pipeline, bytesPending);
+            totalRawLoad += rawLoad;
+            totalProcessTime += processTime;
+            totalBytesPending += bytesPending;
+        }
+
+        for (MigratablePipeline pipeline : pipelines) {
+            long pipelineLoad = weightedLoad(pipeline, totalRawLoad, totalProcessTime, totalBytesPending);
+            updatePipelineState(pipeline, pipelineLoad);
         }
     }
 
-    private void updatePipelineState(MigratablePipeline pipeline) {
-        long pipelineLoad = getLoadSinceLastCheck(pipeline);
+    /**
+     * Adds the share of the pipeline in the total processing time and in the
+     * total backlog to its raw load. The shares are converted to the unit of
+     * the load using the total load, so a pipeline with 50% of the processing
+     * time gets 50% of the total load added to it.
+     */
+    private long weightedLoad(MigratablePipeline pipeline, long totalRawLoad, long totalProcessTime, long totalBytesPending) {
+        long rawLoad = pipelineRawLoadCount.get(pipeline);
+        if (totalRawLoad == 0) {
+            // nothing has been processed; there is no unit to convert the time and the backlog to
+            return rawLoad;
+        }
+
+        double load = rawLoad;
+        if (totalProcessTime > 0) {
+            load += PROCESS_TIME_WEIGHT * totalRawLoad * pipelineProcessTime.get(pipeline) / totalProcessTime;
+        }
+        if (totalBytesPending > 0) {
+            load += BYTES_PENDING_WEIGHT * totalRawLoad * pipelineBytesPending.get(pipeline) / totalBytesPending;
+        }
+        return (long) load;
+    }
+
+    private void updatePipelineState(MigratablePipeline pipeline, long pipelineLoad) {
         pipelineLoadCount.set(pipeline, pipelineLoad);
         NioThread owner = pipeline.owner();
         if (owner == null) {
@@ -145,8 +243,17 @@ class LoadTracker {
         return load - lastLoad;
     }
 
+    private long getProcessTimeSinceLastCheck(MigratablePipeline pipeline) {
+        long processTime = pipeline.processTimeNanos();
+        long lastProcessTime = lastProcessTimeCounter.getAndSet(pipeline, processTime);
+        return processTime - lastProcessTime;
+    }
+
     private void clearWorkingImbalance() {
         pipelineLoadCount.reset();
+        pipelineRawLoadCount.reset();
+        pipelineProcessTime.reset();
+        pipelineBytesPending.reset();
         ownerLoad.reset();
         for (Set<MigratablePipeline> pipelines : ownerToPipelines.values()) {
             pipelines.clear();
@@ -160,7 +267,11 @@ class LoadTracker {
     void removePipeline(MigratablePipeline pipeline) {
         pipelines.remove(pipeline);
         pipelineLoadCount.remove(pipeline);
+        pipelineRawLoadCount.remove(pipeline);
+        pipelineProcessTime.remove(pipeline);
+        pipelineBytesPending.remove(pipeline);
         lastLoadCounter.remove(pipeline);
+        lastProcessTimeCounter.remove(pipeline);
     }
 
     private void printDebugTable() {
@@ -222,10 +333,9 @@ class LoadTracker {
             StringBuilder sb) {
         Set<MigratablePipeline> pipelines = pipelinesPerOwner.get(minThread);
         for (MigratablePipeline pipeline : pipelines) {
-            Long loadPerPipeline = pipelineLoadCount.get(pipeline);
             sb.append(pipeline)
                     .append(":  ")
-                    .append(loadPerPipeline)
+                    .append(describeLoad(pipeline))
                     .append(LINE_SEPARATOR);
         }
         sb.append(LINE_SEPARATOR);
@@ -17,6 +17,7 @@
 package com.hazelcast.internal.serialization;
 
 import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.internal.serialization.impl.CompactSchema;
 import com.hazelcast.partition.PartitioningStrategy;
 import com.hazelcast.nio.BufferObjectDataInput;
 import com.hazelcast.nio.BufferObjectDataOutput;
@@ -67,6 +68,20 @@ public interface InternalSerializationService extends SerializationService, Disp
      */
     byte[] toBytes(Object obj, int leftPadding, boolean insertPartitionHash);
 
+    /**
+     * Writes the obj like {@link #toBytes(Object)}, but large serialized forms are not copied out of the pooled output
+     * buffer they are written to. The returned payload has to be {@link PooledPayload#release() released} to return the
+     * buffer to the pool.
+     */
+    PooledPayload toPooledBytes(Object obj);
+
+    /**
+     * Writes the obj like {@link #toBytes(Object, int, boolean)}, but large serialized forms are not copied out of the
+     * pooled output buffer they are written to. The returned payload has to be {@link PooledPayload#release() released}
+     * to return the buffer to the pool.
+     */
+    PooledPayload toPooledBytes(Object obj, int leftPadding, boolean insertPartitionHash);
+
     <B extends Data> B toData(Object obj, DataType type);
 
     <B extends Data> B toData(Object obj, DataType type, PartitioningStrategy strategy);
@@ -93,6 +108,13 @@ public interface InternalSerializationService extends SerializationService, Disp
 
     PortableContext getPortableContext();
 
+    /**
+     * @return the schema of the given object serialized in the compact format
+     * or {@code null} if the object is not a compact one or its schema is not
+     * known.
+     */
+    CompactSchema getCompactSchema(Data data);
+
     ClassLoader getClassLoader();
 
     /**
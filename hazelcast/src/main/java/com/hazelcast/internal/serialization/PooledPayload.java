@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.serialization;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import static java.util.concurrent.atomic.AtomicIntegerFieldUpdater.newUpdater;
+
+/**
+ * Serialized form of an object which is possibly still held by the pooled
+ * output buffer it was written to.
+ * <p>
+ * Large serialized forms are not copied out of the output buffers, the
+ * buffers are handed over to the payloads instead. A payload has a single
+ * holder at a time, e.g. the packet it is sent with, and its buffer is
+ * returned to the pool of the thread the buffer was taken from once the
+ * holder {@link #release() released} it. A payload which is never released
+ * is just garbage collected along with its buffer.
+ * <p>
+ * Client messages don't use pooled payloads: a client invocation keeps its
+ * message to resend it on retries, so a message buffer can't be recycled
+ * once the message is written to the connection.
+ * <p>
+ * The bytes of a payload may be followed by unused bytes of the buffer, so
+ * {@link #size()} must be used instead of the length of {@link #bytes()}.
+ *
+ * @see InternalSerializationService#toPooledBytes(Object)
+ */
+public final class PooledPayload {
+
+    private static final AtomicIntegerFieldUpdater<PooledPayload> RELEASED = newUpdater(PooledPayload.class, "released");
+
+    private final byte[] bytes;
+    private final int size;
+    private final Runnable recycler;
+
+    private volatile int released;
+
+    /**
+     * Creates a payload not backed by a pooled buffer.
+     */
+    public PooledPayload(byte[] bytes) {
+        this(bytes, bytes.length, null);
+    }
+
+    /**
+     * @param bytes    the buffer holding the payload
+     * @param size     the number of the bytes of the payload
+     * @param recycler returns the buffer to its pool once the payload is
+     *                 released, {@code null} if the
+     *                 buffer is not pooled
+     */
+    public PooledPayload(byte[] bytes, int size, Runnable recycler) {
+        this.bytes = bytes;
+        this.size = size;
+        this.recycler = recycler;
+    }
+
+    /**
+     * @return the buffer holding the payload, starting at index 0.
+     */
+    public byte[] bytes() {
+        return bytes;
+    }
+
+    /**
+     * @return the number of the bytes of the payload.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return {@code true} if the payload is backed by a pooled buffer,
+     * {@code false} otherwise.
+     */
+    public boolean isPooled() {
+        return recycler != null;
+    }
+
+    /**
+     * Releases this payload by its holder. The payload must not be used by
+     * the holder afterwards.
+     *
+     * @throws IllegalStateException if the payload is released already
+     */
+    public void release() {
+        if (!RELEASED.compareAndSet(this, 0, 1)) {
+            throw new IllegalStateException("Payload is released already");
+        }
+        if (recycler != null) {
+            recycler.run();
+        }
+    }
+
+}
@@ -44,6 +44,8 @@ public interface SerializationServiceBuilder {
 
     SerializationServiceBuilder addClassDefinition(ClassDefinition cd);
 
+    SerializationServiceBuilder addCompactClass(Class<?> compactClass);
+
     SerializationServiceBuilder setCheckClassDefErrors(boolean checkClassDefErrors);
 
     SerializationServiceBuilder setManagedContext(ManagedContext managedContext);
@@ -21,6 +21,7 @@ import com.hazelcast.core.ManagedContext;
 import com.hazelcast.partition.PartitioningStrategy;
 import com.hazelcast.internal.serialization.InputOutputFactory;
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.PooledPayload;
 import com.hazelcast.internal.serialization.impl.bufferpool.BufferPool;
 import com.hazelcast.internal.serialization.impl.bufferpool.BufferPoolFactory;
 import com.hazelcast.internal.serialization.impl.bufferpool.BufferPoolThreadLocal;
@@ -38,6 +39,7 @@ import com.hazelcast.nio.serialization.Portable;
 import com.hazelcast.nio.serialization.Serializer;
 
 import java.io.Externalizable;
+import java.io.IOException;
 import java.io.Serializable;
 import java.nio.ByteOrder;
 import java.util.IdentityHashMap;
@@ -61,6 +63,12 @@ import static java.nio.ByteOrder.BIG_ENDIAN;
 
 public abstract class AbstractSerializationService implements InternalSerializationService {
 
+    /**
+     * Serialized forms at least this large are handed over to the pooled
+     * payloads along with their output buffers instead of being copied.
+     */
+    static final int MIN_POOLED_PAYLOAD_SIZE = 8 * 1024;
+
     protected final ManagedContext managedContext;
     protected final InputOutputFactory inputOutputFactory;
     protected final PartitioningStrategy globalPartitioningStrategy;
@@ -141,25 +149,63 @@ public abstract class AbstractSerializationService implements InternalSerializat
         BufferPool pool = bufferPoolThreadLocal.get();
         BufferObjectDataOutput out = pool.takeOutputBuffer();
         try {
-            out.position(leftPadding);
+            write(out, obj, leftPadding, writeHash, strategy, serializerTypeIdByteOrder);
+            return out.toByteArray();
+        } catch (Throwable e) {
+            throw handleSerializeException(obj, e);
+        } finally {
+            pool.returnOutputBuffer(out);
+        }
+    }
 
-            SerializerAdapter serializer = serializerFor(obj);
-            if (writeHash) {
-                int partitionHash = calculatePartitionHash(obj, strategy);
-                out.writeInt(partitionHash, BIG_ENDIAN);
-            }
+    @Override
+    public final PooledPayload toPooledBytes(Object obj) {
+        return toPooledBytes(obj, 0, true, BIG_ENDIAN);
+    }
 
-            out.writeInt(serializer.getTypeId(), serializerTypeIdByteOrder);
+    @Override
+    public final PooledPayload toPooledBytes(Object obj, int leftPadding, boolean insertPartitionHash) {
+        return toPooledBytes(obj, leftPadding, insertPartitionHash, getByteOrder());
+    }
 
-            serializer.write(out, obj);
-            return out.toByteArray();
+    private PooledPayload toPooledBytes(Object obj, int leftPadding, boolean writeHash,
+                                        ByteOrder serializerTypeIdByteOrder) {
+        checkNotNull(obj);
+
+        BufferPool pool = bufferPoolThreadLocal.get();
+        BufferObjectDataOutput out = pool.takeOutputBuffer();
+        boolean detached = false;
+        try {
+            write(out, obj, leftPadding, writeHash, globalPartitioningStrategy, serializerTypeIdByteOrder);
+            if (out.position() < MIN_POOLED_PAYLOAD_SIZE || !(out instanceof ByteArrayObjectDataOutput)) {
+                return new PooledPayload(out.toByteArray());
+            }
+            detached = true;
+            return new PooledPayload(((ByteArrayObjectDataOutput) out).buffer, out.position(), pool.detachOutputBuffer(out));
         } catch (Throwable e) {
             throw handleSerializeException(obj, e);
         } finally {
-            pool.returnOutputBuffer(out);
+            if (!detached) {
+                pool.returnOutputBuffer(out);
+            }
         }
     }
 
+    private void write(BufferObjectDataOutput out, Object obj, int leftPadding, boolean writeHash,
+                       PartitioningStrategy strategy, ByteOrder serializerTypeIdByteOrder) throws IOException {
+        out.position(leftPadding);
+
+        SerializerAdapter serializer = serializerFor(obj);
+        if (writeHash) {
+            int partitionHash = calculatePartitionHash(obj, strategy);
+            out.writeInt(partitionHash, BIG_ENDIAN);
+        }
+
+        out.writeInt(serializer.getTypeId(), serializerTypeIdByteOrder);
+
+        serializer.write(out, obj);
+    }
+
     @Override
     public final <T> T toObject(final Object object) {
         if (!(object instanceof Data)) {
@@ -0,0 +1,302 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.serialization.impl;
+
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.hazelcast.nio.Bits.BOOLEAN_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.BYTE_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.CHAR_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.DOUBLE_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.FLOAT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.SHORT_SIZE_IN_BYTES;
+
+/**
+ * Schema of a class serialized in the compact format.
+ * <p>
+ * The schema is derived from the non-static, non-transient fields of the
+ * class and its superclasses. The schemas are not sent along with the
+ * serialized objects, the objects refer to them by their ids instead. The
+ * ids are fingerprints of the class names and the field names and types,
+ * so the members agree on them as long as they register the same classes.
+ * <p>
+ * The serialized form of a compact object:
+ * <pre>
+ * | schema id | primitive fields | offsets of the other fields | other fields |
+ * </pre>
+ * The primitive fields are laid out at fixed offsets, the larger ones
+ * first. The other fields are written using {@code writeObject} and their
+ * offsets are relative to the beginning of the section holding them.
+ */
+public final class CompactSchema {
+
+    /**
+     * Offset of the primitive fields relative to the beginning of the
+     * serialized compact object.
+     */
+    public static final int FIXED_SECTION_OFFSET = LONG_SIZE_IN_BYTES;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final Map<Class, Integer> SIZES = new HashMap<Class, Integer>();
+
+    static {
+        SIZES.put(long.class, LONG_SIZE_IN_BYTES);
+        SIZES.put(double.class, DOUBLE_SIZE_IN_BYTES);
+        SIZES.put(int.class, INT_SIZE_IN_BYTES);
+        SIZES.put(float.class, FLOAT_SIZE_IN_BYTES);
+        SIZES.put(short.class, SHORT_SIZE_IN_BYTES);
+        SIZES.put(char.class, CHAR_SIZE_IN_BYTES);
+        SIZES.put(byte.class, BYTE_SIZE_IN_BYTES);
+        SIZES.put(boolean.class, BOOLEAN_SIZE_IN_BYTES);
+    }
+
+    private static final Comparator<Field> VARIABLE_FIELD_ORDER = new Comparator<Field>() {
+        @Override
+        public int compare(Field lhs, Field rhs) {
+            return lhs.getName().compareTo(rhs.getName());
+        }
+    };
+
+    private static final Comparator<Field> FIXED_FIELD_ORDER = new Comparator<Field>() {
+        @Override
+        public int compare(Field lhs, Field rhs) {
+            int order = SIZES.get(rhs.getType()) - SIZES.get(lhs.getType());
+            return order == 0 ? lhs.getName().compareTo(rhs.getName()) : order;
+        }
+    };
+
+    private final long id;
+    private final Class<?> type;
+    private final Constructor<?> constructor;
+    private final CompactField[] fixedFields;
+    private final CompactField[] variableFields;
+    private final Map<String, CompactField> fieldsByName;
+    private final int variableSectionOffset;
+
+    private CompactSchema(Class<?> type, Constructor<?> constructor, CompactField[] fixedFields,
+                          CompactField[] variableFields, int fixedSectionSize) {
+        this.type = type;
+        this.constructor = constructor;
+        this.fixedFields = fixedFields;
+        this.variableFields = variableFields;
+        this.variableSectionOffset = FIXED_SECTION_OFFSET + fixedSectionSize + variableFields.length * INT_SIZE_IN_BYTES;
+        this.fieldsByName = new HashMap<String, CompactField>();
+        long id = fingerprint(FNV_OFFSET_BASIS, type.getName());
+        for (CompactField field : fixedFields) {
+            fieldsByName.put(field.getName(), field);
+            id = fingerprint(fingerprint(id, field.getName()), field.getType().getName());
+        }
+        for (CompactField field : variableFields) {
+            fieldsByName.put(field.getName(), field);
+            id = fingerprint(fingerprint(id, field.getName()), field.getType().getName());
+        }
+        this.id = id;
+    }
+
+    /**
+     * Derives the schema of the given class.
+     *
+     * @throws HazelcastSerializationException if the class can't be
+     *                                         serialized in the compact format
+     */
+    public static CompactSchema of(Class<?> type) {
+        Constructor<?> constructor = getConstructor(type);
+        List<Field> fixed = new ArrayList<Field>();
+        List<Field> variable = new ArrayList<Field>();
+        for (Field field : getFields(type)) {
+            (SIZES.containsKey(field.getType()) ? fixed : variable).add(field);
+        }
+        Collections.sort(fixed, FIXED_FIELD_ORDER);
+        Collections.sort(variable, VARIABLE_FIELD_ORDER);
+
+        CompactField[] fixedFields = new CompactField[fixed.size()];
+        int offset = FIXED_SECTION_OFFSET;
+        for (int i = 0; i < fixedFields.length; ++i) {
+            Field field = fixed.get(i);
+            fixedFields[i] = new CompactField(field, offset);
+            offset += SIZES.get(field.getType());
+        }
+        CompactField[] variableFields = new CompactField[variable.size()];
+        for (int i = 0; i < variableFields.length; ++i) {
+            variableFields[i] = new CompactField(variable.get(i), offset + i * INT_SIZE_IN_BYTES);
+        }
+        return new CompactSchema(type, constructor, fixedFields, variableFields, offset - FIXED_SECTION_OFFSET);
+    }
+
+    private static Constructor<?> getConstructor(Class<?> type) {
+        if (type.isInterface() || type.isArray() || type.isPrimitive() || Modifier.isAbstract(type.getModifiers())) {
+            throw new HazelcastSerializationException(type + " can't be serialized in the compact format");
+        }
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor;
+        } catch (NoSuchMethodException e) {
+            throw new HazelcastSerializationException("Compact class " + type.getName() + " has no no-arg constructor", e);
+        }
+    }
+
+    private static List<Field> getFields(Class<?> type) {
+        List<Field> fields = new ArrayList<Field>();
+        Set<String> names = new HashSet<String>();
+        for (Class<?> current = type; current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                    continue;
+                }
+                if (!names.add(field.getName())) {
+                    throw new HazelcastSerializationException("Compact class " + type.getName()
+                            + " has more than one field named " + field.getName());
+                }
+                field.setAccessible(true);
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * @return the id of this schema written in front of every serialized
+     * compact object.
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * @return the class described by this schema.
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * @return the field having the given name or {@code null} if there is no
+     * such field.
+     */
+    public CompactField getField(String name) {
+        return fieldsByName.get(name);
+    }
+
+    /**
+     * @return the offset of the section holding the non-primitive fields
+     * relative to the beginning of the serialized compact object.
+     */
+    public int getVariableSectionOffset() {
+        return variableSectionOffset;
+    }
+
+    CompactField[] getFixedFields() {
+        return fixedFields;
+    }
+
+    CompactField[] getVariableFields() {
+        return variableFields;
+    }
+
+    Object newInstance() throws Exception {
+        return constructor.newInstance();
+    }
+
+    @Override
+    public String toString() {
+        return "CompactSchema{id=" + id + ", type=" + type.getName() + ", fixedFields=" + Arrays.toString(fixedFields)
+                + ", variableFields=" + Arrays.toString(variableFields) + '}';
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the given value followed by a zero char, which
+     * separates the consecutive values.
+     */
+    private static long fingerprint(long hash, String value) {
+        long result = hash;
+        for (int i = 0; i < value.length(); ++i) {
+            result ^= value.charAt(i);
+            result *= FNV_PRIME;
+        }
+        return result * FNV_PRIME;
+    }
+
+    /**
+     * A field of a compact class.
+     */
+    public static final class CompactField {
+
+        private final Field field;
+        private final int offset;
+
+        CompactField(Field field, int offset) {
+            this.field = field;
+            this.offset = offset;
+        }
+
+        public String getName() {
+            return field.getName();
+        }
+
+        public Class<?> getType() {
+            return field.getType();
+        }
+
+        /**
+         * @return {@code true} if this field is a primitive one laid out at a
+         * fixed offset, {@code false} otherwise.
+         */
+        public boolean isFixedSize() {
+            return SIZES.containsKey(field.getType());
+        }
+
+        /**
+         * @return the offset of the value of this field if it's a fixed-size
+         * one or the offset of the offset of its value otherwise, relative to
+         * the beginning of the serialized compact object.
+         */
+        public int getOffset() {
+            return offset;
+        }
+
+        Field getField() {
+            return field;
+        }
+
+        @Override
+        public String toString() {
+            return field.getName() + ":" + field.getType().getName() + "@" + offset;
+        }
+
+    }
+
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.serialization.impl;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.CompactSchema.CompactField;
+import com.hazelcast.nio.BufferObjectDataOutput;
+import com.hazelcast.nio.IOUtil;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+import com.hazelcast.nio.serialization.StreamSerializer;
+import com.hazelcast.util.collection.Long2ObjectHashMap;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+
+/**
+ * Serializes the registered classes in the compact format described by
+ * {@link CompactSchema}.
+ * <p>
+ * The schemas are derived once, when the serialization service is created,
+ * and are never modified afterwards.
+ */
+final class CompactSerializer implements StreamSerializer<Object> {
+
+    private final InternalSerializationService serializationService;
+    private final Map<Class, CompactSchema> schemasByClass = new HashMap<Class, CompactSchema>();
+    private final Long2ObjectHashMap<CompactSchema> schemasById = new Long2ObjectHashMap<CompactSchema>();
+
+    CompactSerializer(InternalSerializationService serializationService, Collection<Class> classes) {
+        this.serializationService = serializationService;
+        for (Class type : classes) {
+            CompactSchema schema = CompactSchema.of(type);
+            CompactSchema existing = schemasById.put(schema.getId(), schema);
+            if (existing != null && existing.getType() != type) {
+                throw new HazelcastSerializationException("Compact classes " + existing.getType().getName() + " and "
+                        + type.getName() + " have the same schema id " + schema.getId());
+            }
+            schemasByClass.put(type, schema);
+        }
+    }
+
+    /**
+     * @return the classes serialized in the compact format.
+     */
+    Collection<Class> getClasses() {
+        return schemasByClass.keySet();
+    }
+
+    /**
+     * @return the schema having the given id or {@code null} if there is no
+     * such schema.
+     */
+    CompactSchema getSchema(long id) {
+        return schemasById.get(id);
+    }
+
+    @Override
+    public void write(ObjectDataOutput out, Object object) throws IOException {
+        CompactSchema schema = schemasByClass.get(object.getClass());
+        if (schema == null) {
+            throw new HazelcastSerializationException(object.getClass() + " is not registered as a compact class");
+        }
+        out.writeLong(schema.getId());
+        try {
+            for (CompactField field : schema.getFixedFields()) {
+                writeFixed(out, field.getField(), object);
+            }
+            if (out instanceof BufferObjectDataOutput) {
+                writeVariable((BufferObjectDataOutput) out, schema.getVariableFields(), object);
+            } else {
+                writeVariableBuffered(out, schema.getVariableFields(), object);
+            }
+        } catch (IllegalAccessException e) {
+            throw new HazelcastSerializationException(e);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("checkstyle:illegalcatch")
+    public Object read(ObjectDataInput in) throws IOException {
+        long id = in.readLong();
+        CompactSchema schema = schemasById.get(id);
+        if (schema == null) {
+            throw new HazelcastSerializationException("There is no compact class registered for schema id " + id);
+        }
+        try {
+            Object object = schema.newInstance();
+            for (CompactField field : schema.getFixedFields()) {
+                readFixed(in, field.getField(), object);
+            }
+            // the offsets are needed only to access the fields in place
+            CompactField[] variableFields = schema.getVariableFields();
+            in.skipBytes(variableFields.length * INT_SIZE_IN_BYTES);
+            for (CompactField field : variableFields) {
+                field.getField().set(object, in.readObject());
+            }
+            return object;
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new HazelcastSerializationException("Failed to read compact object of " + schema.getType(), e);
+        }
+    }
+
+    @Override
+    public int getTypeId() {
+        return SerializationConstants.CONSTANT_TYPE_COMPACT;
+    }
+
+    @Override
+    public void destroy() {
+    }
+
+    /**
+     * Reserves the offset table and fills it in once the fields are written.
+     */
+    private static void writeVariable(BufferObjectDataOutput out, CompactField[] fields, Object object)
+            throws IOException, IllegalAccessException {
+        int tablePosition = out.position();
+        out.writeZeroBytes(fields.length * INT_SIZE_IN_BYTES);
+        int sectionPosition = out.position();
+        for (int i = 0; i < fields.length; ++i) {
+            out.writeInt(tablePosition + i * INT_SIZE_IN_BYTES, out.position() - sectionPosition);
+            out.writeObject(fields[i].getField().get(object));
+        }
+    }
+
+    /**
+     * Writes the fields to a temporary buffer since the offset table has to be
+     * written in front of them.
+     */
+    private void writeVariableBuffered(ObjectDataOutput out, CompactField[] fields, Object object)
+            throws IOException, IllegalAccessException {
+        BufferObjectDataOutput buffer = serializationService.createObjectDataOutput();
+        try {
+            for (CompactField field : fields) {
+                out.writeInt(buffer.position());
+                buffer.writeObject(field.getField().get(object));
+            }
+            out.write(buffer.toByteArray());
+        } finally {
+            IOUtil.closeResource(buffer);
+        }
+    }
+
+    @SuppressWarnings("checkstyle:cyclomaticcomplexity")
+    private static void writeFixed(ObjectDataOutput out, Field field, Object object)
+            throws IOException, IllegalAccessException {
+        Class type = field.getType();
+        if (type == long.class) {
+            out.writeLong(field.getLong(object));
+        } else if (type == double.class) {
+            out.writeDouble(field.getDouble(object));
+        } else if (type == int.class) {
+            out.writeInt(field.getInt(object));
+        } else if (type == float.class) {
+            out.writeFloat(field.getFloat(object));
+        } else if (type == short.class) {
+            out.writeShort(field.getShort(object));
+        } else if (type == char.class) {
+            out.writeChar(field.getChar(object));
+        } else if (type == byte.class) {
+            out.writeByte(field.getByte(object));
+        } else {
+            out.writeBoolean(field.getBoolean(object));
+        }
+    }
+
+    @SuppressWarnings("checkstyle:cyclomaticcomplexity")
+    private static void readFixed(ObjectDataInput in, Field field, Object object) throws IOException, IllegalAccessException {
+        Class type = field.getType();
+        if (type == long.class) {
+            field.setLong(object, in.readLong());
+        } else if (type == double.class) {
+            field.setDouble(object, in.readDouble());
+        } else if (type == int.class) {
+            field.setInt(object, in.readInt());
+        } else if (type == float.class) {
+            field.setFloat(object, in.readFloat());
+        } else if (type == short.class) {
+            field.setShort(object, in.readShort());
+        } else if (type == char.class) {
+            field.setChar(object, in.readChar());
+        } else if (type == byte.class) {
+            field.setByte(object, in.readByte());
+        } else {
+            field.setBoolean(object, in.readBoolean());
+        }
+    }
+
+}
@@ -49,7 +49,7 @@ import static com.hazelcast.internal.serialization.impl.SerializationConstants.C
  * </ol>
  */
 @SuppressWarnings("checkstyle:npathcomplexity")
-final class DataSerializableSerializer implements StreamSerializer<DataSerializable>, TypedStreamDeserializer<DataSerializable> {
+public final class DataSerializableSerializer implements StreamSerializer<DataSerializable>, TypedStreamDeserializer<DataSerializable> {
 
     public static final byte IDS_FLAG = 1 << 0;
     public static final byte EE_FLAG = 1 << 1;
@@ -44,6 +44,7 @@ import com.hazelcast.util.StringUtil;
 import java.nio.ByteOrder;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Supplier;
@@ -52,6 +53,7 @@ import static java.nio.ByteOrder.BIG_ENDIAN;
 import static java.nio.ByteOrder.LITTLE_ENDIAN;
 import static java.nio.ByteOrder.nativeOrder;
 
+@SuppressWarnings("checkstyle:methodcount")
 public class DefaultSerializationServiceBuilder implements SerializationServiceBuilder {
 
     static final ByteOrder DEFAULT_BYTE_ORDER = BIG_ENDIAN;
@@ -67,6 +69,8 @@ public class DefaultSerializationServiceBuilder implements SerializationServiceB
 
     protected final Set<ClassDefinition> classDefinitions = new HashSet<ClassDefinition>();
 
+    protected final Set<Class> compactClasses = new LinkedHashSet<Class>();
+
     protected ClassLoader classLoader;
     protected SerializationConfig config;
 
@@ -155,6 +159,12 @@ public class DefaultSerializationServiceBuilder implements SerializationServiceB
         return this;
     }
 
+    @Override
+    public SerializationServiceBuilder addCompactClass(Class<?> compactClass) {
+        compactClasses.add(compactClass);
+        return this;
+    }
+
     @Override
     public SerializationServiceBuilder setCheckClassDefErrors(boolean checkClassDefErrors) {
         this.checkClassDefErrors = checkClassDefErrors;
@@ -231,6 +241,7 @@ public class DefaultSerializationServiceBuilder implements SerializationServiceB
             addConfigDataSerializableFactories(dataSerializableFactories, config, classLoader);
             addConfigPortableFactories(portableFactories, config, classLoader);
             classDefinitions.addAll(config.getClassDefinitions());
+            addConfigCompactClasses(compactClasses, config, classLoader);
         }
 
         InputOutputFactory inputOutputFactory = createInputOutputFactory();
@@ -296,6 +307,7 @@ public class DefaultSerializationServiceBuilder implements SerializationServiceB
                     .withEnableSharedObject(enableSharedObject)
                     .withNotActiveExceptionSupplier(notActiveExceptionSupplier)
                     .withClassNameFilter(classNameFilter)
+                    .withCompactClasses(compactClasses)
                     .build();
                 serializationServiceV1.registerClassDefinitions(classDefinitions, checkClassDefErrors);
                 return serializationServiceV1;
@@ -406,6 +418,16 @@ public class DefaultSerializationServiceBuilder implements SerializationServiceB
         }
     }
 
+    private void addConfigCompactClasses(Set<Class> compactClasses, SerializationConfig config, ClassLoader cl) {
+        for (String className : config.getCompactClasses()) {
+            try {
+                compactClasses.add(ClassLoaderUtil.loadClass(cl, className));
+            } catch (ClassNotFoundException e) {
+                throw new HazelcastSerializationException("Compact class " + className + " can't be loaded", e);
+            }
+        }
+    }
+
     private void addConfigPortableFactories(Map<Integer, PortableFactory> portableFactories, SerializationConfig config,
                                             ClassLoader cl) {
         registerPortableFactories(portableFactories, config);
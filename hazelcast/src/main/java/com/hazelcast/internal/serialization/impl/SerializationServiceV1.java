@@ -22,6 +22,7 @@ import com.hazelcast.internal.serialization.impl.ConstantSerializers.BooleanSeri
 import com.hazelcast.internal.serialization.impl.ConstantSerializers.ByteSerializer;
 import com.hazelcast.internal.serialization.impl.ConstantSerializers.StringArraySerializer;
 import com.hazelcast.core.HazelcastJsonValue;
+import com.hazelcast.nio.Bits;
 import com.hazelcast.nio.BufferObjectDataInput;
 import com.hazelcast.nio.serialization.ClassNameFilter;
 import com.hazelcast.nio.ObjectDataInput;
@@ -42,6 +43,7 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -85,6 +87,7 @@ public class SerializationServiceV1 extends AbstractSerializationService {
 
     private final PortableContextImpl portableContext;
     private final PortableSerializer portableSerializer;
+    private final CompactSerializer compactSerializer;
 
     SerializationServiceV1(AbstractBuilder<?> builder) {
         super(builder);
@@ -103,8 +106,10 @@ public class SerializationServiceV1 extends AbstractSerializationService {
                 new JavaSerializer(builder.enableSharedObject, builder.enableCompression, builder.classNameFilter), this);
         javaExternalizableAdapter = createSerializerAdapter(
                 new JavaDefaultSerializers.ExternalizableSerializer(builder.enableCompression, builder.classNameFilter), this);
+        compactSerializer = new CompactSerializer(this, builder.compactClasses);
         registerConstantSerializers();
         registerJavaTypeSerializers();
+        registerCompactClasses();
     }
 
     @Override
@@ -143,6 +148,15 @@ public class SerializationServiceV1 extends AbstractSerializationService {
         return portableContext;
     }
 
+    @Override
+    public CompactSchema getCompactSchema(Data data) {
+        if (!data.isCompact()) {
+            return null;
+        }
+        long schemaId = Bits.readLong(data.toByteArray(), HeapData.DATA_OFFSET, getByteOrder() == ByteOrder.BIG_ENDIAN);
+        return compactSerializer.getSchema(schemaId);
+    }
+
     private void registerConstantSerializers() {
         registerConstant(null, nullSerializerAdapter);
         registerConstant(DataSerializable.class, dataSerializerAdapter);
@@ -184,6 +198,13 @@ public class SerializationServiceV1 extends AbstractSerializationService {
         safeRegister(HazelcastJsonValue.class, new HazelcastJsonValueSerializer());
     }
 
+    private void registerCompactClasses() {
+        SerializerAdapter compactSerializerAdapter = createSerializerAdapter(compactSerializer, this);
+        for (Class type : compactSerializer.getClasses()) {
+            registerConstant(type, compactSerializerAdapter);
+        }
+    }
+
     public void registerClassDefinitions(Collection<ClassDefinition> classDefinitions, boolean checkClassDefErrors) {
         final Map<Integer, ClassDefinition> classDefMap = createHashMap(classDefinitions.size());
         for (ClassDefinition cd : classDefinitions) {
@@ -262,6 +283,7 @@ public class SerializationServiceV1 extends AbstractSerializationService {
         private boolean enableCompression;
         private boolean enableSharedObject;
         private ClassNameFilter classNameFilter;
+        private Collection<Class> compactClasses = Collections.emptyList();
 
         protected AbstractBuilder() {
         }
@@ -300,6 +322,11 @@ public class SerializationServiceV1 extends AbstractSerializationService {
             this.classNameFilter = classNameFilter;
             return self();
         }
+
+        public final T withCompactClasses(Collection<Class> compactClasses) {
+            this.compactClasses = compactClasses;
+            return self();
+        }
     }
 
     public static final class Builder extends AbstractBuilder<Builder> {
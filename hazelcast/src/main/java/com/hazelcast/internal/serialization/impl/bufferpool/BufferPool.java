@@ -44,6 +44,18 @@ public interface BufferPool {
      */
     void returnOutputBuffer(BufferObjectDataOutput out);
 
+    /**
+     * Detaches a BufferObjectDataOutput, taken from this pool, from the thread owning the pool, so it can be handed
+     * over to another thread.
+     *
+     * The output is returned back to this pool by running the returned recycler. Unlike the other methods, the recycler
+     * can be run by any thread.
+     *
+     * @param out the BufferObjectDataOutput.
+     * @return the recycler of the output.
+     */
+    Runnable detachOutputBuffer(BufferObjectDataOutput out);
+
     /**
      * Takes an BufferObjectDataInput from the pool and initializes it with the given data.
      *
@@ -25,6 +25,8 @@ import com.hazelcast.nio.serialization.Data;
 import java.io.Closeable;
 import java.util.ArrayDeque;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.hazelcast.nio.IOUtil.closeResource;
 
@@ -35,12 +37,16 @@ import static com.hazelcast.nio.IOUtil.closeResource;
  */
 public class BufferPoolImpl implements BufferPool {
     static final int MAX_POOLED_ITEMS = 3;
+    static final int MAX_RECYCLED_ITEMS = 8;
 
     protected final InternalSerializationService serializationService;
 
     // accessible for testing.
     final Queue<BufferObjectDataOutput> outputQueue = new ArrayDeque<BufferObjectDataOutput>(MAX_POOLED_ITEMS);
     final Queue<BufferObjectDataInput> inputQueue = new ArrayDeque<BufferObjectDataInput>(MAX_POOLED_ITEMS);
+    // the detached outputs recycled by any thread
+    final Queue<BufferObjectDataOutput> recycledOutputQueue = new ConcurrentLinkedQueue<BufferObjectDataOutput>();
+    private final AtomicInteger recycledOutputCount = new AtomicInteger();
 
     public BufferPoolImpl(InternalSerializationService serializationService) {
         this.serializationService = serializationService;
@@ -50,7 +56,12 @@ public class BufferPoolImpl implements BufferPool {
     public BufferObjectDataOutput takeOutputBuffer() {
         BufferObjectDataOutput out = outputQueue.poll();
         if (out == null) {
-            out = serializationService.createObjectDataOutput();
+            out = recycledOutputQueue.poll();
+            if (out != null) {
+                recycledOutputCount.decrementAndGet();
+            } else {
+                out = serializationService.createObjectDataOutput();
+            }
         }
         return out;
     }
@@ -66,6 +77,11 @@ public class BufferPoolImpl implements BufferPool {
         offerOrClose(outputQueue, out);
     }
 
+    @Override
+    public Runnable detachOutputBuffer(BufferObjectDataOutput out) {
+        return new OutputRecycler(out);
+    }
+
     @Override
     public BufferObjectDataInput takeInputBuffer(Data data) {
         BufferObjectDataInput in = inputQueue.poll();
@@ -95,4 +111,29 @@ public class BufferPoolImpl implements BufferPool {
 
         queue.offer(item);
     }
+
+    /**
+     * Returns a detached output back to its pool. Runs on the thread
+     * releasing the output, so the output is handed over to the thread
+     * owning the pool through the lock-free {@link #recycledOutputQueue}.
+     */
+    private final class OutputRecycler implements Runnable {
+
+        private final BufferObjectDataOutput out;
+
+        OutputRecycler(BufferObjectDataOutput out) {
+            this.out = out;
+        }
+
+        @Override
+        public void run() {
+            out.clear();
+            if (recycledOutputCount.incrementAndGet() > MAX_RECYCLED_ITEMS) {
+                recycledOutputCount.decrementAndGet();
+                closeResource(out);
+                return;
+            }
+            recycledOutputQueue.offer(out);
+        }
+    }
 }
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util;
+
+import com.hazelcast.spi.properties.HazelcastProperties;
+import com.hazelcast.spi.properties.HazelcastProperty;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import static com.hazelcast.spi.properties.GroupProperty.THREAD_AFFINITY_TASKSET_ENABLED;
+import static java.lang.Integer.parseInt;
+
+/**
+ * The CPUs the threads of a thread pool are allowed to run on: optional CPU
+ * pinning of a thread pool. The pools are pinned independently of each other;
+ * no work is moved between the pools to co-locate it on the same CPU.
+ *
+ * The affinity is configured using a comma separated list. Each element
+ * describes the CPUs of a single thread:
+ * <ol>
+ * <li>{@code 3}: a thread pinned to CPU 3</li>
+ * <li>{@code 0-3}: 4 threads, pinned to the CPUs 0, 1, 2 and 3 respectively</li>
+ * <li>{@code [4-5]}: a thread that is allowed to run on CPU 4 and 5</li>
+ * </ol>
+ * So {@code 0-1,[2-3]} results in 3 threads. When an affinity is configured,
+ * the number of threads of the pool is determined by the affinity.
+ *
+ * The pinning is done by forking the {@code taskset} command for the thread
+ * itself, so it is only supported on Linux. Because of the fork, pinning has
+ * to be enabled explicitly using {@link
+ * com.hazelcast.spi.properties.GroupProperty#THREAD_AFFINITY_TASKSET_ENABLED}.
+ * If pinning fails, the thread will run unpinned.
+ */
+public final class ThreadAffinity {
+
+    /**
+     * A ThreadAffinity that doesn't pin any thread.
+     */
+    public static final ThreadAffinity DISABLED = new ThreadAffinity(Collections.<BitSet>emptyList());
+
+    private static final File THREAD_SELF = new File("/proc/thread-self");
+
+    private final List<BitSet> allowedCpusList;
+
+    private ThreadAffinity(List<BitSet> allowedCpusList) {
+        this.allowedCpusList = allowedCpusList;
+    }
+
+    /**
+     * Creates a ThreadAffinity based on the value of the given property.
+     *
+     * @param properties the HazelcastProperties
+     * @param property   the property containing the affinity
+     * @return the created ThreadAffinity; {@link #DISABLED} if the property isn't set.
+     * @throws IllegalStateException if the value of the property isn't a valid affinity, or if pinning
+     *                               hasn't been enabled using the taskset property.
+     */
+    public static ThreadAffinity newThreadAffinity(HazelcastProperties properties, HazelcastProperty property) {
+        String affinity = properties.getString(property);
+        if (affinity == null || affinity.trim().isEmpty()) {
+            return DISABLED;
+        }
+
+        if (!properties.getBoolean(THREAD_AFFINITY_TASKSET_ENABLED)) {
+            throw new IllegalStateException(property.getName() + " requires "
+                    + THREAD_AFFINITY_TASKSET_ENABLED.getName() + "=true");
+        }
+
+        try {
+            return new ThreadAffinity(parse(affinity));
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Unrecognized " + property.getName() + " value=" + affinity, e);
+        }
+    }
+
+    static List<BitSet> parse(String affinity) {
+        List<BitSet> allowedCpusList = new ArrayList<BitSet>();
+        for (String element : affinity.split(",")) {
+            element = element.trim();
+            if (element.startsWith("[") && element.endsWith("]")) {
+                BitSet allowedCpus = new BitSet();
+                int[] range = parseRange(element.substring(1, element.length() - 1));
+                allowedCpus.set(range[0], range[1] + 1);
+                allowedCpusList.add(allowedCpus);
+            } else {
+                int[] range = parseRange(element);
+                for (int cpu = range[0]; cpu <= range[1]; cpu++) {
+                    BitSet allowedCpus = new BitSet();
+                    allowedCpus.set(cpu);
+                    allowedCpusList.add(allowedCpus);
+                }
+            }
+        }
+        return allowedCpusList;
+    }
+
+    private static int[] parseRange(String range) {
+        int index = range.indexOf('-');
+        int from = parseInt(index == -1 ? range.trim() : range.substring(0, index).trim());
+        int to = index == -1 ? from : parseInt(range.substring(index + 1).trim());
+        if (from < 0 || to < from) {
+            throw new IllegalArgumentException("Invalid CPU range: " + range);
+        }
+        return new int[]{from, to};
+    }
+
+    /**
+     * Checks if this ThreadAffinity pins threads.
+     *
+     * @return true if threads are pinned, false otherwise.
+     */
+    public boolean isEnabled() {
+        return !allowedCpusList.isEmpty();
+    }
+
+    /**
+     * Returns the number of threads configured by this ThreadAffinity.
+     *
+     * @return the number of threads; 0 if not enabled.
+     */
+    public int getThreadCount() {
+        return allowedCpusList.size();
+    }
+
+    /**
+     * Returns the CPUs the thread with the given index is allowed to run on.
+     *
+     * @param threadIndex the index of the thread in its pool
+     * @return the allowed CPUs; null if not enabled.
+     */
+    public BitSet getAllowedCpus(int threadIndex) {
+        if (allowedCpusList.isEmpty()) {
+            return null;
+        }
+        return (BitSet) allowedCpusList.get(threadIndex % allowedCpusList.size()).clone();
+    }
+
+    /**
+     * Pins the calling thread to the given CPUs by forking {@code taskset}.
+     *
+     * @param allowedCpus the CPUs the calling thread is allowed to run on
+     * @return true if the thread has been pinned, false otherwise.
+     */
+    public static boolean pinCurrentThread(BitSet allowedCpus) {
+        if (!THREAD_SELF.exists()) {
+            return false;
+        }
+
+        try {
+            // /proc/thread-self links to /proc/<pid>/task/<tid>
+            String tid = THREAD_SELF.getCanonicalFile().getName();
+            Process process = new ProcessBuilder("taskset", "-p", "-c", toCpuList(allowedCpus), tid)
+                    .redirectErrorStream(true)
+                    .redirectOutput(new File("/dev/null"))
+                    .start();
+            return process.waitFor() == 0;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    static String toCpuList(BitSet cpus) {
+        StringBuilder sb = new StringBuilder();
+        for (int cpu = cpus.nextSetBit(0); cpu >= 0; cpu = cpus.nextSetBit(cpu + 1)) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(cpu);
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("ThreadAffinity{");
+        for (int k = 0; k < allowedCpusList.size(); k++) {
+            if (k > 0) {
+                sb.append(", ");
+            }
+            sb.append('[').append(toCpuList(allowedCpusList.get(k))).append(']');
+        }
+        return sb.append('}').toString();
+    }
+}
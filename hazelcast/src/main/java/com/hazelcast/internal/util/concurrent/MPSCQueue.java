@@ -28,6 +28,7 @@ import java.util.concurrent.atomic.AtomicReference;
 
 import static com.hazelcast.util.Preconditions.checkNotNull;
 import static com.hazelcast.util.QuickMath.nextPowerOfTwo;
+import static java.lang.System.nanoTime;
 import static java.util.concurrent.locks.LockSupport.park;
 import static java.util.concurrent.locks.LockSupport.unpark;
 
@@ -40,6 +41,9 @@ import static java.util.concurrent.locks.LockSupport.unpark;
  * they are reversed in order again so that the original ordering is restored. Using this approach, if there are multiple items
  * on the stack, the owning thread can take them all using a single CAS. Once this is done, the owning thread can process them
  * one by one and doesn't need to contend with the putting threads; reducing contention.
+ * <p>
+ * Optionally the queue records the time an item was offered, so the consumer can determine how long the
+ * item it took has been waiting. See {@link #trackOfferTime()}.
  *
  * @param <E> the type of elements held in this collection
  */
@@ -54,6 +58,10 @@ public final class MPSCQueue<E> extends AbstractQueue<E> implements BlockingQueu
     private Thread consumerThread;
     private Object[] takeStack = new Object[INITIAL_ARRAY_SIZE];
     private int takeStackIndex = -1;
+    private boolean offerTimeTracked;
+    // the offer times of the items in the takeStack; only used if the offer time is tracked
+    private long[] takeStackOfferNanos;
+    private long lastTakenOfferNanos;
 
     /**
      * Creates a new {@link MPSCQueue} with the provided {@link IdleStrategy} and consumer thread.
@@ -91,6 +99,33 @@ public final class MPSCQueue<E> extends AbstractQueue<E> implements BlockingQueu
         this.consumerThread = checkNotNull(consumerThread, "consumerThread can't be null");
     }
 
+    /**
+     * Makes the queue record the time an item was offered, so the consumer can
+     * determine how long the last taken item has been waiting using
+     * {@link #lastTakenOfferNanos()}. This costs a {@link System#nanoTime()}
+     * call per offer.
+     *
+     * This method should be called before the queue is safely published. It will
+     * not provide a happens before relation on its own.
+     */
+    public void trackOfferTime() {
+        this.offerTimeTracked = true;
+        this.takeStackOfferNanos = new long[takeStack.length];
+    }
+
+    /**
+     * Returns the {@link System#nanoTime()} at which the item that was taken
+     * last has been offered.
+     *
+     * This method should only be called by the consumer thread.
+     *
+     * @return the offer time, or 0 if the offer time isn't tracked or nothing has been taken.
+     * @see #trackOfferTime()
+     */
+    public long lastTakenOfferNanos() {
+        return lastTakenOfferNanos;
+    }
+
     /**
      * {@inheritDoc}.
      *
@@ -108,6 +143,9 @@ public final class MPSCQueue<E> extends AbstractQueue<E> implements BlockingQueu
         AtomicReference<Node> putStack = this.putStack;
         Node newHead = new Node();
         newHead.item = item;
+        if (offerTimeTracked) {
+            newHead.offerNanos = nanoTime();
+        }
 
         for (; ; ) {
             Node oldHead = putStack.get();
@@ -131,6 +169,58 @@ public final class MPSCQueue<E> extends AbstractQueue<E> implements BlockingQueu
         }
     }
 
+    /**
+     * Offers the first {@code count} items of the array, in order, using a single CAS. So the consumer thread
+     * is notified at most once for the whole batch.
+     *
+     * @param items the items to offer
+     * @param count the number of items to offer
+     * @throws NullPointerException if one of the items is null.
+     */
+    public void offerAll(E[] items, int count) {
+        if (count == 0) {
+            return;
+        }
+
+        // the items are pushed on the put stack, so the last item becomes the head.
+        long offerNanos = offerTimeTracked ? nanoTime() : 0;
+        Node newHead = null;
+        Node last = null;
+        for (int k = 0; k < count; k++) {
+            Node node = new Node();
+            node.item = checkNotNull(items[k], "item can't be null");
+            node.offerNanos = offerNanos;
+            node.next = newHead;
+            newHead = node;
+            if (last == null) {
+                last = node;
+            }
+        }
+
+        AtomicReference<Node> putStack = this.putStack;
+        for (; ; ) {
+            Node oldHead = putStack.get();
+            if (oldHead == null || oldHead == BLOCKED) {
+                last.next = null;
+                newHead.size = count;
+            } else {
+                last.next = oldHead;
+                // only the size of the head is used
+                newHead.size = oldHead.size + count;
+            }
+
+            if (!putStack.compareAndSet(oldHead, newHead)) {
+                continue;
+            }
+
+            if (oldHead == BLOCKED) {
+                unpark(consumerThread);
+            }
+
+            return;
+        }
+    }
+
     @Override
     public E peek() {
         E item = peekNext();
@@ -199,6 +289,9 @@ public final class MPSCQueue<E> extends AbstractQueue<E> implements BlockingQueu
     }
 
     private void dequeue() {
+        if (offerTimeTracked) {
+            lastTakenOfferNanos = takeStackOfferNanos[takeStackIndex];
+        }
         takeStack[takeStackIndex] = null;
         takeStackIndex++;
         takeStackSize.lazySet(takeStackSize.get() - 1);
@@ -264,11 +357,22 @@ public final class MPSCQueue<E> extends AbstractQueue<E> implements BlockingQueu
 
         if (putStackSize > takeStack.length) {
             takeStack = new Object[nextPowerOfTwo(putStackHead.size)];
+            if (offerTimeTracked) {
+                takeStackOfferNanos = new long[takeStack.length];
+            }
         }
 
-        for (int i = putStackSize - 1; i >= 0; i--) {
-            takeStack[i] = putStackHead.item;
-            putStackHead = putStackHead.next;
+        if (offerTimeTracked) {
+            for (int i = putStackSize - 1; i >= 0; i--) {
+                takeStack[i] = putStackHead.item;
+                takeStackOfferNanos[i] = putStackHead.offerNanos;
+                putStackHead = putStackHead.next;
+            }
+        } else {
+            for (int i = putStackSize - 1; i >= 0; i--) {
+                takeStack[i] = putStackHead.item;
+                putStackHead = putStackHead.next;
+            }
         }
 
         takeStackIndex = 0;
@@ -332,5 +436,6 @@ public final class MPSCQueue<E> extends AbstractQueue<E> implements BlockingQueu
         Node next;
         E item;
         int size;
+        long offerNanos;
     }
 }
@@ -39,6 +39,7 @@ import com.hazelcast.map.impl.mapstore.MapStoreContext;
 import com.hazelcast.map.impl.nearcache.invalidation.InvalidationListener;
 import com.hazelcast.map.impl.query.QueryEntryFactory;
 import com.hazelcast.map.impl.record.DataRecordFactory;
+import com.hazelcast.map.impl.record.NativeRecordFactory;
 import com.hazelcast.map.impl.record.ObjectRecordFactory;
 import com.hazelcast.map.impl.record.RecordFactory;
 import com.hazelcast.nio.ClassLoaderUtil;
@@ -68,6 +69,7 @@ import static com.hazelcast.config.InMemoryFormat.NATIVE;
 import static com.hazelcast.config.InMemoryFormat.OBJECT;
 import static com.hazelcast.map.impl.eviction.Evictor.NULL_EVICTOR;
 import static com.hazelcast.map.impl.mapstore.MapStoreContextFactory.createMapStoreContext;
+import static com.hazelcast.spi.ExecutionService.QUERY_EXECUTOR;
 import static com.hazelcast.spi.properties.GroupProperty.MAP_EVICTION_BATCH_SIZE;
 import static java.lang.System.getProperty;
 
@@ -155,6 +157,7 @@ public class MapContainer {
                 .statsEnabled(mapConfig.isStatisticsEnabled())
                 .indexProvider(mapServiceContext.getIndexProvider(mapConfig))
                 .usesCachedQueryableEntries(mapConfig.getCacheDeserializedValues() != CacheDeserializedValues.NEVER)
+                .histogramExecutor(mapServiceContext.getNodeEngine().getExecutionService().getExecutor(QUERY_EXECUTOR))
                 .build();
     }
 
@@ -227,6 +230,9 @@ public class MapContainer {
                     return new DataRecordFactory(mapConfig, serializationService, partitioningStrategy);
                 case OBJECT:
                     return new ObjectRecordFactory(mapConfig, serializationService);
+                case NATIVE:
+                    return new NativeRecordFactory(serializationService, partitioningStrategy,
+                            mapServiceContext.getNativeMemoryManager());
                 default:
                     throw new IllegalArgumentException("Invalid storage format: " + mapConfig.getInMemoryFormat());
             }
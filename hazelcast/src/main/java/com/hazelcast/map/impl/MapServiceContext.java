@@ -21,6 +21,7 @@ import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.MapConfig;
 import com.hazelcast.config.PartitioningStrategyConfig;
 import com.hazelcast.internal.eviction.ExpirationManager;
+import com.hazelcast.internal.memory.impl.UnsafeMallocMemoryManager;
 import com.hazelcast.internal.util.comparators.ValueComparator;
 import com.hazelcast.map.impl.event.MapEventPublisher;
 import com.hazelcast.map.impl.eviction.MapClearExpiredRecordsTask;
@@ -188,6 +189,16 @@ public interface MapServiceContext extends MapServiceContextInterceptorSupport,
 
     IndexCopyBehavior getIndexCopyBehavior();
 
+    /**
+     * Returns the memory manager which allocates the native memory of maps
+     * with {@link com.hazelcast.config.InMemoryFormat#NATIVE NATIVE}
+     * in-memory-format. It is created on first use and its capacity is
+     * bounded by the configured {@link com.hazelcast.config.NativeMemoryConfig#getSize()}.
+     *
+     * @return the native memory manager of this member
+     */
+    UnsafeMallocMemoryManager getNativeMemoryManager();
+
     /**
      * Returns the collection of the {@link RecordStoreMutationObserver}s
      * for the given map's partition that need to be added in record
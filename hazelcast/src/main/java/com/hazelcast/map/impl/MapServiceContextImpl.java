@@ -23,6 +23,7 @@ import com.hazelcast.config.MergePolicyConfig;
 import com.hazelcast.config.MetadataPolicy;
 import com.hazelcast.config.PartitioningStrategyConfig;
 import com.hazelcast.internal.eviction.ExpirationManager;
+import com.hazelcast.internal.memory.impl.UnsafeMallocMemoryManager;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.util.InvocationUtil;
 import com.hazelcast.internal.util.LocalRetryableExecution;
@@ -76,6 +77,7 @@ import com.hazelcast.partition.PartitioningStrategy;
 import com.hazelcast.query.impl.DefaultIndexProvider;
 import com.hazelcast.query.impl.IndexCopyBehavior;
 import com.hazelcast.query.impl.IndexProvider;
+import com.hazelcast.query.impl.NativeIndexProvider;
 import com.hazelcast.query.impl.getters.Extractors;
 import com.hazelcast.query.impl.predicates.QueryOptimizer;
 import com.hazelcast.spi.EventFilter;
@@ -161,6 +163,8 @@ class MapServiceContextImpl implements MapServiceContext {
 
     private MapService mapService;
 
+    private volatile UnsafeMallocMemoryManager nativeMemoryManager;
+
     @SuppressWarnings("checkstyle:executablestatementcount")
     MapServiceContextImpl(NodeEngine nodeEngine) {
         this.nodeEngine = nodeEngine;
@@ -734,6 +738,9 @@ class MapServiceContextImpl implements MapServiceContext {
 
     @Override
     public IndexProvider getIndexProvider(MapConfig mapConfig) {
+        if (mapConfig.getInMemoryFormat() == InMemoryFormat.NATIVE) {
+            return new NativeIndexProvider(getNativeMemoryManager());
+        }
         return indexProvider;
     }
 
@@ -824,6 +831,22 @@ class MapServiceContextImpl implements MapServiceContext {
         return nodeEngine.getProperties().getEnum(INDEX_COPY_BEHAVIOR, IndexCopyBehavior.class);
     }
 
+    @Override
+    public UnsafeMallocMemoryManager getNativeMemoryManager() {
+        UnsafeMallocMemoryManager memoryManager = nativeMemoryManager;
+        if (memoryManager == null) {
+            synchronized (this) {
+                memoryManager = nativeMemoryManager;
+                if (memoryManager == null) {
+                    long capacity = nodeEngine.getConfig().getNativeMemoryConfig().getSize().bytes();
+                    memoryManager = new UnsafeMallocMemoryManager(capacity);
+                    nativeMemoryManager = memoryManager;
+                }
+            }
+        }
+        return memoryManager;
+    }
+
     @Override
     public Collection<RecordStoreMutationObserver<Record>> createRecordStoreMutationObservers(String mapName, int partitionId) {
         Collection<RecordStoreMutationObserver<Record>> observers = new LinkedList<>();
@@ -16,6 +16,8 @@
 
 package com.hazelcast.map.impl;
 
+import com.hazelcast.nio.serialization.Data;
+
 /**
  * Adapter of arbitrary store. This adapter is used to pass record store to the index store.
  */
@@ -44,4 +46,12 @@ public interface StoreAdapter<R> {
      */
     boolean isExpirable();
 
+    /**
+     * Returns the record stored under the given key without touching its
+     * access statistics.
+     * @param key the key of the record
+     * @return the record or {@code null} if there is no record for the {@code key}.
+     */
+    R getRecord(Data key);
+
 }
@@ -28,6 +28,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
+import java.util.concurrent.Future;
 
 import static com.hazelcast.util.CollectionUtil.isNotEmpty;
 
@@ -38,7 +39,11 @@ import static com.hazelcast.util.CollectionUtil.isNotEmpty;
  * <li>the fetch size</li>
  * <li>whether a projection was applied to the entries</li>
  * <li>whether a predicate was applied to the entries</li>
+ * <li>whether the next batch is prefetched while the current one is being
+ * consumed</li>
  * </ul>
+ * At most one batch is requested ahead of the consumer, so the memory held by
+ * the iterator is bounded by two batches regardless of the partition size.
  *
  * @param <K> the key type
  * @param <V> the value type
@@ -50,6 +55,7 @@ public abstract class AbstractMapQueryPartitionIterator<K, V, R> implements Iter
     protected final int fetchSize;
     protected final int partitionId;
     protected final Query query;
+    protected final boolean prefetch;
 
     /**
      * The table is segment table of hash map, which is an array that stores the actual records.
@@ -65,11 +71,20 @@ public abstract class AbstractMapQueryPartitionIterator<K, V, R> implements Iter
 
     protected List<Data> segment;
 
+    private Future<?> pendingFetch;
+
     public AbstractMapQueryPartitionIterator(IMap<K, V> map, int fetchSize, int partitionId,
                                              Predicate<K, V> predicate, Projection<Entry<K, V>, R> projection) {
+        this(map, fetchSize, partitionId, predicate, projection, false);
+    }
+
+    public AbstractMapQueryPartitionIterator(IMap<K, V> map, int fetchSize, int partitionId,
+                                             Predicate<K, V> predicate, Projection<Entry<K, V>, R> projection,
+                                             boolean prefetch) {
         this.map = map;
         this.fetchSize = fetchSize;
         this.partitionId = partitionId;
+        this.prefetch = prefetch;
         this.query = Query.of()
                           .mapName(map.getName())
                           .iterationType(IterationType.VALUE)
@@ -103,21 +118,52 @@ public abstract class AbstractMapQueryPartitionIterator<K, V, R> implements Iter
             lastTableIndex = Integer.MAX_VALUE;
             return false;
         }
-        segment = fetch();
+        if (pendingFetch != null) {
+            Future<?> request = pendingFetch;
+            pendingFetch = null;
+            segment = readSegment(request);
+        } else {
+            segment = fetch();
+        }
         if (isNotEmpty(segment)) {
             index = 0;
+            if (prefetch && lastTableIndex >= 0) {
+                pendingFetch = requestSegment();
+            }
             return true;
         }
         return false;
     }
 
+    /**
+     * Fetches the batch following the {@link #lastTableIndex} and waits for it.
+     */
+    protected List<Data> fetch() {
+        return readSegment(requestSegment());
+    }
+
     protected void setLastTableIndex(List<Data> segment, int lastTableIndex) {
         if (isNotEmpty(segment)) {
             this.lastTableIndex = lastTableIndex;
         }
     }
 
-    protected abstract List<Data> fetch();
+    /**
+     * Sends the request for the batch following the {@link #lastTableIndex}
+     * without waiting for the response.
+     *
+     * @return the future of the request response
+     */
+    protected abstract Future<?> requestSegment();
+
+    /**
+     * Waits for the response of the request sent by {@link #requestSegment()},
+     * advances the {@link #lastTableIndex} and returns the fetched batch.
+     *
+     * @param request the future returned by {@link #requestSegment()}
+     * @return the fetched batch
+     */
+    protected abstract List<Data> readSegment(Future<?> request);
 
     protected abstract SerializationService getSerializationService();
 
@@ -26,13 +26,13 @@ import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.projection.Projection;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.spi.InternalCompletableFuture;
-import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.serialization.SerializationService;
 
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.concurrent.Future;
 
 /**
  * Iterator for iterating map entries in the {@code partitionId}. The values are not fetched one-by-one but rather in batches.
@@ -48,16 +48,28 @@ public class MapQueryPartitionIterator<K, V, R> extends AbstractMapQueryPartitio
 
     public MapQueryPartitionIterator(MapProxyImpl<K, V> mapProxy, int fetchSize, int partitionId,
                                      Predicate<K, V> predicate, Projection<Entry<K, V>, R> projection) {
-        super(mapProxy, fetchSize, partitionId, predicate, projection);
+        this(mapProxy, fetchSize, partitionId, predicate, projection, false);
+    }
+
+    public MapQueryPartitionIterator(MapProxyImpl<K, V> mapProxy, int fetchSize, int partitionId,
+                                     Predicate<K, V> predicate, Projection<Entry<K, V>, R> projection,
+                                     boolean prefetch) {
+        super(mapProxy, fetchSize, partitionId, predicate, projection, prefetch);
         this.mapProxy = mapProxy;
         advance();
     }
 
-    protected List<Data> fetch() {
+    @Override
+    protected Future<?> requestSegment() {
         final MapOperation op = mapProxy.getOperationProvider()
                                         .createFetchWithQueryOperation(mapProxy.getName(), lastTableIndex, fetchSize, query);
+        return mapProxy.getOperationService().invokeOnPartition(mapProxy.getServiceName(), op, partitionId);
+    }
 
-        final ResultSegment segment = invoke(op);
+    @Override
+    @SuppressWarnings("unchecked")
+    protected List<Data> readSegment(Future<?> request) {
+        final ResultSegment segment = ((InternalCompletableFuture<ResultSegment>) request).join();
         final QueryResult queryResult = (QueryResult) segment.getResult();
 
         final List<Data> serialized = new ArrayList<>(queryResult.size());
@@ -69,12 +81,6 @@ public class MapQueryPartitionIterator<K, V, R> extends AbstractMapQueryPartitio
         return serialized;
     }
 
-    private ResultSegment invoke(Operation operation) {
-        final InternalCompletableFuture<ResultSegment> future =
-                mapProxy.getOperationService().invokeOnPartition(mapProxy.getServiceName(), operation, partitionId);
-        return future.join();
-    }
-
     @Override
     protected SerializationService getSerializationService() {
         return mapProxy.getNodeEngine().getSerializationService();
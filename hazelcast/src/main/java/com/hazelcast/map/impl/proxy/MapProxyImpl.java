@@ -33,6 +33,7 @@ import com.hazelcast.map.QueryCache;
 import com.hazelcast.map.impl.MapService;
 import com.hazelcast.map.impl.SimpleEntryView;
 import com.hazelcast.map.impl.iterator.MapPartitionIterator;
+import com.hazelcast.map.impl.iterator.MapQueryIterator;
 import com.hazelcast.map.impl.iterator.MapQueryPartitionIterator;
 import com.hazelcast.map.impl.journal.MapEventJournalReadOperation;
 import com.hazelcast.map.impl.journal.MapEventJournalSubscribeOperation;
@@ -967,6 +968,42 @@ public class MapProxyImpl<K, V> extends MapProxySupport<K, V> implements EventJo
         return new MapQueryPartitionIterator<>(this, fetchSize, partitionId, predicate, projection);
     }
 
+    /**
+     * Returns an iterator streaming the result of the projection on entries of all
+     * partitions which satisfy the {@code predicate}.
+     * <p>
+     * Unlike {@link #entrySet(Predicate)} and {@link #values(Predicate)}, the result
+     * is never fully materialized, neither on the members nor on the caller. The
+     * partitions are queried one after another in batches of {@code fetchSize} items
+     * using the same machinery as {@link #iterator(int, int, Projection, Predicate)}.
+     * The next batch of a partition is requested while the current one is being
+     * consumed, but not before, so a slow consumer is never sent more than a single
+     * batch ahead and the memory held by the iterator stays bounded.
+     * Predicates of type {@link PagingPredicate} are not supported.
+     * <p>
+     * <b>NOTE</b>
+     * Iterating the map should be done only when the {@link IMap} is not being
+     * mutated and the cluster is stable (there are no migrations or membership changes).
+     * In other cases, the iterator may not return some entries or may return an entry twice.
+     *
+     * @param fetchSize  the size of the batches which will be sent when iterating the data
+     * @param projection the projection to apply before returning the value. {@code null} value is not allowed
+     * @param predicate  the predicate which the entries must match. {@code null} value is not allowed
+     * @param <R>        the return type
+     * @return the iterator for the projected entries
+     * @throws IllegalArgumentException if the predicate is of type {@link PagingPredicate}
+     */
+    public <R> Iterator<R> iterator(int fetchSize, Projection<Map.Entry<K, V>, R> projection, Predicate<K, V> predicate) {
+        checkNotPagingPredicate(predicate, "iterator");
+        checkNotNull(projection, NULL_PROJECTION_IS_NOT_ALLOWED);
+        checkNotNull(predicate, NULL_PREDICATE_IS_NOT_ALLOWED);
+        // HazelcastInstanceAware handled by cloning
+        Projection<Map.Entry<K, V>, R> clonedProjection = serializationService.toObject(serializationService.toData(projection));
+        handleHazelcastInstanceAwareParams(predicate);
+        return new MapQueryIterator<>(partitionService.getPartitionCount(), partitionId ->
+                new MapQueryPartitionIterator<>(this, fetchSize, partitionId, predicate, clonedProjection, true));
+    }
+
     @Override
     public ICompletableFuture<EventJournalInitialSubscriberState> subscribeToEventJournal(int partitionId) {
         final MapEventJournalSubscribeOperation op = new MapEventJournalSubscribeOperation(name);
@@ -35,7 +35,8 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
 /**
  * Implementation of the {@link AccumulationExecutor} that runs the accumulation in a multi-threaded way.
  * Entries are split into chunks and each chunk is sent as a task to the underlying executor.
- * At the end the result is merged to a single AggregationResult.
+ * The chunk aggregators are combined by the tasks themselves as they complete, at the end the combined
+ * aggregator is merged to a single AggregationResult.
  */
 public class ParallelAccumulationExecutor implements AccumulationExecutor {
 
@@ -56,13 +57,11 @@ public class ParallelAccumulationExecutor implements AccumulationExecutor {
     @SuppressWarnings("unchecked")
     public AggregationResult execute(
             Aggregator aggregator, Collection<QueryableEntry> entries, PartitionIdSet partitionIds) {
-        Collection<Aggregator> chunkAggregators = accumulateParallel(aggregator, entries);
+        Aggregator combinedAggregator = accumulateParallel(aggregator, entries);
 
         Aggregator resultAggregator = clone(aggregator);
         try {
-            for (Aggregator chunkAggregator : chunkAggregators) {
-                resultAggregator.combine(chunkAggregator);
-            }
+            resultAggregator.combine(combinedAggregator);
         } finally {
             resultAggregator.onCombinationFinished();
         }
@@ -72,21 +71,23 @@ public class ParallelAccumulationExecutor implements AccumulationExecutor {
         return result;
     }
 
-    protected Collection<Aggregator> accumulateParallel(Aggregator aggregator, Collection<QueryableEntry> entries) {
+    protected Aggregator accumulateParallel(Aggregator aggregator, Collection<QueryableEntry> entries) {
         Collection<Future<Aggregator>> futures = new ArrayList<>();
+        PartialResultCombiner<Aggregator> combiner = new PartialResultCombiner<Aggregator>(Aggregator::combine);
         Collection<QueryableEntry>[] chunks = split(entries, THREAD_SPLIT_COUNT);
         if (chunks == null) {
             // not enough elements for split
-            AccumulatePartitionCallable task = new AccumulatePartitionCallable(clone(aggregator), entries);
+            AccumulatePartitionCallable task = new AccumulatePartitionCallable(clone(aggregator), entries, combiner);
             futures.add(executor.submit(task));
         } else {
             // split elements
             for (Collection<QueryableEntry> chunk : chunks) {
-                AccumulatePartitionCallable task = new AccumulatePartitionCallable(clone(aggregator), chunk);
+                AccumulatePartitionCallable task = new AccumulatePartitionCallable(clone(aggregator), chunk, combiner);
                 futures.add(executor.submit(task));
             }
         }
-        return returnWithDeadline(futures, callTimeoutInMillis, MILLISECONDS, RETHROW_EVERYTHING);
+        returnWithDeadline(futures, callTimeoutInMillis, MILLISECONDS, RETHROW_EVERYTHING);
+        return combiner.getResult();
     }
 
     private Collection<QueryableEntry>[] split(Collection<QueryableEntry> entries, int chunkCount) {
@@ -113,10 +114,13 @@ public class ParallelAccumulationExecutor implements AccumulationExecutor {
     private static final class AccumulatePartitionCallable implements Callable<Aggregator> {
         private final Aggregator aggregator;
         private final Collection<QueryableEntry> entries;
+        private final PartialResultCombiner<Aggregator> combiner;
 
-        private AccumulatePartitionCallable(Aggregator aggregator, Collection<QueryableEntry> entries) {
+        private AccumulatePartitionCallable(Aggregator aggregator, Collection<QueryableEntry> entries,
+                                            PartialResultCombiner<Aggregator> combiner) {
             this.aggregator = aggregator;
             this.entries = entries;
+            this.combiner = combiner;
         }
 
         @Override
@@ -128,6 +132,7 @@ public class ParallelAccumulationExecutor implements AccumulationExecutor {
             } finally {
                 aggregator.onAccumulationFinished();
             }
+            combiner.offer(aggregator);
             return aggregator;
         }
     }
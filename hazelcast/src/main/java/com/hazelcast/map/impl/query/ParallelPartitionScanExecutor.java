@@ -37,6 +37,13 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
 /**
  * Implementation of the {@link PartitionScanExecutor} which executes the partition scan in a parallel-fashion
  * delegating to the underlying executor.
+ * <p>
+ * Every partition is scanned by the {@link PartitionScanRunner}, so the columnar scan, if enabled, is used by
+ * every parallel partition scan task.
+ * <p>
+ * The partial {@link AggregationResult}s of the partitions are combined by the scan tasks themselves as they
+ * complete, so the aggregators are combined in parallel and only the combined partial result is left to the
+ * calling thread.
  */
 public class ParallelPartitionScanExecutor implements PartitionScanExecutor {
 
@@ -73,20 +80,31 @@ public class ParallelPartitionScanExecutor implements PartitionScanExecutor {
     protected void runUsingPartitionScanWithoutPaging(String name, Predicate predicate, Collection<Integer> partitions,
                                                       Result result) {
         List<Future<Result>> futures = new ArrayList<>(partitions.size());
+        PartialResultCombiner<Result> combiner = result instanceof AggregationResult
+                ? new PartialResultCombiner<Result>(Result::combine) : null;
 
         for (Integer partitionId : partitions) {
-            Future<Result> future = runPartitionScanForPartition(name, predicate, partitionId, result.createSubResult());
+            Future<Result> future = runPartitionScanForPartition(name, predicate, partitionId, result.createSubResult(),
+                    combiner);
             futures.add(future);
         }
 
         Collection<Result> subResults = waitForResult(futures, timeoutInMillis);
-        for (Result subResult : subResults) {
-            result.combine(subResult);
+        if (combiner == null) {
+            for (Result subResult : subResults) {
+                result.combine(subResult);
+            }
+        } else {
+            Result combined = combiner.getResult();
+            if (combined != null) {
+                result.combine(combined);
+            }
         }
     }
 
-    protected Future<Result> runPartitionScanForPartition(String name, Predicate predicate, int partitionId, Result result) {
-        QueryPartitionCallable task = new QueryPartitionCallable(name, predicate, partitionId, result);
+    protected Future<Result> runPartitionScanForPartition(String name, Predicate predicate, int partitionId, Result result,
+                                                          PartialResultCombiner<Result> combiner) {
+        QueryPartitionCallable task = new QueryPartitionCallable(name, predicate, partitionId, result, combiner);
         return executor.submit(task);
     }
 
@@ -99,12 +117,15 @@ public class ParallelPartitionScanExecutor implements PartitionScanExecutor {
         protected final String name;
         protected final Predicate predicate;
         protected final Result result;
+        protected final PartialResultCombiner<Result> combiner;
 
-        private QueryPartitionCallable(String name, Predicate predicate, int partitionId, Result result) {
+        private QueryPartitionCallable(String name, Predicate predicate, int partitionId, Result result,
+                                       PartialResultCombiner<Result> combiner) {
             this.name = name;
             this.predicate = predicate;
             this.partition = partitionId;
             this.result = result;
+            this.combiner = combiner;
         }
 
         @Override
@@ -112,6 +133,9 @@ public class ParallelPartitionScanExecutor implements PartitionScanExecutor {
             partitionScanRunner.run(name, predicate, partition, result);
             result.setPartitionIds(singletonPartitionIdSet(partitionScanRunner.partitionService.getPartitionCount(),
                     partition));
+            if (combiner != null) {
+                combiner.offer(result);
+            }
             return result;
         }
     }
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+/**
+ * Combines the partial results produced by concurrently running tasks in the
+ * tasks themselves.
+ * <p>
+ * A task finishing its partial result combines it with the partial result
+ * left by another finished task, if any, and offers the combined result
+ * again. This way the partial results are combined pairwise in parallel as
+ * the tasks complete, instead of combining all of them one by one in the
+ * thread waiting for the tasks.
+ *
+ * @param <T> the type of the partial results
+ */
+final class PartialResultCombiner<T> {
+
+    private final AtomicReference<T> pending = new AtomicReference<T>();
+    private final BiConsumer<T, T> combineFunction;
+
+    /**
+     * @param combineFunction the function combining the second given partial
+     *                        result into the first one.
+     */
+    PartialResultCombiner(BiConsumer<T, T> combineFunction) {
+        this.combineFunction = combineFunction;
+    }
+
+    /**
+     * Combines the given partial result with the pending ones.
+     * <p>
+     * Invoked by the tasks producing the partial results once the results are
+     * complete.
+     */
+    void offer(T partial) {
+        T combined = partial;
+        while (true) {
+            T other = pending.getAndSet(null);
+            if (other == null) {
+                if (pending.compareAndSet(null, combined)) {
+                    return;
+                }
+            } else {
+                combineFunction.accept(combined, other);
+            }
+        }
+    }
+
+    /**
+     * Returns the result combined from all the offered partial results.
+     * <p>
+     * Should be invoked once all the tasks offering the partial results are
+     * completed.
+     *
+     * @return the combined result or {@code null} if nothing was offered.
+     */
+    T getResult() {
+        return pending.get();
+    }
+
+}
@@ -38,10 +38,12 @@ import com.hazelcast.query.Predicate;
 import com.hazelcast.query.impl.QueryableEntriesSegment;
 import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.query.impl.predicates.ColumnarFilter;
 import com.hazelcast.spi.NodeEngine;
 import com.hazelcast.spi.impl.operationservice.OperationService;
 import com.hazelcast.spi.partition.IPartitionService;
 import com.hazelcast.util.Clock;
+import com.hazelcast.util.TopNSelector;
 
 import java.util.Collection;
 import java.util.Iterator;
@@ -49,9 +51,12 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.function.Consumer;
 
 import static com.hazelcast.query.PagingPredicateAccessor.getNearestAnchorEntry;
+import static com.hazelcast.spi.properties.GroupProperty.QUERY_COLUMNAR_SCAN;
 import static com.hazelcast.util.SortingUtil.compareAnchor;
+import static com.hazelcast.util.SortingUtil.newTopNSelector;
 
 /**
  * Responsible for running a full-partition scan for a single partition in the calling thread.
@@ -65,6 +70,7 @@ public class PartitionScanRunner {
     protected final IPartitionService partitionService;
     protected final OperationService operationService;
     protected final ClusterService clusterService;
+    protected final boolean columnarScan;
 
     public PartitionScanRunner(MapServiceContext mapServiceContext) {
         this.mapServiceContext = mapServiceContext;
@@ -74,11 +80,13 @@ public class PartitionScanRunner {
         this.logger = nodeEngine.getLogger(getClass());
         this.operationService = nodeEngine.getOperationService();
         this.clusterService = nodeEngine.getClusterService();
+        this.columnarScan = nodeEngine.getProperties().getBoolean(QUERY_COLUMNAR_SCAN);
     }
 
-    @SuppressWarnings("unchecked")
     public void run(String mapName, Predicate predicate, int partitionId, Result result) {
         PagingPredicate pagingPredicate = predicate instanceof PagingPredicate ? (PagingPredicate) predicate : null;
+        ColumnarFilter columnarFilter = columnarScan ? ColumnarFilter.compile(predicate) : null;
+        ScanFilter filter = columnarFilter == null ? new PredicateScanFilter(predicate) : new ColumnarScanFilter(columnarFilter);
 
         PartitionContainer partitionContainer = mapServiceContext.getPartitionContainer(partitionId);
         MapContainer mapContainer = mapServiceContext.getMapContainer(mapName);
@@ -87,8 +95,9 @@ public class PartitionScanRunner {
         Map.Entry<Integer, Map.Entry> nearestAnchorEntry = getNearestAnchorEntry(pagingPredicate);
         boolean useCachedValues = isUseCachedDeserializedValuesEnabled(mapContainer, partitionId);
         Extractors extractors = mapServiceContext.getExtractors(mapName);
-        LazyMapEntry queryEntry = new LazyMapEntry();
         StoreAdapter storeAdapter = new RecordStoreAdapter(recordStore);
+        TopNSelector<QueryableEntry> topN = newTopNSelector(pagingPredicate, nearestAnchorEntry);
+        ScanSink sink = new ScanSink(pagingPredicate, nearestAnchorEntry, topN == null ? result::add : topN::offer);
         while (iterator.hasNext()) {
             Record record = iterator.next();
             Data key = (Data) toData(record.getKey());
@@ -99,20 +108,163 @@ public class PartitionScanRunner {
                 continue;
             }
 
+            LazyMapEntry queryEntry = filter.nextEntry();
             queryEntry.init(serializationService, key, value, extractors);
             queryEntry.setMetadata(metadata);
             queryEntry.setRecord(record);
             queryEntry.setStoreAdapter(storeAdapter);
-            boolean valid = predicate.apply(queryEntry);
-            if (valid && compareAnchor(pagingPredicate, queryEntry, nearestAnchorEntry)) {
-                result.add(queryEntry);
+            filter.filter(queryEntry, sink);
+        }
+        filter.flush(sink);
+        addSelected(topN, result);
+        result.orderAndLimit(pagingPredicate, nearestAnchorEntry);
+    }
+
+    /**
+     * Adds the entries selected for the page of the paging predicate to the
+     * given result. Only the entries the page may consist of are retained
+     * while scanning, so the partition result never exceeds the page.
+     */
+    private static void addSelected(TopNSelector<QueryableEntry> topN, Result result) {
+        if (topN != null) {
+            for (QueryableEntry entry : topN.toSortedList()) {
+                result.add(entry);
+            }
+        }
+    }
+
+    /**
+     * Receives the entries matched by a full-partition scan, skipping the
+     * ones preceding the anchor of the paging predicate.
+     */
+    private static final class ScanSink {
+
+        private final PagingPredicate pagingPredicate;
+        private final Map.Entry<Integer, Map.Entry> nearestAnchorEntry;
+        private final Consumer<QueryableEntry> consumer;
+
+        ScanSink(PagingPredicate pagingPredicate, Map.Entry<Integer, Map.Entry> nearestAnchorEntry,
+                 Consumer<QueryableEntry> consumer) {
+            this.pagingPredicate = pagingPredicate;
+            this.nearestAnchorEntry = nearestAnchorEntry;
+            this.consumer = consumer;
+        }
+
+        /**
+         * @return {@code true} if the entry was retained and can't be reused,
+         * {@code false} otherwise.
+         */
+        boolean offer(QueryableEntry entry) {
+            if (!compareAnchor(pagingPredicate, entry, nearestAnchorEntry)) {
+                return false;
+            }
+            consumer.accept(entry);
+            return true;
+        }
+    }
+
+    /**
+     * Filters the entries produced by a full-partition scan.
+     */
+    private interface ScanFilter {
+
+        /**
+         * @return the entry to populate with the next scanned record.
+         */
+        LazyMapEntry nextEntry();
+
+        /**
+         * Filters the given entry previously returned by {@link #nextEntry}
+         * and populated, the matching entries are offered to the given sink
+         * right away or on the next {@link #flush}.
+         */
+        void filter(LazyMapEntry entry, ScanSink sink);
+
+        /**
+         * Offers the pending matching entries to the given sink.
+         */
+        void flush(ScanSink sink);
+    }
+
+    /**
+     * Applies the predicate entry by entry.
+     */
+    private static final class PredicateScanFilter implements ScanFilter {
+
+        private final Predicate predicate;
+        private LazyMapEntry entry = new LazyMapEntry();
+
+        PredicateScanFilter(Predicate predicate) {
+            this.predicate = predicate;
+        }
+
+        @Override
+        public LazyMapEntry nextEntry() {
+            return entry;
+        }
 
+        @SuppressWarnings("unchecked")
+        @Override
+        public void filter(LazyMapEntry entry, ScanSink sink) {
+            if (predicate.apply(entry) && sink.offer(entry)) {
                 // We can't reuse the existing entry after it was added to the
                 // result. Allocate the new one.
-                queryEntry = new LazyMapEntry();
+                this.entry = new LazyMapEntry();
             }
         }
-        result.orderAndLimit(pagingPredicate, nearestAnchorEntry);
+
+        @Override
+        public void flush(ScanSink sink) {
+            // nothing is pending
+        }
+    }
+
+    /**
+     * Evaluates the columnar filter over chunks of entries instead of
+     * applying the predicate entry by entry.
+     */
+    private static final class ColumnarScanFilter implements ScanFilter {
+
+        private final ColumnarFilter columnarFilter;
+        private final LazyMapEntry[] chunk = new LazyMapEntry[ColumnarFilter.CHUNK_SIZE];
+        private int size;
+
+        ColumnarScanFilter(ColumnarFilter columnarFilter) {
+            this.columnarFilter = columnarFilter;
+        }
+
+        @Override
+        public LazyMapEntry nextEntry() {
+            LazyMapEntry entry = chunk[size];
+            if (entry == null) {
+                entry = new LazyMapEntry();
+                chunk[size] = entry;
+            }
+            return entry;
+        }
+
+        @Override
+        public void filter(LazyMapEntry entry, ScanSink sink) {
+            if (++size == chunk.length) {
+                flush(sink);
+            }
+        }
+
+        @Override
+        public void flush(ScanSink sink) {
+            if (size == 0) {
+                return;
+            }
+            long[] matches = columnarFilter.filter(chunk, size);
+            for (int i = 0; i < size; ++i) {
+                if (ColumnarFilter.isMatched(matches, i) && sink.offer(chunk[i])) {
+                    // We can't reuse the existing entry after it was added to the
+                    // result. The new one is allocated for the next chunk.
+                    chunk[i] = null;
+                }
+            }
+            size = 0;
+        }
     }
 
     // overridden in ee
@@ -143,6 +295,7 @@ public class PartitionScanRunner {
         final PartitionContainer partitionContainer = mapServiceContext.getPartitionContainer(partitionId);
         final RecordStore recordStore = partitionContainer.getRecordStore(mapName);
         final Extractors extractors = mapServiceContext.getExtractors(mapName);
+        final ColumnarFilter columnarFilter = columnarScan ? ColumnarFilter.compile(predicate) : null;
 
         while (resultList.size() < fetchSize && lastIndex >= 0) {
             final MapEntriesWithCursor cursor = recordStore.fetchEntries(lastIndex, fetchSize - resultList.size());
@@ -151,6 +304,10 @@ public class PartitionScanRunner {
             if (entries.isEmpty()) {
                 break;
             }
+            if (columnarFilter != null) {
+                addMatches(columnarFilter, entries, extractors, resultList);
+                continue;
+            }
             for (Entry<Data, Data> entry : entries) {
                 QueryableEntry queryEntry = new LazyMapEntry(entry.getKey(), entry.getValue(), serializationService, extractors);
                 if (predicate.apply(queryEntry)) {
@@ -161,6 +318,26 @@ public class PartitionScanRunner {
         return new QueryableEntriesSegment(resultList, lastIndex);
     }
 
+    private void addMatches(ColumnarFilter columnarFilter, Collection<? extends Entry<Data, Data>> entries,
+                            Extractors extractors, List<QueryableEntry> resultList) {
+        QueryableEntry[] chunk = new QueryableEntry[Math.min(entries.size(), ColumnarFilter.CHUNK_SIZE)];
+        int size = 0;
+        Iterator<? extends Entry<Data, Data>> iterator = entries.iterator();
+        while (iterator.hasNext()) {
+            Entry<Data, Data> entry = iterator.next();
+            chunk[size++] = new LazyMapEntry(entry.getKey(), entry.getValue(), serializationService, extractors);
+            if (size == chunk.length || !iterator.hasNext()) {
+                long[] matches = columnarFilter.filter(chunk, size);
+                for (int i = 0; i < size; ++i) {
+                    if (ColumnarFilter.isMatched(matches, i)) {
+                        resultList.add(chunk[i]);
+                    }
+                }
+                size = 0;
+            }
+        }
+    }
+
     protected boolean isUseCachedDeserializedValuesEnabled(MapContainer mapContainer, int partitionId) {
         CacheDeserializedValues cacheDeserializedValues = mapContainer.getMapConfig().getCacheDeserializedValues();
         switch (cacheDeserializedValues) {
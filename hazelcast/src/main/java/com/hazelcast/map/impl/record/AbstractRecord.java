@@ -45,17 +45,21 @@ public abstract class AbstractRecord<V> implements Record<V> {
      */
     public static final long EPOCH_TIME = zeroOutMs(1514764800000L);
 
-    private static final int NUMBER_OF_LONGS = 2;
-    private static final int NUMBER_OF_INTS = 5;
+    private static final int NUMBER_OF_LONGS = 1;
+    private static final int NUMBER_OF_INTS = 6;
 
     protected Data key;
     protected long version;
     protected int ttl;
     protected int maxIdle;
 
+    /**
+     * Kept as an {@code int} to keep the record compact, saturates at
+     * {@link Integer#MAX_VALUE} which is enough for hit based eviction.
+     */
     @SuppressFBWarnings(value = "VO_VOLATILE_INCREMENT",
             justification = "Record can be accessed by only its own partition thread.")
-    protected volatile long hits;
+    protected volatile int hits;
     private volatile int lastAccessTime = NOT_AVAILABLE;
     private volatile int lastUpdateTime = NOT_AVAILABLE;
     private int creationTime = NOT_AVAILABLE;
@@ -150,7 +154,7 @@ public abstract class AbstractRecord<V> implements Record<V> {
 
     @Override
     public void setHits(long hits) {
-        this.hits = hits;
+        this.hits = hits > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) hits;
     }
 
     @Override
@@ -171,7 +175,9 @@ public abstract class AbstractRecord<V> implements Record<V> {
 
     @Override
     public void onAccess(long now) {
-        hits++;
+        if (hits != Integer.MAX_VALUE) {
+            hits++;
+        }
         onAccessSafe(now);
     }
 
@@ -268,7 +274,7 @@ public abstract class AbstractRecord<V> implements Record<V> {
         result = 31 * result + ttl;
         result = 31 * result + maxIdle;
         result = 31 * result + creationTime;
-        result = 31 * result + (int) (hits ^ (hits >>> 32));
+        result = 31 * result + hits;
         result = 31 * result + lastAccessTime;
         result = 31 * result + lastUpdateTime;
         return result;
@@ -0,0 +1,370 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.Metadata;
+import com.hazelcast.util.Clock;
+
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.LONG_SIZE_IN_BYTES;
+
+/**
+ * Flyweight {@link Record} over an entry block which lives in native memory.
+ * <p>
+ * The entry block keeps all record metadata and the key blob, the value blob
+ * is kept in a separate block so that it can be replaced without moving the
+ * entry block. Layout of the entry block:
+ * <pre>
+ * +---------------------+-------+
+ * | next entry address  | long  |
+ * | value block address | long  |
+ * | version             | long  |
+ * | ttl                 | long  |
+ * | maxIdle             | long  |
+ * | creationTime        | long  |
+ * | lastAccessTime      | long  |
+ * | lastUpdateTime      | long  |
+ * | lastStoredTime      | long  |
+ * | expirationTime      | long  |
+ * | hits                | long  |
+ * | sequence            | long  |
+ * | key size            | int   |
+ * | (padding)           | int   |
+ * | key bytes           | bytes |
+ * +---------------------+-------+
+ * </pre>
+ * The value block starts with an {@code int} size which is followed by the
+ * value bytes.
+ * <p>
+ * The key and the value are handed out as on-heap {@link HeapData} copies,
+ * which are cached by the flyweight instance. Instances must only be accessed
+ * by the partition thread owning the record.
+ */
+@SuppressWarnings("checkstyle:methodcount")
+public final class NativeRecord implements Record<Data> {
+
+    static final int NEXT_OFFSET = 0;
+    static final int VALUE_ADDRESS_OFFSET = NEXT_OFFSET + LONG_SIZE_IN_BYTES;
+    static final int VERSION_OFFSET = VALUE_ADDRESS_OFFSET + LONG_SIZE_IN_BYTES;
+    static final int TTL_OFFSET = VERSION_OFFSET + LONG_SIZE_IN_BYTES;
+    static final int MAX_IDLE_OFFSET = TTL_OFFSET + LONG_SIZE_IN_BYTES;
+    static final int CREATION_TIME_OFFSET = MAX_IDLE_OFFSET + LONG_SIZE_IN_BYTES;
+    static final int LAST_ACCESS_TIME_OFFSET = CREATION_TIME_OFFSET + LONG_SIZE_IN_BYTES;
+    static final int LAST_UPDATE_TIME_OFFSET = LAST_ACCESS_TIME_OFFSET + LONG_SIZE_IN_BYTES;
+    static final int LAST_STORED_TIME_OFFSET = LAST_UPDATE_TIME_OFFSET + LONG_SIZE_IN_BYTES;
+    static final int EXPIRATION_TIME_OFFSET = LAST_STORED_TIME_OFFSET + LONG_SIZE_IN_BYTES;
+    static final int HITS_OFFSET = EXPIRATION_TIME_OFFSET + LONG_SIZE_IN_BYTES;
+    static final int SEQUENCE_OFFSET = HITS_OFFSET + LONG_SIZE_IN_BYTES;
+    static final int KEY_SIZE_OFFSET = SEQUENCE_OFFSET + LONG_SIZE_IN_BYTES;
+    static final int KEY_OFFSET = KEY_SIZE_OFFSET + LONG_SIZE_IN_BYTES;
+
+    static final int VALUE_SIZE_OFFSET = 0;
+    static final int VALUE_OFFSET = INT_SIZE_IN_BYTES;
+
+    private final NativeRecordFactory factory;
+    private final MemoryAccessor mem;
+    private final long address;
+
+    private Data key;
+    private Data value;
+
+    NativeRecord(NativeRecordFactory factory, long address) {
+        assert address != NULL_ADDRESS : "NativeRecord cannot be created over NULL_ADDRESS";
+        this.factory = factory;
+        this.mem = factory.mem();
+        this.address = address;
+    }
+
+    /**
+     * @return the address of the entry block of this record
+     */
+    public long address() {
+        return address;
+    }
+
+    /**
+     * @return the address of the next entry block in the same hash bucket or
+     * {@link com.hazelcast.internal.memory.MemoryAllocator#NULL_ADDRESS NULL_ADDRESS}
+     */
+    public long getNext() {
+        return mem.getLong(address + NEXT_OFFSET);
+    }
+
+    public void setNext(long next) {
+        mem.putLong(address + NEXT_OFFSET, next);
+    }
+
+    /**
+     * Compares the stored key blob with the given key without copying the
+     * stored key on-heap.
+     *
+     * @param other the key to compare to
+     * @return {@code true} if the stored key has the same bytes as the given one
+     */
+    public boolean keyEquals(Data other) {
+        if (key != null) {
+            return key.equals(other);
+        }
+        byte[] otherBytes = other.toByteArray();
+        int otherSize = otherBytes == null ? 0 : otherBytes.length;
+        if (keySize() != otherSize) {
+            return false;
+        }
+        long keyAddress = address + KEY_OFFSET;
+        for (int i = otherSize - 1; i >= 0; i--) {
+            if (mem.getByte(keyAddress + i) != otherBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Data getKey() {
+        if (key == null) {
+            key = new HeapData(copyToHeap(address + KEY_OFFSET, keySize()));
+        }
+        return key;
+    }
+
+    /**
+     * The key blob of a native record is immutable, so this method only
+     * caches the supplied on-heap copy of the stored key.
+     */
+    @Override
+    public void setKey(Data key) {
+        assert key == null || keyEquals(key) : "Key of a NativeRecord cannot be changed";
+        this.key = key;
+    }
+
+    @Override
+    public Data getValue() {
+        if (value == null) {
+            long valueAddress = mem.getLong(address + VALUE_ADDRESS_OFFSET);
+            int valueSize = mem.getInt(valueAddress + VALUE_SIZE_OFFSET);
+            value = new HeapData(copyToHeap(valueAddress + VALUE_OFFSET, valueSize));
+        }
+        return value;
+    }
+
+    @Override
+    public void setValue(Data value) {
+        long newValueAddress = factory.allocateValue(value);
+        long oldValueAddress = mem.getLong(address + VALUE_ADDRESS_OFFSET);
+        mem.putLong(address + VALUE_ADDRESS_OFFSET, newValueAddress);
+        factory.freeValue(oldValueAddress);
+        this.value = value;
+    }
+
+    @Override
+    public void onAccess(long now) {
+        setHits(getHits() + 1);
+        onAccessSafe(now);
+    }
+
+    @Override
+    public void onAccessSafe(long now) {
+        setLastAccessTime(now);
+    }
+
+    @Override
+    public void onUpdate(long now) {
+        setVersion(getVersion() + 1);
+        setLastUpdateTime(now);
+    }
+
+    @Override
+    public void onStore() {
+        setLastStoredTime(Clock.currentTimeMillis());
+    }
+
+    /**
+     * Returns native memory cost of this record in bytes.
+     *
+     * @return native memory cost of the entry and value blocks of this record
+     */
+    @Override
+    public long getCost() {
+        long valueAddress = mem.getLong(address + VALUE_ADDRESS_OFFSET);
+        return entryBlockSize(keySize()) + valueBlockSize(mem.getInt(valueAddress + VALUE_SIZE_OFFSET));
+    }
+
+    @Override
+    public long getVersion() {
+        return mem.getLong(address + VERSION_OFFSET);
+    }
+
+    @Override
+    public void setVersion(long version) {
+        mem.putLong(address + VERSION_OFFSET, version);
+    }
+
+    @Override
+    public Object getCachedValueUnsafe() {
+        return Record.NOT_CACHED;
+    }
+
+    @Override
+    public boolean casCachedValue(Object expectedValue, Object newValue) {
+        return true;
+    }
+
+    @Override
+    public long getTtl() {
+        return mem.getLong(address + TTL_OFFSET);
+    }
+
+    @Override
+    public void setTtl(long ttl) {
+        mem.putLong(address + TTL_OFFSET, ttl);
+    }
+
+    @Override
+    public long getMaxIdle() {
+        return mem.getLong(address + MAX_IDLE_OFFSET);
+    }
+
+    @Override
+    public void setMaxIdle(long maxIdle) {
+        mem.putLong(address + MAX_IDLE_OFFSET, maxIdle);
+    }
+
+    @Override
+    public long getLastAccessTime() {
+        return mem.getLong(address + LAST_ACCESS_TIME_OFFSET);
+    }
+
+    @Override
+    public void setLastAccessTime(long lastAccessTime) {
+        mem.putLong(address + LAST_ACCESS_TIME_OFFSET, lastAccessTime);
+    }
+
+    @Override
+    public long getLastUpdateTime() {
+        return mem.getLong(address + LAST_UPDATE_TIME_OFFSET);
+    }
+
+    @Override
+    public void setLastUpdateTime(long lastUpdatedTime) {
+        mem.putLong(address + LAST_UPDATE_TIME_OFFSET, lastUpdatedTime);
+    }
+
+    @Override
+    public long getCreationTime() {
+        return mem.getLong(address + CREATION_TIME_OFFSET);
+    }
+
+    @Override
+    public void setCreationTime(long creationTime) {
+        mem.putLong(address + CREATION_TIME_OFFSET, creationTime);
+    }
+
+    @Override
+    public long getHits() {
+        return mem.getLong(address + HITS_OFFSET);
+    }
+
+    @Override
+    public void setHits(long hits) {
+        mem.putLong(address + HITS_OFFSET, hits);
+    }
+
+    @Override
+    public long getExpirationTime() {
+        return mem.getLong(address + EXPIRATION_TIME_OFFSET);
+    }
+
+    @Override
+    public void setExpirationTime(long expirationTime) {
+        mem.putLong(address + EXPIRATION_TIME_OFFSET, expirationTime);
+    }
+
+    @Override
+    public long getLastStoredTime() {
+        return mem.getLong(address + LAST_STORED_TIME_OFFSET);
+    }
+
+    @Override
+    public void setLastStoredTime(long lastStoredTime) {
+        mem.putLong(address + LAST_STORED_TIME_OFFSET, lastStoredTime);
+    }
+
+    @Override
+    public long getSequence() {
+        return mem.getLong(address + SEQUENCE_OFFSET);
+    }
+
+    @Override
+    public void setSequence(long sequence) {
+        mem.putLong(address + SEQUENCE_OFFSET, sequence);
+    }
+
+    @Override
+    public void setMetadata(Metadata metadata) {
+        factory.setMetadata(address, metadata);
+    }
+
+    @Override
+    public Metadata getMetadata() {
+        return factory.getMetadata(address);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return address == ((NativeRecord) o).address;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (address ^ (address >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return "NativeRecord{address=" + address + '}';
+    }
+
+    int keySize() {
+        return mem.getInt(address + KEY_SIZE_OFFSET);
+    }
+
+    static long entryBlockSize(int keySize) {
+        return KEY_OFFSET + keySize;
+    }
+
+    static long valueBlockSize(int valueSize) {
+        return VALUE_OFFSET + valueSize;
+    }
+
+    private byte[] copyToHeap(long srcAddress, int size) {
+        byte[] bytes = new byte[size];
+        if (size > 0) {
+            mem.copyToByteArray(srcAddress, bytes, 0, size);
+        }
+        return bytes;
+    }
+}
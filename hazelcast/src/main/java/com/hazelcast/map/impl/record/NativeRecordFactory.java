@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.partition.PartitioningStrategy;
+import com.hazelcast.query.Metadata;
+import com.hazelcast.spi.serialization.SerializationService;
+import com.hazelcast.util.collection.Long2ObjectHashMap;
+
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.map.impl.record.NativeRecord.KEY_OFFSET;
+import static com.hazelcast.map.impl.record.NativeRecord.KEY_SIZE_OFFSET;
+import static com.hazelcast.map.impl.record.NativeRecord.VALUE_ADDRESS_OFFSET;
+import static com.hazelcast.map.impl.record.NativeRecord.VALUE_OFFSET;
+import static com.hazelcast.map.impl.record.NativeRecord.VALUE_SIZE_OFFSET;
+import static com.hazelcast.map.impl.record.NativeRecord.entryBlockSize;
+import static com.hazelcast.map.impl.record.NativeRecord.valueBlockSize;
+
+/**
+ * {@link RecordFactory} which creates {@link NativeRecord}s for maps with
+ * {@link com.hazelcast.config.InMemoryFormat#NATIVE NATIVE} in-memory-format.
+ * <p>
+ * Created for every partition, so it is only accessed by a single partition
+ * thread. Besides allocating and freeing the native blocks of the records it
+ * also keeps the on-heap {@link Metadata} of the records, since that is only
+ * present for JSON values.
+ */
+public class NativeRecordFactory implements RecordFactory<Data> {
+
+    private final SerializationService serializationService;
+    private final PartitioningStrategy partitionStrategy;
+    private final MemoryAllocator malloc;
+    private final MemoryAccessor mem;
+    private final Long2ObjectHashMap<Metadata> metadataByAddress = new Long2ObjectHashMap<Metadata>();
+
+    public NativeRecordFactory(SerializationService serializationService, PartitioningStrategy partitionStrategy,
+                               MemoryManager memoryManager) {
+        this.serializationService = serializationService;
+        this.partitionStrategy = partitionStrategy;
+        this.malloc = memoryManager.getAllocator();
+        this.mem = memoryManager.getAccessor();
+    }
+
+    @Override
+    public Record<Data> newRecord(Data key, Object value) {
+        assert value != null : "value can not be null";
+
+        Data data = serializationService.toData(value, partitionStrategy);
+        byte[] keyBytes = key.toByteArray();
+        long address = malloc.allocate(entryBlockSize(keyBytes.length));
+        try {
+            mem.putInt(address + KEY_SIZE_OFFSET, keyBytes.length);
+            mem.copyFromByteArray(keyBytes, 0, address + KEY_OFFSET, keyBytes.length);
+            mem.putLong(address + VALUE_ADDRESS_OFFSET, allocateValue(data));
+        } catch (Error e) {
+            malloc.free(address, entryBlockSize(keyBytes.length));
+            throw e;
+        }
+        NativeRecord record = new NativeRecord(this, address);
+        record.setKey(key);
+        return record;
+    }
+
+    @Override
+    public void setValue(Record<Data> record, Object value) {
+        assert value != null : "value can not be null";
+
+        Data v;
+        if (value instanceof Data) {
+            v = (Data) value;
+        } else {
+            v = serializationService.toData(value, partitionStrategy);
+        }
+        record.setValue(v);
+    }
+
+    /**
+     * Creates a native copy of the given record, including all its metadata.
+     *
+     * @param record the record to copy, typically an on-heap one
+     * @return the native copy
+     */
+    public NativeRecord copyOf(Record record) {
+        NativeRecord copy = (NativeRecord) newRecord(record.getKey(), record.getValue());
+        copy.setVersion(record.getVersion());
+        copy.setTtl(record.getTtl());
+        copy.setMaxIdle(record.getMaxIdle());
+        copy.setCreationTime(record.getCreationTime());
+        copy.setLastAccessTime(record.getLastAccessTime());
+        copy.setLastUpdateTime(record.getLastUpdateTime());
+        copy.setLastStoredTime(record.getLastStoredTime());
+        copy.setExpirationTime(record.getExpirationTime());
+        copy.setHits(record.getHits());
+        copy.setSequence(record.getSequence());
+        copy.setMetadata(record.getMetadata());
+        return copy;
+    }
+
+    /**
+     * Creates a flyweight record over an already allocated entry block.
+     *
+     * @param address address of the entry block
+     * @return flyweight record
+     */
+    public NativeRecord newRecordView(long address) {
+        return new NativeRecord(this, address);
+    }
+
+    /**
+     * Frees the entry block at the given address together with its value
+     * block and metadata.
+     *
+     * @param address address of the entry block
+     */
+    public void dispose(long address) {
+        freeValue(mem.getLong(address + VALUE_ADDRESS_OFFSET));
+        malloc.free(address, entryBlockSize(mem.getInt(address + KEY_SIZE_OFFSET)));
+        metadataByAddress.remove(address);
+    }
+
+    MemoryAccessor mem() {
+        return mem;
+    }
+
+    long allocateValue(Data value) {
+        byte[] valueBytes = value.toByteArray();
+        int valueSize = valueBytes == null ? 0 : valueBytes.length;
+        long valueAddress = malloc.allocate(valueBlockSize(valueSize));
+        mem.putInt(valueAddress + VALUE_SIZE_OFFSET, valueSize);
+        if (valueSize > 0) {
+            mem.copyFromByteArray(valueBytes, 0, valueAddress + VALUE_OFFSET, valueSize);
+        }
+        return valueAddress;
+    }
+
+    void freeValue(long valueAddress) {
+        if (valueAddress == NULL_ADDRESS) {
+            return;
+        }
+        malloc.free(valueAddress, valueBlockSize(mem.getInt(valueAddress + VALUE_SIZE_OFFSET)));
+    }
+
+    void setMetadata(long address, Metadata metadata) {
+        if (metadata == null) {
+            metadataByAddress.remove(address);
+        } else {
+            metadataByAddress.put(address, metadata);
+        }
+    }
+
+    Metadata getMetadata(long address) {
+        return metadataByAddress.get(address);
+    }
+}
@@ -28,6 +28,7 @@ import com.hazelcast.map.impl.StoreAdapter;
 import com.hazelcast.map.impl.MapStoreWrapper;
 import com.hazelcast.map.impl.mapstore.MapDataStore;
 import com.hazelcast.map.impl.mapstore.MapStoreContext;
+import com.hazelcast.map.impl.record.NativeRecordFactory;
 import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.map.impl.record.RecordFactory;
 import com.hazelcast.map.impl.record.Records;
@@ -122,6 +123,10 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
 
     @Override
     public Storage createStorage(RecordFactory recordFactory, InMemoryFormat memoryFormat) {
+        if (memoryFormat == InMemoryFormat.NATIVE) {
+            return new NativeStorageImpl((NativeRecordFactory) recordFactory,
+                    mapServiceContext.getNativeMemoryManager(), serializationService);
+        }
         return new StorageImpl(recordFactory, memoryFormat, serializationService);
     }
 
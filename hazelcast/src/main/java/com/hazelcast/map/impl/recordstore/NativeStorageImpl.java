@@ -0,0 +1,502 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.core.EntryView;
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.internal.util.ThreadLocalRandomProvider;
+import com.hazelcast.internal.util.hashslot.HashSlotArray8byteKey;
+import com.hazelcast.internal.util.hashslot.SlotAssignmentResult;
+import com.hazelcast.internal.util.hashslot.impl.HashSlotArray8byteKeyImpl;
+import com.hazelcast.map.impl.EntryCostEstimator;
+import com.hazelcast.map.impl.iterator.MapEntriesWithCursor;
+import com.hazelcast.map.impl.iterator.MapKeysWithCursor;
+import com.hazelcast.map.impl.record.NativeRecord;
+import com.hazelcast.map.impl.record.NativeRecordFactory;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.map.impl.OwnedEntryCostEstimatorFactory.createMapSizeEstimator;
+import static com.hazelcast.nio.Bits.LONG_SIZE_IN_BYTES;
+
+/**
+ * {@link Storage} implementation which keeps keys, values and record metadata
+ * in native memory. Used by maps with {@link InMemoryFormat#NATIVE} in-memory-format.
+ * <p>
+ * Entries are indexed by a {@link HashSlotArray8byteKey} which maps the 64-bit
+ * hash of a key to the address of the first entry block of a bucket. Entry
+ * blocks with colliding hashes are chained through their {@code next} field,
+ * see {@link NativeRecord} for the layout.
+ * <p>
+ * Removed entry blocks are not freed immediately, since flyweight records
+ * pointing to them may still be in use by the running operation. They are
+ * freed on {@link #disposeDeferredBlocks()} which is called after each
+ * map operation.
+ * <p>
+ * Like all native memory structures, this storage must only be accessed
+ * by the partition thread owning it.
+ */
+public class NativeStorageImpl implements Storage<Data, Record> {
+
+    /**
+     * Length of a slot in the {@link HashSlotArray8byteKeyImpl}: the 8-byte
+     * key followed by the 8-byte value (the bucket head address).
+     */
+    private static final int SLOT_LENGTH = 2 * LONG_SIZE_IN_BYTES;
+    private static final int SLOT_VALUE_OFFSET = LONG_SIZE_IN_BYTES;
+    private static final int INITIAL_DEFERRED_CAPACITY = 16;
+
+    private final NativeRecordFactory recordFactory;
+    private final SerializationService serializationService;
+    private final MemoryAccessor mem;
+    private final HashSlotArray8byteKey slots;
+
+    private int size;
+    private long[] deferredAddresses = new long[INITIAL_DEFERRED_CAPACITY];
+    private int deferredCount;
+    private boolean destroyed;
+
+    // not final for testing purposes.
+    private EntryCostEstimator<Data, Record> entryCostEstimator;
+
+    NativeStorageImpl(NativeRecordFactory recordFactory, MemoryManager memoryManager,
+                      SerializationService serializationService) {
+        this.recordFactory = recordFactory;
+        this.serializationService = serializationService;
+        this.mem = memoryManager.getAccessor();
+        this.slots = new HashSlotArray8byteKeyImpl(NULL_ADDRESS, memoryManager, LONG_SIZE_IN_BYTES);
+        this.slots.gotoNew();
+        this.entryCostEstimator = createMapSizeEstimator(InMemoryFormat.NATIVE);
+    }
+
+    @Override
+    public void put(Data key, Record record) {
+        NativeRecord nativeRecord = record instanceof NativeRecord
+                ? (NativeRecord) record : recordFactory.copyOf(record);
+        nativeRecord.setKey(key);
+
+        SlotAssignmentResult assignment = slots.ensure(key.hash64());
+        long headAddress = assignment.address();
+        if (assignment.isNew()) {
+            nativeRecord.setNext(NULL_ADDRESS);
+            mem.putLong(headAddress, nativeRecord.address());
+            onEntryAdded(nativeRecord);
+            return;
+        }
+
+        long prevAddress = NULL_ADDRESS;
+        long address = mem.getLong(headAddress);
+        while (address != NULL_ADDRESS) {
+            NativeRecord existing = recordFactory.newRecordView(address);
+            if (existing.keyEquals(key)) {
+                if (address == nativeRecord.address()) {
+                    return;
+                }
+                updateCostEstimate(-entryCostEstimator.calculateEntryCost(key, existing));
+                updateCostEstimate(entryCostEstimator.calculateEntryCost(key, nativeRecord));
+                nativeRecord.setNext(existing.getNext());
+                link(headAddress, prevAddress, nativeRecord.address());
+                defer(address);
+                return;
+            }
+            prevAddress = address;
+            address = existing.getNext();
+        }
+        nativeRecord.setNext(mem.getLong(headAddress));
+        mem.putLong(headAddress, nativeRecord.address());
+        onEntryAdded(nativeRecord);
+    }
+
+    @Override
+    public void updateRecordValue(Data key, Record record, Object value) {
+        updateCostEstimate(-entryCostEstimator.calculateValueCost(record));
+
+        recordFactory.setValue(record, value);
+
+        updateCostEstimate(entryCostEstimator.calculateValueCost(record));
+    }
+
+    @Override
+    public Record get(Data key) {
+        long address = findEntry(key);
+        if (address == NULL_ADDRESS) {
+            return null;
+        }
+        NativeRecord record = recordFactory.newRecordView(address);
+        record.setKey(key);
+        return record;
+    }
+
+    /**
+     * Keys are always handed out as on-heap copies by this storage, so a key
+     * can never be the same blob as the stored one.
+     */
+    @Override
+    public Record getIfSameKey(Data key) {
+        throw new UnsupportedOperationException("NativeStorageImpl#getIfSameKey");
+    }
+
+    @Override
+    public void removeRecord(Record record) {
+        if (record == null) {
+            return;
+        }
+
+        Data key = record.getKey();
+        long hash = key.hash64();
+        long headAddress = slots.get(hash);
+        if (headAddress == NULL_ADDRESS) {
+            return;
+        }
+        long prevAddress = NULL_ADDRESS;
+        long address = mem.getLong(headAddress);
+        while (address != NULL_ADDRESS) {
+            NativeRecord existing = recordFactory.newRecordView(address);
+            if (existing.keyEquals(key)) {
+                long next = existing.getNext();
+                if (prevAddress == NULL_ADDRESS && next == NULL_ADDRESS) {
+                    slots.remove(hash);
+                } else {
+                    link(headAddress, prevAddress, next);
+                }
+                size--;
+                updateCostEstimate(-entryCostEstimator.calculateEntryCost(key, existing));
+                defer(address);
+                return;
+            }
+            prevAddress = address;
+            address = existing.getNext();
+        }
+    }
+
+    @Override
+    public boolean containsKey(Data key) {
+        return findEntry(key) != NULL_ADDRESS;
+    }
+
+    /**
+     * Returns a view over the records which is backed by a snapshot of the
+     * entry addresses taken when the iterator is created, so records can be
+     * removed from this storage while iterating.
+     */
+    @Override
+    public Collection<Record> values() {
+        return new AbstractCollection<Record>() {
+            @Override
+            public Iterator<Record> iterator() {
+                return new SnapshotIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Iterator<Record> mutationTolerantIterator() {
+        return new MutationTolerantIterator();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Frees all entry blocks immediately, together with the pending deferred
+     * ones. Unlike removals, clearing is never followed by accesses to the
+     * cleared records within the same operation.
+     */
+    @Override
+    public void clear(boolean isDuringShutdown) {
+        if (destroyed) {
+            return;
+        }
+        disposeDeferredBlocks();
+        long capacity = slots.capacity();
+        for (long slot = 0; slot < capacity; slot++) {
+            long address = headOfSlot(slot);
+            while (address != NULL_ADDRESS) {
+                long next = recordFactory.newRecordView(address).getNext();
+                recordFactory.dispose(address);
+                address = next;
+            }
+        }
+        slots.clear();
+        size = 0;
+
+        entryCostEstimator.reset();
+    }
+
+    @Override
+    public void destroy(boolean isDuringShutdown) {
+        if (destroyed) {
+            return;
+        }
+        clear(isDuringShutdown);
+        slots.dispose();
+        destroyed = true;
+    }
+
+    @Override
+    public EntryCostEstimator getEntryCostEstimator() {
+        return entryCostEstimator;
+    }
+
+    @Override
+    public void setEntryCostEstimator(EntryCostEstimator entryCostEstimator) {
+        this.entryCostEstimator = entryCostEstimator;
+    }
+
+    @Override
+    public void disposeDeferredBlocks() {
+        for (int i = 0; i < deferredCount; i++) {
+            recordFactory.dispose(deferredAddresses[i]);
+        }
+        deferredCount = 0;
+        if (deferredAddresses.length > INITIAL_DEFERRED_CAPACITY) {
+            deferredAddresses = new long[INITIAL_DEFERRED_CAPACITY];
+        }
+    }
+
+    @Override
+    public Iterable<EntryView> getRandomSamples(int sampleCount) {
+        if (sampleCount < 0) {
+            throw new IllegalArgumentException("Sample count cannot be a negative value.");
+        }
+        if (sampleCount == 0 || size == 0) {
+            return Collections.emptyList();
+        }
+        List<EntryView> samples = new ArrayList<EntryView>(sampleCount);
+        long capacity = slots.capacity();
+        long startSlot = ThreadLocalRandomProvider.get().nextInt((int) capacity);
+        for (long i = 0; i < capacity && samples.size() < sampleCount; i++) {
+            long address = headOfSlot((startSlot + i) % capacity);
+            while (address != NULL_ADDRESS && samples.size() < sampleCount) {
+                NativeRecord record = recordFactory.newRecordView(address);
+                samples.add(new LazyEntryViewFromRecord<Record>(record, serializationService));
+                address = record.getNext();
+            }
+        }
+        return samples;
+    }
+
+    @Override
+    public MapKeysWithCursor fetchKeys(int tableIndex, int size) {
+        List<Data> keys = new ArrayList<Data>(size);
+        int nextTableIndex = startTableIndex(tableIndex);
+        while (nextTableIndex >= 0 && keys.size() < size) {
+            long address = headOfSlot(nextTableIndex--);
+            while (address != NULL_ADDRESS) {
+                NativeRecord record = recordFactory.newRecordView(address);
+                keys.add(record.getKey());
+                address = record.getNext();
+            }
+        }
+        return new MapKeysWithCursor(keys, nextTableIndex);
+    }
+
+    @Override
+    public MapEntriesWithCursor fetchEntries(int tableIndex, int size, SerializationService serializationService) {
+        List<Map.Entry<Data, Data>> entries = new ArrayList<Map.Entry<Data, Data>>(size);
+        int nextTableIndex = startTableIndex(tableIndex);
+        while (nextTableIndex >= 0 && entries.size() < size) {
+            long address = headOfSlot(nextTableIndex--);
+            while (address != NULL_ADDRESS) {
+                NativeRecord record = recordFactory.newRecordView(address);
+                entries.add(new AbstractMap.SimpleEntry<Data, Data>(record.getKey(), record.getValue()));
+                address = record.getNext();
+            }
+        }
+        return new MapEntriesWithCursor(entries, nextTableIndex);
+    }
+
+    @Override
+    public Record extractRecordFromLazy(EntryView entryView) {
+        return ((LazyEntryViewFromRecord) entryView).getRecord();
+    }
+
+    private long findEntry(Data key) {
+        long headAddress = slots.get(key.hash64());
+        if (headAddress == NULL_ADDRESS) {
+            return NULL_ADDRESS;
+        }
+        long address = mem.getLong(headAddress);
+        while (address != NULL_ADDRESS) {
+            NativeRecord record = recordFactory.newRecordView(address);
+            if (record.keyEquals(key)) {
+                return address;
+            }
+            address = record.getNext();
+        }
+        return NULL_ADDRESS;
+    }
+
+    /**
+     * Reads the bucket head stored in the value part of the given slot. Unassigned
+     * slots hold the {@code NULL_ADDRESS} sentinel, so this returns {@code NULL_ADDRESS}
+     * for them.
+     */
+    private long headOfSlot(long slot) {
+        return mem.getLong(slots.address() + slot * SLOT_LENGTH + SLOT_VALUE_OFFSET);
+    }
+
+    private int startTableIndex(int tableIndex) {
+        int capacity = (int) slots.capacity();
+        return tableIndex >= 0 && tableIndex < capacity ? tableIndex : capacity - 1;
+    }
+
+    private void link(long headAddress, long prevAddress, long address) {
+        if (prevAddress == NULL_ADDRESS) {
+            mem.putLong(headAddress, address);
+        } else {
+            recordFactory.newRecordView(prevAddress).setNext(address);
+        }
+    }
+
+    private void onEntryAdded(NativeRecord record) {
+        size++;
+        updateCostEstimate(entryCostEstimator.calculateEntryCost(record.getKey(), record));
+    }
+
+    private void defer(long address) {
+        if (deferredCount == deferredAddresses.length) {
+            deferredAddresses = Arrays.copyOf(deferredAddresses, deferredCount << 1);
+        }
+        deferredAddresses[deferredCount++] = address;
+    }
+
+    private void updateCostEstimate(long entrySize) {
+        entryCostEstimator.adjustEstimateBy(entrySize);
+    }
+
+    /**
+     * Iterates over a snapshot of the entry addresses. Entries removed after
+     * the snapshot was taken are still returned, which is safe as long as the
+     * iteration completes within a single operation.
+     */
+    private final class SnapshotIterator implements Iterator<Record> {
+
+        private final long[] addresses = new long[size];
+        private int index;
+        private NativeRecord lastReturned;
+
+        SnapshotIterator() {
+            int count = 0;
+            long capacity = slots.capacity();
+            for (long slot = 0; slot < capacity; slot++) {
+                long address = headOfSlot(slot);
+                while (address != NULL_ADDRESS) {
+                    addresses[count++] = address;
+                    address = recordFactory.newRecordView(address).getNext();
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < addresses.length;
+        }
+
+        @Override
+        public Record next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = recordFactory.newRecordView(addresses[index++]);
+            return lastReturned;
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            if (containsKey(lastReturned.getKey())) {
+                removeRecord(lastReturned);
+            }
+            lastReturned = null;
+        }
+    }
+
+    /**
+     * Iterates over the live hash slot array by keeping only a slot index and
+     * a position in the bucket of that slot, so no entry address is kept between
+     * {@link #hasNext()} and {@link #next()} calls. This allows instances to be
+     * cached across operations, as done for the expiration task. Records may be
+     * missed or visited twice when the storage is mutated meanwhile.
+     */
+    private final class MutationTolerantIterator implements Iterator<Record> {
+
+        private long slot;
+        private int positionInBucket;
+
+        @Override
+        public boolean hasNext() {
+            if (destroyed) {
+                return false;
+            }
+            long capacity = slots.capacity();
+            while (slot < capacity) {
+                if (addressAt(slot, positionInBucket) != NULL_ADDRESS) {
+                    return true;
+                }
+                slot++;
+                positionInBucket = 0;
+            }
+            return false;
+        }
+
+        @Override
+        public Record next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return recordFactory.newRecordView(addressAt(slot, positionInBucket++));
+        }
+
+        private long addressAt(long slot, int position) {
+            long address = headOfSlot(slot);
+            for (int i = 0; i < position && address != NULL_ADDRESS; i++) {
+                address = recordFactory.newRecordView(address).getNext();
+            }
+            return address;
+        }
+    }
+}
@@ -18,6 +18,7 @@ package com.hazelcast.map.impl.recordstore;
 
 import com.hazelcast.map.impl.StoreAdapter;
 import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.nio.serialization.Data;
 
 /**
  * Record store adapter.
@@ -48,4 +49,9 @@ public class RecordStoreAdapter implements StoreAdapter<Record> {
     public boolean isExpirable() {
         return recordStore.isExpirable();
     }
+
+    @Override
+    public Record getRecord(Data key) {
+        return (Record) recordStore.getRecord(key);
+    }
 }
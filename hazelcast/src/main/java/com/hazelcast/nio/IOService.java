@@ -27,6 +27,7 @@ import com.hazelcast.internal.networking.InboundHandler;
 import com.hazelcast.internal.networking.OutboundHandler;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.logging.LoggingService;
+import com.hazelcast.nio.tcp.CompressionStats;
 import com.hazelcast.nio.tcp.TcpIpConnection;
 import com.hazelcast.spi.EventService;
 import com.hazelcast.spi.annotation.PrivateApi;
@@ -115,4 +116,12 @@ public interface IOService {
     InboundHandler[] createInboundHandlers(EndpointQualifier qualifier, TcpIpConnection connection);
 
     OutboundHandler[] createOutboundHandlers(EndpointQualifier qualifier, TcpIpConnection connection);
+
+    /**
+     * Returns the statistics shared by the compressing and decompressing
+     * handlers of the connections.
+     *
+     * @return the compression statistics
+     */
+    CompressionStats getCompressionStats();
 }
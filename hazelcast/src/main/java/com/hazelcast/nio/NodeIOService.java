@@ -38,6 +38,7 @@ import com.hazelcast.internal.networking.InboundHandler;
 import com.hazelcast.internal.networking.OutboundHandler;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.logging.LoggingService;
+import com.hazelcast.nio.tcp.CompressionStats;
 import com.hazelcast.nio.tcp.TcpIpConnection;
 import com.hazelcast.spi.EventService;
 import com.hazelcast.spi.ExecutionService;
@@ -67,6 +68,7 @@ public class NodeIOService implements IOService {
     private final NodeEngineImpl nodeEngine;
     private final RestApiConfig restApiConfig;
     private final MemcacheProtocolConfig memcacheProtocolConfig;
+    private final CompressionStats compressionStats = new CompressionStats();
 
     public NodeIOService(Node node, NodeEngineImpl nodeEngine) {
         this.node = node;
@@ -360,6 +362,11 @@ public class NodeIOService implements IOService {
         return node.getNodeExtension().createOutboundHandlers(qualifier, connection, this);
     }
 
+    @Override
+    public CompressionStats getCompressionStats() {
+        return compressionStats;
+    }
+
     @Override
     public Collection<Integer> getOutboundPorts(EndpointQualifier endpointQualifier) {
         final AdvancedNetworkConfig advancedNetworkConfig = node.getConfig().getAdvancedNetworkConfig();
@@ -17,6 +17,7 @@
 package com.hazelcast.nio;
 
 import com.hazelcast.internal.networking.OutboundFrame;
+import com.hazelcast.internal.serialization.PooledPayload;
 import com.hazelcast.internal.serialization.impl.HeapData;
 import com.hazelcast.spi.annotation.PrivateApi;
 
@@ -107,6 +108,7 @@ public final class Packet extends HeapData implements OutboundFrame {
 
     private int partitionId;
     private transient Connection conn;
+    private transient PooledPayload pooledPayload;
 
     public Packet() {
     }
@@ -120,6 +122,21 @@ public final class Packet extends HeapData implements OutboundFrame {
         this.partitionId = partitionId;
     }
 
+    /**
+     * Creates a packet sharing the given payload without copying it. The
+     * reference to the payload held by the caller is handed over to the
+     * packet, it's released by {@link #releasePayload()} once the packet is
+     * written out or discarded. Such a packet can be written just once.
+     *
+     * @param payload     the payload
+     * @param partitionId the partition ID
+     */
+    public Packet(PooledPayload payload, int partitionId) {
+        super(payload.bytes());
+        this.partitionId = partitionId;
+        this.pooledPayload = payload.isPooled() ? payload : null;
+    }
+
     /**
      * Gets the Connection this Packet was send with.
      *
@@ -217,6 +234,27 @@ public final class Packet extends HeapData implements OutboundFrame {
         return isFlagRaised(FLAG_URGENT);
     }
 
+    /**
+     * Releases the pooled payload of this packet, if any. The payload must
+     * not be accessed afterwards.
+     */
+    public void releasePayload() {
+        if (pooledPayload != null) {
+            pooledPayload.release();
+        }
+    }
+
+    @Override
+    public void onDiscard() {
+        releasePayload();
+    }
+
+    @Override
+    public int totalSize() {
+        // the pooled buffer may be longer than the payload
+        return pooledPayload != null ? pooledPayload.size() : super.totalSize();
+    }
+
     @Override
     public int getFrameLength() {
         return (payload != null ? totalSize() : 0) + HEADER_SIZE;
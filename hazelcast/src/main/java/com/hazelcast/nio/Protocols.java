@@ -34,6 +34,12 @@ public final class Protocols {
      */
     public static final String CLUSTER = "HZC";
 
+    /**
+     * Protocol that is used among nodes by a node that compresses the data it sends.
+     * Nodes of versions that don't support compression refuse it.
+     */
+    public static final String CLUSTER_COMPRESSED = "HZZ";
+
     /**
      * New Client Protocol that is used for clients (Java, c++, c# client)
      */
@@ -57,6 +63,10 @@ public final class Protocols {
             return "Cluster Protocol";
         }
 
+        if (CLUSTER_COMPRESSED.equals(protocol)) {
+            return "Compressed Cluster Protocol";
+        }
+
         if (CLIENT_BINARY_NEW.equals(protocol)) {
             return "Client Open Binary Protocol";
         }
@@ -122,4 +122,13 @@ public interface Data {
      */
     boolean isJson();
 
+    /**
+     * Returns true if this Data is created from an object serialized in the compact format,
+     * false otherwise.
+     *
+     * @return true if source object is serialized in the compact format, false otherwise.
+     * @see com.hazelcast.config.SerializationConfig#addCompactClass(String)
+     */
+    boolean isCompact();
+
 }
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.nio.serialization;
+
+/**
+ * {@link IdentifiedDataSerializable} declaring the attributes written first
+ * by its {@link #writeData writeData} method, so the queries can read them
+ * in place from the serialized form without deserializing the whole object.
+ * <p>
+ * The declared attributes must be written in the declared order before
+ * anything else is written. Each must be of a primitive type and written
+ * using the method of that type, for instance {@link
+ * com.hazelcast.nio.ObjectDataOutput#writeInt writeInt} for {@code int}
+ * attributes. The attribute names are the same names used in the queries,
+ * and nested attribute paths are not supported.
+ * <p>
+ * The offsets of the declared attributes are recorded once per class. They
+ * are recorded the first time an instance is seen by the queries. Before the
+ * offsets are used, the values read in place are checked against the values
+ * extracted from the instance. If the check fails, the attributes of the
+ * class are always extracted from the deserialized instances.
+ *
+ * @see IdentifiedDataSerializable
+ */
+public interface ExtractableDataSerializable extends IdentifiedDataSerializable {
+
+    /**
+     * Returns the names of the primitive attributes written first by {@link
+     * #writeData writeData}, in the order they are written.
+     *
+     * @return the names of the attributes that can be read in place.
+     */
+    String[] getExtractableAttributeNames();
+
+}
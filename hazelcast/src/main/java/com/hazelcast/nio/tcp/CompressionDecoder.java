@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.nio.tcp;
+
+import com.hazelcast.internal.networking.Channel;
+import com.hazelcast.internal.networking.ChannelCloseListener;
+import com.hazelcast.internal.networking.HandlerStatus;
+import com.hazelcast.internal.networking.InboundHandler;
+
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
+import static com.hazelcast.internal.networking.HandlerStatus.DIRTY;
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.IOUtil.compactOrClear;
+import static com.hazelcast.nio.tcp.CompressionEncoder.COMPRESSED_FLAG;
+import static com.hazelcast.nio.tcp.CompressionEncoder.COMPRESSED_HEADER_SIZE;
+import static com.hazelcast.nio.tcp.CompressionEncoder.MAX_BLOCK_SIZE;
+import static java.lang.Math.min;
+import static java.lang.System.nanoTime;
+
+/**
+ * A {@link InboundHandler} that decompresses the blocks written by the
+ * {@link CompressionEncoder} and writes the original bytes to its dst
+ * {@link ByteBuffer}. The native memory of its {@link Inflater} is released
+ * once the channel is closed.
+ *
+ * @see CompressionEncoder
+ */
+public class CompressionDecoder extends InboundHandler<ByteBuffer, ByteBuffer> implements ChannelCloseListener {
+
+    private final CompressionStats stats;
+    private final Inflater inflater = new Inflater();
+    private final byte[] compressed = new byte[MAX_BLOCK_SIZE];
+    private final byte[] outputBytes = new byte[MAX_BLOCK_SIZE];
+    // the decompressed bytes that are being written to the dst; in reading mode
+    private final ByteBuffer output = ByteBuffer.wrap(outputBytes);
+
+    // the number of bytes of the current uncompressed block that still need to be copied
+    private int rawRemaining;
+    // the length of the current compressed block; 0 if there is none
+    private int compressedLength;
+    private int compressedPosition;
+    private int originalLength;
+
+    public CompressionDecoder(CompressionStats stats) {
+        this.stats = stats;
+        output.limit(0);
+    }
+
+    @Override
+    public void handlerAdded() {
+        initSrcBuffer();
+        channel.addCloseListener(this);
+    }
+
+    @Override
+    public void onClose(Channel channel) {
+        inflater.end();
+    }
+
+    @Override
+    public HandlerStatus onRead() throws Exception {
+        src.flip();
+        try {
+            for (; ; ) {
+                if (output.hasRemaining()) {
+                    int length = min(output.remaining(), dst.remaining());
+                    dst.put(outputBytes, output.position(), length);
+                    output.position(output.position() + length);
+                    if (output.hasRemaining()) {
+                        // the dst is full, so we are done.
+                        return DIRTY;
+                    }
+                }
+
+                if (rawRemaining > 0) {
+                    if (!copyRaw()) {
+                        return dst.hasRemaining() ? CLEAN : DIRTY;
+                    }
+                } else if (compressedLength > 0) {
+                    if (!readCompressed()) {
+                        // the block hasn't been fully received.
+                        return CLEAN;
+                    }
+                    inflate();
+                } else if (!readHeader()) {
+                    // everything is processed, so we are done
+                    return CLEAN;
+                }
+            }
+        } finally {
+            compactOrClear(src);
+        }
+    }
+
+    private boolean readHeader() {
+        if (src.remaining() < INT_SIZE_IN_BYTES) {
+            return false;
+        }
+
+        int header = src.getInt(src.position());
+        if ((header & COMPRESSED_FLAG) == 0) {
+            src.getInt();
+            rawRemaining = checkLength(header);
+            return true;
+        }
+
+        if (src.remaining() < COMPRESSED_HEADER_SIZE) {
+            return false;
+        }
+
+        src.getInt();
+        compressedLength = checkLength(header & ~COMPRESSED_FLAG);
+        compressedPosition = 0;
+        originalLength = checkLength(src.getInt());
+        return true;
+    }
+
+    private boolean copyRaw() {
+        int length = min(rawRemaining, min(src.remaining(), dst.remaining()));
+        int limit = src.limit();
+        src.limit(src.position() + length);
+        dst.put(src);
+        src.limit(limit);
+        rawRemaining -= length;
+        return rawRemaining == 0;
+    }
+
+    private boolean readCompressed() {
+        int length = min(compressedLength - compressedPosition, src.remaining());
+        src.get(compressed, compressedPosition, length);
+        compressedPosition += length;
+        return compressedPosition == compressedLength;
+    }
+
+    private void inflate() {
+        long startNanos = nanoTime();
+        inflater.reset();
+        inflater.setInput(compressed, 0, compressedLength);
+        try {
+            int length = inflater.inflate(outputBytes, 0, originalLength);
+            if (length != originalLength || !inflater.finished()) {
+                throw new IllegalStateException("Corrupt compressed block, expected " + originalLength
+                        + " bytes but decompressed " + length + " bytes");
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt compressed block", e);
+        }
+
+        output.position(0);
+        output.limit(originalLength);
+        compressedLength = 0;
+        stats.onDecompressed(nanoTime() - startNanos);
+    }
+
+    private static int checkLength(int length) {
+        if (length <= 0 || length > MAX_BLOCK_SIZE) {
+            throw new IllegalStateException("Invalid compressed block length: " + length);
+        }
+        return length;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.nio.tcp;
+
+import com.hazelcast.internal.networking.Channel;
+import com.hazelcast.internal.networking.ChannelCloseListener;
+import com.hazelcast.internal.networking.HandlerStatus;
+import com.hazelcast.internal.networking.OutboundHandler;
+
+import java.nio.ByteBuffer;
+import java.util.zip.Deflater;
+
+import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
+import static com.hazelcast.internal.networking.HandlerStatus.DIRTY;
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.IOUtil.compactOrClear;
+import static java.lang.Math.min;
+import static java.lang.System.nanoTime;
+
+/**
+ * A {@link OutboundHandler} that compresses the bytes of its src
+ * {@link ByteBuffer} block by block.
+ *
+ * Each block is prefixed by an int header containing its length. A
+ * compressed block has the {@link #COMPRESSED_FLAG} raised in the header and
+ * the header is followed by an int containing the uncompressed length. Blocks
+ * smaller than the threshold and blocks that don't get smaller by compressing
+ * them are written as is.
+ *
+ * The blocks are compressed with a {@link Deflater} using the
+ * {@link Deflater#BEST_SPEED} level, trading compression ratio for CPU. The
+ * native memory of the deflater is released once the channel is closed.
+ *
+ * @see CompressionDecoder
+ */
+public class CompressionEncoder extends OutboundHandler<ByteBuffer, ByteBuffer> implements ChannelCloseListener {
+
+    static final int MAX_BLOCK_SIZE = 64 * 1024;
+    static final int COMPRESSED_FLAG = 1 << 31;
+    static final int COMPRESSED_HEADER_SIZE = 2 * INT_SIZE_IN_BYTES;
+
+    private final int threshold;
+    private final CompressionStats stats;
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final byte[] input = new byte[MAX_BLOCK_SIZE];
+    // the encoded block that is being written to the dst; in reading mode
+    private final ByteBuffer block = ByteBuffer.allocate(COMPRESSED_HEADER_SIZE + MAX_BLOCK_SIZE);
+
+    /**
+     * @param threshold the minimum size of a block to be compressed
+     * @param stats     the statistics to update
+     */
+    public CompressionEncoder(int threshold, CompressionStats stats) {
+        this.threshold = threshold;
+        this.stats = stats;
+        block.flip();
+    }
+
+    @Override
+    public void handlerAdded() {
+        initDstBuffer();
+        channel.addCloseListener(this);
+    }
+
+    @Override
+    public void onClose(Channel channel) {
+        deflater.end();
+    }
+
+    @Override
+    public HandlerStatus onWrite() {
+        compactOrClear(dst);
+        try {
+            for (; ; ) {
+                if (block.hasRemaining()) {
+                    int length = min(block.remaining(), dst.remaining());
+                    dst.put(block.array(), block.position(), length);
+                    block.position(block.position() + length);
+                    if (block.hasRemaining()) {
+                        // the block didn't get written completely, so we are done.
+                        return DIRTY;
+                    }
+                }
+
+                if (!src.hasRemaining()) {
+                    // everything is processed, so we are done
+                    return CLEAN;
+                }
+
+                encodeBlock();
+            }
+        } finally {
+            dst.flip();
+        }
+    }
+
+    private void encodeBlock() {
+        int length = min(src.remaining(), MAX_BLOCK_SIZE);
+        src.get(input, 0, length);
+        block.clear();
+
+        long startNanos = nanoTime();
+        if (length >= threshold) {
+            deflater.reset();
+            deflater.setInput(input, 0, length);
+            deflater.finish();
+            // there is no point in compressed output that isn't smaller than the input
+            int compressedLength = deflater.deflate(block.array(), COMPRESSED_HEADER_SIZE, length - 1);
+            if (deflater.finished()) {
+                block.putInt(compressedLength | COMPRESSED_FLAG);
+                block.putInt(length);
+                block.position(COMPRESSED_HEADER_SIZE + compressedLength);
+                block.flip();
+                stats.onCompressed(length, COMPRESSED_HEADER_SIZE + compressedLength, nanoTime() - startNanos);
+                return;
+            }
+        }
+
+        block.putInt(length);
+        block.put(input, 0, length);
+        block.flip();
+        stats.onNotCompressed(length, nanoTime() - startNanos);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.nio.tcp;
+
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.util.counters.MwCounter;
+
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+
+/**
+ * The statistics of the {@link CompressionEncoder} and {@link CompressionDecoder}
+ * instances of all connections of a member.
+ */
+public class CompressionStats {
+
+    @Probe
+    private final MwCounter bytesBeforeCompression = newMwCounter();
+    @Probe
+    private final MwCounter bytesAfterCompression = newMwCounter();
+    @Probe
+    private final MwCounter compressedBlocks = newMwCounter();
+    @Probe
+    private final MwCounter uncompressedBlocks = newMwCounter();
+    @Probe
+    private final MwCounter compressionTimeNanos = newMwCounter();
+    @Probe
+    private final MwCounter decompressionTimeNanos = newMwCounter();
+
+    /**
+     * Returns the ratio between the number of bytes handed to the encoders
+     * and the number of bytes the encoders have written.
+     *
+     * @return the compression ratio; 1 if nothing has been written.
+     */
+    @Probe
+    public double compressionRatio() {
+        long after = bytesAfterCompression.get();
+        return after == 0 ? 1 : (double) bytesBeforeCompression.get() / after;
+    }
+
+    void onCompressed(int length, int compressedLength, long timeNanos) {
+        bytesBeforeCompression.inc(length);
+        bytesAfterCompression.inc(compressedLength);
+        compressedBlocks.inc();
+        compressionTimeNanos.inc(timeNanos);
+    }
+
+    void onNotCompressed(int length, long timeNanos) {
+        bytesBeforeCompression.inc(length);
+        bytesAfterCompression.inc(length);
+        uncompressedBlocks.inc();
+        compressionTimeNanos.inc(timeNanos);
+    }
+
+    void onDecompressed(long timeNanos) {
+        decompressionTimeNanos.inc(timeNanos);
+    }
+}
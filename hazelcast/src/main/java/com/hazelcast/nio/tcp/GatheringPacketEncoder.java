@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.nio.tcp;
+
+import com.hazelcast.internal.networking.HandlerStatus;
+import com.hazelcast.internal.networking.OutboundHandler;
+import com.hazelcast.nio.Packet;
+import com.hazelcast.nio.PacketIOHelper;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import static com.hazelcast.internal.networking.ChannelOption.DIRECT_BUF;
+import static com.hazelcast.internal.networking.ChannelOption.SO_SNDBUF;
+import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
+import static com.hazelcast.internal.networking.HandlerStatus.DIRTY;
+import static com.hazelcast.nio.IOUtil.newByteBuffer;
+
+/**
+ * A {@link OutboundHandler} for member to member communication that writes
+ * {@link Packet} instances to an array of {@link ByteBuffer} meant for a
+ * {@link java.nio.channels.GatheringByteChannel#write(ByteBuffer[]) gathering write}.
+ *
+ * Small packets and the headers of large packets are copied into a staging
+ * buffer, like the {@link PacketEncoder} does. The payload of a large packet
+ * isn't copied; it's wrapped and placed in the array right after the region
+ * of the staging buffer containing its header.
+ *
+ * A batch of buffers is built only when the previous batch has been written
+ * to the socket completely. Only then the staging buffer can be reused and
+ * the pooled payloads of the packets in the previous batch can be released.
+ *
+ * Since the dst is the final bytes to be written to the socket, this handler
+ * must be the last one in the pipeline.
+ *
+ * @see PacketEncoder
+ */
+public class GatheringPacketEncoder extends OutboundHandler<Supplier<Packet>, ByteBuffer[]> {
+
+    static final int MAX_SEGMENTS = 64;
+
+    private static final ByteBuffer EMPTY_BUFFER = ByteBuffer.allocate(0);
+
+    private final PacketIOHelper packetWriter = new PacketIOHelper();
+    private final int gatherThreshold;
+    private final ByteBuffer[] segments = new ByteBuffer[MAX_SEGMENTS];
+    // the packets whose payload is referenced by the segments
+    private final Packet[] gatheredPackets = new Packet[MAX_SEGMENTS / 2];
+
+    private ByteBuffer buffer;
+    private int segmentCount;
+    private int gatheredPacketCount;
+    private int regionStart;
+    private Packet packet;
+
+    /**
+     * @param gatherThreshold the minimum payload size of a packet for its
+     *                        payload to be written without copying it
+     */
+    public GatheringPacketEncoder(int gatherThreshold) {
+        this.gatherThreshold = gatherThreshold;
+        Arrays.fill(segments, EMPTY_BUFFER);
+        this.dst = segments;
+    }
+
+    @Override
+    public void handlerAdded() {
+        initBuffer(newByteBuffer(channel.options().getOption(SO_SNDBUF), channel.options().getOption(DIRECT_BUF)));
+    }
+
+    // just for testing
+    void initBuffer(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public HandlerStatus onWrite() {
+        if (!isDrained()) {
+            // the previous batch isn't written to the socket yet
+            return DIRTY;
+        }
+        reset();
+
+        try {
+            for (; ; ) {
+                if (packet == null) {
+                    packet = src.get();
+
+                    if (packet == null) {
+                        // everything is processed, so we are done
+                        return CLEAN;
+                    }
+                }
+
+                if (packet.totalSize() >= gatherThreshold) {
+                    if (!gather(packet)) {
+                        // the packet didn't fit in this batch, so we are done.
+                        return DIRTY;
+                    }
+                    packet = null;
+                } else if (packetWriter.writeTo(packet, buffer)) {
+                    // packet got written, lets see if another packet can be written
+                    packet.releasePayload();
+                    packet = null;
+                } else {
+                    // the packet didn't get written completely, so we are done.
+                    return DIRTY;
+                }
+            }
+        } finally {
+            closeRegion();
+        }
+    }
+
+    private boolean gather(Packet packet) {
+        // room for the region with the header, the payload and the region after it
+        if (segmentCount + 3 > MAX_SEGMENTS || !packetWriter.writeHeaderTo(packet, buffer)) {
+            return false;
+        }
+
+        closeRegion();
+        segments[segmentCount++] = ByteBuffer.wrap(packet.toByteArray(), 0, packet.totalSize());
+        gatheredPackets[gatheredPacketCount++] = packet;
+        return true;
+    }
+
+    private void closeRegion() {
+        int position = buffer.position();
+        if (position == regionStart) {
+            return;
+        }
+
+        ByteBuffer region = buffer.duplicate();
+        region.position(regionStart);
+        region.limit(position);
+        segments[segmentCount++] = region;
+        regionStart = position;
+    }
+
+    private boolean isDrained() {
+        for (int k = 0; k < segmentCount; k++) {
+            if (segments[k].hasRemaining()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void reset() {
+        for (int k = 0; k < gatheredPacketCount; k++) {
+            gatheredPackets[k].releasePayload();
+            gatheredPackets[k] = null;
+        }
+        gatheredPacketCount = 0;
+
+        Arrays.fill(segments, 0, segmentCount, EMPTY_BUFFER);
+        segmentCount = 0;
+
+        buffer.clear();
+        regionStart = 0;
+    }
+}
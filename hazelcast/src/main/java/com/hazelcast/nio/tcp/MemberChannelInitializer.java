@@ -17,12 +17,15 @@
 package com.hazelcast.nio.tcp;
 
 import com.hazelcast.config.EndpointConfig;
-import com.hazelcast.instance.ProtocolType;
 import com.hazelcast.instance.EndpointQualifier;
 import com.hazelcast.internal.networking.Channel;
 import com.hazelcast.internal.networking.InboundHandler;
 import com.hazelcast.internal.networking.OutboundHandler;
 import com.hazelcast.nio.IOService;
+import com.hazelcast.spi.properties.HazelcastProperties;
+
+import static com.hazelcast.spi.properties.GroupProperty.IO_COMPRESSION_ENABLED;
+import static com.hazelcast.spi.properties.GroupProperty.IO_COMPRESSION_THRESHOLD_BYTES;
 
 public class MemberChannelInitializer
         extends AbstractChannelInitializer  {
@@ -37,8 +40,15 @@ public class MemberChannelInitializer
         OutboundHandler[] outboundHandlers = ioService.createOutboundHandlers(EndpointQualifier.MEMBER, connection);
         InboundHandler[] inboundHandlers = ioService.createInboundHandlers(EndpointQualifier.MEMBER, connection);
 
-        MemberProtocolEncoder protocolEncoder = new MemberProtocolEncoder(outboundHandlers);
-        SingleProtocolDecoder protocolDecoder = new SingleProtocolDecoder(ProtocolType.MEMBER, inboundHandlers, protocolEncoder);
+        HazelcastProperties props = ioService.properties();
+        CompressionEncoder compressionEncoder = null;
+        if (props.getBoolean(IO_COMPRESSION_ENABLED)) {
+            compressionEncoder = new CompressionEncoder(props.getInteger(IO_COMPRESSION_THRESHOLD_BYTES),
+                    ioService.getCompressionStats());
+        }
+
+        MemberProtocolEncoder protocolEncoder = new MemberProtocolEncoder(outboundHandlers, compressionEncoder);
+        MemberProtocolDecoder protocolDecoder = new MemberProtocolDecoder(ioService, inboundHandlers, protocolEncoder);
 
         channel.outboundPipeline().addLast(protocolEncoder);
         channel.inboundPipeline().addLast(protocolDecoder);
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.nio.tcp;
+
+import com.hazelcast.instance.ProtocolType;
+import com.hazelcast.internal.networking.InboundHandler;
+import com.hazelcast.nio.IOService;
+
+import static com.hazelcast.nio.Protocols.CLUSTER_COMPRESSED;
+import static com.hazelcast.util.collection.ArrayUtils.append;
+
+/**
+ * A {@link SingleProtocolDecoder} for the member protocol that also accepts the
+ * {@link com.hazelcast.nio.Protocols#CLUSTER_COMPRESSED compressed cluster protocol}.
+ * In that case a {@link CompressionDecoder} is placed in front of the next
+ * handlers.
+ */
+public class MemberProtocolDecoder extends SingleProtocolDecoder {
+
+    private final IOService ioService;
+    private final MemberProtocolEncoder encoder;
+    private boolean compressed;
+
+    public MemberProtocolDecoder(IOService ioService, InboundHandler[] next, MemberProtocolEncoder encoder) {
+        super(ProtocolType.MEMBER, next, encoder);
+        this.ioService = ioService;
+        this.encoder = encoder;
+    }
+
+    @Override
+    protected void verifyProtocol(String incomingProtocol) {
+        if (CLUSTER_COMPRESSED.equals(incomingProtocol)) {
+            compressed = true;
+            if (!channel.isClientMode()) {
+                // the other member can decompress, so the data sent back may be compressed
+                encoder.signalPeerCompresses();
+            }
+        } else {
+            super.verifyProtocol(incomingProtocol);
+        }
+    }
+
+    @Override
+    protected void setupNextDecoder() {
+        if (compressed) {
+            CompressionDecoder decoder = new CompressionDecoder(ioService.getCompressionStats());
+            channel.inboundPipeline().replace(this, append(new InboundHandler[]{decoder}, inboundHandlers));
+        } else {
+            super.setupNextDecoder();
+        }
+    }
+}
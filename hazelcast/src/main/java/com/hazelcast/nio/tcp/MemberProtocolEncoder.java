@@ -27,12 +27,28 @@ import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
 import static com.hazelcast.internal.networking.HandlerStatus.DIRTY;
 import static com.hazelcast.nio.IOUtil.compactOrClear;
 import static com.hazelcast.nio.Protocols.CLUSTER;
+import static com.hazelcast.nio.Protocols.CLUSTER_COMPRESSED;
 import static com.hazelcast.nio.Protocols.PROTOCOL_LENGTH;
 import static com.hazelcast.util.StringUtil.stringToBytes;
-
+import static com.hazelcast.util.collection.ArrayUtils.append;
+
+/**
+ * Writes the member protocol and, once it has been written, replaces itself
+ * with the next handlers.
+ * <p>
+ * The side of the connection that opened it compresses the data it sends if
+ * it has a {@link CompressionEncoder}, and announces it by writing the
+ * {@link com.hazelcast.nio.Protocols#CLUSTER_COMPRESSED compressed cluster
+ * protocol}. Members that don't know that protocol refuse the connection. The
+ * other side only compresses if it has a {@link CompressionEncoder} and the
+ * opening side announced compression, which proves it can decompress.
+ */
 public class MemberProtocolEncoder extends OutboundHandler<Void, ByteBuffer> {
 
     private final OutboundHandler[] outboundHandlers;
+    private final CompressionEncoder compressionEncoder;
+    private volatile boolean peerCompresses;
+    private boolean compressed;
     /**
      * mustWriteProtocol is true when the channel is in client mode (-> write member protocol bytes immediately)
      * or when the protocol bytes have already been received (on the server side of the connection)
@@ -48,9 +64,20 @@ public class MemberProtocolEncoder extends OutboundHandler<Void, ByteBuffer> {
      * @param next              the {@link OutboundHandler} to replace this one in the outbound pipeline
      *                          upon match of protocol bytes
      */
-    @SuppressFBWarnings("EI_EXPOSE_REP2")
     public MemberProtocolEncoder(OutboundHandler[] next) {
+        this(next, null);
+    }
+
+    /**
+     * @param next               the {@link OutboundHandler} to replace this one in the outbound pipeline
+     *                           upon match of protocol bytes
+     * @param compressionEncoder the encoder appended to the next handlers if the data is compressed,
+     *                           {@code null} if compression is disabled
+     */
+    @SuppressFBWarnings("EI_EXPOSE_REP2")
+    public MemberProtocolEncoder(OutboundHandler[] next, CompressionEncoder compressionEncoder) {
         this.outboundHandlers = next;
+        this.compressionEncoder = compressionEncoder;
     }
 
     @Override
@@ -75,7 +102,8 @@ public class MemberProtocolEncoder extends OutboundHandler<Void, ByteBuffer> {
 
             if (!clusterProtocolBuffered) {
                 clusterProtocolBuffered = true;
-                dst.put(stringToBytes(CLUSTER));
+                compressed = compressionEncoder != null && (channel.isClientMode() || peerCompresses);
+                dst.put(stringToBytes(compressed ? CLUSTER_COMPRESSED : CLUSTER));
                 // Return false because ProtocolEncoder is not ready yet; but first we need to flush protocol
                 return DIRTY;
             }
@@ -88,7 +116,9 @@ public class MemberProtocolEncoder extends OutboundHandler<Void, ByteBuffer> {
             // replace!
             TcpIpConnection connection = (TcpIpConnection) channel.attributeMap().get(TcpIpConnection.class);
             connection.setType(ConnectionType.MEMBER);
-            channel.outboundPipeline().replace(this, outboundHandlers);
+            channel.outboundPipeline().replace(this, compressed
+                    ? append(outboundHandlers, new OutboundHandler[]{compressionEncoder})
+                    : outboundHandlers);
 
             return CLEAN;
         } finally {
@@ -96,6 +126,16 @@ public class MemberProtocolEncoder extends OutboundHandler<Void, ByteBuffer> {
         }
     }
 
+    /**
+     * Signals that the other side of the connection compresses the data it
+     * sends, so it is able to decompress as well. This call has to be made
+     * before {@link #signalProtocolLoaded()}.
+     */
+    void signalPeerCompresses() {
+        assert !channel.isClientMode() : "Signal peer compresses should only be made on channel in serverMode";
+        peerCompresses = true;
+    }
+
     public void signalProtocolLoaded() {
         assert !channel.isClientMode() : "Signal protocol should only be made on channel in serverMode";
         mustWriteProtocol = true;
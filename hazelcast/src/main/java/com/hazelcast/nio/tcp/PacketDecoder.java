@@ -23,17 +23,21 @@ import com.hazelcast.nio.Packet;
 import com.hazelcast.nio.PacketIOHelper;
 
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.function.Consumer;
 
 import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
 import static com.hazelcast.nio.IOUtil.compactOrClear;
 import static com.hazelcast.nio.Packet.FLAG_URGENT;
+import static com.hazelcast.util.function.BatchConsumer.acceptAll;
 
 /**
  * The {@link InboundHandler} for member to member communication.
  *
  * It reads as many packets from the src {@link ByteBuffer} as possible, and
- * each of the Packets is send to the destination.
+ * the Packets are send to the destination. If the destination is a
+ * {@link com.hazelcast.util.function.BatchConsumer}, the packets read in a
+ * single call are handed over as a batch.
  *
  * @see Consumer
  * @see PacketEncoder
@@ -41,7 +45,11 @@ import static com.hazelcast.nio.Packet.FLAG_URGENT;
 public class PacketDecoder extends InboundHandlerWithCounters<ByteBuffer, Consumer<Packet>> {
 
     protected final TcpIpConnection connection;
+    static final int MAX_BATCH_SIZE = 64;
+
     private final PacketIOHelper packetReader = new PacketIOHelper();
+    private final Packet[] batch = new Packet[MAX_BATCH_SIZE];
+    private int batchSize;
 
     public PacketDecoder(TcpIpConnection connection, Consumer<Packet> dst) {
         this.connection = connection;
@@ -67,7 +75,11 @@ public class PacketDecoder extends InboundHandlerWithCounters<ByteBuffer, Consum
 
             return CLEAN;
         } finally {
-            compactOrClear(src);
+            try {
+                dispatchBatch();
+            } finally {
+                compactOrClear(src);
+            }
         }
     }
 
@@ -80,6 +92,22 @@ public class PacketDecoder extends InboundHandlerWithCounters<ByteBuffer, Consum
 
         packet.setConn(connection);
 
-        dst.accept(packet);
+        batch[batchSize++] = packet;
+        if (batchSize == MAX_BATCH_SIZE) {
+            dispatchBatch();
+        }
+    }
+
+    private void dispatchBatch() {
+        if (batchSize == 0) {
+            return;
+        }
+
+        try {
+            acceptAll(dst, batch, batchSize);
+        } finally {
+            Arrays.fill(batch, 0, batchSize, null);
+            batchSize = 0;
+        }
     }
 }
@@ -35,7 +35,8 @@ import static com.hazelcast.nio.IOUtil.compactOrClear;
  *
  * It makes use of a flyweight to allow the sharing of a packet-instance over
  * multiple connections. The flyweight contains the actual 'position' state of
- * what has been written.
+ * what has been written. The pooled payloads of the packets are released
+ * once the packets are written to the {@link ByteBuffer}.
  *
  * @see PacketDecoder
  */
@@ -66,6 +67,7 @@ public class PacketEncoder extends OutboundHandler<Supplier<Packet>, ByteBuffer>
 
                 if (packetWriter.writeTo(packet, dst)) {
                     // packet got written, lets see if another packet can be written
+                    packet.releasePayload();
                     packet = null;
                 } else {
                     // the packet didn't get written completely, so we are done.
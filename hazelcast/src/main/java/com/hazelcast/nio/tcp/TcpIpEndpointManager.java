@@ -409,7 +409,10 @@ public class TcpIpEndpointManager
             if (logger.isFinestEnabled()) {
                 logger.finest("Retrying[" + retries + "] packet send operation to: " + target);
             }
-            send(packet, target, this);
+            if (!send(packet, target, this)) {
+                // the packet is dropped, so nobody else will release it
+                packet.releasePayload();
+            }
         }
     }
 
@@ -113,6 +113,7 @@ public class TcpIpNetworkingService
         }
 
         metricsRegistry.scanAndRegister(this, "tcp.connection");
+        metricsRegistry.scanAndRegister(ioService.getCompressionStats(), "tcp.compression");
     }
 
     private void initEndpointManager(Config config, IOService ioService,
@@ -42,11 +42,13 @@ import static com.hazelcast.nio.IOUtil.compactOrClear;
 import static com.hazelcast.nio.IOUtil.newByteBuffer;
 import static com.hazelcast.nio.Protocols.CLIENT_BINARY_NEW;
 import static com.hazelcast.nio.Protocols.CLUSTER;
+import static com.hazelcast.nio.Protocols.CLUSTER_COMPRESSED;
 import static com.hazelcast.nio.Protocols.PROTOCOL_LENGTH;
 import static com.hazelcast.spi.properties.GroupProperty.SOCKET_CLIENT_RECEIVE_BUFFER_SIZE;
 import static com.hazelcast.spi.properties.GroupProperty.SOCKET_RECEIVE_BUFFER_SIZE;
 import static com.hazelcast.util.StringUtil.bytesToString;
 import static com.hazelcast.util.StringUtil.stringToBytes;
+import static com.hazelcast.util.collection.ArrayUtils.append;
 
 /**
  * A {@link InboundHandler} that reads the protocol bytes
@@ -87,7 +89,9 @@ public class UnifiedProtocolDecoder
             String protocol = loadProtocol();
 
             if (CLUSTER.equals(protocol)) {
-                initChannelForCluster();
+                initChannelForCluster(false);
+            } else if (CLUSTER_COMPRESSED.equals(protocol)) {
+                initChannelForCluster(true);
             } else if (CLIENT_BINARY_NEW.equals(protocol)) {
                 initChannelForClient();
             } else if (RestApiTextDecoder.TEXT_PARSERS.isCommandPrefix(protocol)) {
@@ -127,13 +131,18 @@ public class UnifiedProtocolDecoder
         return bytesToString(protocolBytes);
     }
 
-    private void initChannelForCluster() {
+    private void initChannelForCluster(boolean compressed) {
         channel.options()
                 .setOption(SO_SNDBUF, props.getInteger(SOCKET_RECEIVE_BUFFER_SIZE) * KILO_BYTE);
 
         TcpIpConnection connection = (TcpIpConnection) channel.attributeMap().get(TcpIpConnection.class);
         connection.setType(ConnectionType.MEMBER);
-        channel.inboundPipeline().replace(this, ioService.createInboundHandlers(EndpointQualifier.MEMBER, connection));
+        InboundHandler[] handlers = ioService.createInboundHandlers(EndpointQualifier.MEMBER, connection);
+        if (compressed) {
+            // the other member compresses what it sends
+            handlers = append(new InboundHandler[]{new CompressionDecoder(ioService.getCompressionStats())}, handlers);
+        }
+        channel.inboundPipeline().replace(this, handlers);
     }
 
     private void initChannelForClient() {
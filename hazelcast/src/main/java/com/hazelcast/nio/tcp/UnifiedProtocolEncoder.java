@@ -33,11 +33,15 @@ import static com.hazelcast.nio.IOService.KILO_BYTE;
 import static com.hazelcast.nio.IOUtil.compactOrClear;
 import static com.hazelcast.nio.Protocols.CLIENT_BINARY_NEW;
 import static com.hazelcast.nio.Protocols.CLUSTER;
+import static com.hazelcast.nio.Protocols.CLUSTER_COMPRESSED;
 import static com.hazelcast.nio.Protocols.PROTOCOL_LENGTH;
 import static com.hazelcast.nio.ascii.TextEncoder.TEXT_ENCODER;
+import static com.hazelcast.spi.properties.GroupProperty.IO_COMPRESSION_ENABLED;
+import static com.hazelcast.spi.properties.GroupProperty.IO_COMPRESSION_THRESHOLD_BYTES;
 import static com.hazelcast.spi.properties.GroupProperty.SOCKET_CLIENT_SEND_BUFFER_SIZE;
 import static com.hazelcast.spi.properties.GroupProperty.SOCKET_SEND_BUFFER_SIZE;
 import static com.hazelcast.util.StringUtil.stringToBytes;
+import static com.hazelcast.util.collection.ArrayUtils.append;
 
 /**
  * The ProtocolEncoder is responsible for writing the protocol and once the protocol
@@ -47,18 +51,29 @@ import static com.hazelcast.util.StringUtil.stringToBytes;
  * write the cluster protocol immediately. The ProtocolEncoder on the 'server' side
  * of the connection will wait till it has received the protocol and then will only
  * send the protocol if the client side was a member.
+ *
+ * A member that compresses the data it sends writes the
+ * {@link com.hazelcast.nio.Protocols#CLUSTER_COMPRESSED} protocol instead of the
+ * cluster protocol, so the other side knows it needs to decompress. The side
+ * that opened the connection compresses if compression is enabled; members that
+ * don't know the compressed cluster protocol refuse the connection. The other
+ * side only compresses if compression is enabled and it received the compressed
+ * cluster protocol, which proves the opening side can decompress.
  */
 public class UnifiedProtocolEncoder
         extends OutboundHandler<Void, ByteBuffer> {
 
     private final IOService ioService;
     private final HazelcastProperties props;
+    private final boolean compress;
     private volatile String inboundProtocol;
     private boolean clusterProtocolBuffered;
+    private boolean compressed;
 
     public UnifiedProtocolEncoder(IOService ioService) {
         this.ioService = ioService;
         this.props = ioService.properties();
+        this.compress = props.getBoolean(IO_COMPRESSION_ENABLED);
     }
 
     @Override
@@ -93,12 +108,13 @@ public class UnifiedProtocolEncoder
                 return CLEAN;
             }
 
-            if (CLUSTER.equals(inboundProtocol)) {
+            if (CLUSTER.equals(inboundProtocol) || CLUSTER_COMPRESSED.equals(inboundProtocol)) {
                 // in case of a member, the cluster protocol needs to be send first before initializing the channel.
 
                 if (!clusterProtocolBuffered) {
                     clusterProtocolBuffered = true;
-                    dst.put(stringToBytes(CLUSTER));
+                    compressed = compress && (channel.isClientMode() || CLUSTER_COMPRESSED.equals(inboundProtocol));
+                    dst.put(stringToBytes(compressed ? CLUSTER_COMPRESSED : CLUSTER));
                     // Return false because ProtocolEncoder is not ready yet; but first we need to flush protocol
                     return DIRTY;
                 }
@@ -141,6 +157,11 @@ public class UnifiedProtocolEncoder
 
         TcpIpConnection connection = (TcpIpConnection) channel.attributeMap().get(TcpIpConnection.class);
         OutboundHandler[] handlers = ioService.createOutboundHandlers(EndpointQualifier.MEMBER, connection);
+        if (compressed) {
+            CompressionEncoder encoder = new CompressionEncoder(props.getInteger(IO_COMPRESSION_THRESHOLD_BYTES),
+                    ioService.getCompressionStats());
+            handlers = append(handlers, new OutboundHandler[]{encoder});
+        }
         channel.outboundPipeline().replace(this, handlers);
     }
 
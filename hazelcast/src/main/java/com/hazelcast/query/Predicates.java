@@ -31,6 +31,7 @@ import com.hazelcast.query.impl.predicates.NotPredicate;
 import com.hazelcast.query.impl.predicates.OrPredicate;
 import com.hazelcast.query.impl.predicates.PagingPredicateImpl;
 import com.hazelcast.query.impl.predicates.PartitionPredicateImpl;
+import com.hazelcast.query.impl.predicates.PreparedSqlPredicate;
 import com.hazelcast.query.impl.predicates.RegexPredicate;
 import com.hazelcast.query.impl.predicates.SqlPredicate;
 import com.hazelcast.query.impl.predicates.TruePredicate;
@@ -462,6 +463,23 @@ public final class Predicates {
         return new SqlPredicate(expression);
     }
 
+    /**
+     * Creates a prepared <b>SQL</b> predicate having {@code ?} placeholders in place of the values of its 'where'
+     * expression, the same expressions as the ones of {@link #sql(String)} are supported.
+     * <p>
+     * Example: {@code active AND (age &gt; ? OR name IN (?, ?))}
+     * <p>
+     * The expression is parsed only once, the predicates are created by binding the values to the placeholders.
+     *
+     * @param expression the 'where' expression having the {@code ?} placeholders.
+     * @return the created <b>prepared</b> predicate instance.
+     * @throws IllegalArgumentException if the SQL expression is invalid.
+     * @see PreparedPredicate#bind(Object...)
+     */
+    public static <K, V> PreparedPredicate<K, V> prepare(String expression) {
+        return new PreparedSqlPredicate<K, V>(expression);
+    }
+
     /**
      * Creates a paging predicate with a page size. Results will not be filtered and will be returned in natural order.
      *
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query;
+
+/**
+ * A SQL predicate expression parsed once and reused for the queries of the
+ * same shape having different values. The values are bound to the {@code ?}
+ * placeholders of the expression in the order of their appearance.
+ * <br>
+ * Here is an example usage.
+ * <pre>
+ * PreparedPredicate&lt;String, Employee&gt; prepared = Predicates.prepare("age &gt; ? AND name IN (?, ?)");
+ *
+ * Collection&lt;Employee&gt; employees = map.values(prepared.bind(30, "Alice", "Bob"));
+ * </pre>
+ * The prepared predicates are thread-safe and supposed to be created once
+ * and reused. The members cache the parsed expressions as well, so the
+ * bound predicates sent to them aren't parsed again either.
+ *
+ * @param <K> type of the entry key
+ * @param <V> type of the entry value
+ * @see Predicates#prepare(String)
+ */
+public interface PreparedPredicate<K, V> {
+
+    /**
+     * @return the SQL expression of this prepared predicate.
+     */
+    String getSql();
+
+    /**
+     * @return the number of the {@code ?} placeholders in the expression.
+     */
+    int getParameterCount();
+
+    /**
+     * Creates a predicate binding the given values to the placeholders.
+     *
+     * @param parameters the values of the placeholders.
+     * @return the created predicate.
+     * @throws IllegalArgumentException if the number of the given values
+     *                                  doesn't match the number of the
+     *                                  placeholders.
+     */
+    Predicate<K, V> bind(Object... parameters);
+
+}
@@ -18,6 +18,7 @@ package com.hazelcast.query.impl;
 
 import com.hazelcast.core.TypeConverter;
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.util.counters.Counter;
 import com.hazelcast.map.impl.StoreAdapter;
 import com.hazelcast.monitor.impl.IndexOperationStats;
 import com.hazelcast.monitor.impl.PerIndexStats;
@@ -27,10 +28,17 @@ import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.query.impl.getters.Extractors;
 import com.hazelcast.query.impl.getters.MultiResult;
 import com.hazelcast.query.impl.predicates.PredicateDataSerializerHook;
+import com.hazelcast.query.impl.predicates.PredicateUtils;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
 import static com.hazelcast.query.impl.CompositeValue.NEGATIVE_INFINITY;
 import static com.hazelcast.query.impl.TypeConverters.NULL_CONVERTER;
 import static com.hazelcast.util.SetUtil.createHashSet;
@@ -48,12 +56,34 @@ public abstract class AbstractIndex implements InternalIndex {
      */
     public static final ComparableIdentifiedDataSerializable NULL = new NullObject();
 
+    /**
+     * The maximum number of the buckets in the histograms of the indexes.
+     */
+    static final int HISTOGRAM_BUCKET_COUNT = 32;
+
+    /**
+     * The histogram is rebuilt once the number of the modifications since it
+     * was built exceeds this fraction of the entries it describes.
+     */
+    private static final double HISTOGRAM_STALENESS_RATIO = 0.1;
+
+    /**
+     * The minimum number of the modifications triggering a rebuild of the
+     * histogram, avoids rebuilding it too often for small indexes.
+     */
+    private static final long HISTOGRAM_MIN_STALE_MODIFICATIONS = 64;
+
     protected final InternalSerializationService ss;
     protected final Extractors extractors;
     protected final IndexStore indexStore;
     protected final IndexCopyBehavior copyBehavior;
 
     private final String name;
+    /**
+     * The attribute to extract the values of non-composite indexes from, the
+     * same as the name except for bitmap indexes.
+     */
+    private final String attribute;
     private final String[] components;
     private final boolean ordered;
     private final PerIndexStats stats;
@@ -63,25 +93,35 @@ public abstract class AbstractIndex implements InternalIndex {
      */
     private final StoreAdapter partitionStoreAdapter;
 
+    private final Counter modificationCount = newMwCounter();
+    private final AtomicBoolean histogramRebuilding = new AtomicBoolean();
+
     private volatile TypeConverter converter;
+    private volatile IndexHistogram histogram;
+    private volatile long histogramModificationCount;
 
+    /**
+     * Constructs an index backed by the given index store.
+     *
+     * @param indexStore the index store keeping the contents of the index.
+     */
     @SuppressFBWarnings("EI_EXPOSE_REP2")
-    public AbstractIndex(String name, String[] components, boolean ordered, InternalSerializationService ss,
-                         Extractors extractors, IndexCopyBehavior copyBehavior, PerIndexStats stats,
-                         StoreAdapter partitionStoreAdapter) {
+    protected AbstractIndex(String name, String[] components, boolean ordered, InternalSerializationService ss,
+                            Extractors extractors, IndexCopyBehavior copyBehavior, PerIndexStats stats,
+                            StoreAdapter partitionStoreAdapter, IndexStore indexStore) {
         this.name = name;
+        String bitmapAttribute = components == null ? PredicateUtils.parseOutBitmapIndexAttribute(name) : null;
+        this.attribute = bitmapAttribute == null ? name : bitmapAttribute;
         this.components = components;
         this.ordered = ordered;
         this.ss = ss;
         this.extractors = extractors;
         this.copyBehavior = copyBehavior;
         this.partitionStoreAdapter = partitionStoreAdapter;
-        this.indexStore = createIndexStore(ordered, stats);
+        this.indexStore = indexStore;
         this.stats = stats;
     }
 
-    protected abstract IndexStore createIndexStore(boolean ordered, PerIndexStats stats);
-
     @Override
     public String getName() {
         return name;
@@ -132,6 +172,7 @@ public abstract class AbstractIndex implements InternalIndex {
             indexStore.update(oldAttributeValue, newAttributeValue, entry, operationStats);
             stats.onUpdate(timestamp, operationStats, operationSource);
         }
+        modificationCount.inc();
     }
 
     @Override
@@ -142,6 +183,7 @@ public abstract class AbstractIndex implements InternalIndex {
         Object attributeValue = extractAttributeValue(key, value);
         indexStore.remove(attributeValue, key, operationStats);
         stats.onRemove(timestamp, operationStats, operationSource);
+        modificationCount.inc();
     }
 
     @Override
@@ -195,6 +237,14 @@ public abstract class AbstractIndex implements InternalIndex {
         return result;
     }
 
+    @Override
+    public Iterator<Set<QueryableEntry>> getSortedRecords(Comparable from) {
+        if (converter == null) {
+            return Collections.<Set<QueryableEntry>>emptyList().iterator();
+        }
+        return indexStore.getSortedRecords(from == null ? null : convert(from));
+    }
+
     @Override
     public Set<QueryableEntry> getRecords(Comparison comparison, Comparable value) {
         long timestamp = stats.makeTimestamp();
@@ -209,10 +259,44 @@ public abstract class AbstractIndex implements InternalIndex {
         return result;
     }
 
+    @Override
+    public IndexHistogram getHistogram(Executor rebuildExecutor) {
+        IndexHistogram histogram = this.histogram;
+        if (histogram != null) {
+            long staleModifications = Math.max(HISTOGRAM_MIN_STALE_MODIFICATIONS,
+                    (long) (histogram.getEntryCount() * HISTOGRAM_STALENESS_RATIO));
+            if (modificationCount.get() - histogramModificationCount <= staleModifications) {
+                return histogram;
+            }
+        }
+
+        if (histogramRebuilding.compareAndSet(false, true)) {
+            try {
+                rebuildExecutor.execute(this::rebuildHistogram);
+            } catch (RejectedExecutionException e) {
+                histogramRebuilding.set(false);
+            }
+        }
+        // the stale histogram is still a reasonable estimate until rebuilt
+        return this.histogram;
+    }
+
+    private void rebuildHistogram() {
+        try {
+            long modifications = modificationCount.get();
+            IndexHistogram histogram = indexStore.buildHistogram(HISTOGRAM_BUCKET_COUNT);
+            this.histogramModificationCount = modifications;
+            this.histogram = histogram;
+        } finally {
+            histogramRebuilding.set(false);
+        }
+    }
+
     @Override
     public void clear() {
         indexStore.clear();
         converter = null;
+        histogram = null;
         stats.onClear();
     }
 
@@ -233,7 +317,7 @@ public abstract class AbstractIndex implements InternalIndex {
 
     private Object extractAttributeValue(Data key, Object value) {
         if (components == null) {
-            return QueryableEntry.extractAttributeValue(extractors, ss, name, key, value, null);
+            return QueryableEntry.extractAttributeValue(extractors, ss, attribute, key, value, null);
         } else {
             Comparable[] valueComponents = new Comparable[components.length];
             for (int i = 0; i < components.length; ++i) {
@@ -267,7 +351,7 @@ public abstract class AbstractIndex implements InternalIndex {
 
     private TypeConverter obtainConverter(QueryableEntry entry) {
         if (components == null) {
-            return entry.getConverter(name);
+            return entry.getConverter(attribute);
         } else {
             CompositeConverter existingConverter = (CompositeConverter) converter;
             TypeConverter[] converters = new TypeConverter[components.length];
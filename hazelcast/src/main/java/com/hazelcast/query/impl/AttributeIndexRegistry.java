@@ -19,11 +19,14 @@ package com.hazelcast.query.impl;
 import com.hazelcast.core.TypeConverter;
 import com.hazelcast.monitor.impl.PerIndexStats;
 import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.impl.predicates.PredicateUtils;
 
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
 
 import static com.hazelcast.query.impl.AbstractIndex.NULL;
 import static com.hazelcast.query.impl.Comparison.GREATER;
@@ -54,7 +57,13 @@ public class AttributeIndexRegistry {
      */
     public void register(InternalIndex index) {
         String[] components = index.getComponents();
-        String attribute = components == null ? index.getName() : components[0];
+        String bitmapAttribute = components == null ? PredicateUtils.parseOutBitmapIndexAttribute(index.getName()) : null;
+        String attribute;
+        if (bitmapAttribute != null) {
+            attribute = bitmapAttribute;
+        } else {
+            attribute = components == null ? index.getName() : components[0];
+        }
 
         Record record = registry.get(attribute);
         if (record == null) {
@@ -124,8 +133,18 @@ public class AttributeIndexRegistry {
 
         public boolean unorderedWorseThan(InternalIndex candidate) {
             assert !candidate.isOrdered();
-            // we have no index and the unordered candidate is not composite
-            return unordered == null && candidate.getComponents() == null;
+            if (candidate.getComponents() != null) {
+                // composite unordered indexes can't serve single attributes
+                return false;
+            }
+            InternalIndex current = unordered;
+            // any non-composite candidate is better than nothing, hash
+            // indexes are better than bitmap ones for single attributes
+            return current == null || isBitmap(current) && !isBitmap(candidate);
+        }
+
+        private static boolean isBitmap(InternalIndex index) {
+            return PredicateUtils.parseOutBitmapIndexAttribute(index.getName()) != null;
         }
 
         public boolean orderedWorseThan(InternalIndex candidate) {
@@ -318,6 +337,18 @@ public class AttributeIndexRegistry {
             return delegate.getPerIndexStats();
         }
 
+        @Override
+        public Iterator<Set<QueryableEntry>> getSortedRecords(Comparable from) {
+            // the groups of the composite index are finer than the ones of its first component
+            return null;
+        }
+
+        @Override
+        public IndexHistogram getHistogram(Executor rebuildExecutor) {
+            // the histogram of the composite index describes the composite values
+            return null;
+        }
+
         private RuntimeException newUnsupportedException() {
             return new UnsupportedOperationException("decorated composite indexes support only querying");
         }
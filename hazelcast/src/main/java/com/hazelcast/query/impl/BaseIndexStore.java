@@ -111,6 +111,28 @@ public abstract class BaseIndexStore implements IndexStore {
      */
     abstract Object removeInternal(Comparable value, Data recordKey);
 
+    /**
+     * Checks whether the given indexed value satisfies the given comparison
+     * with the given value.
+     */
+    static boolean matches(Comparison comparison, Comparable value, Comparable indexedValue) {
+        int result = Comparables.compare(value, indexedValue);
+        switch (comparison) {
+            case LESS:
+                return result > 0;
+            case LESS_OR_EQUAL:
+                return result >= 0;
+            case GREATER:
+                return result < 0;
+            case GREATER_OR_EQUAL:
+                return result <= 0;
+            case NOT_EQUAL:
+                return result != 0;
+            default:
+                throw new IllegalStateException("Unrecognized comparison: " + comparison);
+        }
+    }
+
     void takeWriteLock() {
         writeLock.lock();
     }
@@ -176,6 +198,18 @@ public abstract class BaseIndexStore implements IndexStore {
         // nothing to destroy
     }
 
+    @Override
+    public Iterator<Set<QueryableEntry>> getSortedRecords(Comparable from) {
+        // the ordered traversal is not supported by default
+        return null;
+    }
+
+    @Override
+    public IndexHistogram buildHistogram(int maxBucketCount) {
+        // histograms are not supported by default
+        return null;
+    }
+
     @SuppressWarnings("unchecked")
     private void unwrapAndInsertToIndex(Object newValue, QueryableEntry record, IndexOperationStats operationStats) {
         if (newValue == NonTerminalJsonValue.INSTANCE) {
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static com.hazelcast.query.impl.AbstractIndex.NULL;
+
+/**
+ * Index store keeping a compressed bitmap of entry ordinals per distinct
+ * value.
+ * <p>
+ * Suitable for low-cardinality attributes: the entries sharing a value cost
+ * a bit each instead of a map entry each, and the results of equality,
+ * {@code IN} and inequality queries may be intersected and united with the
+ * results of the other bitmap indexes of the same {@link Indexes} using
+ * word-level bitwise operations, see {@link BitmapResultSet}.
+ * <p>
+ * The inequality query, unlike the one of the other stores, excludes every
+ * entry having the given value among its values, so the result matches the
+ * {@code !=} predicate semantics for multi-value attributes.
+ */
+public class BitmapIndexStore extends BaseIndexStore {
+
+    private final Map<Comparable, CompressedBitmap> bitmaps = new HashMap<Comparable, CompressedBitmap>();
+    private final EntryOrdinals ordinals;
+
+    BitmapIndexStore(EntryOrdinals ordinals) {
+        // results are always materialized from the shared ordinals
+        super(IndexCopyBehavior.NEVER);
+        this.ordinals = ordinals;
+    }
+
+    @Override
+    Object insertInternal(Comparable value, QueryableEntry record) {
+        markIndexStoreExpirableIfNecessary(record);
+
+        CompressedBitmap bitmap = bitmaps.get(value);
+        int ordinal = ordinals.ordinalOf(record.getKeyData());
+        if (bitmap != null && ordinal != -1 && bitmap.contains(ordinal)) {
+            QueryableEntry existing = ordinals.get(ordinal);
+            ordinals.update(ordinal, record);
+            return existing;
+        }
+
+        if (bitmap == null) {
+            bitmap = new CompressedBitmap();
+            bitmaps.put(value, bitmap);
+        }
+        bitmap.add(ordinals.acquire(record));
+        return null;
+    }
+
+    @Override
+    Object removeInternal(Comparable value, Data recordKey) {
+        CompressedBitmap bitmap = bitmaps.get(value);
+        if (bitmap == null) {
+            return null;
+        }
+        int ordinal = ordinals.ordinalOf(recordKey);
+        if (ordinal == -1 || !bitmap.remove(ordinal)) {
+            return null;
+        }
+        if (bitmap.isEmpty()) {
+            bitmaps.remove(value);
+        }
+
+        QueryableEntry existing = ordinals.get(ordinal);
+        ordinals.release(ordinal);
+        return existing;
+    }
+
+    @Override
+    public Comparable canonicalizeQueryArgumentScalar(Comparable value) {
+        return canonicalizeScalarForStorage(value);
+    }
+
+    @Override
+    Comparable canonicalizeScalarForStorage(Comparable value) {
+        return UnorderedIndexStore.canonicalizeScalar(value);
+    }
+
+    @Override
+    public void clear() {
+        takeWriteLock();
+        try {
+            for (CompressedBitmap bitmap : bitmaps.values()) {
+                for (int ordinal = bitmap.nextMember(0); ordinal != -1; ordinal = bitmap.nextMember(ordinal + 1)) {
+                    ordinals.release(ordinal);
+                }
+            }
+            bitmaps.clear();
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        // release the shared ordinals held by this store
+        clear();
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable value) {
+        takeReadLock();
+        try {
+            return toResultSet(copyOf(bitmaps.get(canonicalize(value))));
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Set<Comparable> values) {
+        takeReadLock();
+        try {
+            CompressedBitmap result = new CompressedBitmap();
+            for (Comparable value : values) {
+                // value is already canonicalized by the associated index
+                CompressedBitmap bitmap = bitmaps.get(value);
+                if (bitmap != null) {
+                    result = CompressedBitmap.or(result, bitmap);
+                }
+            }
+            return toResultSet(result);
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparison comparison, Comparable value) {
+        takeReadLock();
+        try {
+            if (comparison == Comparison.NOT_EQUAL) {
+                CompressedBitmap all = new CompressedBitmap();
+                for (Map.Entry<Comparable, CompressedBitmap> entry : bitmaps.entrySet()) {
+                    if (entry.getKey() != NULL) {
+                        all = CompressedBitmap.or(all, entry.getValue());
+                    }
+                }
+                CompressedBitmap excluded = bitmaps.get(canonicalize(value));
+                return toResultSet(excluded == null ? all : CompressedBitmap.andNot(all, excluded));
+            }
+
+            CompressedBitmap result = new CompressedBitmap();
+            for (Map.Entry<Comparable, CompressedBitmap> entry : bitmaps.entrySet()) {
+                Comparable indexedValue = entry.getKey();
+                if (indexedValue != NULL && matches(comparison, value, indexedValue)) {
+                    result = CompressedBitmap.or(result, entry.getValue());
+                }
+            }
+            return toResultSet(result);
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive) {
+        takeReadLock();
+        try {
+            CompressedBitmap result = new CompressedBitmap();
+            int fromBound = fromInclusive ? 0 : +1;
+            int toBound = toInclusive ? 0 : -1;
+            for (Map.Entry<Comparable, CompressedBitmap> entry : bitmaps.entrySet()) {
+                Comparable value = entry.getKey();
+                if (value != NULL && Comparables.compare(value, from) >= fromBound
+                        && Comparables.compare(value, to) <= toBound) {
+                    result = CompressedBitmap.or(result, entry.getValue());
+                }
+            }
+            return toResultSet(result);
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    private Comparable canonicalize(Comparable value) {
+        return value == NULL ? NULL : UnorderedIndexStore.canonicalize(value);
+    }
+
+    private BitmapResultSet toResultSet(CompressedBitmap bitmap) {
+        return new BitmapResultSet(bitmap, ordinals, isExpirable());
+    }
+
+    private static CompressedBitmap copyOf(CompressedBitmap bitmap) {
+        return bitmap == null ? new CompressedBitmap() : bitmap.copy();
+    }
+
+}
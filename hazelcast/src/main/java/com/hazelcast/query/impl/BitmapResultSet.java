@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.util.Clock;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Result set produced by bitmap indexes.
+ * <p>
+ * The result set holds a snapshot of the entry ordinals matched by a query
+ * along with the entries they were resolved to while the index was locked,
+ * so a concurrently recycled ordinal never makes it return a non-matching
+ * entry. Result sets produced by the bitmap indexes of the same
+ * {@link Indexes} instance may be combined using word-level bitwise
+ * operations as long as no ordinal was recycled in between the snapshots,
+ * see {@link #isCombinableWith}.
+ */
+public final class BitmapResultSet extends AbstractSet<QueryableEntry> {
+
+    private final CompressedBitmap bitmap;
+    // the entries of the bitmap members in the ascending ordinal order
+    private final QueryableEntry[] entries;
+    private final EntryOrdinals ordinals;
+    private final long version;
+    private final boolean expirable;
+
+    /**
+     * Constructs a new result set resolving the entries of the given bitmap.
+     * <p>
+     * Should be called under the read lock of the index owning the bitmap,
+     * the ordinals of the bitmap members can't be recycled then.
+     *
+     * @param expirable {@code true} if the access time of the records has to
+     *                  be updated while iterating.
+     */
+    BitmapResultSet(CompressedBitmap bitmap, EntryOrdinals ordinals, boolean expirable) {
+        this.bitmap = bitmap;
+        this.entries = new QueryableEntry[bitmap.cardinality()];
+        this.ordinals = ordinals;
+        this.version = ordinals.version();
+        this.expirable = expirable;
+        int i = 0;
+        for (int ordinal = bitmap.nextMember(0); ordinal != -1; ordinal = bitmap.nextMember(ordinal + 1)) {
+            entries[i++] = ordinals.get(ordinal);
+        }
+    }
+
+    private BitmapResultSet(CompressedBitmap bitmap, QueryableEntry[] entries, BitmapResultSet source, boolean expirable) {
+        this.bitmap = bitmap;
+        this.entries = entries;
+        this.ordinals = source.ordinals;
+        this.version = source.version;
+        this.expirable = expirable;
+    }
+
+    /**
+     * @return {@code true} if this result set can be combined with the given
+     * one using {@link #and} and {@link #or}, {@code false} otherwise.
+     */
+    public boolean isCombinableWith(BitmapResultSet other) {
+        return ordinals == other.ordinals && version == other.version;
+    }
+
+    /**
+     * @return a new result set containing the entries present in both result
+     * sets.
+     */
+    public BitmapResultSet and(BitmapResultSet other) {
+        assert isCombinableWith(other);
+        return combine(CompressedBitmap.and(bitmap, other.bitmap), other);
+    }
+
+    /**
+     * @return a new result set containing the entries present in any of the
+     * result sets.
+     */
+    public BitmapResultSet or(BitmapResultSet other) {
+        assert isCombinableWith(other);
+        return combine(CompressedBitmap.or(bitmap, other.bitmap), other);
+    }
+
+    /**
+     * @return a new result set containing the entries present in this result
+     * set and absent in the given one.
+     */
+    public BitmapResultSet andNot(BitmapResultSet other) {
+        assert isCombinableWith(other);
+        return combine(CompressedBitmap.andNot(bitmap, other.bitmap), other);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof QueryableEntry)) {
+            return false;
+        }
+        QueryableEntry entry = (QueryableEntry) o;
+        int ordinal = ordinals.ordinalOf(entry.getKeyData());
+        if (ordinals.version() == version) {
+            // the ordinals are the same as at the time of the snapshot
+            return ordinal != -1 && bitmap.contains(ordinal);
+        }
+        for (QueryableEntry candidate : entries) {
+            if (candidate.getKeyData().equals(entry.getKeyData())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Iterator<QueryableEntry> iterator() {
+        return new It();
+    }
+
+    @Override
+    public int size() {
+        return entries.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return entries.length == 0;
+    }
+
+    /**
+     * Picks the entries of the given combined bitmap members from the
+     * entries of this and the other result set. The snapshots agree on the
+     * entry keys since no ordinal was recycled in between them.
+     */
+    private BitmapResultSet combine(CompressedBitmap result, BitmapResultSet other) {
+        QueryableEntry[] combined = new QueryableEntry[result.cardinality()];
+        int i = 0;
+        int left = 0;
+        int right = 0;
+        int leftOrdinal = bitmap.nextMember(0);
+        int rightOrdinal = other.bitmap.nextMember(0);
+        for (int ordinal = result.nextMember(0); ordinal != -1; ordinal = result.nextMember(ordinal + 1)) {
+            while (leftOrdinal != -1 && leftOrdinal < ordinal) {
+                leftOrdinal = bitmap.nextMember(leftOrdinal + 1);
+                left++;
+            }
+            if (leftOrdinal == ordinal) {
+                combined[i++] = entries[left];
+                continue;
+            }
+            while (rightOrdinal != -1 && rightOrdinal < ordinal) {
+                rightOrdinal = other.bitmap.nextMember(rightOrdinal + 1);
+                right++;
+            }
+            assert rightOrdinal == ordinal;
+            combined[i++] = other.entries[right];
+        }
+        return new BitmapResultSet(result, combined, this, expirable || other.expirable);
+    }
+
+    private class It implements Iterator<QueryableEntry> {
+
+        private int position;
+
+        @Override
+        public boolean hasNext() {
+            return position < entries.length;
+        }
+
+        @Override
+        public QueryableEntry next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            QueryableEntry entry = entries[position++];
+            if (expirable && entry.getRecord() != null) {
+                entry.getRecord().onAccessSafe(Clock.currentTimeMillis());
+            }
+            return entry;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+    }
+
+}
@@ -90,19 +90,24 @@ public class CachedQueryEntry<K, V> extends QueryableEntry<K, V> {
         return valueData;
     }
 
+    @Override
+    protected Data getTargetData(boolean key) {
+        return key ? keyData : valueData;
+    }
+
     @Override
     protected Object getTargetObject(boolean key) {
         Object targetObject;
         if (key) {
             // keyData is never null
-            if (keyData.isPortable() || keyData.isJson()) {
+            if (keyData.isPortable() || keyData.isJson() || keyData.isCompact()) {
                 targetObject = keyData;
             } else {
                 targetObject = getKey();
             }
         } else {
             if (valueObject == null) {
-                if (valueData.isPortable() || valueData.isJson()) {
+                if (valueData.isPortable() || valueData.isJson() || valueData.isCompact()) {
                     targetObject = valueData;
                 } else {
                     targetObject = getValue();
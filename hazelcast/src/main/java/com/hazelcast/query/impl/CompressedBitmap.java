@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import java.util.Arrays;
+
+/**
+ * A bitmap of non-negative {@code int} members compressed by omitting the
+ * 64-bit words having no bits set.
+ * <p>
+ * The non-empty words are kept sorted by their indexes, so the bitwise
+ * operations are performed by merging the words of the operands a word at a
+ * time. The bitmaps are not thread-safe.
+ */
+final class CompressedBitmap {
+
+    private static final int INITIAL_CAPACITY = 4;
+    private static final int WORD_SHIFT = 6;
+
+    private int[] indexes;
+    private long[] words;
+    private int size;
+
+    CompressedBitmap() {
+        this(INITIAL_CAPACITY);
+    }
+
+    private CompressedBitmap(int capacity) {
+        this.indexes = new int[capacity];
+        this.words = new long[capacity];
+    }
+
+    /**
+     * Adds the given member to this bitmap.
+     *
+     * @return {@code true} if the member was added, {@code false} if it was
+     * already present.
+     */
+    boolean add(int member) {
+        int index = member >>> WORD_SHIFT;
+        long mask = 1L << member;
+        int position = Arrays.binarySearch(indexes, 0, size, index);
+        if (position >= 0) {
+            long word = words[position];
+            words[position] = word | mask;
+            return (word & mask) == 0;
+        }
+
+        position = -position - 1;
+        if (size == indexes.length) {
+            indexes = Arrays.copyOf(indexes, size << 1);
+            words = Arrays.copyOf(words, size << 1);
+        }
+        System.arraycopy(indexes, position, indexes, position + 1, size - position);
+        System.arraycopy(words, position, words, position + 1, size - position);
+        indexes[position] = index;
+        words[position] = mask;
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes the given member from this bitmap.
+     *
+     * @return {@code true} if the member was removed, {@code false} if it was
+     * not present.
+     */
+    boolean remove(int member) {
+        int position = Arrays.binarySearch(indexes, 0, size, member >>> WORD_SHIFT);
+        if (position < 0) {
+            return false;
+        }
+
+        long mask = 1L << member;
+        long word = words[position];
+        if ((word & mask) == 0) {
+            return false;
+        }
+        word &= ~mask;
+        if (word != 0) {
+            words[position] = word;
+        } else {
+            System.arraycopy(indexes, position + 1, indexes, position, size - position - 1);
+            System.arraycopy(words, position + 1, words, position, size - position - 1);
+            size--;
+        }
+        return true;
+    }
+
+    boolean contains(int member) {
+        int position = Arrays.binarySearch(indexes, 0, size, member >>> WORD_SHIFT);
+        return position >= 0 && (words[position] & 1L << member) != 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += Long.bitCount(words[i]);
+        }
+        return cardinality;
+    }
+
+    CompressedBitmap copy() {
+        CompressedBitmap copy = new CompressedBitmap(Math.max(size, INITIAL_CAPACITY));
+        System.arraycopy(indexes, 0, copy.indexes, 0, size);
+        System.arraycopy(words, 0, copy.words, 0, size);
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * Returns the smallest member of this bitmap which is greater than or
+     * equal to the given one or {@code -1} if there is no such member.
+     */
+    int nextMember(int from) {
+        int index = from >>> WORD_SHIFT;
+        int position = Arrays.binarySearch(indexes, 0, size, index);
+        if (position >= 0) {
+            long word = words[position] & -1L << from;
+            if (word != 0) {
+                return index << WORD_SHIFT | Long.numberOfTrailingZeros(word);
+            }
+            position++;
+        } else {
+            position = -position - 1;
+        }
+        if (position == size) {
+            return -1;
+        }
+        return indexes[position] << WORD_SHIFT | Long.numberOfTrailingZeros(words[position]);
+    }
+
+    /**
+     * @return a new bitmap containing the members present in both bitmaps.
+     */
+    static CompressedBitmap and(CompressedBitmap left, CompressedBitmap right) {
+        CompressedBitmap result = new CompressedBitmap(Math.max(Math.min(left.size, right.size), INITIAL_CAPACITY));
+        int i = 0;
+        int j = 0;
+        while (i < left.size && j < right.size) {
+            int leftIndex = left.indexes[i];
+            int rightIndex = right.indexes[j];
+            if (leftIndex < rightIndex) {
+                i++;
+            } else if (leftIndex > rightIndex) {
+                j++;
+            } else {
+                result.append(leftIndex, left.words[i++] & right.words[j++]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return a new bitmap containing the members present in any of the
+     * bitmaps.
+     */
+    static CompressedBitmap or(CompressedBitmap left, CompressedBitmap right) {
+        CompressedBitmap result = new CompressedBitmap(Math.max(left.size + right.size, INITIAL_CAPACITY));
+        int i = 0;
+        int j = 0;
+        while (i < left.size || j < right.size) {
+            int leftIndex = i < left.size ? left.indexes[i] : Integer.MAX_VALUE;
+            int rightIndex = j < right.size ? right.indexes[j] : Integer.MAX_VALUE;
+            if (leftIndex < rightIndex) {
+                result.append(leftIndex, left.words[i++]);
+            } else if (leftIndex > rightIndex) {
+                result.append(rightIndex, right.words[j++]);
+            } else {
+                result.append(leftIndex, left.words[i++] | right.words[j++]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return a new bitmap containing the members present in the left bitmap
+     * and absent in the right one.
+     */
+    static CompressedBitmap andNot(CompressedBitmap left, CompressedBitmap right) {
+        CompressedBitmap result = new CompressedBitmap(Math.max(left.size, INITIAL_CAPACITY));
+        int j = 0;
+        for (int i = 0; i < left.size; i++) {
+            int index = left.indexes[i];
+            while (j < right.size && right.indexes[j] < index) {
+                j++;
+            }
+            long word = left.words[i];
+            if (j < right.size && right.indexes[j] == index) {
+                word &= ~right.words[j];
+            }
+            result.append(index, word);
+        }
+        return result;
+    }
+
+    /**
+     * Appends the given word, the index of the word must be greater than the
+     * indexes of all the words already present and the capacity must be
+     * sufficient.
+     */
+    private void append(int index, long word) {
+        if (word != 0) {
+            indexes[size] = index;
+            words[size] = word;
+            size++;
+        }
+    }
+
+}
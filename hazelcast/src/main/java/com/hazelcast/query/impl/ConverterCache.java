@@ -17,6 +17,7 @@
 package com.hazelcast.query.impl;
 
 import com.hazelcast.core.TypeConverter;
+import com.hazelcast.query.impl.predicates.PredicateUtils;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -67,7 +68,8 @@ public final class ConverterCache {
     public void invalidate(InternalIndex index) {
         String[] components = index.getComponents();
         if (components == null) {
-            cache.remove(index.getName());
+            String bitmapAttribute = PredicateUtils.parseOutBitmapIndexAttribute(index.getName());
+            cache.remove(bitmapAttribute == null ? index.getName() : bitmapAttribute);
             return;
         }
 
@@ -86,7 +88,7 @@ public final class ConverterCache {
         cache.clear();
     }
 
-    @SuppressWarnings({"checkstyle:npathcomplexity", "checkstyle:returncount"})
+    @SuppressWarnings({"checkstyle:npathcomplexity", "checkstyle:returncount", "checkstyle:cyclomaticcomplexity"})
     private TypeConverter tryResolve(String attribute, UnresolvedConverter unresolved) {
         // The main idea here is to avoid scanning indexes on every invocation.
         // Unresolved converters are represented as UnresolvedConverter instances
@@ -112,6 +114,9 @@ public final class ConverterCache {
 
         // try non-composite index first, if any
         InternalIndex nonCompositeIndex = indexes.getIndex(attribute);
+        if (nonCompositeIndex == null) {
+            nonCompositeIndex = indexes.getIndex(PredicateUtils.constructCanonicalBitmapIndexName(attribute));
+        }
         if (nonCompositeIndex != null) {
             TypeConverter converter = nonCompositeIndex.getConverter();
             if (isNull(converter)) {
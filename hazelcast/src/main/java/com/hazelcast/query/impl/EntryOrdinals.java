@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.hazelcast.util.HashUtil.hashToIndex;
+
+/**
+ * Assigns dense ordinals to the entries indexed by the bitmap indexes of a
+ * single {@link Indexes} instance.
+ * <p>
+ * All the bitmap indexes of the same {@link Indexes} share the ordinals, so
+ * the bitmaps produced by them can be combined directly. Every bitmap index
+ * membership of an entry holds a reference to its ordinal, the ordinal is
+ * recycled once the last reference is released.
+ * <p>
+ * The ordinals are striped by the entry key, so the writers updating the
+ * different bitmap indexes contend only on the keys falling into the same
+ * stripe. The lowest bits of an ordinal identify its stripe, the remaining
+ * bits identify the ordinal within the stripe. The lookups by key and by
+ * ordinal don't take any locks.
+ */
+final class EntryOrdinals {
+
+    private static final int STRIPE_SHIFT = 4;
+    private static final int STRIPE_COUNT = 1 << STRIPE_SHIFT;
+    private static final int STRIPE_MASK = STRIPE_COUNT - 1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Stripe[] stripes = new Stripe[STRIPE_COUNT];
+
+    EntryOrdinals() {
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new Stripe(i);
+        }
+    }
+
+    /**
+     * @return the ordinal of the entry with the given key or {@code -1} if
+     * the entry has no ordinal assigned.
+     */
+    int ordinalOf(Data key) {
+        Integer ordinal = stripeOf(key).ordinals.get(key);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    /**
+     * Obtains the ordinal of the given entry, assigning a new one if
+     * necessary, and takes a reference to it.
+     *
+     * @param entry the entry to obtain the ordinal of.
+     * @return the ordinal of the entry.
+     */
+    int acquire(QueryableEntry entry) {
+        return stripeOf(entry.getKeyData()).acquire(entry);
+    }
+
+    /**
+     * Replaces the entry associated with the given ordinal without taking a
+     * new reference.
+     */
+    void update(int ordinal, QueryableEntry entry) {
+        stripes[ordinal & STRIPE_MASK].update(ordinal >>> STRIPE_SHIFT, entry);
+    }
+
+    /**
+     * Releases a reference to the given ordinal, the ordinal is recycled
+     * once all its references are released.
+     */
+    void release(int ordinal) {
+        stripes[ordinal & STRIPE_MASK].release(ordinal >>> STRIPE_SHIFT);
+    }
+
+    /**
+     * Returns the entry having the given ordinal.
+     * <p>
+     * The caller is expected to hold a reference to the ordinal through the
+     * bitmap index it reads under the index read lock, the entry is never
+     * stale then.
+     *
+     * @return the entry having the given ordinal or {@code null} if the
+     * ordinal is not assigned.
+     */
+    QueryableEntry get(int ordinal) {
+        QueryableEntry[] entries = stripes[ordinal & STRIPE_MASK].entries;
+        int index = ordinal >>> STRIPE_SHIFT;
+        return index < entries.length ? entries[index] : null;
+    }
+
+    /**
+     * Returns the number of the ordinals released so far. The ordinals
+     * assigned to the entries haven't changed between two calls returning
+     * the same version.
+     */
+    long version() {
+        long version = 0;
+        for (Stripe stripe : stripes) {
+            version += stripe.releases;
+        }
+        return version;
+    }
+
+    private Stripe stripeOf(Data key) {
+        return stripes[hashToIndex(key.hashCode(), STRIPE_COUNT)];
+    }
+
+    private static final class Stripe {
+
+        private final ConcurrentMap<Data, Integer> ordinals = new ConcurrentHashMap<Data, Integer>();
+        private final int id;
+
+        // the slots are written under the stripe lock, the readers rely on
+        // the index locks ordering the writes before the reads
+        private volatile QueryableEntry[] entries = new QueryableEntry[INITIAL_CAPACITY];
+        private volatile long releases;
+        private int[] references = new int[INITIAL_CAPACITY];
+        private int[] free = new int[INITIAL_CAPACITY];
+        private int freeCount;
+        private int next;
+
+        Stripe(int id) {
+            this.id = id;
+        }
+
+        synchronized int acquire(QueryableEntry entry) {
+            Data key = entry.getKeyData();
+            Integer existing = ordinals.get(key);
+            int index;
+            if (existing == null) {
+                index = freeCount > 0 ? free[--freeCount] : allocate();
+                ordinals.put(key, index << STRIPE_SHIFT | id);
+            } else {
+                index = existing >>> STRIPE_SHIFT;
+            }
+            entries[index] = entry;
+            references[index]++;
+            return index << STRIPE_SHIFT | id;
+        }
+
+        synchronized void update(int index, QueryableEntry entry) {
+            entries[index] = entry;
+        }
+
+        @SuppressWarnings("NonAtomicOperationOnVolatileField")
+        synchronized void release(int index) {
+            assert references[index] > 0;
+            if (--references[index] > 0) {
+                return;
+            }
+            ordinals.remove(entries[index].getKeyData());
+            entries[index] = null;
+            if (freeCount == free.length) {
+                free = Arrays.copyOf(free, freeCount << 1);
+            }
+            free[freeCount++] = index;
+            releases++;
+        }
+
+        private int allocate() {
+            if (next == references.length) {
+                references = Arrays.copyOf(references, next << 1);
+                entries = Arrays.copyOf(entries, next << 1);
+            }
+            return next++;
+        }
+    }
+
+}
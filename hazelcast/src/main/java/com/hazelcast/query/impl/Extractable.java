@@ -17,10 +17,23 @@
 package com.hazelcast.query.impl;
 
 import com.hazelcast.query.QueryException;
+import com.hazelcast.query.impl.getters.PrimitiveValueConsumer;
 
 /**
  * Enables extracting attribute value from an object, usually from an Entry
  */
 public interface Extractable {
     Object getAttributeValue(String attributeName) throws QueryException;
+
+    /**
+     * Extracts the value of the given attribute passing it to the given
+     * consumer if the value is numeric and can be extracted as a primitive
+     * without boxing it.
+     *
+     * @return the extracted value or {@link PrimitiveValueConsumer#CONSUMED}
+     * if the value was passed to the consumer.
+     */
+    default Object getAttributeValue(String attributeName, PrimitiveValueConsumer consumer) throws QueryException {
+        return getAttributeValue(attributeName);
+    }
 }
@@ -22,7 +22,9 @@ import com.hazelcast.nio.serialization.Data;
 
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 /**
  * Extends the basic query context to support the per-index stats tracking on
@@ -182,6 +184,18 @@ public class GlobalQueryContextWithStats extends QueryContext {
             return delegate.getPerIndexStats();
         }
 
+        @Override
+        public Iterator<Set<QueryableEntry>> getSortedRecords(Comparable from) {
+            Iterator<Set<QueryableEntry>> result = delegate.getSortedRecords(from);
+            hasQueries = true;
+            return result;
+        }
+
+        @Override
+        public IndexHistogram getHistogram(Executor rebuildExecutor) {
+            return delegate.getHistogram(rebuildExecutor);
+        }
+
     }
 
 }
@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import java.util.Arrays;
+
+/**
+ * Describes the distribution of the values stored in an index: the number of
+ * the indexed entries, the number of the distinct values and, for ordered
+ * indexes, an equi-depth histogram of the non-null values.
+ * <p>
+ * Histograms are snapshots, they are built by the index stores on demand and
+ * used by the query optimizer to estimate the selectivity of the predicates.
+ * The estimations are approximate by design and never affect the correctness
+ * of the query results.
+ */
+public final class IndexHistogram {
+
+    /**
+     * The selectivity assumed for the range predicates when the distribution
+     * of the values is unknown.
+     */
+    public static final double DEFAULT_RANGE_SELECTIVITY = 1.0 / 3.0;
+
+    private static final double HALF = 0.5;
+
+    private final long entryCount;
+    private final long distinctCount;
+    private final long nonNullCount;
+    /**
+     * The inclusive upper bounds of the buckets in the ascending order or
+     * {@code null} if the values are unordered.
+     */
+    private final Comparable[] bounds;
+    /**
+     * The number of the non-null values less than or equal to the bound of
+     * the corresponding bucket.
+     */
+    private final long[] cumulativeCounts;
+
+    private IndexHistogram(long entryCount, long distinctCount, long nonNullCount, Comparable[] bounds,
+                           long[] cumulativeCounts) {
+        this.entryCount = entryCount;
+        this.distinctCount = distinctCount;
+        this.nonNullCount = nonNullCount;
+        this.bounds = bounds;
+        this.cumulativeCounts = cumulativeCounts;
+    }
+
+    /**
+     * Creates a histogram of unordered values.
+     *
+     * @param entryCount    the number of the indexed entries including the
+     *                      ones having {@code null} values.
+     * @param distinctCount the number of the distinct values.
+     */
+    public static IndexHistogram unordered(long entryCount, long distinctCount) {
+        return new IndexHistogram(entryCount, distinctCount, entryCount, null, null);
+    }
+
+    /**
+     * @return the number of the indexed entries.
+     */
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * @return the number of the distinct indexed values.
+     */
+    public long getDistinctCount() {
+        return distinctCount;
+    }
+
+    /**
+     * @return the number of the buckets or {@code 0} if the values are
+     * unordered.
+     */
+    public int getBucketCount() {
+        return bounds == null ? 0 : bounds.length;
+    }
+
+    /**
+     * Estimates the fraction of the indexed entries having the given value,
+     * assuming the values are uniformly distributed among the entries.
+     */
+    public double estimateEqualSelectivity() {
+        return entryCount == 0 || distinctCount == 0 ? 0.0 : 1.0 / distinctCount;
+    }
+
+    /**
+     * Estimates the fraction of the indexed entries having their values in
+     * the given range. The bounds are expected to be converted to the type of
+     * the indexed values.
+     *
+     * @param from the lower bound or {@code null} if the range is
+     *             left-unbounded.
+     * @param to   the upper bound or {@code null} if the range is
+     *             right-unbounded.
+     */
+    public double estimateRangeSelectivity(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive) {
+        if (entryCount == 0) {
+            return 0.0;
+        }
+        if (bounds == null) {
+            return DEFAULT_RANGE_SELECTIVITY;
+        }
+
+        double lower = from == null ? 0.0 : rank(from, !fromInclusive);
+        double upper = to == null ? nonNullCount : rank(to, toInclusive);
+        double selectivity = (upper - lower) / entryCount;
+        return Math.max(0.0, Math.min(1.0, selectivity));
+    }
+
+    /**
+     * Estimates the number of the non-null values less than the given one or
+     * less than or equal to it if {@code inclusive} is {@code true}. Values
+     * falling inside a bucket are assumed to be in the middle of it.
+     */
+    private double rank(Comparable value, boolean inclusive) {
+        int bucket = findBucket(value);
+        if (bucket == bounds.length) {
+            return nonNullCount;
+        }
+        long before = bucket == 0 ? 0 : cumulativeCounts[bucket - 1];
+        long inBucket = cumulativeCounts[bucket] - before;
+        if (inclusive && Comparables.compare(value, bounds[bucket]) == 0) {
+            return cumulativeCounts[bucket];
+        }
+        return before + inBucket * HALF;
+    }
+
+    /**
+     * @return the index of the first bucket whose bound is greater than or
+     * equal to the given value or the number of the buckets if there is no
+     * such bucket.
+     */
+    private int findBucket(Comparable value) {
+        int low = 0;
+        int high = bounds.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (Comparables.compare(bounds[middle], value) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public String toString() {
+        return "IndexHistogram{entryCount=" + entryCount + ", distinctCount=" + distinctCount + ", bounds="
+                + Arrays.toString(bounds) + ", cumulativeCounts=" + Arrays.toString(cumulativeCounts) + '}';
+    }
+
+    /**
+     * Builds equi-depth histograms from the groups of the entries provided in
+     * the ascending order of their values.
+     */
+    public static final class Builder {
+
+        private final int maxBucketCount;
+        private final long nullCount;
+        private final long depth;
+        private final Comparable[] bounds;
+        private final long[] cumulativeCounts;
+
+        private int bucketCount;
+        private long count;
+        private long distinctCount;
+        private Comparable lastValue;
+
+        /**
+         * @param maxBucketCount the maximum number of the buckets.
+         * @param nonNullCount   the expected number of the entries having
+         *                       non-null values.
+         * @param nullCount      the number of the entries having {@code null}
+         *                       values.
+         */
+        public Builder(int maxBucketCount, long nonNullCount, long nullCount) {
+            assert maxBucketCount > 0;
+            this.maxBucketCount = maxBucketCount;
+            this.nullCount = nullCount;
+            this.depth = Math.max(1, (nonNullCount + maxBucketCount - 1) / maxBucketCount);
+            // the extra slot is for the last bucket closed by build()
+            this.bounds = new Comparable[maxBucketCount + 1];
+            this.cumulativeCounts = new long[maxBucketCount + 1];
+        }
+
+        /**
+         * Adds the group of the entries having the given value, the values
+         * must be added in the ascending order.
+         */
+        public void add(Comparable value, int groupSize) {
+            if (groupSize == 0) {
+                return;
+            }
+            count += groupSize;
+            ++distinctCount;
+            lastValue = value;
+            // the groups might be changed concurrently since the expected
+            // count was computed, the last bucket absorbs the excess if any
+            if (bucketCount < maxBucketCount && count >= depth * (bucketCount + 1)) {
+                closeBucket();
+            }
+        }
+
+        /**
+         * @return the histogram built.
+         */
+        public IndexHistogram build() {
+            if (count > (bucketCount == 0 ? 0 : cumulativeCounts[bucketCount - 1])) {
+                closeBucket();
+            }
+            long distinct = nullCount == 0 ? distinctCount : distinctCount + 1;
+            return new IndexHistogram(count + nullCount, distinct, count, Arrays.copyOf(bounds, bucketCount),
+                    Arrays.copyOf(cumulativeCounts, bucketCount));
+        }
+
+        private void closeBucket() {
+            bounds[bucketCount] = lastValue;
+            cumulativeCounts[bucketCount] = count;
+            ++bucketCount;
+        }
+
+    }
+
+}
@@ -34,12 +34,17 @@ public class IndexImpl extends AbstractIndex {
 
     public IndexImpl(String name, String[] components, boolean ordered, InternalSerializationService ss, Extractors extractors,
                      IndexCopyBehavior copyBehavior, PerIndexStats stats) {
-        super(name, components, ordered, ss, extractors, copyBehavior, stats, null);
+        this(name, components, ordered, ss, extractors, copyBehavior, stats,
+                ordered ? new OrderedIndexStore(copyBehavior) : new UnorderedIndexStore(copyBehavior));
     }
 
-    @Override
-    protected IndexStore createIndexStore(boolean ordered, PerIndexStats stats) {
-        return ordered ? new OrderedIndexStore(copyBehavior) : new UnorderedIndexStore(copyBehavior);
+    /**
+     * Constructs an index backed by the given index store instead of the
+     * default one.
+     */
+    public IndexImpl(String name, String[] components, boolean ordered, InternalSerializationService ss, Extractors extractors,
+                     IndexCopyBehavior copyBehavior, PerIndexStats stats, IndexStore indexStore) {
+        super(name, components, ordered, ss, extractors, copyBehavior, stats, null, indexStore);
     }
 
     @Override
@@ -19,6 +19,7 @@ package com.hazelcast.query.impl;
 import com.hazelcast.monitor.impl.IndexOperationStats;
 import com.hazelcast.nio.serialization.Data;
 
+import java.util.Iterator;
 import java.util.Set;
 
 /**
@@ -145,4 +146,30 @@ public interface IndexStore {
      */
     Set<QueryableEntry> getRecords(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive);
 
+    /**
+     * Obtains the non-null valued entries grouped by their indexed attribute
+     * values, the groups are provided in the ascending order of the values.
+     * The groups are obtained lazily while iterating.
+     *
+     * @param from the value to start from inclusively or {@code null} to start
+     *             from the smallest value.
+     * @return the iterator over the groups or {@code null} if this index
+     * store doesn't support the ordered traversal.
+     * @see InternalIndex#getSortedRecords(Comparable)
+     */
+    Iterator<Set<QueryableEntry>> getSortedRecords(Comparable from);
+
+    /**
+     * Builds a histogram describing the distribution of the values stored in
+     * this index store. Takes time proportional to the number of the distinct
+     * values stored, so it's called off the querying threads, see {@link
+     * InternalIndex#getHistogram}.
+     *
+     * @param maxBucketCount the maximum number of the histogram buckets.
+     * @return the histogram built or {@code null} if this index store doesn't
+     * support histograms.
+     * @see InternalIndex#getHistogram()
+     */
+    IndexHistogram buildHistogram(int maxBucketCount);
+
 }
@@ -22,6 +22,7 @@ import com.hazelcast.map.impl.StoreAdapter;
 import com.hazelcast.monitor.impl.GlobalIndexesStats;
 import com.hazelcast.monitor.impl.IndexesStats;
 import com.hazelcast.monitor.impl.PartitionIndexesStats;
+import com.hazelcast.monitor.impl.PerIndexStats;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.query.impl.getters.Extractors;
@@ -34,7 +35,9 @@ import java.util.Arrays;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
+import static com.hazelcast.util.ConcurrencyUtil.CALLER_RUNS;
 import static com.hazelcast.util.Preconditions.checkNotNull;
 
 /**
@@ -52,6 +55,7 @@ public class Indexes {
     private final IndexProvider indexProvider;
     private final IndexCopyBehavior indexCopyBehavior;
     private final QueryContextProvider queryContextProvider;
+    private final Executor histogramExecutor;
     private final InternalSerializationService serializationService;
 
     private final Map<String, InternalIndex> indexesByName = new ConcurrentHashMap<String, InternalIndex>(3);
@@ -59,11 +63,18 @@ public class Indexes {
     private final ConverterCache converterCache = new ConverterCache(this);
     private final Map<String, Boolean> definitions = new ConcurrentHashMap<String, Boolean>();
 
+    /**
+     * The entry ordinals shared by the bitmap indexes, created along with the
+     * first bitmap index.
+     */
+    private EntryOrdinals entryOrdinals;
+
     private volatile InternalIndex[] indexes = EMPTY_INDEXES;
     private volatile InternalIndex[] compositeIndexes = EMPTY_INDEXES;
 
     private Indexes(InternalSerializationService serializationService, IndexCopyBehavior indexCopyBehavior, Extractors extractors,
-                    IndexProvider indexProvider, boolean usesCachedQueryableEntries, boolean statisticsEnabled, boolean global) {
+                    IndexProvider indexProvider, boolean usesCachedQueryableEntries, boolean statisticsEnabled, boolean global,
+                    Executor histogramExecutor) {
         this.global = global;
         this.indexCopyBehavior = indexCopyBehavior;
         this.serializationService = serializationService;
@@ -72,6 +83,7 @@ public class Indexes {
         this.extractors = extractors == null ? Extractors.newBuilder(serializationService).build() : extractors;
         this.indexProvider = indexProvider == null ? new DefaultIndexProvider() : indexProvider;
         this.queryContextProvider = createQueryContextProvider(this, global, statisticsEnabled);
+        this.histogramExecutor = histogramExecutor;
     }
 
     /**
@@ -127,11 +139,20 @@ public class Indexes {
             return index;
         }
 
-        String[] components = PredicateUtils.parseOutCompositeIndexComponents(name);
-        if (components == null) {
-            name = PredicateUtils.canonicalizeAttribute(name);
+        String bitmapAttribute = PredicateUtils.parseOutBitmapIndexAttribute(name);
+        String[] components = null;
+        if (bitmapAttribute != null) {
+            if (ordered) {
+                throw new IllegalArgumentException("Bitmap indexes can't be ordered: " + name);
+            }
+            name = PredicateUtils.constructCanonicalBitmapIndexName(bitmapAttribute);
         } else {
-            name = PredicateUtils.constructCanonicalCompositeIndexName(components);
+            components = PredicateUtils.parseOutCompositeIndexComponents(name);
+            if (components == null) {
+                name = PredicateUtils.canonicalizeAttribute(name);
+            } else {
+                name = PredicateUtils.constructCanonicalCompositeIndexName(components);
+            }
         }
 
         index = indexesByName.get(name);
@@ -139,8 +160,18 @@ public class Indexes {
             return index;
         }
 
-        index = indexProvider.createIndex(name, components, ordered, extractors, serializationService, indexCopyBehavior,
-                stats.createPerIndexStats(ordered, usesCachedQueryableEntries), partitionStoreAdapter);
+        PerIndexStats perIndexStats = stats.createPerIndexStats(ordered, usesCachedQueryableEntries);
+        if (bitmapAttribute != null) {
+            // bitmap indexes are always on-heap and share the entry ordinals
+            if (entryOrdinals == null) {
+                entryOrdinals = new EntryOrdinals();
+            }
+            index = new IndexImpl(name, null, false, serializationService, extractors, indexCopyBehavior, perIndexStats,
+                    new BitmapIndexStore(entryOrdinals));
+        } else {
+            index = indexProvider.createIndex(name, components, ordered, extractors, serializationService,
+                    indexCopyBehavior, perIndexStats, partitionStoreAdapter);
+        }
 
         indexesByName.put(name, index);
         attributeIndexRegistry.register(index);
@@ -172,12 +203,7 @@ public class Indexes {
             return;
         }
 
-        String[] components = PredicateUtils.parseOutCompositeIndexComponents(name);
-        if (components == null) {
-            name = PredicateUtils.canonicalizeAttribute(name);
-        } else {
-            name = PredicateUtils.constructCanonicalCompositeIndexName(components);
-        }
+        name = canonicalizeIndexName(name);
         if (definitions.containsKey(name) || indexesByName.containsKey(name)) {
             return;
         }
@@ -368,6 +394,29 @@ public class Indexes {
         return stats;
     }
 
+    /**
+     * Returns the executor to rebuild the histograms of the indexes on.
+     *
+     * @see InternalIndex#getHistogram
+     */
+    public Executor getHistogramExecutor() {
+        return histogramExecutor;
+    }
+
+    private static String canonicalizeIndexName(String name) {
+        String bitmapAttribute = PredicateUtils.parseOutBitmapIndexAttribute(name);
+        if (bitmapAttribute != null) {
+            return PredicateUtils.constructCanonicalBitmapIndexName(bitmapAttribute);
+        }
+
+        String[] components = PredicateUtils.parseOutCompositeIndexComponents(name);
+        if (components == null) {
+            return PredicateUtils.canonicalizeAttribute(name);
+        } else {
+            return PredicateUtils.constructCanonicalCompositeIndexName(components);
+        }
+    }
+
     private static QueryContextProvider createQueryContextProvider(Indexes indexes, boolean global, boolean statisticsEnabled) {
         if (statisticsEnabled) {
             return global ? new GlobalQueryContextProviderWithStats() : new PartitionQueryContextProviderWithStats(indexes);
@@ -397,6 +446,7 @@ public class Indexes {
         private boolean usesCachedQueryableEntries;
         private Extractors extractors;
         private IndexProvider indexProvider;
+        private Executor histogramExecutor = CALLER_RUNS;
 
         Builder(SerializationService ss, IndexCopyBehavior indexCopyBehavior) {
             this.serializationService = checkNotNull((InternalSerializationService) ss, "serializationService cannot be null");
@@ -452,12 +502,23 @@ public class Indexes {
             return this;
         }
 
+        /**
+         * @param histogramExecutor the executor to rebuild the histograms of
+         *                          the indexes on. By default the histograms
+         *                          are rebuilt by the querying threads.
+         * @return this builder instance
+         */
+        public Builder histogramExecutor(Executor histogramExecutor) {
+            this.histogramExecutor = checkNotNull(histogramExecutor, "histogramExecutor cannot be null");
+            return this;
+        }
+
         /**
          * @return a new instance of Indexes
          */
         public Indexes build() {
             return new Indexes(serializationService, indexCopyBehavior, extractors, indexProvider, usesCachedQueryableEntries,
-                    statsEnabled, global);
+                    statsEnabled, global, histogramExecutor);
         }
 
     }
@@ -18,6 +18,10 @@ package com.hazelcast.query.impl;
 
 import com.hazelcast.monitor.impl.PerIndexStats;
 
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
 /**
  * Provides the private index API.
  */
@@ -60,4 +64,39 @@ public interface InternalIndex extends Index {
      */
     PerIndexStats getPerIndexStats();
 
+    /**
+     * Obtains the entries grouped by their indexed attribute values, the groups
+     * are provided in the ascending order of the values. Entries having
+     * {@code null} attribute values are not provided.
+     * <p>
+     * Used to produce the ordered results without sorting all of them, for
+     * instance, the pages of the paging predicates.
+     *
+     * @param from the value to start from inclusively or {@code null} to start
+     *             from the smallest value.
+     * @return the iterator over the groups or {@code null} if this index
+     * doesn't support the ordered traversal.
+     */
+    Iterator<Set<QueryableEntry>> getSortedRecords(Comparable from);
+
+    /**
+     * Obtains the histogram describing the distribution of the values stored
+     * in this index. The histogram is cached and rebuilt only when a
+     * significant number of entries were modified since it was built, so it
+     * may be slightly out of date.
+     * <p>
+     * The rebuild is submitted to the given executor and the out of date
+     * histogram, if any, is returned meanwhile, so the callers don't have to
+     * wait for the rebuild taking time proportional to the number of the
+     * distinct values indexed.
+     * <p>
+     * Used by the cost-based query optimizer to estimate the selectivity of
+     * the predicates.
+     *
+     * @param rebuildExecutor the executor to rebuild the histogram on.
+     * @return the histogram or {@code null} if this index doesn't support
+     * histograms or the histogram is not built yet.
+     */
+    IndexHistogram getHistogram(Executor rebuildExecutor);
+
 }
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.map.impl.StoreAdapter;
+import com.hazelcast.monitor.impl.PerIndexStats;
+import com.hazelcast.query.impl.getters.Extractors;
+
+/**
+ * Provides native memory indexes. The provided indexes are always
+ * partitioned, global indexes are not supported.
+ */
+public class NativeIndexProvider implements IndexProvider {
+
+    private final MemoryManager memoryManager;
+
+    public NativeIndexProvider(MemoryManager memoryManager) {
+        this.memoryManager = memoryManager;
+    }
+
+    @Override
+    public InternalIndex createIndex(String name, String[] components, boolean ordered, Extractors extractors,
+                                     InternalSerializationService ss, IndexCopyBehavior copyBehavior, PerIndexStats stats,
+                                     StoreAdapter partitionStoreAdapter) {
+        if (partitionStoreAdapter == null) {
+            throw new IllegalArgumentException("Native indexes can only be partitioned");
+        }
+        return new NativeIndexImpl(name, components, ordered, ss, extractors, stats, partitionStoreAdapter,
+                memoryManager);
+    }
+
+}
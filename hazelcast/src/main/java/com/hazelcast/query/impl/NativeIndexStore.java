@@ -0,0 +1,442 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.internal.util.hashslot.HashSlotCursor16byteKey;
+import com.hazelcast.internal.util.hashslot.SlotAssignmentResult;
+import com.hazelcast.internal.util.hashslot.impl.HashSlotArray16byteKeyImpl;
+import com.hazelcast.map.impl.StoreAdapter;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.util.Clock;
+
+import java.util.Map;
+
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.query.impl.AbstractIndex.NULL;
+
+/**
+ * Base class for index stores keeping their contents in native memory.
+ * <p>
+ * Every distinct indexed value is kept in a value node and every indexed
+ * entry in a key node holding the key blob of the entry:
+ * <pre>
+ * value node                          key node
+ * +-----------------------+-------+   +-----------------------+-------+
+ * | next value in bucket  | long  |   | next key of the value | long  |
+ * | first key node        | long  |   | prev key of the value | long  |
+ * | key count             | long  |   | next key in bucket    | long  |
+ * | value size            | long  |   | key size              | long  |
+ * | value bytes           | bytes |   | key bytes             | bytes |
+ * +-----------------------+-------+   +-----------------------+-------+
+ * </pre>
+ * Key nodes of a value node form a doubly linked list, so all the entries
+ * of a value can be iterated. They are additionally hashed by the value node
+ * address and the key hash, so a single entry can be found in constant time
+ * on removal. How the value nodes are looked up is defined by the subclasses.
+ * <p>
+ * No on-heap object is kept per indexed entry. The matching entries are
+ * resolved through the {@link StoreAdapter} of the partition when a query
+ * reads them, so native index stores can only back partitioned indexes and
+ * are only updated and queried by the partition thread owning them. The
+ * histograms are built by another thread though, so the updates are done
+ * under the write lock of the store and the reads under its read lock.
+ */
+abstract class NativeIndexStore extends BaseIndexStore {
+
+    static final int VALUE_NEXT_OFFSET = 0;
+    static final int VALUE_HEAD_OFFSET = VALUE_NEXT_OFFSET + LONG_SIZE_IN_BYTES;
+    static final int VALUE_COUNT_OFFSET = VALUE_HEAD_OFFSET + LONG_SIZE_IN_BYTES;
+    static final int VALUE_SIZE_OFFSET = VALUE_COUNT_OFFSET + LONG_SIZE_IN_BYTES;
+    static final int VALUE_BLOB_OFFSET = VALUE_SIZE_OFFSET + LONG_SIZE_IN_BYTES;
+
+    static final int KEY_NEXT_IN_VALUE_OFFSET = 0;
+    static final int KEY_PREV_IN_VALUE_OFFSET = KEY_NEXT_IN_VALUE_OFFSET + LONG_SIZE_IN_BYTES;
+    static final int KEY_NEXT_IN_BUCKET_OFFSET = KEY_PREV_IN_VALUE_OFFSET + LONG_SIZE_IN_BYTES;
+    static final int KEY_SIZE_OFFSET = KEY_NEXT_IN_BUCKET_OFFSET + LONG_SIZE_IN_BYTES;
+    static final int KEY_BLOB_OFFSET = KEY_SIZE_OFFSET + LONG_SIZE_IN_BYTES;
+
+    /**
+     * Returned from {@link #insertInternal} and {@link #removeInternal} when
+     * an existing mapping was replaced or removed. The stores do not keep
+     * on-heap entries, so there is no previous entry to return.
+     */
+    private static final Object EXISTING_MAPPING = Boolean.TRUE;
+
+    final InternalSerializationService ss;
+    final MemoryAllocator malloc;
+    final MemoryAccessor mem;
+
+    private final Extractors extractors;
+    private final StoreAdapter storeAdapter;
+    private final HashSlotArray16byteKeyImpl keys;
+
+    private long nullValueNode = NULL_ADDRESS;
+    private boolean destroyed;
+
+    NativeIndexStore(InternalSerializationService ss, Extractors extractors, MemoryManager memoryManager,
+                     StoreAdapter storeAdapter) {
+        // results are always materialized from native memory, so they are copies anyway
+        super(IndexCopyBehavior.NEVER);
+        assert storeAdapter != null : "Native index stores can only back partitioned indexes";
+        this.ss = ss;
+        this.extractors = extractors;
+        this.storeAdapter = storeAdapter;
+        this.malloc = memoryManager.getAllocator();
+        this.mem = memoryManager.getAccessor();
+        this.keys = new HashSlotArray16byteKeyImpl(NULL_ADDRESS, memoryManager, LONG_SIZE_IN_BYTES);
+        this.keys.gotoNew();
+    }
+
+    /**
+     * Finds the value node of the given non-{@code NULL} value.
+     *
+     * @param value the canonicalized value to find the node of.
+     * @return the address of the value node or {@link MemoryAllocator#NULL_ADDRESS}
+     * if the value is not indexed.
+     */
+    abstract long findValueNode(Comparable value);
+
+    /**
+     * Allocates a value node for the given non-{@code NULL} value and makes
+     * it discoverable by {@link #findValueNode}.
+     *
+     * @param value the canonicalized value to add the node for.
+     * @return the address of the new value node.
+     */
+    abstract long addValueNode(Comparable value);
+
+    /**
+     * Makes the given value node undiscoverable. The node itself is freed by
+     * the caller.
+     *
+     * @param valueNode the address of the value node to unlink.
+     * @param value     the value of the node.
+     */
+    abstract void unlinkValueNode(long valueNode, Comparable value);
+
+    /**
+     * Frees all the value nodes except the one of the {@code NULL} value and
+     * resets the lookup structure.
+     */
+    abstract void clearValueNodes();
+
+    /**
+     * Releases the native memory of the lookup structure of the value nodes.
+     */
+    abstract void disposeValueNodes();
+
+    @Override
+    Object insertInternal(Comparable value, QueryableEntry record) {
+        markIndexStoreExpirableIfNecessary(record);
+
+        long valueNode = value == NULL ? nullValueNode() : findValueNode(value);
+        if (valueNode == NULL_ADDRESS) {
+            valueNode = addValueNode(value);
+        }
+
+        Data key = record.getKeyData();
+        long hash = key.hash64();
+        long bucketHead = keys.get(valueNode, hash);
+        if (bucketHead != NULL_ADDRESS) {
+            for (long node = mem.getLong(bucketHead); node != NULL_ADDRESS;
+                 node = mem.getLong(node + KEY_NEXT_IN_BUCKET_OFFSET)) {
+                if (keyEquals(node, key)) {
+                    return EXISTING_MAPPING;
+                }
+            }
+        }
+
+        long keyNode = allocateKeyNode(key);
+        SlotAssignmentResult slot;
+        try {
+            slot = keys.ensure(valueNode, hash);
+        } catch (Error e) {
+            freeKeyNode(keyNode);
+            throw e;
+        }
+        bucketHead = slot.address();
+        mem.putLong(keyNode + KEY_NEXT_IN_BUCKET_OFFSET, slot.isNew() ? NULL_ADDRESS : mem.getLong(bucketHead));
+        mem.putLong(bucketHead, keyNode);
+
+        long head = mem.getLong(valueNode + VALUE_HEAD_OFFSET);
+        mem.putLong(keyNode + KEY_NEXT_IN_VALUE_OFFSET, head);
+        if (head != NULL_ADDRESS) {
+            mem.putLong(head + KEY_PREV_IN_VALUE_OFFSET, keyNode);
+        }
+        mem.putLong(valueNode + VALUE_HEAD_OFFSET, keyNode);
+        mem.putLong(valueNode + VALUE_COUNT_OFFSET, mem.getLong(valueNode + VALUE_COUNT_OFFSET) + 1);
+        return null;
+    }
+
+    @Override
+    Object removeInternal(Comparable value, Data recordKey) {
+        long valueNode = value == NULL ? nullValueNode : findValueNode(value);
+        if (valueNode == NULL_ADDRESS) {
+            return null;
+        }
+        long keyNode = unlinkKeyNode(valueNode, recordKey);
+        if (keyNode == NULL_ADDRESS) {
+            return null;
+        }
+        freeKeyNode(keyNode);
+
+        long count = mem.getLong(valueNode + VALUE_COUNT_OFFSET) - 1;
+        if (count > 0) {
+            mem.putLong(valueNode + VALUE_COUNT_OFFSET, count);
+        } else {
+            if (value == NULL) {
+                nullValueNode = NULL_ADDRESS;
+            } else {
+                unlinkValueNode(valueNode, value);
+            }
+            freeValueNode(valueNode);
+        }
+        return EXISTING_MAPPING;
+    }
+
+    @Override
+    public void clear() {
+        takeWriteLock();
+        try {
+            clearInternal();
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        takeWriteLock();
+        try {
+            if (destroyed) {
+                return;
+            }
+            clearInternal();
+            keys.dispose();
+            disposeValueNodes();
+            destroyed = true;
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    @Override
+    public IndexHistogram buildHistogram(int maxBucketCount) {
+        takeReadLock();
+        try {
+            return destroyed ? null : buildHistogram(maxBucketCount, countOf(nullValueNode));
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    /**
+     * Builds the histogram of this index store under the read lock.
+     *
+     * @param maxBucketCount the maximum number of the histogram buckets.
+     * @param nullCount      the number of the entries indexed under the
+     *                       {@code NULL} value.
+     */
+    abstract IndexHistogram buildHistogram(int maxBucketCount, long nullCount);
+
+    /**
+     * Resolves all the entries indexed under the {@code NULL} value and adds
+     * them to the given results.
+     */
+    final void collectNull(Map<Data, QueryableEntry> results) {
+        collect(nullValueNode, results);
+    }
+
+    /**
+     * Resolves all the entries indexed under the given value node and adds
+     * them to the given results.
+     */
+    final void collect(long valueNode, Map<Data, QueryableEntry> results) {
+        if (valueNode == NULL_ADDRESS) {
+            return;
+        }
+        long now = storeAdapter.isExpirable() ? Clock.currentTimeMillis() : 0;
+        for (long node = mem.getLong(valueNode + VALUE_HEAD_OFFSET); node != NULL_ADDRESS;
+             node = mem.getLong(node + KEY_NEXT_IN_VALUE_OFFSET)) {
+            Data key = new HeapData(copyToHeap(node + KEY_BLOB_OFFSET, (int) mem.getLong(node + KEY_SIZE_OFFSET)));
+            Record record = (Record) storeAdapter.getRecord(key);
+            if (record == null) {
+                continue;
+            }
+            if (now != 0) {
+                record.onAccessSafe(now);
+            }
+            CachedQueryEntry entry = new CachedQueryEntry(ss, key, record.getValue(), extractors);
+            entry.setRecord(record);
+            entry.setStoreAdapter(storeAdapter);
+            results.put(key, entry);
+        }
+    }
+
+    /**
+     * Returns the number of the entries indexed under the given value node.
+     */
+    final long countOf(long valueNode) {
+        return valueNode == NULL_ADDRESS ? 0 : mem.getLong(valueNode + VALUE_COUNT_OFFSET);
+    }
+
+    /**
+     * Deserializes the value stored in the given value node.
+     */
+    final Comparable valueOf(long valueNode) {
+        return ss.toObject(new HeapData(copyToHeap(valueNode + VALUE_BLOB_OFFSET,
+                (int) mem.getLong(valueNode + VALUE_SIZE_OFFSET))));
+    }
+
+    final boolean valueEquals(long valueNode, byte[] valueBytes) {
+        return blobEquals(valueNode + VALUE_BLOB_OFFSET, (int) mem.getLong(valueNode + VALUE_SIZE_OFFSET), valueBytes);
+    }
+
+    final long allocateValueNode(byte[] valueBytes) {
+        long valueNode = malloc.allocate(VALUE_BLOB_OFFSET + valueBytes.length);
+        mem.putLong(valueNode + VALUE_NEXT_OFFSET, NULL_ADDRESS);
+        mem.putLong(valueNode + VALUE_HEAD_OFFSET, NULL_ADDRESS);
+        mem.putLong(valueNode + VALUE_COUNT_OFFSET, 0);
+        mem.putLong(valueNode + VALUE_SIZE_OFFSET, valueBytes.length);
+        mem.copyFromByteArray(valueBytes, 0, valueNode + VALUE_BLOB_OFFSET, valueBytes.length);
+        return valueNode;
+    }
+
+    final void freeValueNode(long valueNode) {
+        malloc.free(valueNode, VALUE_BLOB_OFFSET + mem.getLong(valueNode + VALUE_SIZE_OFFSET));
+    }
+
+    final byte[] toBytes(Comparable value) {
+        return ss.toData(value).toByteArray();
+    }
+
+    private long nullValueNode() {
+        if (nullValueNode == NULL_ADDRESS) {
+            nullValueNode = allocateValueNode(toBytes(NULL));
+        }
+        return nullValueNode;
+    }
+
+    private void clearInternal() {
+        if (destroyed) {
+            return;
+        }
+        HashSlotCursor16byteKey cursor = keys.cursor();
+        while (cursor.advance()) {
+            long node = mem.getLong(cursor.valueAddress());
+            while (node != NULL_ADDRESS) {
+                long next = mem.getLong(node + KEY_NEXT_IN_BUCKET_OFFSET);
+                freeKeyNode(node);
+                node = next;
+            }
+        }
+        keys.clear();
+        if (nullValueNode != NULL_ADDRESS) {
+            freeValueNode(nullValueNode);
+            nullValueNode = NULL_ADDRESS;
+        }
+        clearValueNodes();
+    }
+
+    /**
+     * Unlinks the key node of the given key from the given value node and
+     * from its hash bucket.
+     *
+     * @return the address of the unlinked key node or {@link MemoryAllocator#NULL_ADDRESS}
+     * if the key is not indexed under the value node.
+     */
+    private long unlinkKeyNode(long valueNode, Data key) {
+        long hash = key.hash64();
+        long bucketHead = keys.get(valueNode, hash);
+        if (bucketHead == NULL_ADDRESS) {
+            return NULL_ADDRESS;
+        }
+        long prev = NULL_ADDRESS;
+        long node = mem.getLong(bucketHead);
+        while (node != NULL_ADDRESS && !keyEquals(node, key)) {
+            prev = node;
+            node = mem.getLong(node + KEY_NEXT_IN_BUCKET_OFFSET);
+        }
+        if (node == NULL_ADDRESS) {
+            return NULL_ADDRESS;
+        }
+
+        long nextInBucket = mem.getLong(node + KEY_NEXT_IN_BUCKET_OFFSET);
+        if (prev != NULL_ADDRESS) {
+            mem.putLong(prev + KEY_NEXT_IN_BUCKET_OFFSET, nextInBucket);
+        } else if (nextInBucket != NULL_ADDRESS) {
+            mem.putLong(bucketHead, nextInBucket);
+        } else {
+            keys.remove(valueNode, hash);
+        }
+
+        long next = mem.getLong(node + KEY_NEXT_IN_VALUE_OFFSET);
+        long prevInValue = mem.getLong(node + KEY_PREV_IN_VALUE_OFFSET);
+        if (prevInValue == NULL_ADDRESS) {
+            mem.putLong(valueNode + VALUE_HEAD_OFFSET, next);
+        } else {
+            mem.putLong(prevInValue + KEY_NEXT_IN_VALUE_OFFSET, next);
+        }
+        if (next != NULL_ADDRESS) {
+            mem.putLong(next + KEY_PREV_IN_VALUE_OFFSET, prevInValue);
+        }
+        return node;
+    }
+
+    private long allocateKeyNode(Data key) {
+        byte[] keyBytes = key.toByteArray();
+        long keyNode = malloc.allocate(KEY_BLOB_OFFSET + keyBytes.length);
+        mem.putLong(keyNode + KEY_PREV_IN_VALUE_OFFSET, NULL_ADDRESS);
+        mem.putLong(keyNode + KEY_SIZE_OFFSET, keyBytes.length);
+        mem.copyFromByteArray(keyBytes, 0, keyNode + KEY_BLOB_OFFSET, keyBytes.length);
+        return keyNode;
+    }
+
+    private void freeKeyNode(long keyNode) {
+        malloc.free(keyNode, KEY_BLOB_OFFSET + (int) mem.getLong(keyNode + KEY_SIZE_OFFSET));
+    }
+
+    private boolean keyEquals(long keyNode, Data key) {
+        return blobEquals(keyNode + KEY_BLOB_OFFSET, (int) mem.getLong(keyNode + KEY_SIZE_OFFSET), key.toByteArray());
+    }
+
+    private boolean blobEquals(long address, int size, byte[] bytes) {
+        if (size != bytes.length) {
+            return false;
+        }
+        for (int i = size - 1; i >= 0; i--) {
+            if (mem.getByte(address + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private byte[] copyToHeap(long address, int size) {
+        byte[] bytes = new byte[size];
+        mem.copyToByteArray(address, bytes, 0, size);
+        return bytes;
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.map.impl.StoreAdapter;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.impl.getters.Extractors;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static com.hazelcast.query.impl.AbstractIndex.NULL;
+import static java.util.Collections.emptySet;
+
+/**
+ * Ordered index store keeping its contents in native memory.
+ * <p>
+ * The value nodes are kept in a {@link NativeValueTree}, so point lookups
+ * and range boundaries are found in O(log n) comparisons of the values in
+ * their serialized form and ranges are read sequentially.
+ */
+public class NativeOrderedIndexStore extends NativeIndexStore {
+
+    private final NativeValueTree values;
+
+    public NativeOrderedIndexStore(InternalSerializationService ss, Extractors extractors, MemoryManager memoryManager,
+                                   StoreAdapter storeAdapter) {
+        super(ss, extractors, memoryManager, storeAdapter);
+        this.values = new NativeValueTree(this);
+    }
+
+    @Override
+    public Comparable canonicalizeQueryArgumentScalar(Comparable value) {
+        // same as for the on-heap ordered store: needed to support InPredicate queries
+        return Comparables.canonicalizeForHashLookup(value);
+    }
+
+    @Override
+    Comparable canonicalizeScalarForStorage(Comparable value) {
+        // values are looked up by comparison, no canonical representation is needed
+        return value;
+    }
+
+    @Override
+    long findValueNode(Comparable value) {
+        return values.find(value);
+    }
+
+    @Override
+    long addValueNode(Comparable value) {
+        long valueNode = allocateValueNode(toBytes(value));
+        try {
+            values.add(value, valueNode);
+        } catch (Error e) {
+            freeValueNode(valueNode);
+            throw e;
+        }
+        return valueNode;
+    }
+
+    @Override
+    void unlinkValueNode(long valueNode, Comparable value) {
+        values.remove(valueNode, value);
+    }
+
+    @Override
+    void clearValueNodes() {
+        values.clear();
+    }
+
+    @Override
+    void disposeValueNodes() {
+        // the pages of the tree are freed along with the value nodes
+    }
+
+    @Override
+    IndexHistogram buildHistogram(int maxBucketCount, long nullCount) {
+        return values.buildHistogram(maxBucketCount, nullCount);
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable value) {
+        takeReadLock();
+        try {
+            Map<Data, QueryableEntry> results = new HashMap<Data, QueryableEntry>();
+            if (value == NULL) {
+                collectNull(results);
+            } else {
+                collect(findValueNode(value), results);
+            }
+            return new SingleResultSet(results);
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Set<Comparable> values) {
+        takeReadLock();
+        try {
+            Map<Data, QueryableEntry> results = new HashMap<Data, QueryableEntry>();
+            for (Comparable value : values) {
+                if (value == NULL) {
+                    collectNull(results);
+                } else {
+                    collect(findValueNode(value), results);
+                }
+            }
+            return new SingleResultSet(results);
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparison comparison, Comparable searchedValue) {
+        takeReadLock();
+        try {
+            Map<Data, QueryableEntry> results = new HashMap<Data, QueryableEntry>();
+            NativeValueTree.Position first = values.boundary(null, true);
+            switch (comparison) {
+                case LESS:
+                    values.collectRange(first, values.boundary(searchedValue, true), results);
+                    break;
+                case LESS_OR_EQUAL:
+                    values.collectRange(first, values.boundary(searchedValue, false), results);
+                    break;
+                case GREATER:
+                    values.collectRange(values.boundary(searchedValue, false), null, results);
+                    break;
+                case GREATER_OR_EQUAL:
+                    values.collectRange(values.boundary(searchedValue, true), null, results);
+                    break;
+                case NOT_EQUAL:
+                    values.collectRange(first, values.boundary(searchedValue, true), results);
+                    values.collectRange(values.boundary(searchedValue, false), null, results);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unrecognized comparison: " + comparison);
+            }
+            return new SingleResultSet(results);
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive) {
+        takeReadLock();
+        try {
+            int order = Comparables.compare(from, to);
+            if (order == 0) {
+                if (!fromInclusive || !toInclusive) {
+                    return emptySet();
+                }
+            } else if (order > 0) {
+                return emptySet();
+            }
+
+            Map<Data, QueryableEntry> results = new HashMap<Data, QueryableEntry>();
+            values.collectRange(values.boundary(from, fromInclusive), values.boundary(to, !toInclusive), results);
+            return new SingleResultSet(results);
+        } finally {
+            releaseReadLock();
+        }
+    }
+}
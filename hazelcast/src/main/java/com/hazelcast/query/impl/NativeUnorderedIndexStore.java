@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.util.hashslot.HashSlotCursor8byteKey;
+import com.hazelcast.internal.util.hashslot.SlotAssignmentResult;
+import com.hazelcast.internal.util.hashslot.impl.HashSlotArray8byteKeyImpl;
+import com.hazelcast.map.impl.StoreAdapter;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.impl.getters.Extractors;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.query.impl.AbstractIndex.NULL;
+import static com.hazelcast.util.HashUtil.MurmurHash3_x64_64;
+
+/**
+ * Unordered index store keeping its contents in native memory.
+ * <p>
+ * Value nodes are hashed by the hash of the serialized canonical value, the
+ * nodes with colliding hashes are chained. Range and comparison queries
+ * have to deserialize every distinct value, the same way the on-heap
+ * {@link UnorderedIndexStore} compares every distinct value.
+ */
+public class NativeUnorderedIndexStore extends NativeIndexStore {
+
+    private final HashSlotArray8byteKeyImpl values;
+
+    public NativeUnorderedIndexStore(InternalSerializationService ss, Extractors extractors, MemoryManager memoryManager,
+                                     StoreAdapter storeAdapter) {
+        super(ss, extractors, memoryManager, storeAdapter);
+        this.values = new HashSlotArray8byteKeyImpl(NULL_ADDRESS, memoryManager, LONG_SIZE_IN_BYTES);
+        this.values.gotoNew();
+    }
+
+    @Override
+    public Comparable canonicalizeQueryArgumentScalar(Comparable value) {
+        return UnorderedIndexStore.canonicalizeScalar(value);
+    }
+
+    @Override
+    Comparable canonicalizeScalarForStorage(Comparable value) {
+        return UnorderedIndexStore.canonicalizeScalar(value);
+    }
+
+    @Override
+    long findValueNode(Comparable value) {
+        byte[] valueBytes = toBytes(value);
+        long bucketHead = values.get(hash(valueBytes));
+        if (bucketHead == NULL_ADDRESS) {
+            return NULL_ADDRESS;
+        }
+        for (long node = mem.getLong(bucketHead); node != NULL_ADDRESS; node = mem.getLong(node + VALUE_NEXT_OFFSET)) {
+            if (valueEquals(node, valueBytes)) {
+                return node;
+            }
+        }
+        return NULL_ADDRESS;
+    }
+
+    @Override
+    long addValueNode(Comparable value) {
+        byte[] valueBytes = toBytes(value);
+        long valueNode = allocateValueNode(valueBytes);
+        SlotAssignmentResult slot;
+        try {
+            slot = values.ensure(hash(valueBytes));
+        } catch (Error e) {
+            freeValueNode(valueNode);
+            throw e;
+        }
+        mem.putLong(valueNode + VALUE_NEXT_OFFSET, slot.isNew() ? NULL_ADDRESS : mem.getLong(slot.address()));
+        mem.putLong(slot.address(), valueNode);
+        return valueNode;
+    }
+
+    @Override
+    void unlinkValueNode(long valueNode, Comparable value) {
+        long hash = hash(toBytes(value));
+        long bucketHead = values.get(hash);
+        long prev = NULL_ADDRESS;
+        long node = mem.getLong(bucketHead);
+        while (node != valueNode) {
+            prev = node;
+            node = mem.getLong(node + VALUE_NEXT_OFFSET);
+        }
+        long next = mem.getLong(valueNode + VALUE_NEXT_OFFSET);
+        if (prev != NULL_ADDRESS) {
+            mem.putLong(prev + VALUE_NEXT_OFFSET, next);
+        } else if (next != NULL_ADDRESS) {
+            mem.putLong(bucketHead, next);
+        } else {
+            values.remove(hash);
+        }
+    }
+
+    @Override
+    void clearValueNodes() {
+        HashSlotCursor8byteKey cursor = values.cursor();
+        while (cursor.advance()) {
+            long node = mem.getLong(cursor.valueAddress());
+            while (node != NULL_ADDRESS) {
+                long next = mem.getLong(node + VALUE_NEXT_OFFSET);
+                freeValueNode(node);
+                node = next;
+            }
+        }
+        values.clear();
+    }
+
+    @Override
+    void disposeValueNodes() {
+        values.dispose();
+    }
+
+    @Override
+    IndexHistogram buildHistogram(int maxBucketCount, long nullCount) {
+        long entryCount = nullCount;
+        long distinctCount = nullCount == 0 ? 0 : 1;
+        HashSlotCursor8byteKey cursor = values.cursor();
+        while (cursor.advance()) {
+            for (long node = mem.getLong(cursor.valueAddress()); node != NULL_ADDRESS;
+                 node = mem.getLong(node + VALUE_NEXT_OFFSET)) {
+                entryCount += countOf(node);
+                ++distinctCount;
+            }
+        }
+        return IndexHistogram.unordered(entryCount, distinctCount);
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable value) {
+        takeReadLock();
+        try {
+            Map<Data, QueryableEntry> results = new HashMap<Data, QueryableEntry>();
+            if (value == NULL) {
+                collectNull(results);
+            } else {
+                collect(findValueNode(UnorderedIndexStore.canonicalize(value)), results);
+            }
+            return new SingleResultSet(results);
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Set<Comparable> values) {
+        takeReadLock();
+        try {
+            Map<Data, QueryableEntry> results = new HashMap<Data, QueryableEntry>();
+            for (Comparable value : values) {
+                if (value == NULL) {
+                    collectNull(results);
+                } else {
+                    // value is already canonicalized by the associated index
+                    collect(findValueNode(value), results);
+                }
+            }
+            return new SingleResultSet(results);
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparison comparison, Comparable value) {
+        takeReadLock();
+        try {
+            Map<Data, QueryableEntry> results = new HashMap<Data, QueryableEntry>();
+            HashSlotCursor8byteKey cursor = values.cursor();
+            while (cursor.advance()) {
+                for (long node = mem.getLong(cursor.valueAddress()); node != NULL_ADDRESS;
+                     node = mem.getLong(node + VALUE_NEXT_OFFSET)) {
+                    if (matches(comparison, value, valueOf(node))) {
+                        collect(node, results);
+                    }
+                }
+            }
+            return new SingleResultSet(results);
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive) {
+        takeReadLock();
+        try {
+            Map<Data, QueryableEntry> results = new HashMap<Data, QueryableEntry>();
+            if (Comparables.compare(from, to) == 0) {
+                if (fromInclusive && toInclusive) {
+                    collect(findValueNode(UnorderedIndexStore.canonicalize(from)), results);
+                }
+                return new SingleResultSet(results);
+            }
+
+            int fromBound = fromInclusive ? 0 : +1;
+            int toBound = toInclusive ? 0 : -1;
+            HashSlotCursor8byteKey cursor = values.cursor();
+            while (cursor.advance()) {
+                for (long node = mem.getLong(cursor.valueAddress()); node != NULL_ADDRESS;
+                     node = mem.getLong(node + VALUE_NEXT_OFFSET)) {
+                    Comparable value = valueOf(node);
+                    if (Comparables.compare(value, from) >= fromBound && Comparables.compare(value, to) <= toBound) {
+                        collect(node, results);
+                    }
+                }
+            }
+            return new SingleResultSet(results);
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    private static long hash(byte[] valueBytes) {
+        return MurmurHash3_x64_64(valueBytes, 0, valueBytes.length);
+    }
+}
@@ -0,0 +1,609 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.Map;
+
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.nio.Bits.LONG_SIZE_IN_BYTES;
+
+/**
+ * B+tree of native pages ordering the value nodes of a {@link NativeIndexStore}.
+ * <p>
+ * Every value node has a sort key (see {@link SortKeys}) allocated along with
+ * it. The leaf pages hold the sort keys in their order and the inner pages
+ * hold the child pages along with the first sort key of every child:
+ * <pre>
+ * sort key                        page
+ * +------------------+-------+    +---------------------+---------------+
+ * | value node       | long  |    | entry count         | long          |
+ * | sort key size    | long  |    | previous leaf       | long          |
+ * | sort key bytes   | bytes |    | next leaf           | long          |
+ * +------------------+-------+    | entries             | entry * count |
+ *                                 +---------------------+---------------+
+ *
+ * leaf entry                      inner entry
+ * +------------------+-------+    +---------------------+---------------+
+ * | sort key         | long  |    | first sort key      | long          |
+ * +------------------+-------+    | child page          | long          |
+ *                                 +---------------------+---------------+
+ * </pre>
+ * The values are compared by their sort keys directly in native memory, so
+ * lookups, inserts and removals take O(log n) comparisons without any
+ * deserialization, unless the values have no sort key of their own. Ranges
+ * are read by following the links between the leaves. A page splits in
+ * halves once it is full and it is merged with one of its siblings once it
+ * drops below a quarter of its capacity.
+ * <p>
+ * The tree is updated under the write lock of its store and read under the
+ * read lock of its store.
+ */
+final class NativeValueTree {
+
+    private static final int SORT_KEY_VALUE_NODE_OFFSET = 0;
+    private static final int SORT_KEY_SIZE_OFFSET = SORT_KEY_VALUE_NODE_OFFSET + LONG_SIZE_IN_BYTES;
+    private static final int SORT_KEY_BLOB_OFFSET = SORT_KEY_SIZE_OFFSET + LONG_SIZE_IN_BYTES;
+
+    private static final int PAGE_COUNT_OFFSET = 0;
+    private static final int PAGE_PREV_OFFSET = PAGE_COUNT_OFFSET + LONG_SIZE_IN_BYTES;
+    private static final int PAGE_NEXT_OFFSET = PAGE_PREV_OFFSET + LONG_SIZE_IN_BYTES;
+    private static final int PAGE_ENTRIES_OFFSET = PAGE_NEXT_OFFSET + LONG_SIZE_IN_BYTES;
+
+    private static final int LEAF_ENTRY_SIZE = LONG_SIZE_IN_BYTES;
+    private static final int INNER_ENTRY_SIZE = 2 * LONG_SIZE_IN_BYTES;
+
+    private static final int PAGE_CAPACITY = 64;
+    private static final int MERGE_THRESHOLD = PAGE_CAPACITY / 4;
+    /**
+     * Way above the height of any tree fitting into memory, since every page
+     * except the root one holds at least {@link #MERGE_THRESHOLD} entries.
+     */
+    private static final int MAX_HEIGHT = 16;
+
+    private final NativeIndexStore store;
+    private final MemoryAllocator malloc;
+    private final MemoryAccessor mem;
+
+    /**
+     * The pages visited by the last update, indexed by their level: the leaf
+     * is at level 0 and the root is at {@link #height}.
+     */
+    private final long[] pathPages = new long[MAX_HEIGHT + 1];
+    /**
+     * The positions of the entries followed by the last update within the
+     * visited pages.
+     */
+    private final int[] pathSlots = new int[MAX_HEIGHT + 1];
+    /**
+     * The pages allocated up front for the splits of an insert, so the tree
+     * is never left half-updated if the memory runs out.
+     */
+    private final long[] sparePages = new long[MAX_HEIGHT + 2];
+
+    private long root = NULL_ADDRESS;
+    private int height;
+
+    NativeValueTree(NativeIndexStore store) {
+        this.store = store;
+        this.malloc = store.malloc;
+        this.mem = store.mem;
+    }
+
+    /**
+     * Finds the value node of the given value.
+     *
+     * @return the address of the value node or {@link MemoryAllocator#NULL_ADDRESS}
+     * if the value is not in the tree.
+     */
+    long find(Comparable value) {
+        if (root == NULL_ADDRESS) {
+            return NULL_ADDRESS;
+        }
+        byte[] sortKey = SortKeys.toSortKey(value);
+        long leaf = findLeaf(sortKey, value);
+        int index = search(0, leaf, sortKey, value, true);
+        if (index < count(leaf) && compare(sortKey, value, keyAt(0, leaf, index)) == 0) {
+            return mem.getLong(keyAt(0, leaf, index) + SORT_KEY_VALUE_NODE_OFFSET);
+        }
+        return NULL_ADDRESS;
+    }
+
+    /**
+     * Adds the given value node of the given value, which is not in the tree
+     * yet. The tree is left intact if the memory runs out.
+     */
+    void add(Comparable value, long valueNode) {
+        byte[] sortKey = SortKeys.toSortKey(value);
+        long storedKey = malloc.allocate(SORT_KEY_BLOB_OFFSET + sortKey.length);
+        mem.putLong(storedKey + SORT_KEY_VALUE_NODE_OFFSET, valueNode);
+        mem.putLong(storedKey + SORT_KEY_SIZE_OFFSET, sortKey.length);
+        mem.copyFromByteArray(sortKey, 0, storedKey + SORT_KEY_BLOB_OFFSET, sortKey.length);
+
+        int index;
+        try {
+            if (root == NULL_ADDRESS) {
+                root = allocatePage(0);
+            }
+            index = descend(sortKey, value);
+            reservePages();
+        } catch (Error e) {
+            freeSortKey(storedKey);
+            throw e;
+        }
+        insert(0, index, storedKey, NULL_ADDRESS);
+    }
+
+    /**
+     * Removes the given value node of the given value from the tree. The
+     * value node itself is freed by the caller.
+     */
+    void remove(long valueNode, Comparable value) {
+        byte[] sortKey = SortKeys.toSortKey(value);
+        int index = descend(sortKey, value);
+        long storedKey = keyAt(0, pathPages[0], index);
+        assert mem.getLong(storedKey + SORT_KEY_VALUE_NODE_OFFSET) == valueNode;
+        delete(0, index);
+        freeSortKey(storedKey);
+    }
+
+    /**
+     * Frees all the value nodes along with the native memory of the tree.
+     */
+    void clear() {
+        if (root != NULL_ADDRESS) {
+            freePages(height, root);
+            root = NULL_ADDRESS;
+            height = 0;
+        }
+    }
+
+    IndexHistogram buildHistogram(int maxBucketCount, long nullCount) {
+        long leaf = findLeaf(null, null);
+        long nonNullCount = 0;
+        for (long page = leaf; page != NULL_ADDRESS; page = mem.getLong(page + PAGE_NEXT_OFFSET)) {
+            for (int i = 0; i < count(page); i++) {
+                nonNullCount += store.countOf(mem.getLong(keyAt(0, page, i) + SORT_KEY_VALUE_NODE_OFFSET));
+            }
+        }
+
+        IndexHistogram.Builder builder = new IndexHistogram.Builder(maxBucketCount, nonNullCount, nullCount);
+        for (long page = leaf; page != NULL_ADDRESS; page = mem.getLong(page + PAGE_NEXT_OFFSET)) {
+            for (int i = 0; i < count(page); i++) {
+                long valueNode = mem.getLong(keyAt(0, page, i) + SORT_KEY_VALUE_NODE_OFFSET);
+                builder.add(store.valueOf(valueNode), (int) store.countOf(valueNode));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Finds the position of the first value which is greater than the given
+     * value or, if {@code includeEqual} is set, greater than or equal to it.
+     *
+     * @param value the value to find the position for or {@code null} to
+     *              find the position of the first value.
+     * @return the found position or {@code null} if there is no such value.
+     */
+    Position boundary(Comparable value, boolean includeEqual) {
+        if (root == NULL_ADDRESS) {
+            return null;
+        }
+        byte[] sortKey = value == null ? null : SortKeys.toSortKey(value);
+        long leaf = findLeaf(sortKey, value);
+        int index = sortKey == null ? 0 : search(0, leaf, sortKey, value, includeEqual);
+        if (index == count(leaf)) {
+            leaf = mem.getLong(leaf + PAGE_NEXT_OFFSET);
+            if (leaf == NULL_ADDRESS) {
+                return null;
+            }
+            index = 0;
+        }
+        return new Position(leaf, index);
+    }
+
+    /**
+     * Resolves the entries of the values starting at the given position and
+     * ending before the given position and adds them to the given results.
+     * {@code null} positions point past the last value.
+     */
+    void collectRange(Position from, Position to, Map<Data, QueryableEntry> results) {
+        if (from == null) {
+            return;
+        }
+        int index = from.index;
+        for (long leaf = from.leaf; leaf != NULL_ADDRESS; leaf = mem.getLong(leaf + PAGE_NEXT_OFFSET)) {
+            int count = count(leaf);
+            for (; index < count; index++) {
+                if (to != null && leaf == to.leaf && index == to.index) {
+                    return;
+                }
+                store.collect(mem.getLong(keyAt(0, leaf, index) + SORT_KEY_VALUE_NODE_OFFSET), results);
+            }
+            index = 0;
+        }
+    }
+
+    /**
+     * Compares the given value having the given sort key with the value of
+     * the given stored sort key.
+     *
+     * @return a negative integer, zero, or a positive integer as the given
+     * value is less than, equal to, or greater than the stored one.
+     */
+    @SuppressWarnings("checkstyle:magicnumber")
+    private int compare(byte[] sortKey, Comparable value, long storedKey) {
+        int storedSize = (int) mem.getLong(storedKey + SORT_KEY_SIZE_OFFSET);
+        int size = Math.min(sortKey.length, storedSize);
+        for (int i = 0; i < size; i++) {
+            int order = (sortKey[i] & 0xFF) - (mem.getByte(storedKey + SORT_KEY_BLOB_OFFSET + i) & 0xFF);
+            if (order != 0) {
+                return order;
+            }
+        }
+        if (sortKey.length != storedSize) {
+            return sortKey.length - storedSize;
+        }
+        if (sortKey[0] == SortKeys.OTHER) {
+            return Comparables.compare(value, store.valueOf(mem.getLong(storedKey + SORT_KEY_VALUE_NODE_OFFSET)));
+        }
+        return 0;
+    }
+
+    /**
+     * Finds the index of the first entry of the given page which value is
+     * greater than the given value or, if {@code includeEqual} is set,
+     * greater than or equal to it.
+     */
+    private int search(int level, long page, byte[] sortKey, Comparable value, boolean includeEqual) {
+        int low = 0;
+        int high = count(page);
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int order = compare(sortKey, value, keyAt(level, page, middle));
+            if (order < 0 || includeEqual && order == 0) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds the leaf the given value belongs to or the first leaf if the
+     * given sort key is {@code null}.
+     */
+    private long findLeaf(byte[] sortKey, Comparable value) {
+        long page = root;
+        for (int level = height; level > 0; level--) {
+            // the last child which first value is less than or equal to the value
+            int slot = sortKey == null ? 0 : Math.max(search(level, page, sortKey, value, false) - 1, 0);
+            page = childAt(page, slot);
+        }
+        return page;
+    }
+
+    /**
+     * Finds the leaf the given value belongs to and records the path to it
+     * for an update.
+     *
+     * @return the index of the first entry of the leaf which value is
+     * greater than or equal to the given value.
+     */
+    private int descend(byte[] sortKey, Comparable value) {
+        long page = root;
+        for (int level = height; level > 0; level--) {
+            int slot = Math.max(search(level, page, sortKey, value, false) - 1, 0);
+            pathPages[level] = page;
+            pathSlots[level] = slot;
+            page = childAt(page, slot);
+        }
+        int index = search(0, page, sortKey, value, true);
+        pathPages[0] = page;
+        pathSlots[0] = index;
+        return index;
+    }
+
+    /**
+     * Allocates the pages the splits caused by an insert into the recorded
+     * leaf are going to need: a page splits only if it is full and the page
+     * below it on the path splits too.
+     */
+    private void reservePages() {
+        int splitCount = 0;
+        while (splitCount <= height && count(pathPages[splitCount]) == PAGE_CAPACITY) {
+            splitCount++;
+        }
+        assert splitCount <= MAX_HEIGHT : "B+tree is too high";
+        try {
+            for (int level = 0; level < splitCount; level++) {
+                sparePages[level] = allocatePage(level);
+            }
+            if (splitCount > height) {
+                // the root splits, a new root is needed
+                sparePages[splitCount] = allocatePage(splitCount);
+            }
+        } catch (Error e) {
+            for (int level = 0; level <= splitCount; level++) {
+                if (sparePages[level] != NULL_ADDRESS) {
+                    freePage(level, sparePages[level]);
+                    sparePages[level] = NULL_ADDRESS;
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Inserts the given entry into the page recorded at the given level,
+     * splitting the pages on the path as needed.
+     */
+    private void insert(int level, int index, long storedKey, long child) {
+        long page = pathPages[level];
+        if (count(page) < PAGE_CAPACITY) {
+            insertEntry(level, page, index, storedKey, child);
+            if (index == 0) {
+                propagateFirstKey(level);
+            }
+            return;
+        }
+
+        long right = split(level, page);
+        int leftCount = count(page);
+        if (index <= leftCount) {
+            insertEntry(level, page, index, storedKey, child);
+            if (index == 0) {
+                propagateFirstKey(level);
+            }
+        } else {
+            insertEntry(level, right, index - leftCount, storedKey, child);
+        }
+
+        if (level == height) {
+            long newRoot = sparePages[level + 1];
+            sparePages[level + 1] = NULL_ADDRESS;
+            insertEntry(level + 1, newRoot, 0, keyAt(level, page, 0), page);
+            insertEntry(level + 1, newRoot, 1, keyAt(level, right, 0), right);
+            root = newRoot;
+            height++;
+        } else {
+            insert(level + 1, pathSlots[level + 1] + 1, keyAt(level, right, 0), right);
+        }
+    }
+
+    /**
+     * Moves the upper half of the entries of the given full page to a new
+     * page following it.
+     *
+     * @return the new page.
+     */
+    private long split(int level, long page) {
+        long right = sparePages[level];
+        sparePages[level] = NULL_ADDRESS;
+        int count = count(page);
+        int leftCount = count >>> 1;
+        moveEntries(level, page, leftCount, right, count - leftCount);
+        mem.putLong(page + PAGE_COUNT_OFFSET, leftCount);
+        if (level == 0) {
+            long next = mem.getLong(page + PAGE_NEXT_OFFSET);
+            mem.putLong(right + PAGE_PREV_OFFSET, page);
+            mem.putLong(right + PAGE_NEXT_OFFSET, next);
+            mem.putLong(page + PAGE_NEXT_OFFSET, right);
+            if (next != NULL_ADDRESS) {
+                mem.putLong(next + PAGE_PREV_OFFSET, right);
+            }
+        }
+        return right;
+    }
+
+    /**
+     * Deletes the entry at the given index from the page recorded at the
+     * given level, releasing, merging and collapsing the pages on the path as
+     * needed.
+     */
+    private void delete(int level, int index) {
+        long page = pathPages[level];
+        int count = count(page) - 1;
+        long entry = entryAddress(level, page, index);
+        long end = entryAddress(level, page, count);
+        for (long address = entry; address < end; address += LONG_SIZE_IN_BYTES) {
+            mem.putLong(address, mem.getLong(address + entrySize(level)));
+        }
+        mem.putLong(page + PAGE_COUNT_OFFSET, count);
+
+        if (level == height) {
+            if (count == 0) {
+                freePage(level, page);
+                root = NULL_ADDRESS;
+                height = 0;
+            } else if (level > 0 && count == 1) {
+                root = childAt(page, 0);
+                freePage(level, page);
+                height--;
+            }
+            return;
+        }
+
+        if (count == 0) {
+            unlinkPage(level, page);
+            delete(level + 1, pathSlots[level + 1]);
+            return;
+        }
+        if (index == 0) {
+            propagateFirstKey(level);
+        }
+        if (count < MERGE_THRESHOLD) {
+            merge(level);
+        }
+    }
+
+    /**
+     * Merges the sparse page recorded at the given level with one of its
+     * siblings if they fit into a single page.
+     */
+    private void merge(int level) {
+        long page = pathPages[level];
+        long parent = pathPages[level + 1];
+        int slot = pathSlots[level + 1];
+        if (slot > 0) {
+            long left = childAt(parent, slot - 1);
+            if (count(left) + count(page) <= PAGE_CAPACITY) {
+                moveEntries(level, page, 0, left, count(page));
+                unlinkPage(level, page);
+                delete(level + 1, slot);
+                return;
+            }
+        }
+        if (slot + 1 < count(parent)) {
+            long right = childAt(parent, slot + 1);
+            if (count(page) + count(right) <= PAGE_CAPACITY) {
+                moveEntries(level, right, 0, page, count(right));
+                unlinkPage(level, right);
+                delete(level + 1, slot + 1);
+            }
+        }
+    }
+
+    /**
+     * Updates the first sort keys kept by the ancestors of the page recorded
+     * at the given level after its first entry has changed.
+     */
+    private void propagateFirstKey(int level) {
+        long firstKey = keyAt(level, pathPages[level], 0);
+        for (int parentLevel = level + 1; parentLevel <= height; parentLevel++) {
+            int slot = pathSlots[parentLevel];
+            mem.putLong(entryAddress(parentLevel, pathPages[parentLevel], slot), firstKey);
+            if (slot != 0) {
+                break;
+            }
+        }
+    }
+
+    private int count(long page) {
+        return (int) mem.getLong(page + PAGE_COUNT_OFFSET);
+    }
+
+    private long entryAddress(int level, long page, int index) {
+        return page + PAGE_ENTRIES_OFFSET + (long) index * entrySize(level);
+    }
+
+    private long keyAt(int level, long page, int index) {
+        return mem.getLong(entryAddress(level, page, index));
+    }
+
+    private long childAt(long innerPage, int index) {
+        return mem.getLong(entryAddress(1, innerPage, index) + LONG_SIZE_IN_BYTES);
+    }
+
+    private void insertEntry(int level, long page, int index, long storedKey, long child) {
+        int count = count(page);
+        long entry = entryAddress(level, page, index);
+        for (long address = entryAddress(level, page, count) - LONG_SIZE_IN_BYTES; address >= entry;
+             address -= LONG_SIZE_IN_BYTES) {
+            mem.putLong(address + entrySize(level), mem.getLong(address));
+        }
+        mem.putLong(entry, storedKey);
+        if (level > 0) {
+            mem.putLong(entry + LONG_SIZE_IN_BYTES, child);
+        }
+        mem.putLong(page + PAGE_COUNT_OFFSET, count + 1);
+    }
+
+    /**
+     * Moves the given number of the entries of the given source page starting
+     * at the given index to the end of the given destination page.
+     */
+    private void moveEntries(int level, long source, int index, long destination, int count) {
+        int destinationCount = count(destination);
+        mem.copyMemory(entryAddress(level, source, index), entryAddress(level, destination, destinationCount),
+                (long) count * entrySize(level));
+        mem.putLong(destination + PAGE_COUNT_OFFSET, destinationCount + count);
+    }
+
+    private long allocatePage(int level) {
+        long page = malloc.allocate(PAGE_ENTRIES_OFFSET + (long) PAGE_CAPACITY * entrySize(level));
+        mem.putLong(page + PAGE_COUNT_OFFSET, 0);
+        mem.putLong(page + PAGE_PREV_OFFSET, NULL_ADDRESS);
+        mem.putLong(page + PAGE_NEXT_OFFSET, NULL_ADDRESS);
+        return page;
+    }
+
+    /**
+     * Unlinks the given page from its neighbouring leaves, if it's a leaf,
+     * and frees it.
+     */
+    private void unlinkPage(int level, long page) {
+        if (level == 0) {
+            long prev = mem.getLong(page + PAGE_PREV_OFFSET);
+            long next = mem.getLong(page + PAGE_NEXT_OFFSET);
+            if (prev != NULL_ADDRESS) {
+                mem.putLong(prev + PAGE_NEXT_OFFSET, next);
+            }
+            if (next != NULL_ADDRESS) {
+                mem.putLong(next + PAGE_PREV_OFFSET, prev);
+            }
+        }
+        freePage(level, page);
+    }
+
+    /**
+     * Frees the given page along with its subtree, the sort keys and the
+     * value nodes.
+     */
+    private void freePages(int level, long page) {
+        for (int i = 0; i < count(page); i++) {
+            if (level > 0) {
+                freePages(level - 1, childAt(page, i));
+            } else {
+                long storedKey = keyAt(0, page, i);
+                store.freeValueNode(mem.getLong(storedKey + SORT_KEY_VALUE_NODE_OFFSET));
+                freeSortKey(storedKey);
+            }
+        }
+        freePage(level, page);
+    }
+
+    private void freePage(int level, long page) {
+        malloc.free(page, PAGE_ENTRIES_OFFSET + (long) PAGE_CAPACITY * entrySize(level));
+    }
+
+    private void freeSortKey(long storedKey) {
+        malloc.free(storedKey, SORT_KEY_BLOB_OFFSET + mem.getLong(storedKey + SORT_KEY_SIZE_OFFSET));
+    }
+
+    private static int entrySize(int level) {
+        return level == 0 ? LEAF_ENTRY_SIZE : INNER_ENTRY_SIZE;
+    }
+
+    /**
+     * Position of a value in the leaves.
+     */
+    static final class Position {
+
+        final long leaf;
+        final int index;
+
+        Position(long leaf, int index) {
+            this.leaf = leaf;
+            this.index = index;
+        }
+    }
+}
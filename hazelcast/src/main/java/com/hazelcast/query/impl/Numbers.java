@@ -253,6 +253,62 @@ public final class Numbers {
         throw new IllegalArgumentException("Can't represent " + number + " as int exactly");
     }
 
+    /**
+     * Represents the given long value exactly as a double value; if that's
+     * not possible, fails by throwing an exception.
+     *
+     * @see #asDoubleExactly(Number)
+     */
+    public static double longAsDoubleExactly(long value) {
+        double doubleValue = (double) value;
+        if (value == (long) doubleValue) {
+            return doubleValue;
+        }
+        throw new IllegalArgumentException("Can't represent " + value + " as double exactly");
+    }
+
+    /**
+     * Represents the given double value exactly as a long value; if that's
+     * not possible, fails by throwing an exception.
+     *
+     * @see #asLongExactly(Number)
+     */
+    public static long doubleAsLongExactly(double value) {
+        long longValue = (long) value;
+        if (equalDoubles(value, (double) longValue)) {
+            return longValue;
+        }
+        throw new IllegalArgumentException("Can't represent " + value + " as long exactly");
+    }
+
+    /**
+     * Represents the given long value exactly as an int value; if that's not
+     * possible, fails by throwing an exception.
+     *
+     * @see #asIntExactly(Number)
+     */
+    public static int longAsIntExactly(long value) {
+        int intValue = (int) value;
+        if (value == (long) intValue) {
+            return intValue;
+        }
+        throw new IllegalArgumentException("Can't represent " + value + " as int exactly");
+    }
+
+    /**
+     * Represents the given double value exactly as an int value; if that's
+     * not possible, fails by throwing an exception.
+     *
+     * @see #asIntExactly(Number)
+     */
+    public static int doubleAsIntExactly(double value) {
+        int intValue = (int) value;
+        if (equalDoubles(value, (double) intValue)) {
+            return intValue;
+        }
+        throw new IllegalArgumentException("Can't represent " + value + " as int exactly");
+    }
+
     /**
      * @return {@code true} if instances of the given class can be represented
      * as double values without any magnitude and precision losses, {@code false}
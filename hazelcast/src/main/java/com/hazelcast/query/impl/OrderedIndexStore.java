@@ -20,6 +20,7 @@ import com.hazelcast.nio.serialization.Data;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedMap;
@@ -192,6 +193,50 @@ public class OrderedIndexStore extends BaseIndexStore {
         }
     }
 
+    @Override
+    public Iterator<Set<QueryableEntry>> getSortedRecords(Comparable from) {
+        Map<Comparable, Map<Data, QueryableEntry>> subMap = from == null ? recordMap : recordMap.tailMap(from, true);
+        Iterator<Map<Data, QueryableEntry>> groups = subMap.values().iterator();
+        return new Iterator<Set<QueryableEntry>>() {
+            @Override
+            public boolean hasNext() {
+                return groups.hasNext();
+            }
+
+            @Override
+            public Set<QueryableEntry> next() {
+                takeReadLock();
+                try {
+                    return toSingleResultSet(groups.next());
+                } finally {
+                    releaseReadLock();
+                }
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    @Override
+    public IndexHistogram buildHistogram(int maxBucketCount) {
+        // the maps are concurrent, so the updates are not blocked; a weakly
+        // consistent view is good enough for an estimate
+        long nonNullCount = 0;
+        for (Map<Data, QueryableEntry> records : recordMap.values()) {
+            nonNullCount += records.size();
+        }
+
+        IndexHistogram.Builder builder = new IndexHistogram.Builder(maxBucketCount, nonNullCount,
+                recordsWithNullValue.size());
+        for (Map.Entry<Comparable, Map<Data, QueryableEntry>> entry : recordMap.entrySet()) {
+            builder.add(entry.getKey(), entry.getValue().size());
+        }
+        return builder.build();
+    }
+
     /**
      * Adds entry to the given index map without copying it.
      * Needs to be invoked in a thread-safe way.
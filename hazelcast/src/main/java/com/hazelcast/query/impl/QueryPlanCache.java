@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.util.SampleableConcurrentHashMap;
+import com.hazelcast.util.SampleableConcurrentHashMap.SamplingEntry;
+
+/**
+ * Bounded cache of the query plans: the parsed parameterized SQL
+ * expressions.
+ * <p>
+ * Once the cache is full, randomly sampled plans are evicted to make room
+ * for the new ones. The cached plans are shared by the concurrently running
+ * queries, so they must be immutable.
+ *
+ * @param <K> the type of the keys identifying the plans
+ * @param <V> the type of the plans
+ */
+public final class QueryPlanCache<K, V> {
+
+    private static final float EVICTION_PERCENTAGE = 0.2f;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int maxSize;
+    private final int evictionCount;
+
+    private volatile SampleableConcurrentHashMap<K, V> plans;
+
+    /**
+     * @param maxSize the maximum number of the cached plans
+     */
+    public QueryPlanCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.evictionCount = Math.max(1, (int) (maxSize * EVICTION_PERCENTAGE));
+    }
+
+    /**
+     * @return the plan cached for the given key or {@code null} if there is
+     * no such plan.
+     */
+    public V get(K key) {
+        SampleableConcurrentHashMap<K, V> plans = this.plans;
+        return plans == null ? null : plans.get(key);
+    }
+
+    /**
+     * Caches the given plan unless there is a plan already cached for the
+     * given key.
+     *
+     * @return the plan cached for the given key.
+     */
+    public V putIfAbsent(K key, V plan) {
+        SampleableConcurrentHashMap<K, V> plans = plans();
+        V existing = plans.putIfAbsent(key, plan);
+        if (existing != null) {
+            return existing;
+        }
+        evictIfNeeded(plans, plan);
+        return plan;
+    }
+
+    /**
+     * Removes all the cached plans.
+     */
+    public void clear() {
+        SampleableConcurrentHashMap<K, V> plans = this.plans;
+        if (plans != null) {
+            plans.clear();
+        }
+    }
+
+    /**
+     * @return the number of the cached plans.
+     */
+    public int size() {
+        SampleableConcurrentHashMap<K, V> plans = this.plans;
+        return plans == null ? 0 : plans.size();
+    }
+
+    private SampleableConcurrentHashMap<K, V> plans() {
+        SampleableConcurrentHashMap<K, V> plans = this.plans;
+        if (plans == null) {
+            // the caches are created lazily since most of them are never used
+            synchronized (this) {
+                plans = this.plans;
+                if (plans == null) {
+                    plans = new SampleableConcurrentHashMap<K, V>(Math.min(maxSize, INITIAL_CAPACITY));
+                    this.plans = plans;
+                }
+            }
+        }
+        return plans;
+    }
+
+    /**
+     * Evicts on best effort basis, concurrent evictions may evict more plans
+     * than needed. The evicted plans are cached again once they are used.
+     */
+    private void evictIfNeeded(SampleableConcurrentHashMap<K, V> plans, V excluded) {
+        int size;
+        while ((size = plans.size()) > maxSize) {
+            int sampleCount = Math.max(size - maxSize, evictionCount) + 1;
+            for (SamplingEntry<K, V> sample : plans.<SamplingEntry<K, V>>getRandomSamples(sampleCount)) {
+                if (sample.getEntryValue() != excluded) {
+                    plans.remove(sample.getEntryKey());
+                }
+            }
+        }
+    }
+
+}
@@ -28,6 +28,7 @@ import com.hazelcast.query.Metadata;
 import com.hazelcast.query.QueryException;
 import com.hazelcast.query.impl.getters.Extractors;
 import com.hazelcast.query.impl.getters.MultiResult;
+import com.hazelcast.query.impl.getters.PrimitiveValueConsumer;
 import com.hazelcast.query.impl.getters.ReflectionHelper;
 
 import java.util.Map;
@@ -81,6 +82,29 @@ public abstract class QueryableEntry<K, V> implements Extractable, Map.Entry<K,
         return extractAttributeValue(attributeName);
     }
 
+    @Override
+    public Object getAttributeValue(String attributeName, PrimitiveValueConsumer consumer) throws QueryException {
+        if (KEY_ATTRIBUTE_NAME.value().equals(attributeName) || THIS_ATTRIBUTE_NAME.value().equals(attributeName)) {
+            // the key and the value themselves are never extracted as primitives
+            return extractAttributeValue(attributeName);
+        }
+
+        boolean isKey = startsWithKeyConstant(attributeName);
+        String name = getAttributeName(isKey, attributeName);
+        Object result = extractInPlace(isKey, name, consumer);
+        if (result != null) {
+            return result;
+        }
+
+        Object target = getTargetObject(isKey);
+        Object metadata = getMetadataOrNull(this.getMetadata(), isKey);
+        result = extractors.extract(target, name, metadata, consumer);
+        if (result instanceof HazelcastJsonValue) {
+            return Json.parse(result.toString());
+        }
+        return result;
+    }
+
     public abstract V getValue();
 
     public abstract K getKey();
@@ -91,6 +115,15 @@ public abstract class QueryableEntry<K, V> implements Extractable, Map.Entry<K,
 
     protected abstract Object getTargetObject(boolean key);
 
+    /**
+     * Returns the serialized key or value if it's available without
+     * serializing the deserialized one, {@code null} otherwise. The
+     * attributes of the returned data are read in place if possible.
+     */
+    protected Data getTargetData(boolean key) {
+        return null;
+    }
+
     /**
      * Returns a converter corresponding to the attribute with the given name.
      * Never {@code null}, but may return {@link TypeConverters#NULL_CONVERTER}
@@ -122,9 +155,12 @@ public abstract class QueryableEntry<K, V> implements Extractable, Map.Entry<K,
         if (result == null) {
             boolean isKey = startsWithKeyConstant(attributeName);
             attributeName = getAttributeName(isKey, attributeName);
-            Object target = getTargetObject(isKey);
-            Object metadata = getMetadataOrNull(this. getMetadata(), isKey);
-            result = extractAttributeValueFromTargetObject(extractors, attributeName, target, metadata);
+            result = extractInPlace(isKey, attributeName, null);
+            if (result == null) {
+                Object target = getTargetObject(isKey);
+                Object metadata = getMetadataOrNull(this.getMetadata(), isKey);
+                result = extractAttributeValueFromTargetObject(extractors, attributeName, target, metadata);
+            }
         }
         if (result instanceof HazelcastJsonValue) {
             return Json.parse(result.toString());
@@ -132,6 +168,11 @@ public abstract class QueryableEntry<K, V> implements Extractable, Map.Entry<K,
         return result;
     }
 
+    private Object extractInPlace(boolean isKey, String attributeName, PrimitiveValueConsumer consumer) {
+        Data targetData = getTargetData(isKey);
+        return targetData == null ? null : extractors.extractInPlace(targetData, attributeName, consumer);
+    }
+
     /**
      * Optimized version of the other extractAttributeValueIfAttributeQueryConstant() method that uses getKey() and
      * getValue() calls that may cache their results internally - like in CachedQueryEntry.
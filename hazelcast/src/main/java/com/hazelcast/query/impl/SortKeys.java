@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import static com.hazelcast.nio.Bits.CHAR_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.query.impl.Numbers.isDoubleRepresentable;
+import static com.hazelcast.query.impl.Numbers.isLongRepresentable;
+
+/**
+ * Encodes values into sort keys: byte strings which unsigned lexicographical
+ * order is the order defined by {@link Comparables#compare}, so the values
+ * can be compared without deserializing them.
+ * <p>
+ * The first byte of a sort key is the tag of the value type. Numbers of the
+ * types handled by {@link Numbers#compare}, strings, characters and booleans
+ * are fully encoded. Any other value is encoded into the {@link #OTHER} tag
+ * only, so the values sharing the tag have to be compared in their
+ * deserialized form.
+ */
+final class SortKeys {
+
+    static final byte BOOLEAN = 1;
+    static final byte NUMBER = 2;
+    static final byte CHARACTER = 3;
+    static final byte STRING = 4;
+    static final byte OTHER = 5;
+
+    private static final byte[] OTHER_SORT_KEY = {OTHER};
+
+    private SortKeys() {
+    }
+
+    /**
+     * Encodes the given value into its sort key.
+     *
+     * @param value the value to encode. Can't be {@code null}.
+     * @return the sort key of the value.
+     */
+    @SuppressWarnings("checkstyle:magicnumber")
+    static byte[] toSortKey(Comparable value) {
+        Class clazz = value.getClass();
+        if (isLongRepresentable(clazz)) {
+            long longValue = ((Number) value).longValue();
+            double doubleValue = (double) longValue;
+            // the nearest double and the exact offset from it: the doubles
+            // order the numbers and the offsets order the longs rounded to
+            // the same double, 2^63 itself is not representable as a long
+            long offset = doubleValue >= 0x1p63 ? longValue - Long.MAX_VALUE - 1 : longValue - (long) doubleValue;
+            return number(doubleValue, offset);
+        } else if (isDoubleRepresentable(clazz)) {
+            double doubleValue = ((Number) value).doubleValue();
+            // Numbers.compare orders -2^63 before Long.MIN_VALUE
+            return number(doubleValue, doubleValue == -0x1p63 ? -1 : 0);
+        } else if (clazz == String.class) {
+            String string = (String) value;
+            byte[] sortKey = new byte[1 + string.length() * CHAR_SIZE_IN_BYTES];
+            sortKey[0] = STRING;
+            for (int i = 0; i < string.length(); i++) {
+                putChar(sortKey, 1 + i * CHAR_SIZE_IN_BYTES, string.charAt(i));
+            }
+            return sortKey;
+        } else if (clazz == Character.class) {
+            byte[] sortKey = new byte[1 + CHAR_SIZE_IN_BYTES];
+            sortKey[0] = CHARACTER;
+            putChar(sortKey, 1, (Character) value);
+            return sortKey;
+        } else if (clazz == Boolean.class) {
+            return new byte[]{BOOLEAN, (byte) ((Boolean) value ? 1 : 0)};
+        }
+        return OTHER_SORT_KEY;
+    }
+
+    private static byte[] number(double doubleValue, long offset) {
+        byte[] sortKey = new byte[1 + 2 * LONG_SIZE_IN_BYTES];
+        sortKey[0] = NUMBER;
+        // flipping the sign bit of the positive doubles and all the bits of
+        // the negative ones gives the order of Double.compare
+        long bits = Double.doubleToLongBits(doubleValue);
+        putLong(sortKey, 1, bits < 0 ? ~bits : bits ^ Long.MIN_VALUE);
+        putLong(sortKey, 1 + LONG_SIZE_IN_BYTES, offset ^ Long.MIN_VALUE);
+        return sortKey;
+    }
+
+    @SuppressWarnings("checkstyle:magicnumber")
+    private static void putLong(byte[] bytes, int offset, long value) {
+        for (int i = LONG_SIZE_IN_BYTES - 1; i >= 0; i--) {
+            bytes[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    @SuppressWarnings("checkstyle:magicnumber")
+    private static void putChar(byte[] bytes, int offset, char value) {
+        bytes[offset] = (byte) (value >>> 8);
+        bytes[offset + 1] = (byte) value;
+    }
+}
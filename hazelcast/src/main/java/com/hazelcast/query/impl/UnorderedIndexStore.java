@@ -72,6 +72,17 @@ public class UnorderedIndexStore extends BaseIndexStore {
 
     @Override
     public Comparable canonicalizeScalarForStorage(Comparable value) {
+        return canonicalizeScalar(value);
+    }
+
+    /**
+     * Canonicalizes the given scalar value for the purpose of a hash-based
+     * lookup, shared by the hash-based index stores.
+     *
+     * @param value the value to canonicalize.
+     * @return the canonicalized value.
+     */
+    static Comparable canonicalizeScalar(Comparable value) {
         // Assuming on-heap overhead of 12 bytes for the object header and
         // allocation granularity by modulo 8, there is no point in trying to
         // represent a value in less than 4 bytes.
@@ -120,6 +131,21 @@ public class UnorderedIndexStore extends BaseIndexStore {
         }
     }
 
+    @Override
+    public IndexHistogram buildHistogram(int maxBucketCount) {
+        // the maps are concurrent, so the updates are not blocked; a weakly
+        // consistent view is good enough for an estimate
+        long entryCount = recordsWithNullValue.size();
+        long distinctCount = recordsWithNullValue.isEmpty() ? 0 : 1;
+        for (Map<Data, QueryableEntry> records : recordMap.values()) {
+            if (!records.isEmpty()) {
+                entryCount += records.size();
+                ++distinctCount;
+            }
+        }
+        return IndexHistogram.unordered(entryCount, distinctCount);
+    }
+
     @Override
     public Set<QueryableEntry> getRecords(Comparable value) {
         takeReadLock();
@@ -355,15 +381,15 @@ public class UnorderedIndexStore extends BaseIndexStore {
 
     }
 
-    private Comparable canonicalize(Comparable value) {
+    static Comparable canonicalize(Comparable value) {
         if (value instanceof CompositeValue) {
             Comparable[] components = ((CompositeValue) value).getComponents();
             for (int i = 0; i < components.length; ++i) {
-                components[i] = canonicalizeScalarForStorage(components[i]);
+                components[i] = canonicalizeScalar(components[i]);
             }
             return value;
         } else {
-            return canonicalizeScalarForStorage(value);
+            return canonicalizeScalar(value);
         }
     }
 
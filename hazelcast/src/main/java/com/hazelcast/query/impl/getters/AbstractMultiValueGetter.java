@@ -55,9 +55,33 @@ public abstract class AbstractMultiValueGetter extends Getter {
         return resultType;
     }
 
+    /**
+     * Extracts the value from the given parent object as a primitive passing
+     * it to the given consumer.
+     *
+     * @return {@code true} if the value was passed to the consumer, {@code
+     * false} if it can't be extracted as a primitive.
+     */
+    protected boolean extractPrimitiveFrom(Object parentObject, PrimitiveValueConsumer consumer) throws Exception {
+        return false;
+    }
+
     @Override
     Object getValue(Object obj) throws Exception {
+        return getValueOfParentObject(getParentObject(obj));
+    }
+
+    @Override
+    Object getValue(Object obj, String attributePath, Object metadata, PrimitiveValueConsumer consumer) throws Exception {
         Object parentObject = getParentObject(obj);
+        if (modifier == DO_NOT_REDUCE && parentObject != null && !(parentObject instanceof MultiResult)
+                && extractPrimitiveFrom(parentObject, consumer)) {
+            return PrimitiveValueConsumer.CONSUMED;
+        }
+        return getValueOfParentObject(parentObject);
+    }
+
+    private Object getValueOfParentObject(Object parentObject) throws Exception {
         if (parentObject == null) {
             return null;
         }
@@ -228,6 +252,14 @@ public abstract class AbstractMultiValueGetter extends Getter {
         parseModifier(modifier);
     }
 
+    static boolean isIntegralPrimitive(Class type) {
+        return type == long.class || type == int.class || type == short.class || type == byte.class;
+    }
+
+    static boolean isFloatingPointPrimitive(Class type) {
+        return type == double.class || type == float.class;
+    }
+
     protected static String composeAttributeValueExtractionFailedMessage(Member member) {
         return "Attribute value extraction failed for: " + member + ". Make "
                 + "sure attribute values or collection/array attribute value "
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl.getters;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.CompactSchema;
+import com.hazelcast.internal.serialization.impl.CompactSchema.CompactField;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.nio.Bits;
+import com.hazelcast.nio.BufferObjectDataInput;
+import com.hazelcast.nio.IOUtil;
+import com.hazelcast.nio.serialization.Data;
+
+import java.nio.ByteOrder;
+
+/**
+ * Generic getter of the fields of the objects serialized in the compact
+ * format. The primitive fields are read directly from their fixed offsets,
+ * the other fields are deserialized on their own. Nested attribute paths
+ * and the attributes not backed by the fields are extracted from the
+ * deserialized objects.
+ *
+ * @see CompactSchema
+ */
+final class CompactGetter extends Getter {
+
+    private final InternalSerializationService serializationService;
+    private final Extractors extractors;
+    private final boolean bigEndian;
+
+    CompactGetter(InternalSerializationService serializationService, Extractors extractors) {
+        super(null);
+        this.serializationService = serializationService;
+        this.extractors = extractors;
+        this.bigEndian = serializationService.getByteOrder() == ByteOrder.BIG_ENDIAN;
+    }
+
+    @Override
+    Object getValue(Object target, String fieldPath) throws Exception {
+        return getValue(target, fieldPath, null, null);
+    }
+
+    @Override
+    Object getValue(Object target, String fieldPath, Object metadata, PrimitiveValueConsumer consumer) throws Exception {
+        Data data = (Data) target;
+        CompactSchema schema = serializationService.getCompactSchema(data);
+        CompactField field = schema == null ? null : schema.getField(fieldPath);
+        if (field == null) {
+            Object object = serializationService.toObject(data);
+            Getter getter = extractors.getGetter(object, fieldPath);
+            return consumer == null ? getter.getValue(object, fieldPath, metadata)
+                    : getter.getValue(object, fieldPath, metadata, consumer);
+        }
+
+        if (field.isFixedSize()) {
+            return InPlaceAttributeReader.readValue(data.toByteArray(), HeapData.DATA_OFFSET + field.getOffset(),
+                    field.getType(), bigEndian, consumer);
+        }
+
+        byte[] bytes = data.toByteArray();
+        int offset = Bits.readInt(bytes, HeapData.DATA_OFFSET + field.getOffset(), bigEndian);
+        BufferObjectDataInput in = serializationService.createObjectDataInput(data);
+        try {
+            in.position(HeapData.DATA_OFFSET + schema.getVariableSectionOffset() + offset);
+            return in.readObject();
+        } finally {
+            IOUtil.closeResource(in);
+        }
+    }
+
+    @Override
+    Object getValue(Object obj) throws Exception {
+        throw new IllegalArgumentException("Path agnostic value extraction unsupported");
+    }
+
+    @Override
+    Class getReturnType() {
+        throw new IllegalArgumentException("Non applicable for CompactGetter");
+    }
+
+    @Override
+    boolean isCacheable() {
+        // generic getter, a single instance is shared by all the attributes
+        return false;
+    }
+
+}
@@ -41,7 +41,10 @@ final class ExtractorGetter extends Getter {
         // This part will be improved in 3.7 to avoid extra allocation
         DefaultValueCollector collector = new DefaultValueCollector();
         if (target instanceof Data) {
-            extractionTarget = serializationService.createPortableReader((Data) target);
+            Data data = (Data) target;
+            // the extractors are given the deserialized compact objects
+            extractionTarget = data.isPortable() ? serializationService.createPortableReader(data)
+                    : serializationService.toObject(data);
         }
         extractor.extract(extractionTarget, arguments, collector);
         return collector.getResult();
@@ -20,6 +20,7 @@ import com.hazelcast.config.MapAttributeConfig;
 import com.hazelcast.core.HazelcastJsonValue;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.nio.serialization.ExtractableDataSerializable;
 import com.hazelcast.nio.serialization.HazelcastSerializationException;
 import com.hazelcast.nio.serialization.Portable;
 import com.hazelcast.query.QueryException;
@@ -44,6 +45,7 @@ public final class Extractors {
 
     private volatile PortableGetter genericPortableGetter;
     private volatile JsonDataGetter jsonDataGetter;
+    private volatile CompactGetter compactGetter;
 
     /**
      * Maps the extractorAttributeName WITHOUT the arguments to a
@@ -55,6 +57,7 @@ public final class Extractors {
     private final InternalSerializationService ss;
     private final EvictableGetterCache getterCache;
     private final DefaultArgumentParser argumentsParser;
+    private final InPlaceAttributeReader inPlaceAttributeReader;
 
     private Extractors(List<MapAttributeConfig> mapAttributeConfigs,
                        ClassLoader classLoader, InternalSerializationService ss) {
@@ -65,11 +68,20 @@ public final class Extractors {
                 MAX_GETTERS_PER_CLASS_IN_CACHE, EVICTION_PERCENTAGE, false);
         this.argumentsParser = new DefaultArgumentParser();
         this.ss = ss;
+        this.inPlaceAttributeReader = new InPlaceAttributeReader(ss);
     }
 
     public Object extract(Object target, String attributeName, Object metadata) {
+        if (target instanceof Data) {
+            Object value = inPlaceAttributeReader.read((Data) target, attributeName, null);
+            if (value != null) {
+                return value;
+            }
+        }
+
         Object targetObject = getTargetObject(target);
         if (targetObject != null) {
+            recordLayoutIfExtractable(targetObject);
             Getter getter = getGetter(targetObject, attributeName);
             try {
                 return getter.getValue(targetObject, attributeName, metadata);
@@ -80,12 +92,63 @@ public final class Extractors {
         return null;
     }
 
+    /**
+     * Extracts the value of the given attribute passing it to the given
+     * consumer if the value is numeric and the getter of the attribute is
+     * able to extract it as a primitive.
+     *
+     * @return the extracted value or {@link PrimitiveValueConsumer#CONSUMED}
+     * if the value was passed to the consumer.
+     */
+    public Object extract(Object target, String attributeName, Object metadata, PrimitiveValueConsumer consumer) {
+        if (target instanceof Data) {
+            Object value = inPlaceAttributeReader.read((Data) target, attributeName, consumer);
+            if (value != null) {
+                return value;
+            }
+        }
+
+        Object targetObject = getTargetObject(target);
+        if (targetObject != null) {
+            recordLayoutIfExtractable(targetObject);
+            Getter getter = getGetter(targetObject, attributeName);
+            try {
+                return getter.getValue(targetObject, attributeName, metadata, consumer);
+            } catch (Exception ex) {
+                throw new QueryException(ex);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads the value of the given attribute in place from the given
+     * serialized target, without deserializing it. Only the attributes of
+     * {@link ExtractableDataSerializable}s can be read in place. If the given
+     * consumer is not {@code null}, numeric values are passed to it instead of
+     * being returned.
+     *
+     * @return the read value, {@link PrimitiveValueConsumer#CONSUMED} if the
+     * value was passed to the consumer or {@code null} if the attribute can't
+     * be read in place.
+     */
+    public Object extractInPlace(Data target, String attributeName, PrimitiveValueConsumer consumer) {
+        return inPlaceAttributeReader.read(target, attributeName, consumer);
+    }
+
+    private void recordLayoutIfExtractable(Object targetObject) {
+        if (targetObject instanceof ExtractableDataSerializable) {
+            inPlaceAttributeReader.recordLayout((ExtractableDataSerializable) targetObject, this);
+        }
+    }
+
     /**
      * Returns the form of this data that is queryable.
      * Returns {@link Data} if {@code target} is
      * <ul>
      *     <li>a portable object either in Data form or Object form</li>
      *     <li>a {@link HazelcastJsonValue} in Data form</li>
+     *     <li>an object serialized in the compact format in Data form</li>
      * </ul>
      * Otherwise, returns object form.
      *
@@ -101,7 +164,7 @@ public final class Extractors {
         }
         if (target instanceof Data) {
             targetData = (Data) target;
-            if (targetData.isPortable() || targetData.isJson()) {
+            if (targetData.isPortable() || targetData.isJson() || targetData.isCompact()) {
                 return targetData;
             } else {
                 // convert non-portable Data to object
@@ -143,6 +206,12 @@ public final class Extractors {
                         jsonDataGetter = new JsonDataGetter(ss);
                     }
                     return jsonDataGetter;
+                } else if (((Data) targetObject).isCompact()) {
+                    if (compactGetter == null) {
+                        // will be initialised a couple of times in the worst case
+                        compactGetter = new CompactGetter(ss, this);
+                    }
+                    return compactGetter;
                 } else {
                     throw new HazelcastSerializationException("No Data getter found for type " + ((Data) targetObject).getType());
                 }
@@ -41,6 +41,31 @@ public final class FieldGetter extends AbstractMultiValueGetter {
         }
     }
 
+    @Override
+    protected boolean extractPrimitiveFrom(Object object, PrimitiveValueConsumer consumer) throws IllegalAccessException {
+        Class type = field.getType();
+        if (isIntegralPrimitive(type)) {
+            long value;
+            try {
+                value = field.getLong(object);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(composeAttributeValueExtractionFailedMessage(field), e);
+            }
+            consumer.acceptLong(value);
+            return true;
+        } else if (isFloatingPointPrimitive(type)) {
+            double value;
+            try {
+                value = field.getDouble(object);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(composeAttributeValueExtractionFailedMessage(field), e);
+            }
+            consumer.acceptDouble(value);
+            return true;
+        }
+        return false;
+    }
+
     @Override
     boolean isCacheable() {
         return true;
@@ -48,6 +48,16 @@ abstract class Getter {
         return getValue(obj, attributePath);
     }
 
+    /**
+     * Method for getters that can extract numeric primitive values without
+     * boxing them. If the value is extracted as a primitive, it's passed to
+     * the given consumer and {@link PrimitiveValueConsumer#CONSUMED} is
+     * returned, otherwise the extracted value is returned as is.
+     */
+    Object getValue(Object obj, String attributePath, Object metadata, PrimitiveValueConsumer consumer) throws Exception {
+        return getValue(obj, attributePath, metadata);
+    }
+
     /**
      * Returns extracted object type for non-generic getters. It is only applicable when
      * extracted object type can be determined before running the getter.
@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl.getters;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.nio.Bits;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.nio.serialization.ExtractableDataSerializable;
+
+import java.nio.ByteOrder;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.hazelcast.internal.serialization.impl.DataSerializableSerializer.EE_FLAG;
+import static com.hazelcast.internal.serialization.impl.DataSerializableSerializer.IDS_FLAG;
+import static com.hazelcast.internal.serialization.impl.DataSerializableSerializer.isFlagSet;
+import static com.hazelcast.internal.serialization.impl.SerializationConstants.CONSTANT_TYPE_DATA_SERIALIZABLE;
+import static com.hazelcast.nio.Bits.BOOLEAN_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.BYTE_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.CHAR_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.DOUBLE_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.FLOAT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.SHORT_SIZE_IN_BYTES;
+
+/**
+ * Reads the attributes of {@link ExtractableDataSerializable}s in place from
+ * their serialized form, without deserializing the whole objects.
+ * <p>
+ * The layout of a class is recorded the first time an instance of the class
+ * is extracted from, see {@link #recordLayout}. Until then, and for the
+ * classes violating the {@link ExtractableDataSerializable} contract, the
+ * attributes are extracted from the deserialized objects as usual.
+ * <p>
+ * Versioned objects are never read in place: their layout may differ from
+ * one version to another, while the recorded layouts are keyed just by the
+ * factory and class IDs.
+ */
+final class InPlaceAttributeReader {
+
+    private static final int HEADER_OFFSET = HeapData.DATA_OFFSET;
+    private static final int PAYLOAD_OFFSET = HEADER_OFFSET + BYTE_SIZE_IN_BYTES + 2 * INT_SIZE_IN_BYTES;
+
+    private static final Layout[] NO_LAYOUTS = new Layout[0];
+
+    private static final Map<Class, Integer> SIZES = new HashMap<Class, Integer>();
+
+    static {
+        SIZES.put(long.class, LONG_SIZE_IN_BYTES);
+        SIZES.put(int.class, INT_SIZE_IN_BYTES);
+        SIZES.put(double.class, DOUBLE_SIZE_IN_BYTES);
+        SIZES.put(float.class, FLOAT_SIZE_IN_BYTES);
+        SIZES.put(short.class, SHORT_SIZE_IN_BYTES);
+        SIZES.put(char.class, CHAR_SIZE_IN_BYTES);
+        SIZES.put(byte.class, BYTE_SIZE_IN_BYTES);
+        SIZES.put(boolean.class, BOOLEAN_SIZE_IN_BYTES);
+    }
+
+    private final InternalSerializationService serializationService;
+    private final boolean bigEndian;
+
+    // copy-on-write, there are just a few extractable classes per map and
+    // scanning them is cheaper than boxing the lookup keys
+    private volatile Layout[] layouts = NO_LAYOUTS;
+
+    InPlaceAttributeReader(InternalSerializationService serializationService) {
+        this.serializationService = serializationService;
+        this.bigEndian = serializationService == null || serializationService.getByteOrder() == ByteOrder.BIG_ENDIAN;
+    }
+
+    /**
+     * Reads the value of the given attribute in place from the given
+     * serialized object. If the given consumer is not {@code null}, numeric
+     * values are passed to it instead of being returned.
+     *
+     * @return the read value, {@link PrimitiveValueConsumer#CONSUMED} if the
+     * value was passed to the consumer or {@code null} if the attribute can't
+     * be read in place.
+     */
+    Object read(Data data, String attributeName, PrimitiveValueConsumer consumer) {
+        Layout[] layouts = this.layouts;
+        if (layouts.length == 0 || data.getType() != CONSTANT_TYPE_DATA_SERIALIZABLE) {
+            return null;
+        }
+
+        byte[] bytes = data.toByteArray();
+        byte header = bytes[HEADER_OFFSET];
+        if (!isReadableInPlace(header)) {
+            return null;
+        }
+        int factoryId = Bits.readInt(bytes, HEADER_OFFSET + BYTE_SIZE_IN_BYTES, bigEndian);
+        int classId = Bits.readInt(bytes, HEADER_OFFSET + BYTE_SIZE_IN_BYTES + INT_SIZE_IN_BYTES, bigEndian);
+        Layout layout = findLayout(layouts, factoryId, classId);
+        Slot slot = layout == null ? null : layout.slots.get(attributeName);
+        if (slot == null) {
+            return null;
+        }
+
+        int position = PAYLOAD_OFFSET + slot.offset;
+        if (position + slot.size > bytes.length) {
+            return null;
+        }
+        return readValue(bytes, position, slot.type, bigEndian, consumer);
+    }
+
+    /**
+     * Records the layout of the class of the given object unless it's known
+     * already. The layout is verified by reading the attributes of the given
+     * object in place and comparing them to the values extracted by the given
+     * extractors.
+     */
+    @SuppressWarnings("checkstyle:illegalcatch")
+    void recordLayout(ExtractableDataSerializable object, Extractors extractors) {
+        int factoryId = object.getFactoryId();
+        int classId = object.getClassId();
+        if (findLayout(layouts, factoryId, classId) != null) {
+            return;
+        }
+
+        Layout layout;
+        try {
+            layout = createLayout(object, extractors);
+        } catch (Exception e) {
+            // the attributes are extracted from the deserialized objects
+            layout = new Layout(factoryId, classId, new HashMap<String, Slot>());
+        }
+
+        synchronized (this) {
+            Layout[] layouts = this.layouts;
+            if (findLayout(layouts, factoryId, classId) == null) {
+                Layout[] newLayouts = new Layout[layouts.length + 1];
+                System.arraycopy(layouts, 0, newLayouts, 0, layouts.length);
+                newLayouts[layouts.length] = layout;
+                this.layouts = newLayouts;
+            }
+        }
+    }
+
+    private Layout createLayout(ExtractableDataSerializable object, Extractors extractors) throws Exception {
+        byte[] bytes = serializationService.toData(object).toByteArray();
+        if (!isReadableInPlace(bytes[HEADER_OFFSET])) {
+            throw new IllegalArgumentException(object.getClass().getName() + " is versioned");
+        }
+
+        Map<String, Slot> slots = new HashMap<String, Slot>();
+        int offset = 0;
+        for (String attributeName : object.getExtractableAttributeNames()) {
+            Getter getter = extractors.getGetter(object, attributeName);
+            Class type = getter.getReturnType();
+            int size = sizeOf(type);
+            if (size == 0 || PAYLOAD_OFFSET + offset + size > bytes.length) {
+                throw new IllegalArgumentException(attributeName + " can't be read in place");
+            }
+            Object expected = getter.getValue(object);
+            Object actual = readValue(bytes, PAYLOAD_OFFSET + offset, type, bigEndian, null);
+            if (!actual.equals(expected)) {
+                throw new IllegalArgumentException(attributeName + " is not written at its declared position");
+            }
+            slots.put(attributeName, new Slot(offset, size, type));
+            offset += size;
+        }
+        return new Layout(object.getFactoryId(), object.getClassId(), slots);
+    }
+
+    /**
+     * Reads a primitive value of the given type from the given position. If
+     * the given consumer is not {@code null}, numeric values are passed to it
+     * instead of being returned.
+     */
+    static Object readValue(byte[] bytes, int position, Class type, boolean bigEndian, PrimitiveValueConsumer consumer) {
+        if (type == boolean.class) {
+            return bytes[position] != 0;
+        } else if (type == char.class) {
+            return Bits.readChar(bytes, position, bigEndian);
+        } else if (type == double.class || type == float.class) {
+            return readFloatingPoint(bytes, position, type, bigEndian, consumer);
+        } else {
+            return readIntegral(bytes, position, type, bigEndian, consumer);
+        }
+    }
+
+    private static Object readFloatingPoint(byte[] bytes, int position, Class type, boolean bigEndian,
+                                            PrimitiveValueConsumer consumer) {
+        boolean isDouble = type == double.class;
+        double value = isDouble
+                ? Double.longBitsToDouble(Bits.readLong(bytes, position, bigEndian))
+                : Float.intBitsToFloat(Bits.readInt(bytes, position, bigEndian));
+        if (consumer != null) {
+            consumer.acceptDouble(value);
+            return PrimitiveValueConsumer.CONSUMED;
+        }
+        return isDouble ? (Object) value : (Object) (float) value;
+    }
+
+    private static Object readIntegral(byte[] bytes, int position, Class type, boolean bigEndian,
+                                       PrimitiveValueConsumer consumer) {
+        long value;
+        if (type == long.class) {
+            value = Bits.readLong(bytes, position, bigEndian);
+        } else if (type == int.class) {
+            value = Bits.readInt(bytes, position, bigEndian);
+        } else if (type == short.class) {
+            value = Bits.readShort(bytes, position, bigEndian);
+        } else {
+            value = bytes[position];
+        }
+        if (consumer != null) {
+            consumer.acceptLong(value);
+            return PrimitiveValueConsumer.CONSUMED;
+        }
+
+        if (type == long.class) {
+            return value;
+        } else if (type == int.class) {
+            return (int) value;
+        } else if (type == short.class) {
+            return (short) value;
+        } else {
+            return (byte) value;
+        }
+    }
+
+    private static boolean isReadableInPlace(byte header) {
+        return isFlagSet(header, IDS_FLAG) && !isFlagSet(header, EE_FLAG);
+    }
+
+    private static Layout findLayout(Layout[] layouts, int factoryId, int classId) {
+        for (Layout layout : layouts) {
+            if (layout.factoryId == factoryId && layout.classId == classId) {
+                return layout;
+            }
+        }
+        return null;
+    }
+
+    private static int sizeOf(Class type) {
+        Integer size = SIZES.get(type);
+        return size == null ? 0 : size;
+    }
+
+    private static final class Layout {
+
+        final int factoryId;
+        final int classId;
+        // empty if the attributes of the class can't be read in place
+        final Map<String, Slot> slots;
+
+        Layout(int factoryId, int classId, Map<String, Slot> slots) {
+            this.factoryId = factoryId;
+            this.classId = classId;
+            this.slots = slots;
+        }
+
+    }
+
+    private static final class Slot {
+
+        // relative to the beginning of the data written by writeData
+        final int offset;
+        final int size;
+        final Class type;
+
+        Slot(int offset, int size, Class type) {
+            this.offset = offset;
+            this.size = size;
+            this.type = type;
+        }
+
+    }
+
+}
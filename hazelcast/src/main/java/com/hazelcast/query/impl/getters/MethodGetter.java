@@ -16,12 +16,19 @@
 
 package com.hazelcast.query.impl.getters;
 
+import com.hazelcast.internal.RequiresJdk8;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
 public final class MethodGetter extends AbstractMultiValueGetter {
 
     private final Method method;
+    // reads the primitive return value of the method without boxing it, null if the method isn't numeric
+    private final MethodHandle primitiveHandle;
 
     // for testing purposes only
     public MethodGetter(Getter parent, Method method, String modifier, Class elementType) {
@@ -31,6 +38,7 @@ public final class MethodGetter extends AbstractMultiValueGetter {
     public MethodGetter(Getter parent, Method method, String modifier, Class type, Class elementType) {
         super(parent, modifier, type, elementType);
         this.method = method;
+        this.primitiveHandle = createPrimitiveHandle(method);
     }
 
     @Override
@@ -42,11 +50,64 @@ public final class MethodGetter extends AbstractMultiValueGetter {
         }
     }
 
+    // the signature polymorphic invokeExact calls can't be verified by the API checks
+    @RequiresJdk8
+    @Override
+    @SuppressWarnings("checkstyle:illegalcatch")
+    protected boolean extractPrimitiveFrom(Object object, PrimitiveValueConsumer consumer) throws Exception {
+        if (primitiveHandle == null) {
+            return false;
+        }
+        if (!method.getDeclaringClass().isInstance(object)) {
+            throw new IllegalArgumentException(composeAttributeValueExtractionFailedMessage(method));
+        }
+
+        boolean integral = primitiveHandle.type().returnType() == long.class;
+        long longValue = 0;
+        double doubleValue = 0;
+        try {
+            if (integral) {
+                longValue = (long) primitiveHandle.invokeExact(object);
+            } else {
+                doubleValue = (double) primitiveHandle.invokeExact(object);
+            }
+        } catch (Throwable t) {
+            // mimic Method.invoke
+            throw new InvocationTargetException(t);
+        }
+
+        if (integral) {
+            consumer.acceptLong(longValue);
+        } else {
+            consumer.acceptDouble(doubleValue);
+        }
+        return true;
+    }
+
     @Override
     boolean isCacheable() {
         return true;
     }
 
+    private static MethodHandle createPrimitiveHandle(Method method) {
+        Class type = method.getReturnType();
+        Class primitiveType;
+        if (isIntegralPrimitive(type)) {
+            primitiveType = long.class;
+        } else if (isFloatingPointPrimitive(type)) {
+            primitiveType = double.class;
+        } else {
+            return null;
+        }
+
+        try {
+            return MethodHandles.lookup().unreflect(method).asType(MethodType.methodType(primitiveType, Object.class));
+        } catch (IllegalAccessException e) {
+            // fallback to the reflective extraction
+            return null;
+        }
+    }
+
     @Override
     public String toString() {
         return "MethodGetter [parent=" + parent + ", method=" + method.getName() + ", modifier = " + getModifier() + "]";
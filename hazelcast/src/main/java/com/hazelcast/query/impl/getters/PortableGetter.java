@@ -48,6 +48,48 @@ final class PortableGetter extends Getter {
         }
     }
 
+    @Override
+    Object getValue(Object target, String fieldPath, Object metadata, PrimitiveValueConsumer consumer) throws Exception {
+        if (fieldPath.indexOf('.') != -1 || fieldPath.indexOf('[') != -1) {
+            // nested and multi-value paths may resolve to nulls or multiple values
+            return getValue(target, fieldPath);
+        }
+
+        Data data = (Data) target;
+        PortableContext context = serializationService.getPortableContext();
+        ClassDefinition classDefinition = context.lookupClassDefinition(data);
+        FieldDefinition fieldDefinition = context.getFieldDefinition(classDefinition, fieldPath);
+        if (fieldDefinition == null) {
+            return null;
+        }
+
+        // read the numeric fields in place without boxing them
+        PortableReader reader = serializationService.createPortableReader(data);
+        switch (fieldDefinition.getType()) {
+            case LONG:
+                consumer.acceptLong(reader.readLong(fieldPath));
+                break;
+            case INT:
+                consumer.acceptLong(reader.readInt(fieldPath));
+                break;
+            case SHORT:
+                consumer.acceptLong(reader.readShort(fieldPath));
+                break;
+            case BYTE:
+                consumer.acceptLong(reader.readByte(fieldPath));
+                break;
+            case DOUBLE:
+                consumer.acceptDouble(reader.readDouble(fieldPath));
+                break;
+            case FLOAT:
+                consumer.acceptDouble(reader.readFloat(fieldPath));
+                break;
+            default:
+                return ((DefaultPortableReader) reader).read(fieldPath);
+        }
+        return PrimitiveValueConsumer.CONSUMED;
+    }
+
     @Override
     Object getValue(Object obj) throws Exception {
         throw new IllegalArgumentException("Path agnostic value extraction unsupported");
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl.getters;
+
+/**
+ * Consumer of the numeric attribute values extracted as primitives, used to
+ * avoid boxing the values on the hot paths like aggregations.
+ * <p>
+ * Integral values ({@code byte}, {@code short}, {@code int} and {@code long})
+ * are passed to {@link #acceptLong}, floating-point values ({@code float} and
+ * {@code double}) are passed to {@link #acceptDouble}.
+ */
+public interface PrimitiveValueConsumer {
+
+    /**
+     * Returned by the extraction methods accepting a consumer to indicate the
+     * extracted value was passed to the consumer instead of being returned.
+     */
+    Object CONSUMED = new Object() {
+        @Override
+        public String toString() {
+            return "CONSUMED";
+        }
+    };
+
+    /**
+     * Accepts the extracted integral value.
+     */
+    void acceptLong(long value);
+
+    /**
+     * Accepts the extracted floating-point value.
+     */
+    void acceptDouble(double value);
+
+}
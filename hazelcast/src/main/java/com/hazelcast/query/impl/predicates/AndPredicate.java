@@ -22,14 +22,15 @@ import com.hazelcast.nio.serialization.BinaryInterface;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.query.impl.AndResultSet;
+import com.hazelcast.query.impl.BitmapResultSet;
 import com.hazelcast.query.impl.Indexes;
 import com.hazelcast.query.impl.QueryContext;
 import com.hazelcast.query.impl.QueryableEntry;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -68,22 +69,20 @@ public final class AndPredicate
 
     @Override
     public Set<QueryableEntry> filter(QueryContext queryContext) {
-        Set<QueryableEntry> smallestResultSet = null;
-        List<Set<QueryableEntry>> otherResultSets = null;
+        List<Set<QueryableEntry>> resultSets = null;
         List<Predicate> unindexedPredicates = null;
+        BitmapResultSet bitmapResultSet = null;
 
         for (Predicate predicate : predicates) {
             if (isIndexedPredicate(predicate, queryContext)) {
                 Set<QueryableEntry> currentResultSet = ((IndexAwarePredicate) predicate).filter(queryContext);
-                if (smallestResultSet == null) {
-                    smallestResultSet = currentResultSet;
-                } else if (estimatedSizeOf(currentResultSet) < estimatedSizeOf(smallestResultSet)) {
-                    otherResultSets = initOrGetListOf(otherResultSets);
-                    otherResultSets.add(smallestResultSet);
-                    smallestResultSet = currentResultSet;
+                if (isCombinable(bitmapResultSet, currentResultSet)) {
+                    // intersect the bitmaps right away instead of probing
+                    BitmapResultSet current = (BitmapResultSet) currentResultSet;
+                    bitmapResultSet = bitmapResultSet == null ? current : bitmapResultSet.and(current);
                 } else {
-                    otherResultSets = initOrGetListOf(otherResultSets);
-                    otherResultSets.add(currentResultSet);
+                    resultSets = initOrGetListOf(resultSets);
+                    resultSets.add(currentResultSet);
                 }
             } else {
                 unindexedPredicates = initOrGetListOf(unindexedPredicates);
@@ -91,10 +90,39 @@ public final class AndPredicate
             }
         }
 
-        if (smallestResultSet == null) {
+        if (bitmapResultSet != null) {
+            if (resultSets == null && unindexedPredicates == null) {
+                return bitmapResultSet;
+            }
+            resultSets = initOrGetListOf(resultSets);
+            resultSets.add(bitmapResultSet);
+        }
+
+        if (resultSets == null) {
             return null;
         }
-        return new AndResultSet(smallestResultSet, otherResultSets, unindexedPredicates);
+        Set<QueryableEntry> smallestResultSet = removeSmallest(resultSets);
+        return new AndResultSet(smallestResultSet, resultSets.isEmpty() ? null : resultSets, unindexedPredicates);
+    }
+
+    private static Set<QueryableEntry> removeSmallest(List<Set<QueryableEntry>> resultSets) {
+        int smallestIndex = 0;
+        int smallestSize = estimatedSizeOf(resultSets.get(0));
+        for (int i = 1; i < resultSets.size(); ++i) {
+            int size = estimatedSizeOf(resultSets.get(i));
+            if (size < smallestSize) {
+                smallestIndex = i;
+                smallestSize = size;
+            }
+        }
+        return resultSets.remove(smallestIndex);
+    }
+
+    static boolean isCombinable(BitmapResultSet accumulated, Set<QueryableEntry> resultSet) {
+        if (!(resultSet instanceof BitmapResultSet)) {
+            return false;
+        }
+        return accumulated == null || accumulated.isCombinableWith((BitmapResultSet) resultSet);
     }
 
     private static boolean isIndexedPredicate(Predicate predicate, QueryContext queryContext) {
@@ -103,7 +131,7 @@ public final class AndPredicate
 
     private static <T> List<T> initOrGetListOf(List<T> list) {
         if (list == null) {
-            list = new LinkedList<T>();
+            list = new ArrayList<T>();
         }
         return list;
     }
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.BitmapResultSet;
+import com.hazelcast.query.impl.Comparison;
+import com.hazelcast.query.impl.Index;
+import com.hazelcast.query.impl.QueryContext;
+import com.hazelcast.query.impl.QueryableEntry;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static com.hazelcast.query.impl.AbstractIndex.NULL;
+
+/**
+ * Evaluates {@link EqualPredicate}, {@link InPredicate} and {@link
+ * NotEqualPredicate} on a bitmap index, so the produced results may be
+ * combined by the enclosing {@link AndPredicate} or {@link OrPredicate} using
+ * word-level bitwise operations.
+ *
+ * @see BitmapIndexVisitor
+ */
+@SuppressFBWarnings("SE_BAD_FIELD")
+public class BitmapIndexPredicate implements IndexAwarePredicate {
+
+    final String indexName;
+    final Predicate predicate;
+
+    /**
+     * Constructs a new bitmap index predicate for the given bitmap index and
+     * the original predicate.
+     *
+     * @param indexName the name of the bitmap index to construct the
+     *                  predicate on.
+     * @param predicate the original predicate, either {@link EqualPredicate},
+     *                  {@link InPredicate} or {@link NotEqualPredicate}.
+     */
+    public BitmapIndexPredicate(String indexName, Predicate predicate) {
+        assert predicate instanceof EqualPredicate || predicate instanceof InPredicate
+                || predicate instanceof NotEqualPredicate;
+        // We can't store a direct index reference here, the actual index must
+        // always be obtained from the QueryContext while executing the query to
+        // make index stats work properly.
+        this.indexName = indexName;
+        this.predicate = predicate;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean apply(Map.Entry entry) {
+        // Predicates may still be asked to downgrade to no-index execution even
+        // if there are suitable indexes available. For instance, that may
+        // happen during migrations.
+        return predicate.apply(entry);
+    }
+
+    @Override
+    public Set<QueryableEntry> filter(QueryContext queryContext) {
+        Index index = queryContext.matchIndex(indexName, QueryContext.IndexMatchHint.EXACT_NAME);
+        if (predicate instanceof EqualPredicate) {
+            return index.getRecords(((EqualPredicate) predicate).value);
+        }
+        if (predicate instanceof InPredicate) {
+            return index.getRecords(((InPredicate) predicate).values);
+        }
+
+        Comparable value = ((NotEqualPredicate) predicate).value;
+        Set<QueryableEntry> notEqual = index.getRecords(Comparison.NOT_EQUAL, value);
+        if (value == null || value == NULL) {
+            return notEqual;
+        }
+        // the entries having null values are not equal to the non-null value
+        Set<QueryableEntry> nulls = index.getRecords(NULL);
+        if (!(notEqual instanceof BitmapResultSet && nulls instanceof BitmapResultSet)) {
+            // nothing was indexed yet
+            return notEqual;
+        }
+        // exclude multi-value entries having the value along with the null
+        Set<QueryableEntry> equal = index.getRecords(value);
+        if (!isCombinable(notEqual, nulls) || !isCombinable(notEqual, equal)) {
+            // an ordinal was recycled in between the lookups
+            Set<QueryableEntry> result = new HashSet<QueryableEntry>(notEqual);
+            result.addAll(nulls);
+            result.removeAll(equal);
+            return result;
+        }
+        BitmapResultSet result = ((BitmapResultSet) notEqual).or((BitmapResultSet) nulls);
+        return equal instanceof BitmapResultSet ? result.andNot((BitmapResultSet) equal) : result;
+    }
+
+    private static boolean isCombinable(Set<QueryableEntry> left, Set<QueryableEntry> right) {
+        return !(right instanceof BitmapResultSet) || ((BitmapResultSet) left).isCombinableWith((BitmapResultSet) right);
+    }
+
+    @Override
+    public boolean isIndexed(QueryContext queryContext) {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return predicate.toString();
+    }
+
+    private void writeObject(ObjectOutputStream stream) throws IOException {
+        throw new UnsupportedOperationException("can't be serialized");
+    }
+
+}
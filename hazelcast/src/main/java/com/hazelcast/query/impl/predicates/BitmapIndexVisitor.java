@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.Indexes;
+
+/**
+ * Optimizes equality, {@code IN} and inequality predicates on the attributes
+ * having bitmap indexes into {@link BitmapIndexPredicate}s.
+ * <p>
+ * Given "a = 0 and b != 1" predicates and "BITMAP(a)", "BITMAP(b)" indexes,
+ * the predicates are evaluated on the bitmaps and their results are
+ * intersected using word-level bitwise operations instead of probing the
+ * entries of one result set against the other. Only the predicates having at
+ * least two bitmap-indexed operands are optimized.
+ */
+public class BitmapIndexVisitor extends AbstractVisitor {
+
+    @Override
+    public Predicate visit(AndPredicate andPredicate, Indexes indexes) {
+        Predicate[] optimized = optimize(andPredicate.predicates, indexes);
+        return optimized == null ? andPredicate : new AndPredicate(optimized);
+    }
+
+    @Override
+    public Predicate visit(OrPredicate orPredicate, Indexes indexes) {
+        Predicate[] optimized = optimize(orPredicate.predicates, indexes);
+        return optimized == null ? orPredicate : new OrPredicate(optimized);
+    }
+
+    private static Predicate[] optimize(Predicate[] predicates, Indexes indexes) {
+        if (predicates.length < 2) {
+            // nothing to combine
+            return null;
+        }
+
+        Predicate[] optimized = null;
+        int count = 0;
+        for (int i = 0; i < predicates.length; ++i) {
+            Predicate predicate = predicates[i];
+            String indexName = matchBitmapIndex(predicate, indexes);
+            if (indexName == null) {
+                continue;
+            }
+            if (optimized == null) {
+                optimized = predicates.clone();
+            }
+            optimized[i] = new BitmapIndexPredicate(indexName, predicate);
+            ++count;
+        }
+        return count < 2 ? null : optimized;
+    }
+
+    private static String matchBitmapIndex(Predicate predicate, Indexes indexes) {
+        if (!(predicate instanceof EqualPredicate || predicate instanceof InPredicate
+                || predicate instanceof NotEqualPredicate)) {
+            return null;
+        }
+
+        String attribute = PredicateUtils.canonicalizeAttribute(((AbstractPredicate) predicate).attributeName);
+        String indexName = PredicateUtils.constructCanonicalBitmapIndexName(attribute);
+        return indexes.getIndex(indexName) == null ? null : indexName;
+    }
+
+}
@@ -0,0 +1,443 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.QueryableEntry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.hazelcast.query.impl.Numbers.isDoubleRepresentable;
+import static com.hazelcast.query.impl.Numbers.isLongRepresentable;
+import static com.hazelcast.query.impl.predicates.PredicateUtils.isNull;
+
+/**
+ * Evaluates a predicate over chunks of entries in a columnar fashion.
+ * <p>
+ * The attributes referenced by the {@link EqualPredicate}, {@link
+ * GreaterLessPredicate} and {@link BetweenPredicate} operands of the
+ * predicate are extracted for the whole chunk at once. If all the non-null
+ * values of an attribute in the chunk are of the same integral or floating
+ * point type, the values are unboxed into a primitive array and the operands
+ * are evaluated over the array in tight loops. Otherwise, the operands fall
+ * back to the regular per-value evaluation over the extracted values. The
+ * rest of the predicate is applied only to the entries matched by the
+ * columnar operands.
+ * <p>
+ * The produced results are exactly the same as the ones produced by applying
+ * the predicate to every entry. Instances are not thread-safe, a new
+ * instance should be compiled for every scan.
+ */
+public final class ColumnarFilter {
+
+    /**
+     * The maximum number of entries in a chunk.
+     */
+    public static final int CHUNK_SIZE = 1024;
+
+    private static final int WORD_SHIFT = 6;
+    private static final int WORD_MASK = 63;
+
+    private final Column[] columns;
+    private final Operand[] operands;
+    private final Predicate residual;
+    private final long[] matches = new long[CHUNK_SIZE >>> WORD_SHIFT];
+
+    private ColumnarFilter(List<AbstractPredicate> columnarPredicates, List<Predicate> residualPredicates) {
+        Map<String, Column> columnsByAttribute = new LinkedHashMap<String, Column>();
+        this.operands = new Operand[columnarPredicates.size()];
+        for (int i = 0; i < operands.length; ++i) {
+            AbstractPredicate predicate = columnarPredicates.get(i);
+            Column column = columnsByAttribute.get(predicate.attributeName);
+            if (column == null) {
+                column = new Column(predicate.attributeName);
+                columnsByAttribute.put(predicate.attributeName, column);
+            }
+            operands[i] = createOperand(predicate, column);
+        }
+        this.columns = columnsByAttribute.values().toArray(new Column[0]);
+
+        if (residualPredicates.isEmpty()) {
+            this.residual = null;
+        } else if (residualPredicates.size() == 1) {
+            this.residual = residualPredicates.get(0);
+        } else {
+            this.residual = new AndPredicate(residualPredicates.toArray(new Predicate[0]));
+        }
+    }
+
+    /**
+     * Compiles the given predicate into a columnar filter.
+     *
+     * @param predicate the predicate to compile.
+     * @return the compiled filter or {@code null} if the predicate has no
+     * operands which can be evaluated in a columnar fashion.
+     */
+    public static ColumnarFilter compile(Predicate predicate) {
+        if (predicate instanceof SqlPredicate) {
+            predicate = ((SqlPredicate) predicate).getPredicate();
+        } else if (predicate instanceof PagingPredicateImpl) {
+            predicate = ((PagingPredicateImpl) predicate).getPredicate();
+        }
+        if (predicate == null) {
+            return null;
+        }
+
+        Predicate[] predicates = predicate instanceof AndPredicate ? ((AndPredicate) predicate).predicates
+                : new Predicate[]{predicate};
+        List<AbstractPredicate> columnarPredicates = new ArrayList<AbstractPredicate>(predicates.length);
+        List<Predicate> residualPredicates = new ArrayList<Predicate>(predicates.length);
+        for (Predicate operand : predicates) {
+            if (isColumnar(operand)) {
+                columnarPredicates.add((AbstractPredicate) operand);
+            } else {
+                residualPredicates.add(operand);
+            }
+        }
+        return columnarPredicates.isEmpty() ? null : new ColumnarFilter(columnarPredicates, residualPredicates);
+    }
+
+    /**
+     * Filters the given chunk of entries.
+     *
+     * @param entries the entries to filter.
+     * @param size    the number of entries in the chunk, up to {@link
+     *                #CHUNK_SIZE}.
+     * @return the bitmap of the matched entries: the entry at index {@code i}
+     * is matched if the bit {@code i & 63} of the word {@code i >>> 6} is set.
+     * The bitmap is valid until the next invocation.
+     */
+    public long[] filter(QueryableEntry[] entries, int size) {
+        assert size <= CHUNK_SIZE;
+        int words = (size + WORD_MASK) >>> WORD_SHIFT;
+        Arrays.fill(matches, 0, words, -1L);
+        if ((size & WORD_MASK) != 0) {
+            matches[words - 1] = (1L << size) - 1;
+        }
+
+        for (Column column : columns) {
+            column.load(entries, size);
+        }
+        for (Operand operand : operands) {
+            operand.evaluate(matches, size);
+        }
+        if (residual != null) {
+            for (int i = 0; i < size; ++i) {
+                if (isMatched(matches, i) && !residual.apply(entries[i])) {
+                    unmatch(matches, i);
+                }
+            }
+        }
+        for (Column column : columns) {
+            column.release(size);
+        }
+        return matches;
+    }
+
+    /**
+     * @return {@code true} if the entry at the given index is matched
+     * according to the given bitmap returned by {@link #filter}.
+     */
+    public static boolean isMatched(long[] matches, int index) {
+        return (matches[index >>> WORD_SHIFT] & 1L << index) != 0;
+    }
+
+    private static void unmatch(long[] matches, int index) {
+        matches[index >>> WORD_SHIFT] &= ~(1L << index);
+    }
+
+    private static boolean isColumnar(Predicate predicate) {
+        // exact classes only, subclasses may alter the semantics
+        Class clazz = predicate.getClass();
+        return clazz == EqualPredicate.class || clazz == GreaterLessPredicate.class || clazz == BetweenPredicate.class;
+    }
+
+    private static Operand createOperand(AbstractPredicate predicate, Column column) {
+        if (predicate instanceof EqualPredicate) {
+            return new EqualOperand((EqualPredicate) predicate, column);
+        } else if (predicate instanceof GreaterLessPredicate) {
+            return new GreaterLessOperand((GreaterLessPredicate) predicate, column);
+        } else {
+            return new BetweenOperand((BetweenPredicate) predicate, column);
+        }
+    }
+
+    private enum Kind {
+        OBJECT, LONG, DOUBLE
+    }
+
+    /**
+     * Holds the values of an attribute extracted from a chunk of entries.
+     */
+    private static final class Column {
+
+        final String attribute;
+        final Object[] values = new Object[CHUNK_SIZE];
+        final boolean[] nulls = new boolean[CHUNK_SIZE];
+        long[] longs;
+        double[] doubles;
+        Kind kind;
+        Comparable sample;
+
+        Column(String attribute) {
+            this.attribute = attribute;
+        }
+
+        void load(QueryableEntry[] entries, int size) {
+            Class type = null;
+            boolean uniform = true;
+            for (int i = 0; i < size; ++i) {
+                Object value = entries[i].getAttributeValue(attribute);
+                values[i] = value;
+                nulls[i] = value == null;
+                if (value == null) {
+                    continue;
+                }
+                if (type == null) {
+                    type = value.getClass();
+                } else if (value.getClass() != type) {
+                    uniform = false;
+                }
+            }
+
+            kind = Kind.OBJECT;
+            sample = null;
+            if (!uniform || type == null) {
+                return;
+            }
+            if (isLongRepresentable(type)) {
+                unboxLongs(size);
+            } else if (isDoubleRepresentable(type)) {
+                unboxDoubles(size);
+            }
+        }
+
+        void release(int size) {
+            Arrays.fill(values, 0, size, null);
+            sample = null;
+        }
+
+        private void unboxLongs(int size) {
+            if (longs == null) {
+                longs = new long[CHUNK_SIZE];
+            }
+            for (int i = 0; i < size; ++i) {
+                if (!nulls[i]) {
+                    Number value = (Number) values[i];
+                    longs[i] = value.longValue();
+                    sample = (Comparable) value;
+                }
+            }
+            kind = Kind.LONG;
+        }
+
+        private void unboxDoubles(int size) {
+            if (doubles == null) {
+                doubles = new double[CHUNK_SIZE];
+            }
+            for (int i = 0; i < size; ++i) {
+                if (!nulls[i]) {
+                    Number value = (Number) values[i];
+                    doubles[i] = value.doubleValue();
+                    sample = (Comparable) value;
+                }
+            }
+            kind = Kind.DOUBLE;
+        }
+
+    }
+
+    /**
+     * Evaluates a single columnar predicate over a column.
+     */
+    private abstract static class Operand {
+
+        final AbstractPredicate predicate;
+        final Column column;
+
+        Operand(AbstractPredicate predicate, Column column) {
+            this.predicate = predicate;
+            this.column = column;
+        }
+
+        final void evaluate(long[] matches, int size) {
+            if (column.kind != Kind.OBJECT && evaluatePrimitive(matches, size)) {
+                return;
+            }
+            Object[] values = column.values;
+            for (int i = 0; i < size; ++i) {
+                if (isMatched(matches, i) && !predicate.applyForAttributeValue(values[i])) {
+                    unmatch(matches, i);
+                }
+            }
+        }
+
+        /**
+         * Evaluates the predicate over the primitive values of the column.
+         *
+         * @return {@code true} if the predicate was evaluated, {@code false}
+         * if the predicate operands can't be represented as the column
+         * primitives and the predicate must be evaluated per value.
+         */
+        abstract boolean evaluatePrimitive(long[] matches, int size);
+
+        /**
+         * Converts the given predicate operand exactly as the predicate does
+         * for every non-null value of the column.
+         */
+        final Comparable convert(Comparable operand) {
+            return predicate.convert(column.sample, operand);
+        }
+
+        final boolean isRepresentable(Comparable operand) {
+            if (operand == null) {
+                return false;
+            }
+            Class type = operand.getClass();
+            return column.kind == Kind.LONG ? isLongRepresentable(type) : isDoubleRepresentable(type);
+        }
+
+    }
+
+    private static final class EqualOperand extends Operand {
+
+        EqualOperand(EqualPredicate predicate, Column column) {
+            super(predicate, column);
+        }
+
+        @Override
+        boolean evaluatePrimitive(long[] matches, int size) {
+            Comparable value = ((EqualPredicate) predicate).value;
+            if (isNull(value)) {
+                return false;
+            }
+            Comparable converted = convert(value);
+            if (!isRepresentable(converted)) {
+                return false;
+            }
+
+            boolean[] nulls = column.nulls;
+            if (column.kind == Kind.LONG) {
+                long[] longs = column.longs;
+                long operand = ((Number) converted).longValue();
+                for (int i = 0; i < size; ++i) {
+                    if (nulls[i] || longs[i] != operand) {
+                        unmatch(matches, i);
+                    }
+                }
+            } else {
+                double[] doubles = column.doubles;
+                double operand = ((Number) converted).doubleValue();
+                for (int i = 0; i < size; ++i) {
+                    if (nulls[i] || Double.compare(doubles[i], operand) != 0) {
+                        unmatch(matches, i);
+                    }
+                }
+            }
+            return true;
+        }
+
+    }
+
+    private static final class GreaterLessOperand extends Operand {
+
+        GreaterLessOperand(GreaterLessPredicate predicate, Column column) {
+            super(predicate, column);
+        }
+
+        @Override
+        boolean evaluatePrimitive(long[] matches, int size) {
+            GreaterLessPredicate greaterLess = (GreaterLessPredicate) predicate;
+            Comparable converted = convert(greaterLess.value);
+            if (!isRepresentable(converted)) {
+                return false;
+            }
+
+            boolean equal = greaterLess.equal;
+            boolean less = greaterLess.less;
+            boolean[] nulls = column.nulls;
+            if (column.kind == Kind.LONG) {
+                long[] longs = column.longs;
+                long operand = ((Number) converted).longValue();
+                for (int i = 0; i < size; ++i) {
+                    if (nulls[i] || !matches(Long.compare(longs[i], operand), equal, less)) {
+                        unmatch(matches, i);
+                    }
+                }
+            } else {
+                double[] doubles = column.doubles;
+                double operand = ((Number) converted).doubleValue();
+                for (int i = 0; i < size; ++i) {
+                    if (nulls[i] || !matches(Double.compare(doubles[i], operand), equal, less)) {
+                        unmatch(matches, i);
+                    }
+                }
+            }
+            return true;
+        }
+
+        private static boolean matches(int result, boolean equal, boolean less) {
+            return equal && result == 0 || (less ? result < 0 : result > 0);
+        }
+
+    }
+
+    private static final class BetweenOperand extends Operand {
+
+        BetweenOperand(BetweenPredicate predicate, Column column) {
+            super(predicate, column);
+        }
+
+        @Override
+        boolean evaluatePrimitive(long[] matches, int size) {
+            BetweenPredicate between = (BetweenPredicate) predicate;
+            Comparable from = convert(between.from);
+            Comparable to = convert(between.to);
+            if (!isRepresentable(from) || !isRepresentable(to)) {
+                return false;
+            }
+
+            boolean[] nulls = column.nulls;
+            if (column.kind == Kind.LONG) {
+                long[] longs = column.longs;
+                long fromOperand = ((Number) from).longValue();
+                long toOperand = ((Number) to).longValue();
+                for (int i = 0; i < size; ++i) {
+                    if (nulls[i] || longs[i] < fromOperand || longs[i] > toOperand) {
+                        unmatch(matches, i);
+                    }
+                }
+            } else {
+                double[] doubles = column.doubles;
+                double fromOperand = ((Number) from).doubleValue();
+                double toOperand = ((Number) to).doubleValue();
+                for (int i = 0; i < size; ++i) {
+                    if (nulls[i] || Double.compare(doubles[i], fromOperand) < 0 || Double.compare(doubles[i], toOperand) > 0) {
+                        unmatch(matches, i);
+                    }
+                }
+            }
+            return true;
+        }
+
+    }
+
+}
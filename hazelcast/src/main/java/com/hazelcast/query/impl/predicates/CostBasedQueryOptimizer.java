@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.Indexes;
+
+import static com.hazelcast.query.impl.predicates.SelectivityVisitor.SCAN_SELECTIVITY_THRESHOLD;
+import static com.hazelcast.query.impl.predicates.SelectivityVisitor.estimateSelectivity;
+
+/**
+ * Cost based optimizer. It rewrites the query using the rules of the {@link
+ * RuleBasedQueryOptimizer} and then decides on the usage of the indexes
+ * according to the selectivity of the predicates estimated using the
+ * histograms of the indexes.
+ *
+ * @see SelectivityVisitor
+ */
+public final class CostBasedQueryOptimizer implements QueryOptimizer {
+
+    private final QueryOptimizer ruleBasedOptimizer = new RuleBasedQueryOptimizer();
+    private final Visitor selectivityVisitor = new SelectivityVisitor();
+
+    @SuppressWarnings("unchecked")
+    public <K, V> Predicate<K, V> optimize(Predicate<K, V> predicate, Indexes indexes) {
+        Predicate optimized = ruleBasedOptimizer.optimize(predicate, indexes);
+        if (optimized instanceof VisitablePredicate) {
+            optimized = ((VisitablePredicate) optimized).accept(selectivityVisitor, indexes);
+        }
+        if (estimateSelectivity(optimized, indexes) > SCAN_SELECTIVITY_THRESHOLD) {
+            // a single weakly selective predicate, the scan is cheaper
+            optimized = new SkipIndexPredicate(optimized);
+        }
+        return optimized;
+    }
+
+}
@@ -21,6 +21,7 @@ import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.BinaryInterface;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.BitmapResultSet;
 import com.hazelcast.query.impl.Indexes;
 import com.hazelcast.query.impl.OrResultSet;
 import com.hazelcast.query.impl.QueryContext;
@@ -57,12 +58,16 @@ public final class OrPredicate
     @Override
     public Set<QueryableEntry> filter(QueryContext queryContext) {
         List<Set<QueryableEntry>> indexedResults = new LinkedList<Set<QueryableEntry>>();
+        BitmapResultSet bitmapResult = null;
         for (Predicate predicate : predicates) {
             if (predicate instanceof IndexAwarePredicate) {
                 IndexAwarePredicate iap = (IndexAwarePredicate) predicate;
                 if (iap.isIndexed(queryContext)) {
                     Set<QueryableEntry> s = iap.filter(queryContext);
-                    if (s != null) {
+                    if (AndPredicate.isCombinable(bitmapResult, s)) {
+                        // unite the bitmaps right away instead of deduplicating
+                        bitmapResult = bitmapResult == null ? (BitmapResultSet) s : bitmapResult.or((BitmapResultSet) s);
+                    } else if (s != null) {
                         indexedResults.add(s);
                     }
                 } else {
@@ -70,6 +75,12 @@ public final class OrPredicate
                 }
             }
         }
+        if (bitmapResult != null) {
+            if (indexedResults.isEmpty()) {
+                return bitmapResult;
+            }
+            indexedResults.add(bitmapResult);
+        }
         return indexedResults.isEmpty() ? null : new OrResultSet(indexedResults);
     }
 
@@ -22,21 +22,27 @@ import com.hazelcast.nio.serialization.BinaryInterface;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.query.PagingPredicate;
 import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.Index;
+import com.hazelcast.query.impl.InternalIndex;
 import com.hazelcast.query.impl.QueryContext;
 import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.util.IterationType;
 import com.hazelcast.util.SortingUtil;
+import com.hazelcast.util.TopNSelector;
 
 import java.io.IOException;
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import static com.hazelcast.internal.serialization.impl.FactoryIdHelper.PREDICATE_DS_FACTORY_ID;
+import static com.hazelcast.query.QueryConstants.KEY_ATTRIBUTE_NAME;
+import static com.hazelcast.query.QueryConstants.THIS_ATTRIBUTE_NAME;
 
 /**
  * Implementaiton of {@link PagingPredicate}.
@@ -146,6 +152,10 @@ public class PagingPredicateImpl<K, V> implements PagingPredicate<K, V>, IndexAw
      */
     @Override
     public Set<QueryableEntry<K, V>> filter(QueryContext queryContext) {
+        InternalIndex sortedIndex = matchSortedIndex(queryContext);
+        if (sortedIndex != null) {
+            return filterSorted(sortedIndex);
+        }
         if (!(predicate instanceof IndexAwarePredicate)) {
             return null;
         }
@@ -167,6 +177,66 @@ public class PagingPredicateImpl<K, V> implements PagingPredicate<K, V>, IndexAw
         return new LinkedHashSet<QueryableEntry<K, V>>(sortedSubList);
     }
 
+    /**
+     * Produces the entries of the pages following the nearest anchor up to and
+     * including the current page by walking the given sorted index starting
+     * from the anchor, so neither the entries preceding the anchor nor the
+     * ones following the current page are ever visited.
+     */
+    private Set<QueryableEntry<K, V>> filterSorted(InternalIndex sortedIndex) {
+        Map.Entry<Integer, Map.Entry> nearestAnchorEntry = getNearestAnchorEntry();
+        Map.Entry anchor = nearestAnchorEntry.getValue();
+        Comparable from = anchor == null ? null : (Comparable) sortValueOf(anchor);
+        int limit = SortingUtil.getLimit(this, nearestAnchorEntry);
+        Comparator<QueryableEntry> comparator = SortingUtil.newComparator(this);
+
+        Set<QueryableEntry<K, V>> result = new LinkedHashSet<QueryableEntry<K, V>>();
+        Iterator<Set<QueryableEntry>> groups = sortedIndex.getSortedRecords(from);
+        List<QueryableEntry> group = new ArrayList<QueryableEntry>();
+        while (result.size() < limit && groups.hasNext()) {
+            // the entries sharing the same value are ordered by their keys' hash codes
+            group.clear();
+            for (QueryableEntry entry : groups.next()) {
+                if (apply(entry) && SortingUtil.compareAnchor(this, entry, nearestAnchorEntry)) {
+                    group.add(entry);
+                }
+            }
+            for (QueryableEntry entry : TopNSelector.selectSorted(group, comparator, limit - result.size())) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Matches the index the entries may be walked in the order of this
+     * predicate by. Only the natural ordering of the keys or values may be
+     * served by an index, since the custom comparators are opaque.
+     *
+     * @return the matched index or {@code null} if the entries have to be
+     * sorted.
+     */
+    private InternalIndex matchSortedIndex(QueryContext queryContext) {
+        if (comparator != null || iterationType == null || predicate instanceof IndexAwarePredicate
+                && ((IndexAwarePredicate) predicate).isIndexed(queryContext)) {
+            // the index of the inner predicate is expected to be more selective
+            return null;
+        }
+
+        String attribute = iterationType == IterationType.VALUE ? THIS_ATTRIBUTE_NAME.value() : KEY_ATTRIBUTE_NAME.value();
+        Index index = queryContext.matchIndex(attribute, QueryContext.IndexMatchHint.PREFER_ORDERED);
+        if (!(index instanceof InternalIndex) || !index.isOrdered()) {
+            return null;
+        }
+        InternalIndex internalIndex = (InternalIndex) index;
+        // probe the support of the ordered traversal
+        return internalIndex.getSortedRecords(null) == null ? null : internalIndex;
+    }
+
+    private Object sortValueOf(Map.Entry entry) {
+        return iterationType == IterationType.VALUE ? entry.getValue() : entry.getKey();
+    }
+
 
     /**
      * Used if inner predicate is instanceof {@link IndexAwarePredicate} for checking if indexed.
@@ -175,10 +245,10 @@ public class PagingPredicateImpl<K, V> implements PagingPredicate<K, V>, IndexAw
      * @return
      */
     public boolean isIndexed(QueryContext queryContext) {
-        if (predicate instanceof IndexAwarePredicate) {
-            return ((IndexAwarePredicate) predicate).isIndexed(queryContext);
+        if (predicate instanceof IndexAwarePredicate && ((IndexAwarePredicate) predicate).isIndexed(queryContext)) {
+            return true;
         }
-        return false;
+        return matchSortedIndex(queryContext) != null;
     }
 
     /**
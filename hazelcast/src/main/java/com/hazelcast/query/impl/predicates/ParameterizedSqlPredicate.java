@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.BinaryInterface;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * SQL predicate having the values bound to the {@code ?} placeholders of its
+ * expression.
+ * <p>
+ * Only the expression and the parameters are sent over the wire, the parsed
+ * expression is cached, so the members receiving the predicates of the same
+ * shape don't parse the expression again.
+ *
+ * @see PreparedSqlPredicate
+ */
+@BinaryInterface
+public class ParameterizedSqlPredicate extends SqlPredicate {
+
+    private static final long serialVersionUID = 1;
+
+    private Object[] parameters;
+
+    public ParameterizedSqlPredicate(String sql, Object... parameters) {
+        super(sql, parameters);
+        this.parameters = parameters.clone();
+    }
+
+    public ParameterizedSqlPredicate() {
+    }
+
+    /**
+     * @return the values bound to the placeholders.
+     */
+    public Object[] getParameters() {
+        return parameters.clone();
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeUTF(sql);
+        out.writeInt(parameters.length);
+        for (Object parameter : parameters) {
+            out.writeObject(parameter);
+        }
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        sql = in.readUTF();
+        int parameterCount = in.readInt();
+        parameters = new Object[parameterCount];
+        for (int i = 0; i < parameterCount; ++i) {
+            parameters[i] = in.readObject();
+        }
+        predicate = createPredicate(sql, parameters);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return super.equals(o) && Arrays.equals(parameters, ((ParameterizedSqlPredicate) o).parameters);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + Arrays.hashCode(parameters);
+    }
+
+    @Override
+    public int getClassId() {
+        return PredicateDataSerializerHook.PARAMETERIZED_SQL_PREDICATE;
+    }
+
+}
@@ -55,8 +55,9 @@ public class PredicateDataSerializerHook implements DataSerializerHook {
     public static final int COMPOSITE_VALUE = 18;
     public static final int NEGATIVE_INFINITY = 19;
     public static final int POSITIVE_INFINITY = 20;
+    public static final int PARAMETERIZED_SQL_PREDICATE = 21;
 
-    public static final int LEN = POSITIVE_INFINITY + 1;
+    public static final int LEN = PARAMETERIZED_SQL_PREDICATE + 1;
 
     @Override
     public int getFactoryId() {
@@ -176,6 +177,13 @@ public class PredicateDataSerializerHook implements DataSerializerHook {
             }
         };
 
+        constructors[PARAMETERIZED_SQL_PREDICATE] = new ConstructorFunction<Integer, IdentifiedDataSerializable>() {
+            @Override
+            public IdentifiedDataSerializable createNew(Integer arg) {
+                return new ParameterizedSqlPredicate();
+            }
+        };
+
         return new ArrayDataSerializableFactory(constructors);
     }
 }
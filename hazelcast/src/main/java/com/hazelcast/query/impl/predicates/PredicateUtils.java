@@ -24,6 +24,7 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import static com.hazelcast.query.impl.AbstractIndex.NULL;
@@ -38,6 +39,11 @@ public final class PredicateUtils {
 
     private static final Pattern COMMA_PATTERN = Pattern.compile("\\s*,\\s*");
 
+    private static final Pattern BITMAP_PATTERN = Pattern.compile("^\\s*BITMAP\\s*\\(\\s*(.*?)\\s*\\)\\s*$",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final String BITMAP_PREFIX = "BITMAP(";
+
     private PredicateUtils() {
     }
 
@@ -159,4 +165,48 @@ public final class PredicateUtils {
         return builder.toString();
     }
 
+    /**
+     * Parses the given index name into a bitmap index attribute.
+     * <p>
+     * Bitmap indexes are declared using the {@code BITMAP(attribute)} syntax,
+     * the {@code BITMAP} keyword is case-insensitive.
+     *
+     * @param name the index name to parse.
+     * @return the parsed canonical attribute or {@code null} if the given index
+     * name doesn't describe a bitmap index.
+     * @throws IllegalArgumentException if the given index name describes a
+     *                                  bitmap index on an empty or composite
+     *                                  attribute.
+     * @see #constructCanonicalBitmapIndexName
+     */
+    public static String parseOutBitmapIndexAttribute(String name) {
+        Matcher matcher = BITMAP_PATTERN.matcher(name);
+        if (!matcher.matches()) {
+            return null;
+        }
+
+        String attribute = canonicalizeAttribute(matcher.group(1));
+        if (attribute.isEmpty()) {
+            throw new IllegalArgumentException("Empty bitmap index attribute: " + name);
+        }
+        if (attribute.indexOf(',') != -1) {
+            throw new IllegalArgumentException("Composite bitmap indexes are not supported: " + name);
+        }
+        return attribute;
+    }
+
+    /**
+     * Constructs a canonical bitmap index name for the given attribute.
+     * <p>
+     * It's a caller's responsibility to canonicalize the attribute as
+     * specified by {@link #canonicalizeAttribute}.
+     *
+     * @param attribute the attribute to construct the canonical index name
+     *                  for.
+     * @return the constructed canonical index name.
+     */
+    public static String constructCanonicalBitmapIndexName(String attribute) {
+        return BITMAP_PREFIX + attribute + ')';
+    }
+
 }
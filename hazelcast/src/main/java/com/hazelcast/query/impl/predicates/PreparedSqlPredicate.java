@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.PreparedPredicate;
+
+/**
+ * Prepared SQL predicate, the expression is parsed once and the bound
+ * predicates are created without parsing it again.
+ *
+ * @param <K> the type of the entry keys
+ * @param <V> the type of the entry values
+ */
+public final class PreparedSqlPredicate<K, V> implements PreparedPredicate<K, V> {
+
+    private final String sql;
+    private final int parameterCount;
+
+    public PreparedSqlPredicate(String sql) {
+        this.sql = sql;
+        this.parameterCount = SqlPredicate.getParameterCount(sql);
+    }
+
+    @Override
+    public String getSql() {
+        return sql;
+    }
+
+    @Override
+    public int getParameterCount() {
+        return parameterCount;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Predicate<K, V> bind(Object... parameters) {
+        return new ParameterizedSqlPredicate(sql, parameters);
+    }
+
+    @Override
+    public String toString() {
+        return "PreparedPredicate{" + sql + '}';
+    }
+
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.core.TypeConverter;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.IndexHistogram;
+import com.hazelcast.query.impl.Indexes;
+import com.hazelcast.query.impl.InternalIndex;
+import com.hazelcast.query.impl.QueryContext.IndexMatchHint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Optimizes the usage of the indexes by {@link AndPredicate}s according to the
+ * selectivity of their operands estimated using the {@link IndexHistogram
+ * histograms} of the indexes.
+ * <p>
+ * The indexed operands are ordered by their estimated selectivity and the
+ * operands matching much more entries than the most selective one are
+ * wrapped into {@link SkipIndexPredicate}, so they are evaluated on the
+ * entries matched by the other operands instead of materializing their large
+ * index results. If even the most selective operand is expected to match the
+ * majority of the entries, the index is skipped entirely in favor of a
+ * partition scan.
+ */
+public class SelectivityVisitor extends AbstractVisitor {
+
+    /**
+     * Predicates expected to match a larger fraction of the entries are
+     * evaluated using a partition scan instead of the indexes.
+     */
+    static final double SCAN_SELECTIVITY_THRESHOLD = 0.8;
+
+    /**
+     * An indexed operand is skipped if it's expected to match this many times
+     * more entries than the most selective operand: probing its index result
+     * costs more than evaluating it on the few matching entries.
+     */
+    static final double SKIP_INDEX_RATIO = 8.0;
+
+    private static final double UNKNOWN = Double.NaN;
+
+    @Override
+    public Predicate visit(AndPredicate andPredicate, Indexes indexes) {
+        Predicate[] predicates = andPredicate.predicates;
+
+        List<Estimated> estimated = new ArrayList<Estimated>(predicates.length);
+        List<Predicate> opaque = new ArrayList<Predicate>(predicates.length);
+        List<Predicate> unindexed = new ArrayList<Predicate>(predicates.length);
+        for (Predicate predicate : predicates) {
+            double selectivity = estimateSelectivity(predicate, indexes);
+            if (!Double.isNaN(selectivity)) {
+                estimated.add(new Estimated(predicate, selectivity));
+            } else if (isOpaqueIndexed(predicate, indexes)) {
+                opaque.add(predicate);
+            } else {
+                unindexed.add(predicate);
+            }
+        }
+        if (estimated.isEmpty()) {
+            return andPredicate;
+        }
+
+        estimated.sort(Estimated.BY_SELECTIVITY);
+        double best = estimated.get(0).selectivity;
+        if (opaque.isEmpty() && best > SCAN_SELECTIVITY_THRESHOLD) {
+            return new SkipIndexPredicate(andPredicate);
+        }
+
+        List<Predicate> optimized = new ArrayList<Predicate>(predicates.length);
+        List<Predicate> skipped = new ArrayList<Predicate>(estimated.size());
+        for (Estimated operand : estimated) {
+            if (operand.selectivity > best * SKIP_INDEX_RATIO && !(operand.predicate instanceof EqualPredicate)) {
+                skipped.add(new SkipIndexPredicate(operand.predicate));
+            } else {
+                optimized.add(operand.predicate);
+            }
+        }
+        optimized.addAll(opaque);
+        // the skipped operands are evaluated on the entries matched by the
+        // indexed ones, before the unindexed operands since their
+        // selectivity is known
+        optimized.addAll(skipped);
+        optimized.addAll(unindexed);
+
+        Predicate[] result = optimized.toArray(new Predicate[0]);
+        return Arrays.equals(result, predicates) ? andPredicate : new AndPredicate(result);
+    }
+
+    /**
+     * Estimates the fraction of the entries matching the given predicate using
+     * the histograms of the indexes.
+     *
+     * @return the estimated selectivity or {@link Double#NaN} if the predicate
+     * can't be evaluated using the indexes or its selectivity can't be
+     * estimated.
+     */
+    static double estimateSelectivity(Predicate predicate, Indexes indexes) {
+        InternalIndex index = matchIndex(predicate, indexes);
+        IndexHistogram histogram = index == null ? null : index.getHistogram(indexes.getHistogramExecutor());
+        if (histogram == null) {
+            return UNKNOWN;
+        }
+
+        if (predicate instanceof EqualPredicate) {
+            return histogram.estimateEqualSelectivity();
+        } else if (predicate instanceof InPredicate) {
+            return Math.min(1.0, ((InPredicate) predicate).values.length * histogram.estimateEqualSelectivity());
+        } else {
+            return estimateRangeSelectivity((RangePredicate) predicate, index, histogram);
+        }
+    }
+
+    /**
+     * @return {@code true} if the given predicate might be evaluated using the
+     * indexes, but its selectivity can't be estimated, {@code false} otherwise.
+     */
+    private static boolean isOpaqueIndexed(Predicate predicate, Indexes indexes) {
+        return predicate instanceof IndexAwarePredicate && (!isEstimable(predicate) || matchIndex(predicate, indexes) != null);
+    }
+
+    private static boolean isEstimable(Predicate predicate) {
+        return predicate instanceof EqualPredicate || predicate instanceof InPredicate || isRange(predicate);
+    }
+
+    private static boolean isRange(Predicate predicate) {
+        return predicate instanceof GreaterLessPredicate || predicate instanceof BetweenPredicate
+                || predicate instanceof BoundedRangePredicate;
+    }
+
+    private static InternalIndex matchIndex(Predicate predicate, Indexes indexes) {
+        if (!isEstimable(predicate)) {
+            return null;
+        }
+        String attribute = PredicateUtils.canonicalizeAttribute(((AbstractPredicate) predicate).attributeName);
+        IndexMatchHint matchHint = isRange(predicate) ? IndexMatchHint.PREFER_ORDERED : IndexMatchHint.PREFER_UNORDERED;
+        return indexes.matchIndex(attribute, matchHint);
+    }
+
+    private static double estimateRangeSelectivity(RangePredicate predicate, InternalIndex index, IndexHistogram histogram) {
+        TypeConverter converter = index.getConverter();
+        if (converter == null) {
+            // nothing is indexed yet
+            return histogram.estimateEqualSelectivity();
+        }
+
+        Comparable from;
+        Comparable to;
+        try {
+            from = predicate.getFrom() == null ? null : converter.convert(predicate.getFrom());
+            to = predicate.getTo() == null ? null : converter.convert(predicate.getTo());
+        } catch (RuntimeException e) {
+            // let the query itself report the conversion failure
+            return UNKNOWN;
+        }
+        return histogram.estimateRangeSelectivity(from, predicate.isFromInclusive(), to, predicate.isToInclusive());
+    }
+
+    private static final class Estimated {
+
+        static final Comparator<Estimated> BY_SELECTIVITY = new Comparator<Estimated>() {
+            @Override
+            public int compare(Estimated lhs, Estimated rhs) {
+                return Double.compare(lhs.selectivity, rhs.selectivity);
+            }
+        };
+
+        final Predicate predicate;
+        final double selectivity;
+
+        Estimated(Predicate predicate, double selectivity) {
+            this.predicate = predicate;
+            this.selectivity = selectivity;
+        }
+
+    }
+
+}
@@ -23,6 +23,7 @@ import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.query.Predicates;
 import com.hazelcast.query.impl.Indexes;
+import com.hazelcast.query.impl.QueryPlanCache;
 import com.hazelcast.query.impl.QueryContext;
 import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.util.collection.ArrayUtils;
@@ -79,14 +80,36 @@ public class SqlPredicate
 
     private static final ComparisonPredicateFactory LESS_THAN_FACTORY = Predicates::lessThan;
 
+    /**
+     * The maximum number of the parsed parameterized SQL expressions cached.
+     */
+    private static final int PARSED_SQL_CACHE_SIZE = 1024;
+
+    /**
+     * The parsed expressions of the prepared predicates by their shapes. The
+     * literal expressions are not cached, every distinct literal would take
+     * an entry.
+     */
+    private static final QueryPlanCache<String, ParsedSql> PARSED_SQL_CACHE =
+            new QueryPlanCache<String, ParsedSql>(PARSED_SQL_CACHE_SIZE);
+
     transient Predicate predicate;
-    private String sql;
+    String sql;
 
     public SqlPredicate(String sql) {
         this.sql = sql;
         predicate = createPredicate(sql);
     }
 
+    /**
+     * Creates a predicate binding the given values to the {@code ?}
+     * placeholders of the given SQL expression.
+     */
+    SqlPredicate(String sql, Object[] parameters) {
+        this.sql = sql;
+        predicate = createPredicate(sql, parameters);
+    }
+
     public SqlPredicate() {
     }
 
@@ -119,11 +142,44 @@ public class SqlPredicate
         predicate = createPredicate(sql);
     }
 
-    private int getApostropheIndex(String str, int start) {
+    /**
+     * @return the number of the {@code ?} placeholders in the given SQL
+     * expression.
+     */
+    static int getParameterCount(String sql) {
+        return parse(sql).parameterCount;
+    }
+
+    private Predicate createPredicate(String sql) {
+        return bind(new ParsedSql(sql, false), null);
+    }
+
+    Predicate createPredicate(String sql, Object[] parameters) {
+        ParsedSql parsed = parse(sql);
+        if (parameters.length != parsed.parameterCount) {
+            throw new IllegalArgumentException("Expected " + parsed.parameterCount + " parameters, but got "
+                    + parameters.length + ": [" + sql + "]");
+        }
+        return bind(parsed, parameters);
+    }
+
+    /**
+     * Parses the given parameterized SQL expression or obtains the cached
+     * parsing result.
+     */
+    private static ParsedSql parse(String sql) {
+        ParsedSql parsed = PARSED_SQL_CACHE.get(sql);
+        if (parsed == null) {
+            parsed = PARSED_SQL_CACHE.putIfAbsent(sql, new ParsedSql(sql, true));
+        }
+        return parsed;
+    }
+
+    private static int getApostropheIndex(String str, int start) {
         return str.indexOf('\'', start);
     }
 
-    private int getApostropheIndexIgnoringDoubles(String str, int start) {
+    private static int getApostropheIndexIgnoringDoubles(String str, int start) {
         int i = str.indexOf('\'', start);
         int j = str.indexOf('\'', i + 1);
         //ignore doubles
@@ -134,44 +190,15 @@ public class SqlPredicate
         return i;
     }
 
-    private String removeEscapes(String phrase) {
+    private static String removeEscapes(String phrase) {
         return (phrase.length() > 2) ? phrase.replace("''", "'") : phrase;
     }
 
     @SuppressWarnings({"checkstyle:npathcomplexity", "checkstyle:cyclomaticcomplexity", "checkstyle:methodlength"})
-    private Predicate createPredicate(String sql) {
-        String paramSql = sql;
-        Map<String, String> mapPhrases = new HashMap<>();
-        int apoIndex = getApostropheIndex(paramSql, 0);
-        if (apoIndex != -1) {
-            int phraseId = 0;
-            StringBuilder newSql = new StringBuilder();
-            while (apoIndex != -1) {
-                phraseId++;
-                int start = apoIndex + 1;
-                int end = getApostropheIndexIgnoringDoubles(paramSql, apoIndex + 1);
-                if (end == -1) {
-                    throw new IllegalArgumentException("Missing ' in sql");
-                }
-                String phrase = removeEscapes(paramSql.substring(start, end));
-
-                String key = "$" + phraseId;
-                mapPhrases.put(key, phrase);
-                String before = paramSql.substring(0, apoIndex);
-                paramSql = paramSql.substring(end + 1);
-                newSql.append(before);
-                newSql.append(key);
-                apoIndex = getApostropheIndex(paramSql, 0);
-            }
-            newSql.append(paramSql);
-            paramSql = newSql.toString();
-        }
+    private Predicate bind(ParsedSql parsed, Object[] parameters) {
+        Map<String, Object> mapPhrases = parsed.bindParameters(parameters);
         SqlParser parser = new SqlParser();
-        List<String> sqlTokens = parser.toPrefix(paramSql);
-        List<Object> tokens = new ArrayList<>(sqlTokens);
-        if (tokens.size() == 0) {
-            throw new IllegalArgumentException("Invalid SQL: [" + paramSql + "]");
-        }
+        List<Object> tokens = new ArrayList<>(parsed.tokens);
         if (tokens.size() == 1) {
             return eval(tokens.get(0));
         }
@@ -216,7 +243,7 @@ public class SqlPredicate
                         int position = i - 2;
                         validateOperandPosition(position);
                         String exp = (String) toValue(tokens.remove(position), mapPhrases);
-                        String[] values = toValue(((String) tokens.remove(position)).split(","), mapPhrases);
+                        Comparable[] values = toValue(((String) tokens.remove(position)).split(","), mapPhrases);
 
                         if (skipIndex(exp)) {
                             exp = exp.substring(1);
@@ -255,13 +282,13 @@ public class SqlPredicate
                 }
             }
             if (!foundOperand) {
-                throw new IllegalArgumentException("Invalid SQL: [" + paramSql + "]");
+                throw new IllegalArgumentException("Invalid SQL: [" + sql + "]");
             }
         }
         return (Predicate) tokens.get(0);
     }
 
-    private void createComparison(Map<String, String> mapPhrases,
+    private void createComparison(Map<String, Object> mapPhrases,
                                   List<Object> tokens,
                                   int i,
                                   ComparisonPredicateFactory factory) {
@@ -288,9 +315,9 @@ public class SqlPredicate
         }
     }
 
-    private Object toValue(final Object key, final Map<String, String> phrases) {
-        final String value = phrases.get(key);
-        if (value != null) {
+    private Object toValue(final Object key, final Map<String, Object> phrases) {
+        final Object value = phrases.get(key);
+        if (value != null || (key instanceof String && phrases.containsKey(key))) {
             return value;
         } else if (key instanceof String && ("null".equalsIgnoreCase((String) key))) {
             return null;
@@ -299,14 +326,13 @@ public class SqlPredicate
         }
     }
 
-    private String[] toValue(final String[] keys, final Map<String, String> phrases) {
+    private Comparable[] toValue(final String[] keys, final Map<String, Object> phrases) {
+        Comparable[] values = new Comparable[keys.length];
         for (int i = 0; i < keys.length; i++) {
-            final String value = phrases.get(keys[i]);
-            if (value != null) {
-                keys[i] = value;
-            }
+            final Object value = phrases.get(keys[i]);
+            values[i] = value != null || phrases.containsKey(keys[i]) ? (Comparable) value : keys[i];
         }
-        return keys;
+        return values;
     }
 
     private void setOrAdd(List tokens, int position, Predicate predicate) {
@@ -375,7 +401,7 @@ public class SqlPredicate
         if (this == o) {
             return true;
         }
-        if (!(o instanceof SqlPredicate)) {
+        if (o == null || getClass() != o.getClass()) {
             return false;
         }
 
@@ -402,6 +428,116 @@ public class SqlPredicate
         return predicate;
     }
 
+    /**
+     * The result of parsing a SQL expression, shared by all the predicates
+     * created from the same parameterized expression.
+     */
+    private static final class ParsedSql {
+
+        private static final String PARAMETER_PREFIX = "?";
+        private static final int PARAMETER_KEY_LENGTH = 4;
+
+        final List<String> tokens;
+        final Map<String, Object> phrases;
+        final int parameterCount;
+
+        ParsedSql(String sql, boolean parameterized) {
+            Map<String, Object> mapPhrases = new HashMap<>();
+            String paramSql = replacePhrases(sql, mapPhrases);
+            int parameterCount = 0;
+            if (parameterized) {
+                // the quoted phrases are already replaced, so all the remaining
+                // question marks are the placeholders
+                for (int i = 0; i < paramSql.length(); ++i) {
+                    if (paramSql.charAt(i) == '?') {
+                        ++parameterCount;
+                    }
+                }
+                if (parameterCount > 0) {
+                    paramSql = replaceParameters(paramSql, parameterCount);
+                }
+            }
+
+            List<String> tokens = new SqlParser().toPrefix(paramSql);
+            if (tokens.size() == 0) {
+                throw new IllegalArgumentException("Invalid SQL: [" + paramSql + "]");
+            }
+
+            this.tokens = tokens;
+            this.phrases = mapPhrases;
+            this.parameterCount = parameterCount;
+        }
+
+        /**
+         * Replaces the quoted phrases of the given SQL expression with their
+         * keys.
+         */
+        private static String replacePhrases(String sql, Map<String, Object> mapPhrases) {
+            String paramSql = sql;
+            int apoIndex = getApostropheIndex(paramSql, 0);
+            if (apoIndex == -1) {
+                return paramSql;
+            }
+
+            int phraseId = 0;
+            StringBuilder newSql = new StringBuilder();
+            while (apoIndex != -1) {
+                phraseId++;
+                int start = apoIndex + 1;
+                int end = getApostropheIndexIgnoringDoubles(paramSql, apoIndex + 1);
+                if (end == -1) {
+                    throw new IllegalArgumentException("Missing ' in sql");
+                }
+                String phrase = removeEscapes(paramSql.substring(start, end));
+
+                String key = "$" + phraseId;
+                mapPhrases.put(key, phrase);
+                String before = paramSql.substring(0, apoIndex);
+                paramSql = paramSql.substring(end + 1);
+                newSql.append(before);
+                newSql.append(key);
+                apoIndex = getApostropheIndex(paramSql, 0);
+            }
+            newSql.append(paramSql);
+            return newSql.toString();
+        }
+
+        /**
+         * Replaces the {@code ?} placeholders of the given SQL expression
+         * with the numbered keys of the parameters.
+         */
+        private static String replaceParameters(String paramSql, int parameterCount) {
+            // each placeholder is replaced with its key surrounded by spaces
+            StringBuilder newSql = new StringBuilder(paramSql.length() + parameterCount * PARAMETER_KEY_LENGTH);
+            int parameterId = 0;
+            for (int i = 0; i < paramSql.length(); ++i) {
+                char c = paramSql.charAt(i);
+                if (c == '?') {
+                    newSql.append(' ').append(PARAMETER_PREFIX).append(++parameterId).append(' ');
+                } else {
+                    newSql.append(c);
+                }
+            }
+            return newSql.toString();
+        }
+
+        /**
+         * @return the values of the phrases and the given parameters by
+         * their keys.
+         */
+        Map<String, Object> bindParameters(Object[] parameters) {
+            if (parameters == null || parameters.length == 0) {
+                return phrases;
+            }
+            Map<String, Object> bound = new HashMap<>(phrases);
+            for (int i = 0; i < parameters.length; ++i) {
+                bound.put(PARAMETER_PREFIX + (i + 1), parameters[i]);
+            }
+            return bound;
+        }
+
+    }
+
     @Override
     public int getFactoryId() {
         return PREDICATE_DS_FACTORY_ID;
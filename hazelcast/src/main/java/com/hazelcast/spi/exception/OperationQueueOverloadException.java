@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.exception;
+
+import com.hazelcast.core.HazelcastOverloadException;
+import com.hazelcast.nio.Address;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * A {@link HazelcastOverloadException} that is thrown when an operation is rejected
+ * because it has been waiting too long in the queue of an overloaded partition thread.
+ *
+ * The operation hasn't been executed. For more information see
+ * {@link com.hazelcast.spi.properties.GroupProperty#BACKPRESSURE_QUEUE_DELAY_TARGET_MILLIS}.
+ */
+public class OperationQueueOverloadException extends HazelcastOverloadException {
+
+    public OperationQueueOverloadException(Address thisAddress, int partitionId, String operationName,
+                                           long waitTimeNanos) {
+        super("Operation rejected due to overload! this: " + thisAddress + ", partitionId: " + partitionId
+                + ", operation: " + operationName + ", queue wait time: " + NANOSECONDS.toMillis(waitTimeNanos) + " ms");
+    }
+
+    public OperationQueueOverloadException(String message) {
+        super(message);
+    }
+}
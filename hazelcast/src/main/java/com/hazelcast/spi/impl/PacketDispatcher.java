@@ -21,18 +21,22 @@ import com.hazelcast.nio.Connection;
 import com.hazelcast.nio.EndpointManager;
 import com.hazelcast.nio.Packet;
 import com.hazelcast.spi.impl.operationservice.OperationService;
+import com.hazelcast.util.function.BatchConsumer;
 
 import java.util.function.Consumer;
 
 import static com.hazelcast.instance.impl.OutOfMemoryErrorDispatcher.inspectOutOfMemoryError;
 import static com.hazelcast.nio.Packet.FLAG_OP_CONTROL;
 import static com.hazelcast.nio.Packet.FLAG_OP_RESPONSE;
+import static com.hazelcast.nio.Packet.Type.OPERATION;
 
 /**
  * A {@link Consumer} that dispatches the {@link Packet} to the right service. For example, operations are sent to the
  * {@link OperationService}, events are sent to the {@link com.hazelcast.spi.EventService} etc.
+ * <p>
+ * When a batch of packets is dispatched, the responses in the batch are handed to the response handler at once.
  */
-public final class PacketDispatcher implements Consumer<Packet> {
+public final class PacketDispatcher implements BatchConsumer<Packet> {
 
     private final ILogger logger;
     private final Consumer<Packet> eventService;
@@ -89,4 +93,29 @@ public final class PacketDispatcher implements Consumer<Packet> {
             logger.severe("Failed to process: " + packet, t);
         }
     }
+
+    @Override
+    public void acceptAll(Packet[] packets, int count) {
+        // the responses are moved to the front of the array, the other packets are dispatched one by one
+        int responseCount = 0;
+        for (int k = 0; k < count; k++) {
+            Packet packet = packets[k];
+            if (packet.getPacketType() == OPERATION && packet.isFlagRaised(FLAG_OP_RESPONSE)) {
+                packets[responseCount++] = packet;
+            } else {
+                accept(packet);
+            }
+        }
+
+        if (responseCount == 0) {
+            return;
+        }
+
+        try {
+            BatchConsumer.acceptAll(responseHandler, packets, responseCount);
+        } catch (Throwable t) {
+            inspectOutOfMemoryError(t);
+            logger.severe("Failed to process " + responseCount + " responses", t);
+        }
+    }
 }
@@ -31,6 +31,7 @@ import com.hazelcast.spi.impl.eventservice.impl.operations.SendEventOperation;
 import com.hazelcast.spi.impl.operationservice.BinaryOperationFactory;
 import com.hazelcast.spi.impl.operationservice.OperationControl;
 import com.hazelcast.spi.impl.operationservice.impl.operations.Backup;
+import com.hazelcast.spi.impl.operationservice.impl.operations.BackupBatch;
 import com.hazelcast.spi.impl.operationservice.impl.operations.PartitionIteratingOperation;
 import com.hazelcast.spi.impl.operationservice.impl.operations.PartitionIteratingOperation.PartitionResponse;
 import com.hazelcast.spi.impl.operationservice.impl.responses.BackupAckResponse;
@@ -72,6 +73,7 @@ public final class SpiDataSerializerHook implements DataSerializerHook {
     public static final int DISTRIBUTED_OBJECT_NS = 20;
     public static final int REGISTRATION = 21;
     public static final int NOOP_TENANT_CONTROL = 22;
+    public static final int BACKUP_BATCH = 23;
 
     private static final DataSerializableFactory FACTORY = createFactoryInternal();
 
@@ -131,6 +133,8 @@ public final class SpiDataSerializerHook implements DataSerializerHook {
                         return new Registration();
                     case NOOP_TENANT_CONTROL:
                         return (IdentifiedDataSerializable) TenantControl.NOOP_TENANT_CONTROL;
+                    case BACKUP_BATCH:
+                        return new BackupBatch();
                     default:
                         return null;
                 }
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor;
+
+/**
+ * Gets notified by a partition operation thread when it has processed a batch
+ * of tasks; so when its queue has run empty or the maximum batch size has been
+ * reached. Work that is deferred while processing the tasks of a batch, like
+ * sending the backups, should be completed here.
+ *
+ * The handler is called on the partition operation thread itself.
+ */
+public interface BatchCompletionHandler {
+
+    /**
+     * Called when the calling partition operation thread has completed a batch.
+     *
+     * Implementations should not throw exceptions.
+     */
+    void onBatchCompleted();
+}
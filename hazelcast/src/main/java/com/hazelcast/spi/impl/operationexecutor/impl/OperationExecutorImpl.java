@@ -21,7 +21,7 @@ import com.hazelcast.internal.metrics.MetricsProvider;
 import com.hazelcast.internal.metrics.MetricsRegistry;
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.util.RuntimeAvailableProcessors;
-import com.hazelcast.internal.util.concurrent.MPSCQueue;
+import com.hazelcast.internal.util.ThreadAffinity;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.LoggingService;
 import com.hazelcast.nio.Address;
@@ -30,6 +30,7 @@ import com.hazelcast.spi.impl.operationservice.LiveOperations;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.impl.operationservice.UrgentSystemOperation;
 import com.hazelcast.spi.impl.PartitionSpecificRunnable;
+import com.hazelcast.spi.impl.operationexecutor.BatchCompletionHandler;
 import com.hazelcast.spi.impl.operationexecutor.OperationExecutor;
 import com.hazelcast.spi.impl.operationexecutor.OperationHostileThread;
 import com.hazelcast.spi.impl.operationexecutor.OperationRunner;
@@ -42,13 +43,16 @@ import com.hazelcast.util.concurrent.IdleStrategy;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import java.util.BitSet;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 
 import static com.hazelcast.internal.metrics.ProbeLevel.MANDATORY;
+import static com.hazelcast.internal.util.ThreadAffinity.newThreadAffinity;
 import static com.hazelcast.spi.impl.operationservice.impl.InboundResponseHandlerSupplier.getIdleStrategy;
+import static com.hazelcast.spi.properties.GroupProperty.BACKPRESSURE_QUEUE_DELAY_INTERVAL_MILLIS;
+import static com.hazelcast.spi.properties.GroupProperty.BACKPRESSURE_QUEUE_DELAY_TARGET_MILLIS;
 import static com.hazelcast.spi.properties.GroupProperty.GENERIC_OPERATION_THREAD_COUNT;
 import static com.hazelcast.spi.properties.GroupProperty.PARTITION_COUNT;
+import static com.hazelcast.spi.properties.GroupProperty.PARTITION_OPERATION_THREAD_AFFINITY;
 import static com.hazelcast.spi.properties.GroupProperty.PARTITION_OPERATION_THREAD_COUNT;
 import static com.hazelcast.spi.properties.GroupProperty.PRIORITY_GENERIC_OPERATION_THREAD_COUNT;
 import static com.hazelcast.util.Preconditions.checkNotNull;
@@ -81,6 +85,17 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
     public static final HazelcastProperty IDLE_STRATEGY
             = new HazelcastProperty("hazelcast.operation.partitionthread.idlestrategy", "block");
 
+    /**
+     * The maximum number of tasks a partition thread processes as a single batch.
+     * The backups of the operations in a batch are sent when the batch completes;
+     * the backups for the same partition and replica are combined into a single
+     * packet. A batch completes early when there are no more tasks waiting.
+     *
+     * The default is 1, which disables batching.
+     */
+    public static final HazelcastProperty BATCH_SIZE
+            = new HazelcastProperty("hazelcast.operation.partitionthread.batch.size", 1);
+
     private static final int TERMINATION_TIMEOUT_SECONDS = 3;
 
     private final ILogger logger;
@@ -107,13 +122,25 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
                                  NodeExtension nodeExtension,
                                  String hzName,
                                  ClassLoader configClassLoader) {
+        this(properties, loggerService, thisAddress, runnerFactory, nodeExtension, hzName, configClassLoader, null);
+    }
+
+    public OperationExecutorImpl(HazelcastProperties properties,
+                                 LoggingService loggerService,
+                                 Address thisAddress,
+                                 OperationRunnerFactory runnerFactory,
+                                 NodeExtension nodeExtension,
+                                 String hzName,
+                                 ClassLoader configClassLoader,
+                                 BatchCompletionHandler batchCompletionHandler) {
         this.thisAddress = thisAddress;
         this.logger = loggerService.getLogger(OperationExecutorImpl.class);
 
         this.adHocOperationRunner = runnerFactory.createAdHocRunner();
 
         this.partitionOperationRunners = initPartitionOperationRunners(properties, runnerFactory);
-        this.partitionThreads = initPartitionThreads(properties, hzName, nodeExtension, configClassLoader);
+        this.partitionThreads = initPartitionThreads(properties, hzName, nodeExtension, configClassLoader,
+                batchCompletionHandler);
 
         this.priorityThreadCount = properties.getInteger(PRIORITY_GENERIC_OPERATION_THREAD_COUNT);
         this.genericOperationRunners = initGenericOperationRunners(properties, runnerFactory);
@@ -146,29 +173,40 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
     }
 
     private PartitionOperationThread[] initPartitionThreads(HazelcastProperties properties, String hzName,
-                                                            NodeExtension nodeExtension, ClassLoader configClassLoader) {
+                                                            NodeExtension nodeExtension, ClassLoader configClassLoader,
+                                                            BatchCompletionHandler batchCompletionHandler) {
 
+        ThreadAffinity threadAffinity = newThreadAffinity(properties, PARTITION_OPERATION_THREAD_AFFINITY);
         int threadCount = properties.getInteger(PARTITION_OPERATION_THREAD_COUNT);
-        if (threadCount <= 0) {
+        if (threadAffinity.isEnabled()) {
+            threadCount = threadAffinity.getThreadCount();
+            logger.info("Partition operation threads affinity is " + threadAffinity);
+        } else if (threadCount <= 0) {
             // default partition operation thread count
             int coreSize = RuntimeAvailableProcessors.get();
             threadCount = Math.max(2, coreSize);
         }
 
         IdleStrategy idleStrategy = getIdleStrategy(properties, IDLE_STRATEGY);
+        int batchSize = properties.getInteger(BATCH_SIZE);
+        long delayTargetNanos = properties.getNanos(BACKPRESSURE_QUEUE_DELAY_TARGET_MILLIS);
+        long delayIntervalNanos = properties.getNanos(BACKPRESSURE_QUEUE_DELAY_INTERVAL_MILLIS);
         PartitionOperationThread[] threads = new PartitionOperationThread[threadCount];
         for (int threadId = 0; threadId < threads.length; threadId++) {
             String threadName = createThreadPoolName(hzName, "partition-operation") + threadId;
-            // the normalQueue will be a blocking queue. We don't want to idle, because there are many operation threads.
-            MPSCQueue<Object> normalQueue = new MPSCQueue<Object>(idleStrategy);
-
-            OperationQueue operationQueue = new OperationQueueImpl(normalQueue, new ConcurrentLinkedQueue<Object>());
+            PartitionOperationQueue operationQueue = new PartitionOperationQueue(idleStrategy);
+            operationQueue.setDelayTarget(delayTargetNanos, delayIntervalNanos);
 
             PartitionOperationThread partitionThread = new PartitionOperationThread(threadName, threadId, operationQueue, logger,
                     nodeExtension, partitionOperationRunners, configClassLoader);
 
+            partitionThread.setAllowedCpus(threadAffinity.getAllowedCpus(threadId));
+            if (batchSize > 1 && batchCompletionHandler != null) {
+                partitionThread.setBatchCompletionHandler(batchCompletionHandler, batchSize);
+            }
+
             threads[threadId] = partitionThread;
-            normalQueue.setConsumerThread(partitionThread);
+            operationQueue.setConsumerThread(partitionThread);
         }
 
         // we need to assign the PartitionOperationThreads to all OperationRunners they own
@@ -20,6 +20,7 @@ import com.hazelcast.instance.impl.NodeExtension;
 import com.hazelcast.internal.metrics.MetricsProvider;
 import com.hazelcast.internal.metrics.MetricsRegistry;
 import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.util.ThreadAffinity;
 import com.hazelcast.internal.util.counters.SwCounter;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.nio.Packet;
@@ -28,6 +29,7 @@ import com.hazelcast.spi.impl.PartitionSpecificRunnable;
 import com.hazelcast.spi.impl.operationexecutor.OperationRunner;
 import com.hazelcast.util.executor.HazelcastManagedThread;
 
+import java.util.BitSet;
 import java.util.concurrent.TimeUnit;
 
 import static com.hazelcast.instance.impl.OutOfMemoryErrorDispatcher.inspectOutOfMemoryError;
@@ -70,8 +72,10 @@ public abstract class OperationThread extends HazelcastManagedThread implements
 
     private final boolean priority;
     private final NodeExtension nodeExtension;
-    private final ILogger logger;
+    final ILogger logger;
     private volatile boolean shutdown;
+    // the CPUs this thread is pinned to; null if not pinned
+    private BitSet allowedCpus;
 
     public OperationThread(String name,
                            int threadId,
@@ -95,9 +99,22 @@ public abstract class OperationThread extends HazelcastManagedThread implements
 
     public abstract OperationRunner operationRunner(int partitionId);
 
+    /**
+     * Sets the CPUs this thread is pinned to when it starts.
+     *
+     * @param allowedCpus the allowed CPUs; null if the thread should not be pinned.
+     */
+    void setAllowedCpus(BitSet allowedCpus) {
+        this.allowedCpus = allowedCpus;
+    }
+
     @Override
     public final void run() {
         nodeExtension.onThreadStart(this);
+        if (allowedCpus != null && !ThreadAffinity.pinCurrentThread(allowedCpus)) {
+            logger.warning(getName() + " could not be pinned to CPUs " + allowedCpus);
+        }
+
         try {
             while (!shutdown) {
                 Object task;
@@ -108,6 +125,7 @@ public abstract class OperationThread extends HazelcastManagedThread implements
                 }
 
                 process(task);
+                afterProcess();
             }
         } catch (Throwable t) {
             inspectOutOfMemoryError(t);
@@ -117,6 +135,13 @@ public abstract class OperationThread extends HazelcastManagedThread implements
         }
     }
 
+    /**
+     * Called after each task taken from the queue has been processed. Can be
+     * overridden to complete work that is batched over multiple tasks.
+     */
+    protected void afterProcess() {
+    }
+
     private void process(Object task) {
         try {
             if (task.getClass() == Packet.class) {
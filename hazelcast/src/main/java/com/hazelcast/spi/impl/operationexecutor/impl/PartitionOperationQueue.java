@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.util.concurrent.MPSCQueue;
+import com.hazelcast.internal.util.counters.SwCounter;
+import com.hazelcast.util.concurrent.IdleStrategy;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
+import static com.hazelcast.spi.impl.operationexecutor.impl.OperationQueueImpl.TRIGGER_TASK;
+import static com.hazelcast.util.Preconditions.checkNotNegative;
+import static com.hazelcast.util.Preconditions.checkNotNull;
+import static java.lang.System.nanoTime;
+
+/**
+ * The {@link OperationQueue} of a {@link PartitionOperationThread}.
+ *
+ * The normal tasks are stored in a {@link MPSCQueue} since there is only a
+ * single consumer, so the producers only need a single CAS to add a task and
+ * the consumer can take a whole batch of tasks using a single CAS. If the queue
+ * is empty, the consumer idles based on the configured {@link IdleStrategy};
+ * or blocks if there is none.
+ *
+ * The queue also tracks how long the normal tasks have been waiting before they
+ * got taken. This is the most direct indication of an overloaded partition thread
+ * since it also includes the time spent on the tasks in front of it.
+ *
+ * If a delay target is set, the queue detects a standing queue similar to CoDel:
+ * if the wait time of the taken tasks doesn't drop below the target for a whole
+ * interval, the queue is overloaded till a task is taken with a wait time below
+ * the target. While overloaded, a task that has been waiting longer than the
+ * target is overdue; see {@link #isLastTakenOverdue()}.
+ *
+ * This queue must only be consumed by the thread passed to
+ * {@link #setConsumerThread(Thread)}.
+ */
+public final class PartitionOperationQueue implements OperationQueue {
+
+    private final MPSCQueue<Object> normalQueue;
+    private final Queue<Object> priorityQueue = new ConcurrentLinkedQueue<Object>();
+
+    @Probe
+    private final SwCounter normalTakenCount = newSwCounter();
+    @Probe
+    private final SwCounter totalWaitTimeNanos = newSwCounter();
+    // only written by the consumer thread; the lazySet makes it visible to the metrics
+    private final AtomicLong lastWaitTimeNanos = new AtomicLong();
+    @Probe
+    private final SwCounter overloadedCount = newSwCounter();
+
+    // the fields below are only accessed by the consumer thread
+    // 0 if no delay target is set
+    private long delayTargetNanos;
+    private long delayIntervalNanos;
+    private boolean aboveTarget;
+    private long aboveTargetSinceNanos;
+    private boolean overloaded;
+    private boolean lastTakenOverdue;
+
+    /**
+     * Creates a new PartitionOperationQueue.
+     *
+     * @param idleStrategy the {@link IdleStrategy} used when there is no work; if null,
+     *                     the consumer thread will block.
+     */
+    public PartitionOperationQueue(IdleStrategy idleStrategy) {
+        this.normalQueue = new MPSCQueue<Object>(idleStrategy);
+        normalQueue.trackOfferTime();
+    }
+
+    /**
+     * Sets the consumer thread.
+     *
+     * This method should be called before the queue is safely published.
+     *
+     * @param consumerThread the consumer thread
+     * @throws NullPointerException if consumerThread is null
+     */
+    public void setConsumerThread(Thread consumerThread) {
+        normalQueue.setConsumerThread(consumerThread);
+    }
+
+    /**
+     * Sets the target for the wait time of the normal tasks.
+     *
+     * This method should be called before the queue is safely published.
+     *
+     * @param delayTargetNanos   the delay target in nanoseconds; 0 to disable
+     * @param delayIntervalNanos the time the wait time needs to exceed the target
+     *                           before the queue is overloaded
+     * @throws IllegalArgumentException if delayTargetNanos or delayIntervalNanos is negative
+     */
+    public void setDelayTarget(long delayTargetNanos, long delayIntervalNanos) {
+        checkNotNegative(delayTargetNanos, "delayTargetNanos can't be negative");
+        checkNotNegative(delayIntervalNanos, "delayIntervalNanos can't be negative");
+        this.delayTargetNanos = delayTargetNanos;
+        this.delayIntervalNanos = delayIntervalNanos;
+    }
+
+    @Override
+    public int normalSize() {
+        return normalQueue.size();
+    }
+
+    @Override
+    public int prioritySize() {
+        return priorityQueue.size();
+    }
+
+    @Override
+    public int size() {
+        return normalQueue.size() + priorityQueue.size();
+    }
+
+    @Override
+    public void add(Object task, boolean priority) {
+        checkNotNull(task, "task can't be null");
+
+        if (priority) {
+            priorityQueue.add(task);
+            normalQueue.add(TRIGGER_TASK);
+        } else {
+            normalQueue.add(task);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Taking priority tasks only is not supported: only the priority generic
+     * threads take priority tasks only and they consume an {@link OperationQueueImpl}.
+     * A partition thread always takes both kinds of tasks. Since a waiting
+     * priority task is signalled through the normal queue, blocking till the next
+     * priority task would mean taking the normal tasks in front of the signal.
+     *
+     * @throws UnsupportedOperationException if priorityOnly is true
+     */
+    @Override
+    public Object take(boolean priorityOnly) throws InterruptedException {
+        if (priorityOnly) {
+            throw new UnsupportedOperationException("A partition operation queue can't take priority tasks only");
+        }
+
+        for (; ; ) {
+            Object priorityItem = priorityQueue.poll();
+            if (priorityItem != null) {
+                lastTakenOverdue = false;
+                return priorityItem;
+            }
+
+            Object normalItem = normalQueue.take();
+            if (normalItem == TRIGGER_TASK) {
+                continue;
+            }
+
+            long nowNanos = nanoTime();
+            long waitTimeNanos = nowNanos - normalQueue.lastTakenOfferNanos();
+            normalTakenCount.inc();
+            totalWaitTimeNanos.inc(waitTimeNanos);
+            lastWaitTimeNanos.lazySet(waitTimeNanos);
+            lastTakenOverdue = delayTargetNanos > 0 && isOverdue(nowNanos, waitTimeNanos);
+            return normalItem;
+        }
+    }
+
+    private boolean isOverdue(long nowNanos, long waitTimeNanos) {
+        if (waitTimeNanos < delayTargetNanos) {
+            // the queue has drained below the target, so there is no standing queue
+            aboveTarget = false;
+            overloaded = false;
+            return false;
+        }
+
+        if (!aboveTarget) {
+            aboveTarget = true;
+            aboveTargetSinceNanos = nowNanos;
+        } else if (!overloaded && nowNanos - aboveTargetSinceNanos >= delayIntervalNanos) {
+            overloaded = true;
+            overloadedCount.inc();
+        }
+        return overloaded;
+    }
+
+    /**
+     * Checks if the most recently taken task has been waiting longer than the
+     * delay target while this queue is overloaded. A priority task is never
+     * overdue.
+     *
+     * This method should only be called by the consumer thread.
+     *
+     * @return true if the most recently taken task is overdue, false otherwise.
+     */
+    public boolean isLastTakenOverdue() {
+        return lastTakenOverdue;
+    }
+
+    /**
+     * Returns the time the most recently taken normal task has been waiting in
+     * this queue.
+     *
+     * This method is thread-safe.
+     *
+     * @return the wait time in nanoseconds; 0 if no task has been taken yet.
+     */
+    @Probe
+    public long lastWaitTimeNanos() {
+        return lastWaitTimeNanos.get();
+    }
+
+    /**
+     * Returns the average time the normal tasks have been waiting in this queue.
+     *
+     * @return the average wait time in nanoseconds; 0 if no task has been taken yet.
+     */
+    @Probe
+    public long averageWaitTimeNanos() {
+        long count = normalTakenCount.get();
+        return count == 0 ? 0 : totalWaitTimeNanos.get() / count;
+    }
+}
@@ -17,11 +17,15 @@
 package com.hazelcast.spi.impl.operationexecutor.impl;
 
 import com.hazelcast.instance.impl.NodeExtension;
+import com.hazelcast.internal.metrics.MetricsRegistry;
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.logging.ILogger;
+import com.hazelcast.spi.impl.operationexecutor.BatchCompletionHandler;
 import com.hazelcast.spi.impl.operationexecutor.OperationRunner;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
+import static com.hazelcast.instance.impl.OutOfMemoryErrorDispatcher.inspectOutOfMemoryError;
+
 /**
  * An {@link OperationThread} that executes Operations for a particular partition,
  * e.g. a map.get operation.
@@ -30,6 +34,11 @@ public final class PartitionOperationThread extends OperationThread {
 
     private final OperationRunner[] partitionOperationRunners;
 
+    private BatchCompletionHandler batchCompletionHandler;
+    private int maxBatchSize;
+    // the number of tasks processed since the last completed batch
+    private int batchSize;
+
     @SuppressFBWarnings("EI_EXPOSE_REP")
     public PartitionOperationThread(String name,
                                     int threadId,
@@ -42,6 +51,21 @@ public final class PartitionOperationThread extends OperationThread {
         this.partitionOperationRunners = partitionOperationRunners;
     }
 
+    /**
+     * Makes this thread notify the given handler after processing a batch of
+     * tasks: when its queue has run empty or when the maximum batch size has
+     * been reached.
+     *
+     * This method should be called before the thread is started.
+     *
+     * @param batchCompletionHandler the handler to notify
+     * @param maxBatchSize           the maximum number of tasks in a batch
+     */
+    void setBatchCompletionHandler(BatchCompletionHandler batchCompletionHandler, int maxBatchSize) {
+        this.batchCompletionHandler = batchCompletionHandler;
+        this.maxBatchSize = maxBatchSize;
+    }
+
     /**
      * For each partition there is a {@link OperationRunner} instance. So we need
      * to find the right one based on the partition ID.
@@ -51,6 +75,50 @@ public final class PartitionOperationThread extends OperationThread {
         return partitionOperationRunners[partitionId];
     }
 
+    /**
+     * Checks if the task this thread is processing has been waiting too long
+     * in the queue of this overloaded thread.
+     *
+     * This method should only be called by this thread.
+     *
+     * @return true if the current task is overdue, false otherwise.
+     * @see PartitionOperationQueue#isLastTakenOverdue()
+     */
+    public boolean isCurrentTaskOverdue() {
+        return queue instanceof PartitionOperationQueue && ((PartitionOperationQueue) queue).isLastTakenOverdue();
+    }
+
+    /**
+     * Returns the time the most recently taken normal task has been waiting in
+     * the queue of this thread.
+     *
+     * @return the wait time in nanoseconds; 0 if unknown.
+     */
+    public long lastWaitTimeNanos() {
+        return queue instanceof PartitionOperationQueue ? ((PartitionOperationQueue) queue).lastWaitTimeNanos() : 0;
+    }
+
+    @Override
+    protected void afterProcess() {
+        if (batchCompletionHandler == null) {
+            return;
+        }
+
+        batchSize++;
+        if (batchSize < maxBatchSize && queue.size() > 0) {
+            // more tasks are waiting, so they are added to the current batch
+            return;
+        }
+
+        batchSize = 0;
+        try {
+            batchCompletionHandler.onBatchCompleted();
+        } catch (Throwable t) {
+            inspectOutOfMemoryError(t);
+            logger.severe("Failed to complete batch on: " + getName(), t);
+        }
+    }
+
     @Probe
     int priorityPendingCount() {
         return queue.prioritySize();
@@ -60,4 +128,12 @@ public final class PartitionOperationThread extends OperationThread {
     int normalPendingCount() {
         return queue.normalSize();
     }
+
+    @Override
+    public void provideMetrics(MetricsRegistry registry) {
+        super.provideMetrics(registry);
+        if (queue instanceof PartitionOperationQueue) {
+            registry.scanAndRegister(queue, "operation.thread[" + getName() + "].queue");
+        }
+    }
 }
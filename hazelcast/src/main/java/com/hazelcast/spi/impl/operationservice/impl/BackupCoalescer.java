@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.util.counters.MwCounter;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.nio.Address;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
+import com.hazelcast.spi.impl.operationexecutor.OperationExecutor;
+import com.hazelcast.spi.impl.operationexecutor.OperationHostileThread;
+import com.hazelcast.spi.impl.operationservice.impl.operations.Backup;
+import com.hazelcast.spi.impl.operationservice.impl.operations.BackupBatch;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.hazelcast.instance.impl.OutOfMemoryErrorDispatcher.inspectOutOfMemoryError;
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+import static com.hazelcast.util.ThreadUtil.createThreadName;
+import static java.lang.System.nanoTime;
+
+/**
+ * Holds back the backups of a partition for a short window, so the backups for
+ * the same replica are sent as a single {@link BackupBatch}.
+ *
+ * The first backup of a partition schedules the partition to be flushed when
+ * the window ends. The flush thread only tracks the deadlines: when a window
+ * ends, it hands a {@link FlushTask} to the partition thread owning the
+ * partition, which serializes and sends the backups. If the number of pending
+ * backups of the partition reaches the max batch size before that, the thread
+ * adding the backup flushes the partition itself.
+ *
+ * The lock of a partition is only held to add a backup or to take the pending
+ * backups; never while serializing or sending them. The backups of a partition
+ * are created and flushed by its partition thread, so they are sent in the
+ * order they have been created.
+ *
+ * Each {@link Backup} in a batch sends its own backup ack, so sync backups are
+ * acknowledged exactly like backups that are sent one by one.
+ */
+final class BackupCoalescer {
+
+    private final OutboundOperationHandler outboundOperationHandler;
+    private final ILogger logger;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final PartitionBackups[] partitions;
+    // the partitions that are scheduled to be flushed; ordered by deadline
+    // since the window is the same for every partition
+    private final Queue<PartitionBackups> scheduled = new ConcurrentLinkedQueue<PartitionBackups>();
+    private final FlushThread flushThread;
+    private OperationExecutor operationExecutor;
+
+    @Probe
+    private final MwCounter backupCount = newMwCounter();
+    @Probe
+    private final MwCounter packetCount = newMwCounter();
+
+    BackupCoalescer(OutboundOperationHandler outboundOperationHandler, ILogger logger, String hzName,
+                    int partitionCount, long windowNanos, int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize can't be smaller than 1, but found: " + maxBatchSize);
+        }
+
+        this.outboundOperationHandler = outboundOperationHandler;
+        this.logger = logger;
+        this.windowNanos = windowNanos;
+        this.maxBatchSize = maxBatchSize;
+        this.partitions = new PartitionBackups[partitionCount];
+        for (int k = 0; k < partitions.length; k++) {
+            partitions[k] = new PartitionBackups(k);
+        }
+        this.flushThread = new FlushThread(hzName);
+    }
+
+    /**
+     * Starts the flush thread.
+     *
+     * @param operationExecutor the executor to run the flushes of the partitions on
+     */
+    void start(OperationExecutor operationExecutor) {
+        this.operationExecutor = operationExecutor;
+        flushThread.start();
+    }
+
+    /**
+     * Shuts down the flush thread. The backups that are still pending are not
+     * sent; the invocations waiting for them will run into a backup timeout.
+     */
+    void shutdown() {
+        flushThread.shutdown();
+    }
+
+    void add(Backup backup, Address target) {
+        backupCount.inc();
+
+        PartitionBackups partition = partitions[backup.getPartitionId()];
+        PendingBackups full = null;
+        boolean wakeup = false;
+        synchronized (partition) {
+            partition.pending.add(backup, target);
+            if (partition.pending.size() >= maxBatchSize) {
+                full = partition.takePending();
+            } else if (!partition.scheduled) {
+                partition.scheduled = true;
+                partition.deadlineNanos = nanoTime() + windowNanos;
+                scheduled.add(partition);
+                wakeup = true;
+            }
+        }
+
+        if (full != null) {
+            send(full);
+        } else if (wakeup && flushThread.idle) {
+            LockSupport.unpark(flushThread);
+        }
+    }
+
+    private void send(PendingBackups pending) {
+        packetCount.inc(pending.send(outboundOperationHandler, logger));
+    }
+
+    private static final class PartitionBackups {
+        private final int partitionId;
+        private PendingBackups pending = new PendingBackups();
+        // only modified while not in the scheduled queue
+        private long deadlineNanos;
+        private boolean scheduled;
+
+        private PartitionBackups(int partitionId) {
+            this.partitionId = partitionId;
+        }
+
+        // should be called while holding the lock of this partition
+        private PendingBackups takePending() {
+            PendingBackups taken = pending;
+            pending = new PendingBackups();
+            return taken;
+        }
+    }
+
+    /**
+     * Flushes the pending backups of a partition on the thread owning the
+     * partition.
+     */
+    private final class FlushTask implements PartitionSpecificRunnable {
+
+        private final PartitionBackups partition;
+
+        private FlushTask(PartitionBackups partition) {
+            this.partition = partition;
+        }
+
+        @Override
+        public int getPartitionId() {
+            return partition.partitionId;
+        }
+
+        @Override
+        public void run() {
+            PendingBackups pending;
+            synchronized (partition) {
+                partition.scheduled = false;
+                pending = partition.takePending();
+            }
+            send(pending);
+        }
+    }
+
+    /**
+     * The FlushThread needs to implement the OperationHostileThread interface to make sure that the OperationExecutor
+     * is not going to schedule any operations on this thread.
+     */
+    private final class FlushThread extends Thread implements OperationHostileThread {
+
+        private volatile boolean idle;
+        private volatile boolean shutdown;
+
+        private FlushThread(String hzName) {
+            super(createThreadName(hzName, "backup-coalescer"));
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!shutdown) {
+                    PartitionBackups partition = scheduled.peek();
+                    if (partition == null) {
+                        idle = true;
+                        // the add of a partition is checked after idle is set, so a wakeup can't be missed
+                        if (scheduled.isEmpty() && !shutdown) {
+                            LockSupport.park();
+                        }
+                        idle = false;
+                        continue;
+                    }
+
+                    long delayNanos = partition.deadlineNanos - nanoTime();
+                    if (delayNanos > 0) {
+                        LockSupport.parkNanos(delayNanos);
+                        continue;
+                    }
+
+                    scheduled.poll();
+                    operationExecutor.execute(new FlushTask(partition));
+                }
+            } catch (Throwable t) {
+                inspectOutOfMemoryError(t);
+                logger.severe(t);
+            }
+        }
+
+        private void shutdown() {
+            shutdown = true;
+            LockSupport.unpark(this);
+        }
+    }
+}
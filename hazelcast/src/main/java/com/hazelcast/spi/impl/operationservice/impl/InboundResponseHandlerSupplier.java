@@ -30,8 +30,8 @@ import com.hazelcast.util.MutableInteger;
 import com.hazelcast.util.concurrent.BackoffIdleStrategy;
 import com.hazelcast.util.concurrent.BusySpinIdleStrategy;
 import com.hazelcast.util.concurrent.IdleStrategy;
+import com.hazelcast.util.function.BatchConsumer;
 
-import java.util.concurrent.BlockingQueue;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -223,7 +223,7 @@ public class InboundResponseHandlerSupplier implements MetricsProvider, Supplier
         }
     }
 
-    final class AsyncSingleThreadedResponseHandler implements Consumer<Packet> {
+    final class AsyncSingleThreadedResponseHandler implements BatchConsumer<Packet> {
         private final ResponseThread responseThread;
 
         private AsyncSingleThreadedResponseHandler() {
@@ -235,6 +235,12 @@ public class InboundResponseHandlerSupplier implements MetricsProvider, Supplier
             // there is only one thread, no need to do a mod.
             responseThread.responseQueue.add(packet);
         }
+
+        @Override
+        public void acceptAll(Packet[] packets, int count) {
+            // the response thread is notified only once for the whole batch.
+            responseThread.responseQueue.offerAll(packets, count);
+        }
     }
 
     final class AsyncMultithreadedResponseHandler implements Consumer<Packet> {
@@ -251,7 +257,7 @@ public class InboundResponseHandlerSupplier implements MetricsProvider, Supplier
      */
     private final class ResponseThread extends Thread implements OperationHostileThread {
 
-        private final BlockingQueue<Packet> responseQueue;
+        private final MPSCQueue<Packet> responseQueue;
         private final InboundResponseHandler inboundResponseHandler;
         private volatile boolean shutdown;
 
@@ -18,11 +18,14 @@ package com.hazelcast.spi.impl.operationservice.impl;
 
 import com.hazelcast.instance.impl.Node;
 import com.hazelcast.internal.cluster.impl.ClusterServiceImpl;
+import com.hazelcast.internal.metrics.MetricsProvider;
+import com.hazelcast.internal.metrics.MetricsRegistry;
 import com.hazelcast.internal.partition.InternalPartition;
 import com.hazelcast.internal.partition.InternalPartitionService;
 import com.hazelcast.internal.partition.PartitionReplica;
 import com.hazelcast.internal.partition.PartitionReplicaVersionManager;
 import com.hazelcast.logging.ILogger;
+import com.hazelcast.nio.Address;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.spi.partition.FragmentedMigrationAwareService;
 import com.hazelcast.spi.impl.operationservice.BackupAwareOperation;
@@ -30,18 +33,37 @@ import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.ServiceNamespace;
 import com.hazelcast.spi.ServiceNamespaceAware;
 import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.impl.operationexecutor.BatchCompletionHandler;
+import com.hazelcast.spi.impl.operationexecutor.OperationExecutor;
+import com.hazelcast.spi.impl.operationexecutor.impl.PartitionOperationThread;
 import com.hazelcast.spi.impl.operationservice.TargetAware;
 import com.hazelcast.spi.impl.operationservice.impl.operations.Backup;
+import com.hazelcast.spi.impl.operationservice.impl.operations.BackupBatch;
+import com.hazelcast.spi.properties.HazelcastProperties;
+
+import java.util.Arrays;
 
 import static com.hazelcast.internal.partition.InternalPartition.MAX_BACKUP_COUNT;
+import static com.hazelcast.spi.impl.operationexecutor.impl.OperationExecutorImpl.BATCH_SIZE;
 import static com.hazelcast.spi.impl.operationservice.OperationAccessor.hasActiveInvocation;
 import static com.hazelcast.spi.impl.operationservice.OperationAccessor.setCallId;
+import static com.hazelcast.spi.properties.GroupProperty.OPERATION_BACKUP_COALESCING_MAX_BATCH_SIZE;
+import static com.hazelcast.spi.properties.GroupProperty.OPERATION_BACKUP_COALESCING_WINDOW_MICROS;
+import static com.hazelcast.spi.properties.GroupProperty.PARTITION_COUNT;
 import static java.lang.Math.min;
 
 /**
  * Responsible for creating a backups of an operation.
+ *
+ * If the partition threads process their tasks in batches, the backups created
+ * on a partition thread are deferred till its batch completes. The backups for
+ * the same partition and replica are then sent as a single {@link BackupBatch}.
+ *
+ * If backup coalescing is enabled, the backups are held back by the
+ * {@link BackupCoalescer} instead, which combines the backups of a partition
+ * over a short window.
  */
-final class OperationBackupHandler {
+final class OperationBackupHandler implements BatchCompletionHandler, MetricsProvider {
 
     private static final boolean ASSERTION_ENABLED = OperationBackupHandler.class.desiredAssertionStatus();
 
@@ -50,6 +72,16 @@ final class OperationBackupHandler {
     private final BackpressureRegulator backpressureRegulator;
     private final OutboundOperationHandler outboundOperationHandler;
     private final ILogger logger;
+    private final boolean batchingEnabled;
+    // null if backup coalescing is disabled
+    private final BackupCoalescer backupCoalescer;
+    // the backups a partition thread has deferred till its batch completes
+    private final ThreadLocal<PendingBackups> pendingBackups = new ThreadLocal<PendingBackups>() {
+        @Override
+        protected PendingBackups initialValue() {
+            return new PendingBackups();
+        }
+    };
 
     OperationBackupHandler(OperationServiceImpl operationService, OutboundOperationHandler outboundOperationHandler) {
         this.outboundOperationHandler = outboundOperationHandler;
@@ -57,6 +89,33 @@ final class OperationBackupHandler {
         this.nodeEngine = operationService.nodeEngine;
         this.backpressureRegulator = operationService.backpressureRegulator;
         this.logger = node.getLogger(getClass());
+        HazelcastProperties properties = node.getProperties();
+        this.batchingEnabled = properties.getInteger(BATCH_SIZE) > 1;
+        long coalescingWindowNanos = properties.getNanos(OPERATION_BACKUP_COALESCING_WINDOW_MICROS);
+        this.backupCoalescer = coalescingWindowNanos > 0
+                ? new BackupCoalescer(outboundOperationHandler, node.getLogger(BackupCoalescer.class),
+                nodeEngine.getHazelcastInstance().getName(), properties.getInteger(PARTITION_COUNT),
+                coalescingWindowNanos, properties.getInteger(OPERATION_BACKUP_COALESCING_MAX_BATCH_SIZE))
+                : null;
+    }
+
+    void start(OperationExecutor operationExecutor) {
+        if (backupCoalescer != null) {
+            backupCoalescer.start(operationExecutor);
+        }
+    }
+
+    void shutdown() {
+        if (backupCoalescer != null) {
+            backupCoalescer.shutdown();
+        }
+    }
+
+    @Override
+    public void provideMetrics(MetricsRegistry registry) {
+        if (backupCoalescer != null) {
+            registry.scanAndRegister(backupCoalescer, "operation.backupCoalescer");
+        }
     }
 
     /**
@@ -94,6 +153,11 @@ final class OperationBackupHandler {
         ServiceNamespace namespace = versionManager.getServiceNamespace(op);
         long[] replicaVersions = versionManager.incrementPartitionReplicaVersions(op.getPartitionId(), namespace,
                 requestedTotalBackups);
+        if (isSendDeferred()) {
+            // the returned array is the live version array of the partition; a deferred backup is serialized
+            // after the next operations of the partition have incremented it, so it needs the versions of now
+            replicaVersions = Arrays.copyOf(replicaVersions, replicaVersions.length);
+        }
 
         boolean syncForced = backpressureRegulator.isSyncForced(backupAwareOp);
 
@@ -226,7 +290,7 @@ final class OperationBackupHandler {
                 boolean isSyncBackup = replicaIndex <= syncBackups;
 
                 Backup backup = newBackup(backupAwareOp, backupOpData, replicaVersions, replicaIndex, isSyncBackup);
-                outboundOperationHandler.send(backup, target.address());
+                send(backup, target.address());
 
                 if (isSyncBackup) {
                     sendSyncBackups++;
@@ -265,8 +329,13 @@ final class OperationBackupHandler {
 
             boolean isSyncBackup = syncBackups == 1;
 
-            Backup backup = newBackup(backupAwareOp, backupOp, replicaVersions, 1, isSyncBackup);
-            outboundOperationHandler.send(backup, target.address());
+            // a deferred backup is serialized after the primary has moved on, so it
+            // must not refer to state the primary could still modify
+            Object backupOpOrData = isSendDeferred()
+                    ? nodeEngine.getSerializationService().toData(backupOp)
+                    : backupOp;
+            Backup backup = newBackup(backupAwareOp, backupOpOrData, replicaVersions, 1, isSyncBackup);
+            send(backup, target.address());
 
             if (isSyncBackup) {
                 return 1;
@@ -341,6 +410,38 @@ final class OperationBackupHandler {
         return backup;
     }
 
+    /**
+     * Checks if the backups of the calling thread are sent after the primary
+     * operation has completed, instead of immediately.
+     */
+    private boolean isSendDeferred() {
+        return backupCoalescer != null || isBatchingThread();
+    }
+
+    private boolean isBatchingThread() {
+        return batchingEnabled && Thread.currentThread().getClass() == PartitionOperationThread.class;
+    }
+
+    private void send(Backup backup, Address target) {
+        if (backupCoalescer != null) {
+            backupCoalescer.add(backup, target);
+        } else if (isBatchingThread()) {
+            // the backup is sent when the batch of the partition thread completes
+            pendingBackups.get().add(backup, target);
+        } else {
+            outboundOperationHandler.send(backup, target);
+        }
+    }
+
+    /**
+     * Sends the backups the calling partition thread has deferred while
+     * processing its batch.
+     */
+    @Override
+    public void onBatchCompleted() {
+        pendingBackups.get().send(outboundOperationHandler, logger);
+    }
+
     private boolean skipSendingBackupToTarget(InternalPartition partition, PartitionReplica target) {
         ClusterServiceImpl clusterService = node.getClusterService();
 
@@ -49,6 +49,7 @@ import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.impl.operationservice.OperationResponseHandler;
 import com.hazelcast.spi.impl.operationservice.ReadonlyOperation;
 import com.hazelcast.spi.exception.CallerNotMemberException;
+import com.hazelcast.spi.exception.OperationQueueOverloadException;
 import com.hazelcast.spi.exception.PartitionMigratingException;
 import com.hazelcast.spi.exception.ResponseAlreadySentException;
 import com.hazelcast.spi.exception.RetryableException;
@@ -57,7 +58,10 @@ import com.hazelcast.spi.exception.WrongTargetException;
 import com.hazelcast.spi.impl.AllowedDuringPassiveState;
 import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.spi.impl.operationexecutor.OperationRunner;
+import com.hazelcast.spi.impl.operationexecutor.impl.PartitionOperationThread;
+import com.hazelcast.spi.impl.operationservice.BackupOperation;
 import com.hazelcast.spi.impl.operationservice.impl.operations.Backup;
+import com.hazelcast.spi.impl.operationservice.impl.operations.BackupBatch;
 import com.hazelcast.spi.impl.operationservice.impl.responses.CallTimeoutResponse;
 import com.hazelcast.spi.impl.operationservice.impl.responses.ErrorResponse;
 import com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse;
@@ -73,12 +77,14 @@ import static com.hazelcast.spi.impl.operationservice.CallStatus.DONE_RESPONSE_O
 import static com.hazelcast.spi.impl.operationservice.CallStatus.DONE_VOID_ORDINAL;
 import static com.hazelcast.spi.impl.operationservice.CallStatus.OFFLOAD_ORDINAL;
 import static com.hazelcast.spi.impl.operationservice.CallStatus.WAIT_ORDINAL;
+import static com.hazelcast.spi.impl.operationservice.OperationAccessor.hasActiveInvocation;
 import static com.hazelcast.spi.impl.operationservice.OperationAccessor.setCallerAddress;
 import static com.hazelcast.spi.impl.operationservice.OperationAccessor.setConnection;
 import static com.hazelcast.spi.impl.operationservice.OperationResponseHandlerFactory.createEmptyResponseHandler;
 import static com.hazelcast.spi.impl.operationservice.Operations.isJoinOperation;
 import static com.hazelcast.spi.impl.operationservice.Operations.isMigrationOperation;
 import static com.hazelcast.spi.impl.operationservice.Operations.isWanReplicationOperation;
+import static com.hazelcast.spi.properties.GroupProperty.BACKPRESSURE_QUEUE_DELAY_TARGET_MILLIS;
 import static com.hazelcast.spi.properties.GroupProperty.DISABLE_STALE_READ_ON_PARTITION_MIGRATION;
 import static java.util.logging.Level.FINEST;
 import static java.util.logging.Level.SEVERE;
@@ -104,6 +110,10 @@ class OperationRunnerImpl extends OperationRunner implements MetricsProvider {
 
     private final Counter failedBackupsCounter;
     private final OperationBackupHandler backupHandler;
+    // true if overdue operations taken from the queue of the partition thread are rejected
+    private final boolean rejectOverdue;
+    @Probe
+    private final Counter rejectedOverdueCounter = newSwCounter();
 
     // has only meaning for metrics.
     private final int genericId;
@@ -131,6 +141,7 @@ class OperationRunnerImpl extends OperationRunner implements MetricsProvider {
         this.staleReadOnMigrationEnabled = !node.getProperties().getBoolean(DISABLE_STALE_READ_ON_PARTITION_MIGRATION);
         this.failedBackupsCounter = failedBackupsCounter;
         this.backupHandler = operationService.backupHandler;
+        this.rejectOverdue = partitionId >= 0 && node.getProperties().getNanos(BACKPRESSURE_QUEUE_DELAY_TARGET_MILLIS) > 0;
         // only a ad-hoc operation runner will be called concurrently
         this.executedOperationsCounter = partitionId == AD_HOC_PARTITION_ID ? newMwCounter() : newSwCounter();
     }
@@ -190,6 +201,10 @@ class OperationRunnerImpl extends OperationRunner implements MetricsProvider {
                 return;
             }
 
+            if (publishCurrentTask && rejectOverdue(op)) {
+                return;
+            }
+
             ensureNoPartitionProblems(op);
 
             ensureQuorumPresent(op);
@@ -296,6 +311,37 @@ class OperationRunnerImpl extends OperationRunner implements MetricsProvider {
         return true;
     }
 
+    /**
+     * Rejects the operation if it has been waiting too long in the queue of
+     * the overloaded partition thread. Only operations an invocation is waiting
+     * for are rejected, since the caller can deal with the rejection.
+     */
+    private boolean rejectOverdue(Operation op) {
+        if (!rejectOverdue
+                || op.isUrgent()
+                || op instanceof BackupOperation
+                || !hasActiveInvocation(op)
+                || isMigrationOperation(op)) {
+            return false;
+        }
+
+        Thread thread = Thread.currentThread();
+        if (!(thread instanceof PartitionOperationThread)) {
+            return false;
+        }
+
+        PartitionOperationThread partitionThread = (PartitionOperationThread) thread;
+        if (!partitionThread.isCurrentTaskOverdue()) {
+            return false;
+        }
+
+        rejectedOverdueCounter.inc();
+        operationService.rejectedOverdueCount.inc();
+        op.sendResponse(new OperationQueueOverloadException(thisAddress, op.getPartitionId(),
+                op.getClass().getName(), partitionThread.lastWaitTimeNanos()));
+        return true;
+    }
+
     private void afterRun(Operation op) {
         try {
             op.afterRun();
@@ -357,7 +403,7 @@ class OperationRunnerImpl extends OperationRunner implements MetricsProvider {
 
         operation.logError(e);
 
-        if (operation instanceof Backup) {
+        if (operation instanceof Backup || operation instanceof BackupBatch) {
             failedBackupsCounter.inc();
             return;
         }
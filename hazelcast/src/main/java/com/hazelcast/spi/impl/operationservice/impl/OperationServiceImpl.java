@@ -118,6 +118,9 @@ public final class OperationServiceImpl implements MetricsProvider, LiveOperatio
     @Probe(name = "failedBackups", level = MANDATORY)
     final Counter failedBackupsCount = newMwCounter();
 
+    @Probe(name = "rejectedOverdueCount", level = MANDATORY)
+    final MwCounter rejectedOverdueCount = newMwCounter();
+
     final NodeEngineImpl nodeEngine;
     final Node node;
     final ILogger logger;
@@ -170,7 +173,7 @@ public final class OperationServiceImpl implements MetricsProvider, LiveOperatio
 
         this.operationExecutor = new OperationExecutorImpl(
                 node.getProperties(), node.loggingService, thisAddress, new OperationRunnerFactoryImpl(this),
-                node.getNodeExtension(), hzName, configClassLoader);
+                node.getNodeExtension(), hzName, configClassLoader, backupHandler);
 
         this.slowOperationDetector = new SlowOperationDetector(node.loggingService,
                 operationExecutor.getGenericOperationRunners(), operationExecutor.getPartitionOperationRunners(),
@@ -452,7 +455,8 @@ public final class OperationServiceImpl implements MetricsProvider, LiveOperatio
     @Override
     public void provideMetrics(MetricsRegistry registry) {
         registry.scanAndRegister(this, "operation");
-        registry.collectMetrics(invocationRegistry, invocationMonitor, inboundResponseHandlerSupplier, operationExecutor);
+        registry.collectMetrics(invocationRegistry, invocationMonitor, inboundResponseHandlerSupplier, operationExecutor,
+                backupHandler);
     }
 
     public void start() {
@@ -461,6 +465,7 @@ public final class OperationServiceImpl implements MetricsProvider, LiveOperatio
         initInvocationContext();
         invocationMonitor.start();
         operationExecutor.start();
+        backupHandler.start(operationExecutor);
         inboundResponseHandlerSupplier.start();
         slowOperationDetector.start();
     }
@@ -516,6 +521,7 @@ public final class OperationServiceImpl implements MetricsProvider, LiveOperatio
         logger.finest("Shutting down operation executors");
 
         operationExecutor.shutdown();
+        backupHandler.shutdown();
         slowOperationDetector.shutdown();
     }
 }
@@ -18,6 +18,7 @@ package com.hazelcast.spi.impl.operationservice.impl;
 
 import com.hazelcast.instance.impl.Node;
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.PooledPayload;
 import com.hazelcast.nio.Address;
 import com.hazelcast.nio.Connection;
 import com.hazelcast.nio.Packet;
@@ -53,14 +54,19 @@ public class OutboundOperationHandler {
     }
 
     public boolean send(Operation op, Connection connection) {
-        byte[] bytes = serializationService.toBytes(op);
+        // large operations are sent straight from the pooled output buffer
+        PooledPayload payload = serializationService.toPooledBytes(op);
         int partitionId = op.getPartitionId();
-        Packet packet = new Packet(bytes, partitionId).setPacketType(Packet.Type.OPERATION);
+        Packet packet = new Packet(payload, partitionId).setPacketType(Packet.Type.OPERATION);
 
         if (op.isUrgent()) {
             packet.raiseFlags(FLAG_URGENT);
         }
 
-        return node.getEndpointManager(MEMBER).transmit(packet, connection);
+        if (!node.getEndpointManager(MEMBER).transmit(packet, connection)) {
+            packet.releasePayload();
+            return false;
+        }
+        return true;
     }
 }
@@ -17,6 +17,7 @@
 package com.hazelcast.spi.impl.operationservice.impl;
 
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.PooledPayload;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.nio.Address;
 import com.hazelcast.nio.EndpointManager;
@@ -111,9 +112,9 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
             throw new IllegalArgumentException("Target is this node! -> " + target + ", response: " + response);
         }
 
-        byte[] bytes = serializationService.toBytes(response);
+        PooledPayload payload = serializationService.toPooledBytes(response);
 
-        Packet packet = newResponsePacket(bytes, response.isUrgent());
+        Packet packet = newResponsePacket(payload, response.isUrgent());
 
         return transmit(target, packet, endpointManager);
     }
@@ -128,6 +129,7 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
     }
 
     Packet toNormalResponsePacket(long callId, int backupAcks, boolean urgent, Object value) {
+        PooledPayload payload;
         byte[] bytes;
         boolean isData = value instanceof Data;
         if (isData) {
@@ -141,16 +143,18 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
             // byte-array to be created and a intermediate copy of the data, we immediately copy the NativeMemoryData
             // into the bytes for the packet.
             data.copyTo(bytes, OFFSET_DATA_PAYLOAD);
+            payload = new PooledPayload(bytes);
         } else if (value == null) {
             // since there are many 'null' responses we optimize this case as well.
             bytes = new byte[OFFSET_NOT_DATA + INT_SIZE_IN_BYTES];
             writeInt(bytes, OFFSET_NOT_DATA, CONSTANT_TYPE_NULL, useBigEndian);
+            payload = new PooledPayload(bytes);
         } else {
             // for regular object we currently can't guess how big the bytes will be; so we just hand it
-            // over to the serializationService to deal with it. The negative part is that this does lead to
-            // an intermediate copy of the data.
-
-            bytes = serializationService.toBytes(value, OFFSET_NOT_DATA, false);
+            // over to the serializationService to deal with it. Large objects are not copied out of the
+            // pooled output buffer, the packet shares the buffer instead.
+            payload = serializationService.toPooledBytes(value, OFFSET_NOT_DATA, false);
+            bytes = payload.bytes();
         }
 
         writeResponsePrologueBytes(bytes, NORMAL_RESPONSE, callId, urgent);
@@ -161,7 +165,7 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
         bytes[OFFSET_IS_DATA] = (byte) (isData ? 1 : 0);
         //the remaining part of the byte array is already filled, so we are done.
 
-        return newResponsePacket(bytes, urgent);
+        return newResponsePacket(payload, urgent);
     }
 
     public void sendBackupAck(EndpointManager endpointManager, Address target, long callId, boolean urgent) {
@@ -177,7 +181,7 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
 
         writeResponsePrologueBytes(bytes, BACKUP_ACK_RESPONSE, callId, urgent);
 
-        return newResponsePacket(bytes, urgent);
+        return newResponsePacket(new PooledPayload(bytes), urgent);
     }
 
     private void writeResponsePrologueBytes(byte[] bytes, int typeId, long callId, boolean urgent) {
@@ -197,8 +201,8 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
         bytes[OFFSET_URGENT] = (byte) (urgent ? 1 : 0);
     }
 
-    private Packet newResponsePacket(byte[] bytes, boolean urgent) {
-        Packet packet = new Packet(bytes, -1)
+    private Packet newResponsePacket(PooledPayload payload, boolean urgent) {
+        Packet packet = new Packet(payload, -1)
                 .setPacketType(OPERATION)
                 .raiseFlags(FLAG_OP_RESPONSE);
 
@@ -209,7 +213,11 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
     }
 
     private boolean transmit(Address target, Packet packet, EndpointManager endpointManager) {
-        return endpointManager.transmit(packet, target);
+        if (!endpointManager.transmit(packet, target)) {
+            packet.releasePayload();
+            return false;
+        }
+        return true;
     }
 
     private void checkTarget(Address target) {
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.nio.Address;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.impl.operations.Backup;
+import com.hazelcast.spi.impl.operationservice.impl.operations.BackupBatch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The backups that have been held back, so they can be sent together.
+ *
+ * When sent, the backups for the same partition, replica and target are
+ * combined into a single {@link BackupBatch}. The order of the backups for a
+ * replica is preserved.
+ *
+ * This class isn't thread-safe.
+ */
+final class PendingBackups {
+
+    private final List<Backup> backups = new ArrayList<Backup>();
+    private final List<Address> targets = new ArrayList<Address>();
+
+    void add(Backup backup, Address target) {
+        backups.add(backup);
+        targets.add(target);
+    }
+
+    int size() {
+        return backups.size();
+    }
+
+    /**
+     * Sends the pending backups and clears them.
+     *
+     * @param outboundOperationHandler the handler to send the backups with
+     * @param logger                   the logger to log a failure to send with
+     * @return the number of packets sent
+     */
+    int send(OutboundOperationHandler outboundOperationHandler, ILogger logger) {
+        int packets = 0;
+        try {
+            for (int i = 0; i < backups.size(); i++) {
+                Backup backup = backups.get(i);
+                if (backup == null) {
+                    // already added to the batch of an earlier backup
+                    continue;
+                }
+
+                Address target = targets.get(i);
+                List<Backup> batch = null;
+                for (int j = i + 1; j < backups.size(); j++) {
+                    Backup other = backups.get(j);
+                    if (other != null
+                            && other.getPartitionId() == backup.getPartitionId()
+                            && other.getReplicaIndex() == backup.getReplicaIndex()
+                            && targets.get(j).equals(target)) {
+                        if (batch == null) {
+                            batch = new ArrayList<Backup>();
+                            batch.add(backup);
+                        }
+                        batch.add(other);
+                        backups.set(j, null);
+                    }
+                }
+
+                if (batch == null) {
+                    send(outboundOperationHandler, logger, backup, target);
+                } else {
+                    BackupBatch backupBatch = new BackupBatch(batch.toArray(new Backup[0]));
+                    backupBatch.setPartitionId(backup.getPartitionId()).setReplicaIndex(backup.getReplicaIndex());
+                    send(outboundOperationHandler, logger, backupBatch, target);
+                }
+                packets++;
+            }
+        } finally {
+            backups.clear();
+            targets.clear();
+        }
+        return packets;
+    }
+
+    private static void send(OutboundOperationHandler outboundOperationHandler, ILogger logger, Operation op,
+                             Address target) {
+        try {
+            outboundOperationHandler.send(op, target);
+        } catch (Throwable t) {
+            // the caller of the operation is already notified, so the error can only be logged
+            logger.warning("Failed to send " + op + " to " + target, t);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl.operations;
+
+import com.hazelcast.internal.partition.ReplicaErrorLogger;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.spi.impl.AllowedDuringPassiveState;
+import com.hazelcast.spi.impl.SpiDataSerializerHook;
+import com.hazelcast.spi.impl.operationservice.BackupOperation;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.OperationAccessor;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import java.io.IOException;
+
+import static com.hazelcast.spi.impl.operationexecutor.OperationRunner.runDirect;
+import static com.hazelcast.spi.impl.operationservice.OperationResponseHandlerFactory.createEmptyResponseHandler;
+
+/**
+ * A batch of {@link Backup} operations for the same partition and replica, so
+ * they can be sent to the replica in a single packet.
+ *
+ * The backups are run in order; a failing backup doesn't prevent the others
+ * from running. Each backup sends its own backup ack, so for the invocations
+ * it makes no difference if a backup has been sent as part of a batch.
+ */
+public final class BackupBatch extends Operation implements BackupOperation, AllowedDuringPassiveState,
+        IdentifiedDataSerializable {
+
+    private Backup[] backups;
+
+    public BackupBatch() {
+    }
+
+    @SuppressFBWarnings("EI_EXPOSE_REP2")
+    public BackupBatch(Backup[] backups) {
+        this.backups = backups;
+    }
+
+    @SuppressFBWarnings("EI_EXPOSE_REP")
+    public Backup[] getBackups() {
+        return backups;
+    }
+
+    @Override
+    public void run() throws Exception {
+        for (Backup backup : backups) {
+            backup.setNodeEngine(getNodeEngine());
+            OperationAccessor.setCallerAddress(backup, getCallerAddress());
+            OperationAccessor.setConnection(backup, getConnection());
+            if (backup.getCallerUuid() == null) {
+                backup.setCallerUuid(getCallerUuid());
+            }
+            backup.setOperationResponseHandler(createEmptyResponseHandler());
+
+            try {
+                runDirect(backup);
+            } catch (Throwable e) {
+                backup.onExecutionFailure(e);
+                backup.logError(e);
+            }
+        }
+    }
+
+    @Override
+    public boolean returnsResponse() {
+        return false;
+    }
+
+    @Override
+    public boolean validatesTarget() {
+        return false;
+    }
+
+    @Override
+    public void onExecutionFailure(Throwable e) {
+        for (Backup backup : backups) {
+            backup.setNodeEngine(getNodeEngine());
+            try {
+                backup.onExecutionFailure(e);
+            } catch (Throwable t) {
+                getLogger().warning("While calling operation.onFailure(). op: " + backup, t);
+            }
+        }
+    }
+
+    @Override
+    public void logError(Throwable e) {
+        ReplicaErrorLogger.log(e, getLogger());
+    }
+
+    @Override
+    public int getFactoryId() {
+        return SpiDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return SpiDataSerializerHook.BACKUP_BATCH;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        out.writeInt(backups.length);
+        for (Backup backup : backups) {
+            out.writeObject(backup);
+        }
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        int count = in.readInt();
+        backups = new Backup[count];
+        for (int k = 0; k < count; k++) {
+            backups[k] = in.readObject();
+        }
+    }
+
+    @Override
+    protected void toString(StringBuilder sb) {
+        super.toString(sb);
+
+        sb.append(", backups=").append(backups.length);
+    }
+}
@@ -31,6 +31,7 @@ import com.hazelcast.query.impl.predicates.QueryOptimizerFactory;
 import com.hazelcast.spi.impl.operationservice.InvocationBuilder;
 import com.hazelcast.spi.impl.operationservice.OperationService;
 
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
@@ -76,6 +77,23 @@ public final class GroupProperty {
     public static final HazelcastProperty PARTITION_OPERATION_THREAD_COUNT
             = new HazelcastProperty("hazelcast.operation.thread.count", -1);
 
+    /**
+     * The CPUs the partition operation threads are pinned to. This is optional CPU pinning: the threads
+     * only get restricted to the given CPUs, the partitions and the connections they serve are not
+     * co-located with the IO threads.
+     * <p>
+     * The affinity is a comma separated list like {@code 0-3,[4-5]}: {@code 0-3} results in 4 threads, each
+     * pinned to its own CPU, and {@code [4-5]} results in a single thread allowed to run on CPU 4 and 5. When
+     * an affinity is configured, the number of threads of the pool is determined by the affinity and
+     * {@link #PARTITION_OPERATION_THREAD_COUNT} is ignored. The affinities of the thread pools are configured
+     * independently; pinning threads of different pools to the same CPUs makes them compete for that CPU.
+     * <p>
+     * An affinity is only applied when {@link #THREAD_AFFINITY_TASKSET_ENABLED} is set. By default no threads
+     * are pinned.
+     */
+    public static final HazelcastProperty PARTITION_OPERATION_THREAD_AFFINITY
+            = new HazelcastProperty("hazelcast.operation.thread.affinity");
+
     /**
      * The number of generic operation handler threads per member.
      * <p>
@@ -218,6 +236,36 @@ public final class GroupProperty {
     public static final HazelcastProperty IO_OUTPUT_THREAD_COUNT
             = new HazelcastProperty("hazelcast.io.output.thread.count", IO_THREAD_COUNT);
 
+    /**
+     * The CPUs the socket input threads are pinned to. When set, {@link #IO_INPUT_THREAD_COUNT} is ignored
+     * and the {@link com.hazelcast.internal.networking.nio.iobalancer.IOBalancer IOBalancer} is disabled, since
+     * it would move the channels between the pinned threads. See {@link #PARTITION_OPERATION_THREAD_AFFINITY}
+     * for the format. By default no threads are pinned.
+     */
+    public static final HazelcastProperty IO_INPUT_THREAD_AFFINITY
+            = new HazelcastProperty("hazelcast.io.input.thread.affinity");
+
+    /**
+     * The CPUs the socket output threads are pinned to. When set, {@link #IO_OUTPUT_THREAD_COUNT} is ignored
+     * and the {@link com.hazelcast.internal.networking.nio.iobalancer.IOBalancer IOBalancer} is disabled.
+     * See {@link #PARTITION_OPERATION_THREAD_AFFINITY} for the format. By default no threads are pinned.
+     */
+    public static final HazelcastProperty IO_OUTPUT_THREAD_AFFINITY
+            = new HazelcastProperty("hazelcast.io.output.thread.affinity");
+
+    /**
+     * Enables pinning the threads configured by {@link #IO_INPUT_THREAD_AFFINITY},
+     * {@link #IO_OUTPUT_THREAD_AFFINITY} and {@link #PARTITION_OPERATION_THREAD_AFFINITY}.
+     * <p>
+     * The JVM has no API to pin a thread, so each pinned thread forks a {@code taskset} process when it
+     * starts. This requires Linux with {@code taskset} on the path, and permission for the process to
+     * fork. A thread that can't be pinned logs a warning and runs unpinned.
+     * <p>
+     * When an affinity is configured while this property isn't set, the member fails to start.
+     */
+    public static final HazelcastProperty THREAD_AFFINITY_TASKSET_ENABLED
+            = new HazelcastProperty("hazelcast.thread.affinity.taskset.enabled", false);
+
     /**
      * The interval in seconds between {@link com.hazelcast.internal.networking.nio.iobalancer.IOBalancer IOBalancer}
      * executions. The shorter intervals will catch I/O Imbalance faster, but they will cause higher overhead.
@@ -230,6 +278,70 @@ public final class GroupProperty {
     public static final HazelcastProperty IO_BALANCER_INTERVAL_SECONDS
             = new HazelcastProperty("hazelcast.io.balancer.interval.seconds", 20, SECONDS);
 
+    /**
+     * Enables gathering writes for member to member connections. Packets with a large payload are not copied
+     * into the socket send buffer; the payload is handed to the socket next to the send buffer in a single
+     * {@link java.nio.channels.GatheringByteChannel#write(java.nio.ByteBuffer[]) gathering write}.
+     * <p>
+     * Only used when the packets are written to the socket as is. So it has no effect if the outbound pipeline
+     * contains handlers transforming the encoded bytes, e.g. for TLS.
+     * <p>
+     * The default is false.
+     */
+    public static final HazelcastProperty IO_WRITE_GATHER_ENABLED
+            = new HazelcastProperty("hazelcast.io.write.gather.enabled", false);
+
+    /**
+     * The minimum payload size in bytes of a packet to be handed to the socket without copying it into the
+     * send buffer when {@link #IO_WRITE_GATHER_ENABLED} is set. Smaller payloads are cheaper to copy than to
+     * write as a separate buffer.
+     * <p>
+     * The default is 8192 bytes.
+     */
+    public static final HazelcastProperty IO_WRITE_GATHER_THRESHOLD_BYTES
+            = new HazelcastProperty("hazelcast.io.write.gather.threshold.bytes", 8192);
+
+    /**
+     * The maximum time in microseconds small frames are held back by a member to member connection, so that
+     * they are written to the socket together with the frames that follow. This trades a bit of latency for
+     * fewer write calls when there are many small operations.
+     * <p>
+     * Frames are only held back if the connection wrote recently; an idle connection writes immediately.
+     * Unless the selector mode is selectnow, the delay is rounded up to whole milliseconds, since that is
+     * the resolution of the selector.
+     * <p>
+     * The default is 0, which disables write coalescing.
+     */
+    public static final HazelcastProperty IO_WRITE_COALESCING_DELAY_MICROS
+            = new HazelcastProperty("hazelcast.io.write.coalescing.delay.micros", 0, MICROSECONDS);
+
+    /**
+     * Enables the compression of the data a member sends to the other members. Compression trades CPU for
+     * network bandwidth, so it only pays off when the network is the bottleneck.
+     * <p>
+     * The member that opens a connection compresses and announces it during the protocol exchange. The
+     * other member compresses its side of the connection only if it has compression enabled as well, so members
+     * with and without compression enabled can be part of the same cluster. However, members of versions that
+     * don't support compression refuse the connections opened by a compressing member, so compression must not
+     * be enabled during a rolling upgrade from such a version.
+     * <p>
+     * The connections of clients are not compressed: the client protocol has no way to negotiate compression
+     * and the clients, including the non-Java ones, don't implement decompression.
+     * <p>
+     * The default is false.
+     */
+    public static final HazelcastProperty IO_COMPRESSION_ENABLED
+            = new HazelcastProperty("hazelcast.io.compression.enabled", false);
+
+    /**
+     * The minimum size in bytes of a block of outbound data to be compressed when
+     * {@link #IO_COMPRESSION_ENABLED} is set. Smaller blocks are sent uncompressed.
+     * <p>
+     * The default is 1024 bytes.
+     */
+    public static final HazelcastProperty IO_COMPRESSION_THRESHOLD_BYTES
+            = new HazelcastProperty("hazelcast.io.compression.threshold.bytes", 1024);
+
     @SuppressWarnings("checkstyle:constantname")
     public static final HazelcastProperty PREFER_IPv4_STACK
             = new HazelcastProperty("hazelcast.prefer.ipv4.stack", true);
@@ -294,6 +406,25 @@ public final class GroupProperty {
     public static final HazelcastProperty OPERATION_BACKUP_TIMEOUT_MILLIS
             = new HazelcastProperty("hazelcast.operation.backup.timeout.millis", 5000, MILLISECONDS);
 
+    /**
+     * The maximum time in microseconds the backups of a partition are held back by the primary, so that
+     * the backups for the same replica are sent as a single packet. This trades a bit of latency of the
+     * sync backups for fewer packets when there are many small mutating operations. The window should be
+     * much smaller than {@link #OPERATION_BACKUP_TIMEOUT_MILLIS}.
+     * <p>
+     * The default is 0, which disables backup coalescing.
+     */
+    public static final HazelcastProperty OPERATION_BACKUP_COALESCING_WINDOW_MICROS
+            = new HazelcastProperty("hazelcast.operation.backup.coalescing.window.micros", 0, MICROSECONDS);
+
+    /**
+     * The maximum number of backups of a partition that are held back when
+     * {@link #OPERATION_BACKUP_COALESCING_WINDOW_MICROS} is set. When this number is reached, the
+     * backups are sent without waiting for the window to end.
+     */
+    public static final HazelcastProperty OPERATION_BACKUP_COALESCING_MAX_BATCH_SIZE
+            = new HazelcastProperty("hazelcast.operation.backup.coalescing.max.batch.size", 64);
+
     /**
      * When this configuration is enabled, if an operation has sync backups and acks are not received from backup replicas
      * in time, or the member which owns primary replica of the target partition leaves the cluster, then the invocation fails
@@ -797,6 +928,31 @@ public final class GroupProperty {
     public static final HazelcastProperty BACKPRESSURE_MAX_CONCURRENT_INVOCATIONS_PER_PARTITION
             = new HazelcastProperty("hazelcast.backpressure.max.concurrent.invocations.per.partition", 100);
 
+    /**
+     * The target for the time an operation waits in the queue of a partition thread before it is executed.
+     * <p>
+     * If the wait time of the operations taken from the queue doesn't drop below the target for
+     * {@link #BACKPRESSURE_QUEUE_DELAY_INTERVAL_MILLIS}, the partition thread has a standing queue and is considered
+     * overloaded. As long as it is overloaded, the operations that have been waiting longer than the target are
+     * rejected with a {@link com.hazelcast.spi.exception.OperationQueueOverloadException} instead of being executed.
+     * This sheds the load quickly, instead of executing operations that are likely to run into a timeout at the caller.
+     * <p>
+     * Urgent system operations, backups and operations without an invocation waiting for them are never rejected.
+     * <p>
+     * This is independent of {@link #BACKPRESSURE_ENABLED}. The default is 0, which disables the rejection.
+     */
+    public static final HazelcastProperty BACKPRESSURE_QUEUE_DELAY_TARGET_MILLIS
+            = new HazelcastProperty("hazelcast.backpressure.queue.delay.target.millis", 0, MILLISECONDS);
+
+    /**
+     * The time the wait time of the operations in the queue of a partition thread needs to exceed
+     * {@link #BACKPRESSURE_QUEUE_DELAY_TARGET_MILLIS} before the partition thread is considered overloaded.
+     * <p>
+     * This allows short bursts of operations to be absorbed by the queue without any operation being rejected.
+     */
+    public static final HazelcastProperty BACKPRESSURE_QUEUE_DELAY_INTERVAL_MILLIS
+            = new HazelcastProperty("hazelcast.backpressure.queue.delay.interval.millis", 100, MILLISECONDS);
+
     /**
      * Run Query Evaluations for multiple partitions in parallel.
      * <p>
@@ -811,6 +967,20 @@ public final class GroupProperty {
     public static final HazelcastProperty QUERY_PREDICATE_PARALLEL_EVALUATION
             = new HazelcastProperty("hazelcast.query.predicate.parallel.evaluation", false);
 
+    /**
+     * Evaluate full-scan query predicates over chunks of entries in a columnar fashion.
+     * <p>
+     * When no index can serve a query, each partition is scanned and the predicate is applied one entry at a time. When
+     * enabled, the attributes referenced by the equal, greater/less and between predicates of the query are extracted
+     * into primitive arrays for a chunk of entries and the comparisons are evaluated over the arrays in tight loops;
+     * only the matching entries reach the rest of the predicate and the result. Queries having no such predicates are
+     * executed as usual.
+     * <p>
+     * The default is false.
+     */
+    public static final HazelcastProperty QUERY_COLUMNAR_SCAN
+            = new HazelcastProperty("hazelcast.query.columnar.scan", false);
+
     /**
      * Run aggregation accumulation for multiple entries in parallel.
      * <p>
@@ -864,6 +1034,9 @@ public final class GroupProperty {
      * Valid Values:
      * <ul>
      * <li>RULES - for optimizations based on static rules</li>
+     * <li>COST - for optimizations based on static rules followed by the
+     * index usage decisions based on the estimated selectivity of the
+     * predicates</li>
      * <li>NONE - optimization are disabled</li>
      * </ul>
      * <p>
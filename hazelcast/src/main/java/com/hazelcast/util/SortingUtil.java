@@ -19,9 +19,9 @@ package com.hazelcast.util;
 import com.hazelcast.internal.util.ResultSet;
 import com.hazelcast.query.PagingPredicate;
 import com.hazelcast.query.PagingPredicateAccessor;
+import com.hazelcast.query.impl.Comparables;
 import com.hazelcast.query.impl.QueryableEntry;
 
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
@@ -74,7 +74,9 @@ public final class SortingUtil {
         checkIfComparable(comparable1);
         checkIfComparable(comparable2);
 
-        int result = ((Comparable) comparable1).compareTo(comparable2);
+        // the same ordering as the one of the sorted indexes, so the pages don't
+        // depend on whether they were produced by walking an index or not
+        int result = Comparables.compare((Comparable) comparable1, (Comparable) comparable2);
         if (result != 0) {
             return result;
         }
@@ -124,7 +126,7 @@ public final class SortingUtil {
         return (entry1, entry2) -> SortingUtil.compare(comparator, iterationType, entry1, entry2);
     }
 
-    private static Comparator<QueryableEntry> newComparator(final PagingPredicate pagingPredicate) {
+    public static Comparator<QueryableEntry> newComparator(final PagingPredicate pagingPredicate) {
         return (entry1, entry2) -> SortingUtil
                 .compare(pagingPredicate.getComparator(),
                         PagingPredicateAccessor.getIterationType(pagingPredicate), entry1, entry2);
@@ -135,17 +137,33 @@ public final class SortingUtil {
         if (pagingPredicate == null || list.isEmpty()) {
             return list;
         }
-        Comparator<QueryableEntry> comparator = newComparator(pagingPredicate);
-        Collections.sort(list, comparator);
-        int nearestPage = nearestAnchorEntry.getKey();
-        int pageSize = pagingPredicate.getPageSize();
-        int page = pagingPredicate.getPage();
-        long totalSize = pageSize * ((long) page - nearestPage);
-        if (list.size() > totalSize) {
-            // it's safe to cast totalSize back to int here since it's limited by the list size
-            list = list.subList(0, (int) totalSize);
+        return TopNSelector.selectSorted(list, newComparator(pagingPredicate), getLimit(pagingPredicate, nearestAnchorEntry));
+    }
+
+    /**
+     * Creates a selector of the entries the given paging predicate needs to
+     * produce its current page, that is the entries of the pages following the
+     * nearest anchor up to and including the current page.
+     *
+     * @return the created selector or {@code null} if the given paging
+     * predicate is {@code null}.
+     */
+    public static TopNSelector<QueryableEntry> newTopNSelector(PagingPredicate pagingPredicate,
+                                                               Map.Entry<Integer, Map.Entry> nearestAnchorEntry) {
+        if (pagingPredicate == null) {
+            return null;
         }
-        return list;
+        return new TopNSelector<QueryableEntry>(newComparator(pagingPredicate), getLimit(pagingPredicate, nearestAnchorEntry));
+    }
+
+    /**
+     * @return the number of the entries following the nearest anchor the
+     * given paging predicate needs to produce its current page.
+     */
+    public static int getLimit(PagingPredicate pagingPredicate, Map.Entry<Integer, Map.Entry> nearestAnchorEntry) {
+        int nearestPage = nearestAnchorEntry.getKey();
+        long limit = pagingPredicate.getPageSize() * ((long) pagingPredicate.getPage() - nearestPage);
+        return (int) Math.min(limit, Integer.MAX_VALUE);
     }
 
     @SuppressWarnings("unchecked")
@@ -155,9 +173,11 @@ public final class SortingUtil {
             return new ResultSet();
         }
         Comparator<Map.Entry> comparator = SortingUtil.newComparator(pagingPredicate.getComparator(), iterationType);
-        Collections.sort(list, comparator);
-
         Map.Entry<Integer, Map.Entry> nearestAnchorEntry = getNearestAnchorEntry(pagingPredicate);
+        // the member results are already ordered and limited, only the entries
+        // up to the end of the current page have to be merged
+        list = TopNSelector.selectSorted(list, comparator, getLimit(pagingPredicate, nearestAnchorEntry));
+
         int nearestPage = nearestAnchorEntry.getKey();
         int page = pagingPredicate.getPage();
         int pageSize = pagingPredicate.getPageSize();
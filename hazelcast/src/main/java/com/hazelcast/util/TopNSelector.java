@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Selects the given number of the smallest elements offered to it according
+ * to the given comparator.
+ * <p>
+ * The selected elements are kept in a bounded max-heap, so selecting the
+ * top {@code n} out of {@code m} elements takes {@code O(m log n)} time and
+ * {@code O(n)} memory instead of sorting all of them. Not thread-safe.
+ *
+ * @param <E> the type of the selected elements
+ */
+public final class TopNSelector<E> {
+
+    private static final int MAX_INITIAL_CAPACITY = 64;
+
+    private final Comparator<? super E> comparator;
+    private final int limit;
+    private final PriorityQueue<E> heap;
+
+    /**
+     * @param comparator the comparator ordering the elements
+     * @param limit      the maximum number of the elements to select
+     */
+    public TopNSelector(Comparator<? super E> comparator, int limit) {
+        this.comparator = comparator;
+        this.limit = limit;
+        this.heap = new PriorityQueue<E>(Math.max(1, Math.min(limit, MAX_INITIAL_CAPACITY)),
+                Collections.reverseOrder(comparator));
+    }
+
+    /**
+     * Offers the given element to this selector.
+     *
+     * @return {@code true} if the element was selected, {@code false} if it
+     * was rejected since there are already {@code limit} smaller elements.
+     */
+    public boolean offer(E element) {
+        if (heap.size() < limit) {
+            heap.offer(element);
+            return true;
+        }
+        if (limit == 0 || comparator.compare(element, heap.peek()) >= 0) {
+            return false;
+        }
+        heap.poll();
+        heap.offer(element);
+        return true;
+    }
+
+    /**
+     * @return the number of the elements currently selected.
+     */
+    public int size() {
+        return heap.size();
+    }
+
+    /**
+     * @return the selected elements sorted in the ascending order.
+     */
+    public List<E> toSortedList() {
+        List<E> list = new ArrayList<E>(heap);
+        Collections.sort(list, comparator);
+        return list;
+    }
+
+    /**
+     * Selects the given number of the smallest elements of the given list.
+     * If the list has no more than {@code limit} elements, it's sorted in
+     * place and returned.
+     *
+     * @return the selected elements sorted in the ascending order.
+     */
+    public static <E> List<E> selectSorted(List<E> list, Comparator<? super E> comparator, int limit) {
+        if (list.size() <= limit) {
+            Collections.sort(list, comparator);
+            return list;
+        }
+        TopNSelector<E> selector = new TopNSelector<E>(comparator, limit);
+        for (E element : list) {
+            selector.offer(element);
+        }
+        return selector.toSortedList();
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.util.function;
+
+import java.util.function.Consumer;
+
+/**
+ * A {@link Consumer} that can accept a batch of items at once, e.g. to hand
+ * them over to another thread with a single synchronization action.
+ *
+ * @param <T> the type of the items
+ */
+public interface BatchConsumer<T> extends Consumer<T> {
+
+    /**
+     * Accepts the first {@code count} items of the array. The array is owned
+     * by the caller and can be reused after this call returns, but it may be
+     * modified by the implementation.
+     *
+     * @param items the items
+     * @param count the number of items to accept
+     */
+    default void acceptAll(T[] items, int count) {
+        for (int k = 0; k < count; k++) {
+            accept(items[k]);
+        }
+    }
+
+    /**
+     * Hands the first {@code count} items of the array to the consumer, as a
+     * batch if the consumer is a {@link BatchConsumer} or one by one otherwise.
+     *
+     * @param consumer the consumer
+     * @param items    the items
+     * @param count    the number of items to accept
+     * @param <T>      the type of the items
+     */
+    static <T> void acceptAll(Consumer<T> consumer, T[] items, int count) {
+        if (consumer instanceof BatchConsumer) {
+            ((BatchConsumer<T>) consumer).acceptAll(items, count);
+        } else {
+            for (int k = 0; k < count; k++) {
+                consumer.accept(items[k]);
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.aggregation;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.IMap;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Map;
+
+import static com.hazelcast.aggregation.TestSamples.createEntryWithValue;
+import static com.hazelcast.aggregation.TestSamples.createExtractableEntryWithValue;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ApproximateDistinctCountAggregationTest extends HazelcastTestSupport {
+
+    private static final double TOLERANCE = 0.02;
+
+    private final InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+
+    @Test(timeout = TimeoutInMillis.MINUTE)
+    public void testApproximateDistinctCount_smallCardinality() {
+        Aggregator<Map.Entry<Integer, Integer>, Long> aggregation = Aggregators.approximateDistinctCount();
+        for (int i = 0; i < 300; i++) {
+            aggregation.accumulate(createEntryWithValue(i % 100));
+        }
+
+        assertEquals(100L, (long) aggregation.aggregate(), 100 * TOLERANCE);
+    }
+
+    @Test(timeout = TimeoutInMillis.MINUTE)
+    public void testApproximateDistinctCount_combine() {
+        Aggregator<Map.Entry<String, String>, Long> left = Aggregators.approximateDistinctCount();
+        Aggregator<Map.Entry<String, String>, Long> right = Aggregators.approximateDistinctCount();
+        for (int i = 0; i < 60000; i++) {
+            left.accumulate(createEntryWithValue("value-" + i));
+        }
+        for (int i = 40000; i < 100000; i++) {
+            right.accumulate(createEntryWithValue("value-" + i));
+        }
+
+        Aggregator<Map.Entry<String, String>, Long> result = Aggregators.approximateDistinctCount();
+        result.combine(left);
+        result.combine(right);
+
+        assertEquals(100000L, (long) result.aggregate(), 100000 * TOLERANCE);
+    }
+
+    @Test(timeout = TimeoutInMillis.MINUTE)
+    public void testApproximateDistinctCount_equalNumbersOfDifferentTypes() {
+        Aggregator<Map.Entry<Number, Number>, Long> aggregation = Aggregators.approximateDistinctCount();
+        aggregation.accumulate(createEntryWithValue((Number) 1));
+        aggregation.accumulate(createEntryWithValue((Number) 1L));
+        aggregation.accumulate(createEntryWithValue((Number) 1.0));
+        aggregation.accumulate(createEntryWithValue((Number) (short) 1));
+        aggregation.accumulate(createEntryWithValue((Number) 1.5));
+        aggregation.accumulate(createEntryWithValue(null));
+
+        assertEquals(3L, (long) aggregation.aggregate());
+    }
+
+    @Test(timeout = TimeoutInMillis.MINUTE)
+    public void testApproximateDistinctCount_withAttributePath() {
+        Aggregator<Map.Entry<Person, Person>, Long> aggregation = Aggregators.approximateDistinctCount("age");
+        for (int i = 0; i < 1000; i++) {
+            aggregation.accumulate(createExtractableEntryWithValue(new Person((double) (i % 10)), ss));
+        }
+
+        Aggregator<Map.Entry<Person, Person>, Long> deserialized = ss.toObject(ss.toData(aggregation));
+
+        assertEquals(10L, (long) deserialized.aggregate());
+    }
+
+    @Test
+    public void testApproximateDistinctCount_map() {
+        IMap<Integer, Integer> map = createHazelcastInstance().getMap(randomMapName());
+        for (int i = 0; i < 10000; i++) {
+            map.put(i, i % 5000);
+        }
+
+        long count = map.aggregate(Aggregators.<Map.Entry<Integer, Integer>>approximateDistinctCount());
+
+        assertEquals(5000L, count, 5000 * TOLERANCE);
+    }
+
+}
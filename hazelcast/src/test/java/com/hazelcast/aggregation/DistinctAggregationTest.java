@@ -120,6 +120,28 @@ public class DistinctAggregationTest {
         assertThat(result, is(equalTo(expectation)));
     }
 
+    @Test(timeout = TimeoutInMillis.MINUTE)
+    public void testCountAggregator_combineLargerIntoSmaller() {
+        Aggregator<Map.Entry<Integer, Integer>, Set<Integer>> smaller = Aggregators.distinct();
+        Aggregator<Map.Entry<Integer, Integer>, Set<Integer>> larger = Aggregators.distinct();
+        Set<Integer> expectation = new HashSet<Integer>();
+        for (int i = 0; i < 100; i++) {
+            larger.accumulate(createEntryWithValue(i));
+            expectation.add(i);
+        }
+        for (int i = 90; i < 110; i++) {
+            smaller.accumulate(createEntryWithValue(i));
+            expectation.add(i);
+        }
+
+        smaller.combine(larger);
+
+        assertThat(smaller.aggregate(), is(equalTo(expectation)));
+        // the combined aggregator doesn't share its state with the result
+        larger.accumulate(createEntryWithValue(1000));
+        assertThat(smaller.aggregate(), is(equalTo(expectation)));
+    }
+
     private <T> List<T> repeatTimes(int times, List<T> values) {
         List<T> repeatedValues = new ArrayList<T>();
         for (int i = 0; i < times; i++) {
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.aggregation;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.IMap;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static com.hazelcast.aggregation.TestSamples.createEntryWithValue;
+import static com.hazelcast.aggregation.TestSamples.createExtractableEntryWithValue;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class QuantileAggregationTest extends HazelcastTestSupport {
+
+    private static final double RELATIVE_ACCURACY = 0.01;
+
+    private final InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+
+    @Test(timeout = TimeoutInMillis.MINUTE)
+    public void testQuantile_empty() {
+        Aggregator<Map.Entry<Double, Double>, Double> aggregation = Aggregators.quantile(0.5);
+
+        assertNull(aggregation.aggregate());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testQuantile_invalidQuantile() {
+        Aggregators.quantile(1.5);
+    }
+
+    @Test(timeout = TimeoutInMillis.MINUTE)
+    public void testQuantile_singleValue() {
+        Aggregator<Map.Entry<Double, Double>, Double> aggregation = Aggregators.quantile(0.99);
+        aggregation.accumulate(createEntryWithValue(42.0));
+
+        assertEquals(42.0, aggregation.aggregate(), 0.0);
+    }
+
+    @Test(timeout = TimeoutInMillis.MINUTE)
+    public void testQuantile_mixedSigns() {
+        List<Double> values = new ArrayList<Double>();
+        for (int i = -500; i <= 500; i++) {
+            values.add((double) i);
+        }
+        Collections.shuffle(values, new Random(0));
+
+        for (double quantile : new double[]{0.0, 0.1, 0.5, 0.9, 1.0}) {
+            Aggregator<Map.Entry<Double, Double>, Double> aggregation = Aggregators.quantile(quantile);
+            for (Double value : values) {
+                aggregation.accumulate(createEntryWithValue(value));
+            }
+            assertQuantile(values, quantile, aggregation.aggregate());
+        }
+    }
+
+    @Test(timeout = TimeoutInMillis.MINUTE)
+    public void testQuantile_combine() {
+        Random random = new Random(1);
+        List<Double> values = new ArrayList<Double>();
+        Aggregator<Map.Entry<Double, Double>, Double> result = Aggregators.quantile(0.99);
+        for (int i = 0; i < 10; i++) {
+            Aggregator<Map.Entry<Double, Double>, Double> partial = Aggregators.quantile(0.99);
+            for (int j = 0; j < 10000; j++) {
+                // long tailed latencies
+                double value = Math.exp(random.nextGaussian() * 2);
+                values.add(value);
+                partial.accumulate(createEntryWithValue(value));
+            }
+            result.combine(ss.<Aggregator<Map.Entry<Double, Double>, Double>>toObject(ss.toData(partial)));
+        }
+
+        assertQuantile(values, 0.99, result.aggregate());
+    }
+
+    @Test(timeout = TimeoutInMillis.MINUTE)
+    public void testQuantile_withAttributePath() {
+        List<Double> values = new ArrayList<Double>();
+        Aggregator<Map.Entry<Person, Person>, Double> aggregation = Aggregators.quantile("age", 0.5);
+        for (int i = 1; i <= 1000; i++) {
+            values.add((double) i);
+            aggregation.accumulate(createExtractableEntryWithValue(new Person((double) i), ss));
+        }
+
+        assertQuantile(values, 0.5, aggregation.aggregate());
+    }
+
+    @Test(timeout = TimeoutInMillis.MINUTE)
+    public void testQuantile_wideRange() {
+        List<Double> values = new ArrayList<Double>();
+        Aggregator<Map.Entry<Double, Double>, Double> aggregation = Aggregators.quantile(0.99);
+        for (int i = -300; i <= 300; i++) {
+            double value = Math.pow(10, i);
+            values.add(value);
+            aggregation.accumulate(createEntryWithValue(value));
+        }
+
+        // the lowest buckets are collapsed, but the high quantiles stay accurate
+        assertQuantile(values, 0.99, aggregation.aggregate());
+    }
+
+    @Test
+    public void testQuantile_map() {
+        IMap<Integer, Integer> map = createHazelcastInstance().getMap(randomMapName());
+        List<Double> values = new ArrayList<Double>();
+        for (int i = 1; i <= 10000; i++) {
+            map.put(i, i);
+            values.add((double) i);
+        }
+
+        Double p99 = map.aggregate(Aggregators.<Map.Entry<Integer, Integer>>quantile(0.99));
+
+        assertQuantile(values, 0.99, p99);
+    }
+
+    private static void assertQuantile(List<Double> values, double quantile, double actual) {
+        List<Double> sorted = new ArrayList<Double>(values);
+        Collections.sort(sorted);
+        double expected = sorted.get((int) (quantile * (sorted.size() - 1)));
+        assertEquals(expected, actual, Math.abs(expected) * RELATIVE_ACCURACY);
+    }
+
+}
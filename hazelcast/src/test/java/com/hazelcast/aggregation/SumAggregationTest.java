@@ -280,6 +280,18 @@ public class SumAggregationTest {
         assertThat(result, is(equalTo(expectation)));
     }
 
+    @Test(timeout = TimeoutInMillis.MINUTE, expected = IllegalArgumentException.class)
+    public void testLongSum_withAttributePath_whenPrimitiveFieldNotIntegral_thenThrow() {
+        Aggregator<Map.Entry<ValueContainer, ValueContainer>, Long> aggregation = Aggregators.longSum("doubleValue");
+        aggregation.accumulate(createExtractableEntryWithValue(new ValueContainer(1.5d), ss));
+    }
+
+    @Test(timeout = TimeoutInMillis.MINUTE, expected = IllegalArgumentException.class)
+    public void testIntegerSum_withAttributePath_whenPrimitiveFieldOutOfRange_thenThrow() {
+        Aggregator<Map.Entry<ValueContainer, ValueContainer>, Long> aggregation = Aggregators.integerSum("longValue");
+        aggregation.accumulate(createExtractableEntryWithValue(new ValueContainer(Long.MAX_VALUE), ss));
+    }
+
     @Test(timeout = TimeoutInMillis.MINUTE, expected = NullPointerException.class)
     public void testLongSum_withNull() {
         Aggregator<Map.Entry, Long> aggregation = Aggregators.longSum();
@@ -87,13 +87,20 @@ public class ConfigValidatorTest extends HazelcastTestSupport {
     }
 
     /**
-     * Not supported in open source version, so test is expected to throw exception.
+     * Native memory is not enabled, so test is expected to throw exception.
      */
     @Test(expected = IllegalArgumentException.class)
     public void checkMapConfig_NATIVE() {
         checkMapConfig(getMapConfig(NATIVE), nativeMemoryConfig, mapMergePolicyProvider, properties);
     }
 
+    @Test
+    public void checkMapConfig_NATIVE_withNativeMemoryEnabled() {
+        nativeMemoryConfig.setEnabled(true);
+
+        checkMapConfig(getMapConfig(NATIVE), nativeMemoryConfig, mapMergePolicyProvider, properties);
+    }
+
     @Test
     @SuppressWarnings("deprecation")
     public void checkMapConfig_withIgnoredConfigMinEvictionCheckMillis() {
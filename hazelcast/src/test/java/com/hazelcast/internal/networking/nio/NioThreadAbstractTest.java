@@ -35,11 +35,17 @@ import java.nio.channels.spi.SelectorProvider;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.isA;
@@ -174,6 +180,71 @@ public abstract class NioThreadAbstractTest extends HazelcastTestSupport {
         verify(errorHandler).onError((Channel) isNull(), any(OutOfMemoryError.class));
     }
 
+    @Test
+    public void whenTaskAddedWhileProcessingTasks_thenSelectorNotWokenUp() {
+        startThread();
+
+        final CountDownLatch taskStarted = new CountDownLatch(1);
+        final CountDownLatch taskReleased = new CountDownLatch(1);
+        thread.addTaskAndWakeup(new Runnable() {
+            @Override
+            public void run() {
+                taskStarted.countDown();
+                assertOpenEventually(taskReleased);
+            }
+        });
+        assertOpenEventually(taskStarted);
+
+        int wakeupCount = selector.wakeupCount.get();
+        final AtomicBoolean executed = new AtomicBoolean();
+        thread.addTaskAndWakeup(new Runnable() {
+            @Override
+            public void run() {
+                executed.set(true);
+            }
+        });
+        assertEquals(wakeupCount, selector.wakeupCount.get());
+
+        taskReleased.countDown();
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertTrue(executed.get());
+            }
+        });
+        assertStillRunning();
+    }
+
+    @Test
+    public void whenDelayedTaskAdded_thenExecutedAfterDeadline() {
+        startThread();
+
+        final AtomicLong deadlineNanos = new AtomicLong();
+        final AtomicLong executedNanos = new AtomicLong();
+        thread.addTaskAndWakeup(new Runnable() {
+            @Override
+            public void run() {
+                deadlineNanos.set(System.nanoTime() + MILLISECONDS.toNanos(100));
+                thread.addDelayedTask(new Runnable() {
+                    @Override
+                    public void run() {
+                        executedNanos.set(System.nanoTime());
+                    }
+                }, deadlineNanos.get());
+            }
+        });
+
+        // the selector blocks for seconds when there is nothing to do, so the deadline has to unblock it
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertTrue(executedNanos.get() != 0);
+            }
+        }, 2);
+        assertTrue(executedNanos.get() - deadlineNanos.get() >= 0);
+        assertStillRunning();
+    }
+
     @Test
     public void testToString() {
         startThread();
@@ -200,6 +271,7 @@ public abstract class NioThreadAbstractTest extends HazelcastTestSupport {
 
     class MockSelector extends Selector {
         final BlockingQueue<SelectorAction> actionQueue = new LinkedBlockingQueue<SelectorAction>();
+        final AtomicInteger wakeupCount = new AtomicInteger();
         Set<SelectionKey> pendingKeys;
 
         void scheduleSelectAction(SelectionKey selectionKey) {
@@ -281,6 +353,7 @@ public abstract class NioThreadAbstractTest extends HazelcastTestSupport {
 
         @Override
         public Selector wakeup() {
+            wakeupCount.incrementAndGet();
             actionQueue.add(new SelectorAction());
             return this;
         }
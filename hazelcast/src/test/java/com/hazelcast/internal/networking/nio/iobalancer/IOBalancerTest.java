@@ -28,8 +28,13 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @RunWith(HazelcastParallelClassRunner.class)
 @Category({QuickTest.class, ParallelJVMTest.class})
@@ -59,4 +64,49 @@ public class IOBalancerTest {
 
         assertTrue(ioBalancer.getWorkQueue().isEmpty());
     }
+
+    @Test
+    public void whenThreadsPinned_thenSkipTaskCreation() {
+        NioThread owner1 = mock(NioThread.class);
+        NioThread owner2 = mock(NioThread.class);
+        when(owner1.isPinned()).thenReturn(true);
+        when(owner2.isPinned()).thenReturn(true);
+        NioThread[] threads = {owner1, owner2};
+        IOBalancer ioBalancer = new IOBalancer(threads, threads, "foo", 1, loggingService);
+
+        ioBalancer.channelAdded(mock(MigratablePipeline.class), mock(MigratablePipeline.class));
+
+        assertTrue(ioBalancer.getWorkQueue().isEmpty());
+    }
+
+    @Test
+    public void whenImbalance_thenMigrationScheduledAndLogged() {
+        NioThread owner1 = mock(NioThread.class);
+        NioThread owner2 = mock(NioThread.class);
+        NioThread[] threads = {owner1, owner2};
+        IOBalancer ioBalancer = new IOBalancer(threads, threads, "foo", 1, loggingService);
+
+        MigratablePipeline busyPipeline = pipeline(owner1, 1000);
+        MigratablePipeline migratedPipeline = pipeline(owner1, 100);
+        MigratablePipeline idlePipeline = pipeline(owner2, 10);
+        LoadTracker inLoadTracker = ioBalancer.getInLoadTracker();
+        inLoadTracker.addPipeline(busyPipeline);
+        inLoadTracker.addPipeline(migratedPipeline);
+        inLoadTracker.addPipeline(idlePipeline);
+
+        ioBalancer.rebalance();
+        ioBalancer.rebalance();
+
+        verify(migratedPipeline).requestMigration(owner2);
+        List<String> decisionLog = ioBalancer.getDecisionLog();
+        assertEquals(1, decisionLog.size());
+        assertTrue(decisionLog.get(0).contains(migratedPipeline.toString()));
+    }
+
+    private static MigratablePipeline pipeline(NioThread owner, long load) {
+        MigratablePipeline pipeline = mock(MigratablePipeline.class);
+        when(pipeline.load()).thenReturn(0L).thenReturn(load);
+        when(pipeline.owner()).thenReturn(owner);
+        return pipeline;
+    }
 }
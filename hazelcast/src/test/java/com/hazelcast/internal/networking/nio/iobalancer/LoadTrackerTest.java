@@ -89,6 +89,42 @@ public class LoadTrackerTest {
         assertEquals(owner2, loadImbalance.srcOwner);
     }
 
+    @Test
+    public void testUpdateImbalance_whenProcessTimeDominates() {
+        // the first owner has the least load, but spends the most time on it
+        MigratablePipeline owner1Pipeline1 = pipeline(owner1, 100, 800);
+        MigratablePipeline owner1Pipeline2 = pipeline(owner1, 100, 0);
+        MigratablePipeline owner2Pipeline1 = pipeline(owner2, 200, 100);
+        MigratablePipeline owner2Pipeline2 = pipeline(owner2, 200, 100);
+
+        loadTracker.updateImbalance();
+        LoadImbalance loadImbalance = loadTracker.updateImbalance();
+
+        // a pipeline gets its share of the total time, 1000 nanos, in the unit of the total load, 600 bytes
+        assertEquals(580, loadImbalance.getLoad(owner1Pipeline1));
+        assertEquals(100, loadImbalance.getLoad(owner1Pipeline2));
+        assertEquals(260, loadImbalance.getLoad(owner2Pipeline1));
+        assertEquals(260, loadImbalance.getLoad(owner2Pipeline2));
+        assertEquals(owner1, loadImbalance.srcOwner);
+        assertEquals(owner2, loadImbalance.dstOwner);
+    }
+
+    @Test
+    public void testUpdateImbalance_whenBytesPending() {
+        MigratablePipeline owner1Pipeline1 = pipeline(owner1, 100, 0);
+        when(owner1Pipeline1.bytesPending()).thenReturn(1000L);
+        MigratablePipeline owner1Pipeline2 = pipeline(owner1, 100, 0);
+        MigratablePipeline owner2Pipeline1 = pipeline(owner2, 100, 0);
+
+        loadTracker.updateImbalance();
+        LoadImbalance loadImbalance = loadTracker.updateImbalance();
+
+        // the backlog of the pipeline is half of its weight in the total load
+        assertEquals(250, loadImbalance.getLoad(owner1Pipeline1));
+        assertEquals(100, loadImbalance.getLoad(owner1Pipeline2));
+        assertEquals(100, loadImbalance.getLoad(owner2Pipeline1));
+    }
+
     // there is no point in selecting a selector with a single handler as source.
     @Test
     public void testUpdateImbalance_notUsingSinglePipelineOwnerAsSource() throws Exception {
@@ -115,4 +151,13 @@ public class LoadTrackerTest {
         assertEquals(owner2, loadImbalance.dstOwner);
         assertEquals(owner2, loadImbalance.srcOwner);
     }
+
+    private MigratablePipeline pipeline(NioThread owner, long load, long processTimeNanos) {
+        MigratablePipeline pipeline = mock(MigratablePipeline.class);
+        when(pipeline.load()).thenReturn(0L).thenReturn(load);
+        when(pipeline.processTimeNanos()).thenReturn(0L).thenReturn(processTimeNanos);
+        when(pipeline.owner()).thenReturn(owner);
+        loadTracker.addPipeline(pipeline);
+        return pipeline;
+    }
 }
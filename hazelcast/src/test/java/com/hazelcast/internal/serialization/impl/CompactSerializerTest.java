@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.serialization.impl;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.CompactSchema.CompactField;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class CompactSerializerTest {
+
+    private final InternalSerializationService ss = new DefaultSerializationServiceBuilder()
+            .setConfig(new SerializationConfig().addCompactClass(Employee.class).addCompactClass(Manager.class.getName()))
+            .addCompactClass(Address.class)
+            .build();
+
+    @Test
+    public void testRoundTrip() {
+        Employee employee = new Employee("John", 42, 1000.5, new Address("Street", 7));
+        Data data = ss.toData(employee);
+
+        assertTrue(data.isCompact());
+        assertEquals(employee, ss.toObject(data));
+    }
+
+    @Test
+    public void testRoundTrip_nullAndCollectionFields() {
+        Manager manager = new Manager(null, 50, 2000, null);
+        manager.reports.add(new Employee("Jane", 30, 500, null));
+        manager.reports.add(null);
+
+        Manager deserialized = ss.toObject(ss.toData(manager));
+
+        assertEquals(manager, deserialized);
+        assertEquals(manager.reports, deserialized.reports);
+    }
+
+    @Test
+    public void testRoundTrip_throughStreams() throws Exception {
+        Employee employee = new Employee("John", 42, 1000.5, new Address("Street", 7));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ss.writeObject(new ObjectDataOutputStream(bytes, ss), employee);
+        Object deserialized = ss.readObject(new ObjectDataInputStream(new ByteArrayInputStream(bytes.toByteArray()), ss));
+
+        assertEquals(employee, deserialized);
+    }
+
+    @Test
+    public void testPrimitiveFieldsLaidOutAtFixedOffsets() {
+        CompactSchema schema = ss.getCompactSchema(ss.toData(new Employee("John", 42, 1000.5, null)));
+
+        assertNotNull(schema);
+        CompactField salary = schema.getField("salary");
+        CompactField age = schema.getField("age");
+        assertTrue(salary.isFixedSize());
+        assertEquals(CompactSchema.FIXED_SECTION_OFFSET, salary.getOffset());
+        assertEquals(CompactSchema.FIXED_SECTION_OFFSET + 8, age.getOffset());
+        assertFalse(schema.getField("name").isFixedSize());
+        assertNull(schema.getField("unknown"));
+    }
+
+    @Test
+    public void testSchemaIds_agreeAcrossServices() {
+        InternalSerializationService other = new DefaultSerializationServiceBuilder()
+                .addCompactClass(Address.class)
+                .addCompactClass(Employee.class)
+                .build();
+        Employee employee = new Employee("John", 42, 1000.5, new Address("Street", 7));
+
+        Data data = ss.toData(employee);
+        Data otherData = other.toData(employee);
+
+        assertArrayEquals(data.toByteArray(), otherData.toByteArray());
+        assertEquals(employee, other.toObject(data));
+    }
+
+    @Test
+    public void testSchemaIds_dependOnFields() {
+        assertFalse(CompactSchema.of(Address.class).getId() == CompactSchema.of(Employee.class).getId());
+    }
+
+    @Test
+    public void testGetCompactSchema_nonCompactData() {
+        assertNull(ss.getCompactSchema(ss.toData("value")));
+    }
+
+    @Test(expected = HazelcastSerializationException.class)
+    public void testRead_unknownSchema() {
+        InternalSerializationService other = new DefaultSerializationServiceBuilder().addCompactClass(Address.class).build();
+        other.toObject(ss.toData(new Employee("John", 42, 1000.5, null)));
+    }
+
+    @Test(expected = HazelcastSerializationException.class)
+    public void testRegister_noDefaultConstructor() {
+        new DefaultSerializationServiceBuilder().addCompactClass(NoDefaultConstructor.class).build();
+    }
+
+    @Test(expected = HazelcastSerializationException.class)
+    public void testRegister_unknownClass() {
+        new DefaultSerializationServiceBuilder().setConfig(new SerializationConfig().addCompactClass("com.foo.Unknown")).build();
+    }
+
+    static class Address {
+
+        private String street;
+        private int number;
+
+        Address() {
+        }
+
+        Address(String street, int number) {
+            this.street = street;
+            this.number = number;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Address)) {
+                return false;
+            }
+            Address that = (Address) o;
+            return number == that.number && street.equals(that.street);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * street.hashCode() + number;
+        }
+
+    }
+
+    static class Employee {
+
+        static final int IGNORED_STATIC = 1;
+
+        transient int ignoredTransient;
+
+        private String name;
+        private int age;
+        private double salary;
+        private boolean active = true;
+        private char grade = 'A';
+        private short level = 3;
+        private byte flags = 5;
+        private float rating = 4.5f;
+        private long[] history = {1, 2, 3};
+        private Address address;
+
+        Employee() {
+        }
+
+        Employee(String name, int age, double salary, Address address) {
+            this.name = name;
+            this.age = age;
+            this.salary = salary;
+            this.address = address;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o == null || o.getClass() != getClass()) {
+                return false;
+            }
+            Employee that = (Employee) o;
+            return (name == null ? that.name == null : name.equals(that.name)) && age == that.age && salary == that.salary
+                    && active == that.active && grade == that.grade && level == that.level && flags == that.flags
+                    && rating == that.rating && Arrays.equals(history, that.history)
+                    && (address == null ? that.address == null : address.equals(that.address));
+        }
+
+        @Override
+        public int hashCode() {
+            return age;
+        }
+
+    }
+
+    static class Manager extends Employee {
+
+        private final List<Employee> reports = new ArrayList<Employee>();
+
+        Manager() {
+        }
+
+        Manager(String name, int age, double salary, Address address) {
+            super(name, age, salary, address);
+        }
+
+    }
+
+    static class NoDefaultConstructor {
+
+        private int value;
+
+        NoDefaultConstructor(int value) {
+            this.value = value;
+        }
+
+    }
+
+}
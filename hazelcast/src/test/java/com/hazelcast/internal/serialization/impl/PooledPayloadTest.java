@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.serialization.impl;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.PooledPayload;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+
+import static com.hazelcast.internal.serialization.impl.AbstractSerializationService.MIN_POOLED_PAYLOAD_SIZE;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PooledPayloadTest {
+
+    private InternalSerializationService serializationService;
+
+    @Before
+    public void setup() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+    }
+
+    @Test
+    public void smallPayload_isNotPooled() {
+        PooledPayload payload = serializationService.toPooledBytes("foo");
+
+        assertFalse(payload.isPooled());
+        assertEquals(payload.bytes().length, payload.size());
+        assertArrayEquals(serializationService.toBytes("foo"), payload.bytes());
+    }
+
+    @Test
+    public void largePayload_isPooled() {
+        byte[] value = new byte[MIN_POOLED_PAYLOAD_SIZE];
+        Arrays.fill(value, (byte) 1);
+
+        PooledPayload payload = serializationService.toPooledBytes(value);
+
+        assertTrue(payload.isPooled());
+        byte[] expected = serializationService.toBytes(value);
+        assertEquals(expected.length, payload.size());
+        assertArrayEquals(expected, Arrays.copyOf(payload.bytes(), payload.size()));
+        payload.release();
+    }
+
+    @Test
+    public void largePayload_withPadding() {
+        byte[] value = new byte[MIN_POOLED_PAYLOAD_SIZE];
+
+        PooledPayload payload = serializationService.toPooledBytes(value, 4, false);
+
+        byte[] expected = serializationService.toBytes(value, 4, false);
+        assertEquals(expected.length, payload.size());
+        assertArrayEquals(expected, Arrays.copyOf(payload.bytes(), payload.size()));
+        payload.release();
+    }
+
+    @Test
+    public void releasedPayload_bufferIsReused() {
+        byte[] value = new byte[MIN_POOLED_PAYLOAD_SIZE];
+        PooledPayload first = serializationService.toPooledBytes(value);
+        PooledPayload second = serializationService.toPooledBytes(value);
+        assertNotSame(first.bytes(), second.bytes());
+
+        first.release();
+        PooledPayload third = serializationService.toPooledBytes(value);
+
+        assertSame(first.bytes(), third.bytes());
+    }
+
+    @Test
+    public void unreleasedPayload_isNotOverwritten() {
+        byte[] value = new byte[MIN_POOLED_PAYLOAD_SIZE];
+        Arrays.fill(value, (byte) 1);
+        PooledPayload payload = serializationService.toPooledBytes(value);
+
+        serializationService.toPooledBytes(new byte[MIN_POOLED_PAYLOAD_SIZE]);
+
+        Data data = new HeapData(Arrays.copyOf(payload.bytes(), payload.size()));
+        assertArrayEquals(value, (byte[]) serializationService.toObject(data));
+    }
+
+    @Test
+    public void payloadReleasedByAnotherThread_bufferIsReusedByOwner() throws Exception {
+        byte[] value = new byte[MIN_POOLED_PAYLOAD_SIZE];
+        final PooledPayload payload = serializationService.toPooledBytes(value);
+
+        Thread releaser = new Thread() {
+            @Override
+            public void run() {
+                payload.release();
+            }
+        };
+        releaser.start();
+        releaser.join();
+
+        assertSame(payload.bytes(), serializationService.toPooledBytes(value).bytes());
+    }
+
+    @Test
+    public void release_runsRecycler() {
+        final int[] recycled = new int[1];
+        PooledPayload payload = new PooledPayload(new byte[1], 1, new Runnable() {
+            @Override
+            public void run() {
+                recycled[0]++;
+            }
+        });
+
+        payload.release();
+
+        assertEquals(1, recycled[0]);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void release_whenAlreadyReleased() {
+        PooledPayload payload = new PooledPayload(new byte[1]);
+        payload.release();
+
+        payload.release();
+    }
+}
@@ -106,6 +106,32 @@ public class BufferPoolTest extends HazelcastTestSupport {
         verify(out, times(1)).close();
     }
 
+    @Test
+    public void detachOutputBuffer_whenRecycled_thenTakenAgain() {
+        BufferObjectDataOutput out = bufferPool.takeOutputBuffer();
+
+        bufferPool.detachOutputBuffer(out).run();
+
+        assertEquals(1, bufferPool.recycledOutputQueue.size());
+        assertSame(out, bufferPool.takeOutputBuffer());
+        assertEquals(0, bufferPool.recycledOutputQueue.size());
+    }
+
+    @Test
+    public void detachOutputBuffer_whenRecycledOverflowing() throws IOException {
+        for (int k = 0; k < BufferPoolImpl.MAX_RECYCLED_ITEMS; k++) {
+            bufferPool.detachOutputBuffer(mock(BufferObjectDataOutput.class)).run();
+        }
+        BufferObjectDataOutput out = mock(BufferObjectDataOutput.class);
+
+        bufferPool.detachOutputBuffer(out).run();
+
+        assertEquals(BufferPoolImpl.MAX_RECYCLED_ITEMS, bufferPool.recycledOutputQueue.size());
+        verify(out, times(1)).clear();
+        // the out is closed since it isn't going to be pooled
+        verify(out, times(1)).close();
+    }
+
     @Test
     public void takeOutputBuffer_whenPooledInstanceWithVersionSetIsReturned() {
         BufferObjectDataOutput found1 = bufferPool.takeOutputBuffer();
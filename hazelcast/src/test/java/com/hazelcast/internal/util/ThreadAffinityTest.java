@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util;
+
+import com.hazelcast.spi.properties.HazelcastProperties;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Properties;
+
+import static com.hazelcast.internal.util.ThreadAffinity.newThreadAffinity;
+import static com.hazelcast.spi.properties.GroupProperty.IO_INPUT_THREAD_AFFINITY;
+import static com.hazelcast.spi.properties.GroupProperty.PARTITION_OPERATION_THREAD_AFFINITY;
+import static com.hazelcast.spi.properties.GroupProperty.THREAD_AFFINITY_TASKSET_ENABLED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ThreadAffinityTest {
+
+    @Test
+    public void parse_whenSingleCpus() {
+        List<BitSet> allowedCpusList = ThreadAffinity.parse("1,3");
+
+        assertEquals(2, allowedCpusList.size());
+        assertEquals(cpus(1), allowedCpusList.get(0));
+        assertEquals(cpus(3), allowedCpusList.get(1));
+    }
+
+    @Test
+    public void parse_whenRange_thenThreadPerCpu() {
+        List<BitSet> allowedCpusList = ThreadAffinity.parse("0-2");
+
+        assertEquals(3, allowedCpusList.size());
+        assertEquals(cpus(0), allowedCpusList.get(0));
+        assertEquals(cpus(1), allowedCpusList.get(1));
+        assertEquals(cpus(2), allowedCpusList.get(2));
+    }
+
+    @Test
+    public void parse_whenGroup_thenSingleThread() {
+        List<BitSet> allowedCpusList = ThreadAffinity.parse("0, [2-4]");
+
+        assertEquals(2, allowedCpusList.size());
+        assertEquals(cpus(0), allowedCpusList.get(0));
+        assertEquals(cpus(2, 3, 4), allowedCpusList.get(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parse_whenInvalidRange() {
+        ThreadAffinity.parse("3-1");
+    }
+
+    @Test
+    public void newThreadAffinity_whenNotSet_thenDisabled() {
+        ThreadAffinity threadAffinity = newThreadAffinity(new HazelcastProperties(new Properties()), IO_INPUT_THREAD_AFFINITY);
+
+        assertSame(ThreadAffinity.DISABLED, threadAffinity);
+        assertFalse(threadAffinity.isEnabled());
+        assertEquals(0, threadAffinity.getThreadCount());
+        assertNull(threadAffinity.getAllowedCpus(0));
+    }
+
+    @Test
+    public void newThreadAffinity_whenSet() {
+        Properties properties = new Properties();
+        properties.setProperty(THREAD_AFFINITY_TASKSET_ENABLED.getName(), "true");
+        properties.setProperty(PARTITION_OPERATION_THREAD_AFFINITY.getName(), "0-3");
+
+        ThreadAffinity threadAffinity = newThreadAffinity(new HazelcastProperties(properties),
+                PARTITION_OPERATION_THREAD_AFFINITY);
+
+        assertTrue(threadAffinity.isEnabled());
+        assertEquals(4, threadAffinity.getThreadCount());
+        assertEquals(cpus(2), threadAffinity.getAllowedCpus(2));
+    }
+
+    @Test
+    public void newThreadAffinity_whenOtherPoolSet_thenDisabled() {
+        Properties properties = new Properties();
+        properties.setProperty(THREAD_AFFINITY_TASKSET_ENABLED.getName(), "true");
+        properties.setProperty(PARTITION_OPERATION_THREAD_AFFINITY.getName(), "0-3");
+
+        ThreadAffinity threadAffinity = newThreadAffinity(new HazelcastProperties(properties), IO_INPUT_THREAD_AFFINITY);
+
+        assertSame(ThreadAffinity.DISABLED, threadAffinity);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void newThreadAffinity_whenTasksetNotEnabled() {
+        Properties properties = new Properties();
+        properties.setProperty(IO_INPUT_THREAD_AFFINITY.getName(), "0-3");
+
+        newThreadAffinity(new HazelcastProperties(properties), IO_INPUT_THREAD_AFFINITY);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void newThreadAffinity_whenInvalid() {
+        Properties properties = new Properties();
+        properties.setProperty(THREAD_AFFINITY_TASKSET_ENABLED.getName(), "true");
+        properties.setProperty(IO_INPUT_THREAD_AFFINITY.getName(), "foo");
+
+        newThreadAffinity(new HazelcastProperties(properties), IO_INPUT_THREAD_AFFINITY);
+    }
+
+    private static BitSet cpus(int... cpus) {
+        BitSet bitSet = new BitSet();
+        for (int cpu : cpus) {
+            bitSet.set(cpu);
+        }
+        return bitSet;
+    }
+}
@@ -81,6 +81,55 @@ public class MPSCQueueTest extends HazelcastTestSupport {
         queue.poll(1, TimeUnit.SECONDS);
     }
 
+    // ============== offerAll ======================================
+
+    @Test
+    public void offerAll() {
+        queue.setConsumerThread(Thread.currentThread());
+
+        queue.offer("1");
+        queue.offerAll(new String[]{"2", "3", "4", null}, 3);
+        queue.offer("5");
+
+        assertEquals(5, queue.size());
+        assertEquals("1", queue.poll());
+        assertEquals("2", queue.poll());
+        assertEquals("3", queue.poll());
+        assertEquals("4", queue.poll());
+        assertEquals("5", queue.poll());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void offerAll_whenNone() {
+        queue.setConsumerThread(Thread.currentThread());
+
+        queue.offerAll(new String[0], 0);
+
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void offerAll_whenNullItem() {
+        queue.offerAll(new String[]{"1", null}, 2);
+    }
+
+    @Test
+    public void take_whenItemsOfferedInBatchAfterSomeBlocking() throws Exception {
+        queue = new MPSCQueue<String>(Thread.currentThread(), null);
+
+        spawn(new Runnable() {
+            @Override
+            public void run() {
+                sleepSeconds(3);
+                queue.offerAll(new String[]{"1", "2"}, 2);
+            }
+        });
+
+        assertEquals("1", queue.take());
+        assertEquals("2", queue.take());
+    }
+
     // ============== take ==========================================
 
     @Test
@@ -352,6 +401,56 @@ public class MPSCQueueTest extends HazelcastTestSupport {
         assertSame(MPSCQueue.BLOCKED, queue.putStack.get());
     }
 
+    // ============= offer time ==============================
+
+    @Test
+    public void lastTakenOfferNanos_whenNotTracked() throws InterruptedException {
+        queue.setConsumerThread(Thread.currentThread());
+        queue.offer("1");
+
+        queue.take();
+
+        assertEquals(0, queue.lastTakenOfferNanos());
+    }
+
+    @Test
+    public void lastTakenOfferNanos_whenTracked() throws InterruptedException {
+        queue.setConsumerThread(Thread.currentThread());
+        queue.trackOfferTime();
+
+        long beforeFirst = System.nanoTime();
+        queue.offer("1");
+        long beforeSecond = System.nanoTime();
+        queue.offer("2");
+        long afterSecond = System.nanoTime();
+
+        assertEquals("1", queue.take());
+        long firstOfferNanos = queue.lastTakenOfferNanos();
+        assertTrue(firstOfferNanos >= beforeFirst && firstOfferNanos <= beforeSecond);
+
+        assertEquals("2", queue.take());
+        long secondOfferNanos = queue.lastTakenOfferNanos();
+        assertTrue(secondOfferNanos >= beforeSecond && secondOfferNanos <= afterSecond);
+    }
+
+    @Test
+    public void lastTakenOfferNanos_whenTakeStackGrows() throws InterruptedException {
+        queue.setConsumerThread(Thread.currentThread());
+        queue.trackOfferTime();
+
+        long before = System.nanoTime();
+        for (int k = 0; k < MPSCQueue.INITIAL_ARRAY_SIZE * 4; k++) {
+            queue.offer("item" + k);
+        }
+        long after = System.nanoTime();
+
+        for (int k = 0; k < MPSCQueue.INITIAL_ARRAY_SIZE * 4; k++) {
+            assertEquals("item" + k, queue.take());
+            long offerNanos = queue.lastTakenOfferNanos();
+            assertTrue(offerNanos >= before && offerNanos <= after);
+        }
+    }
+
     // ============= misc ====================================
 
     @Test
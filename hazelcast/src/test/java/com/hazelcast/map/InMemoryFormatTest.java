@@ -19,13 +19,17 @@ package com.hazelcast.map;
 import com.hazelcast.config.Config;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MapIndexConfig;
 import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.memory.MemorySize;
+import com.hazelcast.memory.MemoryUnit;
 import com.hazelcast.partition.PartitionService;
 import com.hazelcast.monitor.impl.MemberPartitionStateImpl;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.DataSerializable;
+import com.hazelcast.query.Predicates;
 import com.hazelcast.test.HazelcastParallelClassRunner;
 import com.hazelcast.test.HazelcastTestSupport;
 import com.hazelcast.test.TestHazelcastInstanceFactory;
@@ -215,6 +219,59 @@ public class InMemoryFormatTest extends HazelcastTestSupport {
         member.getMap("default");
     }
 
+    @Test
+    public void testNativeIMap_whenNativeMemoryEnabled() {
+        Config config = getConfig();
+        config.getNativeMemoryConfig().setEnabled(true).setSize(new MemorySize(32, MemoryUnit.MEGABYTES));
+        config.getMapConfig("default").setInMemoryFormat(InMemoryFormat.NATIVE);
+
+        HazelcastInstance member = createHazelcastInstance(config);
+        IMap<Integer, String> map = member.getMap("default");
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, "value-" + i);
+        }
+        map.put(0, "updated");
+        map.remove(1);
+
+        assertEquals(999, map.size());
+        assertEquals("updated", map.get(0));
+        assertEquals("value-2", map.get(2));
+        assertFalse(map.containsKey(1));
+        assertEquals(999, map.keySet().size());
+        assertTrue(map.getLocalMapStats().getOwnedEntryMemoryCost() > 0);
+
+        map.clear();
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    public void testNativeIMap_queryWithIndexes() {
+        Config config = getConfig();
+        config.getNativeMemoryConfig().setEnabled(true).setSize(new MemorySize(32, MemoryUnit.MEGABYTES));
+        config.getMapConfig("default").setInMemoryFormat(InMemoryFormat.NATIVE)
+              .addMapIndexConfig(new MapIndexConfig("this", true))
+              .addMapIndexConfig(new MapIndexConfig("__key", false));
+
+        HazelcastInstance member = createHazelcastInstance(config);
+        IMap<Integer, Integer> map = member.getMap("default");
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i % 100);
+        }
+        map.put(0, 500);
+        map.remove(1);
+
+        assertEquals(10, map.keySet(Predicates.equal("this", 42)).size());
+        assertEquals(1, map.keySet(Predicates.equal("this", 500)).size());
+        assertEquals(9, map.keySet(Predicates.equal("this", 0)).size());
+        assertEquals(9, map.keySet(Predicates.equal("this", 1)).size());
+        assertEquals(30, map.keySet(Predicates.between("this", 10, 12)).size());
+        assertEquals(1, map.keySet(Predicates.equal("__key", 7)).size());
+        assertEquals(0, map.keySet(Predicates.equal("__key", 1)).size());
+
+        map.clear();
+        assertEquals(0, map.keySet(Predicates.equal("this", 42)).size());
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testNativeNearCache_throwsException() throws Exception {
         NearCacheConfig nearCacheConfig = new NearCacheConfig();
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.impl.iterator.MapQueryPartitionIterator;
+import com.hazelcast.map.impl.proxy.MapProxyImpl;
+import com.hazelcast.projection.Projection;
+import com.hazelcast.projection.Projections;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MapQueryIteratorTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    private HazelcastInstance instance;
+    private MapProxyImpl<String, Integer> proxy;
+
+    @Before
+    public void init() {
+        HazelcastInstance[] instances = createHazelcastInstanceFactory(2).newInstances(getConfig());
+        this.instance = instances[0];
+        this.proxy = (MapProxyImpl<String, Integer>) instance.<String, Integer>getMap(randomMapName());
+    }
+
+    @Test
+    public void test_HasNext_Returns_False_On_EmptyMap() {
+        final Iterator<Integer> iterator = proxy.iterator(10, new GetValueProjection<>(), Predicates.alwaysTrue());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void test_next_Throws_Exception_On_EmptyMap() {
+        proxy.iterator(10, new GetValueProjection<>(), Predicates.alwaysTrue()).next();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void test_null_projection_throws_exception() {
+        proxy.iterator(10, null, Predicates.alwaysTrue());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void test_null_predicate_throws_exception() {
+        proxy.iterator(10, new GetValueProjection<>(), null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_paging_predicate_throws_exception() {
+        proxy.iterator(10, new GetValueProjection<>(), Predicates.pagingPredicate(10));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void test_remove_throws_exception() {
+        fillMap();
+        final Iterator<Integer> iterator = proxy.iterator(10, new GetValueProjection<>(), Predicates.alwaysTrue());
+        iterator.next();
+        iterator.remove();
+    }
+
+    @Test
+    public void test_streams_all_partitions() {
+        fillMap();
+
+        final List<Integer> streamed = collectAll(proxy.iterator(10, new GetValueProjection<>(), Predicates.alwaysTrue()));
+
+        assertEquals(sorted(proxy.values()), sorted(streamed));
+    }
+
+    @Test
+    public void test_streams_matching_entries() {
+        fillMap();
+
+        final Predicate<String, Integer> predicate = new EvenPredicate();
+        final List<Entry<String, Integer>> streamed = collectAll(proxy.iterator(7, Projections.identity(), predicate));
+
+        final List<Integer> values = new ArrayList<>();
+        for (Entry<String, Integer> entry : streamed) {
+            assertEquals(proxy.get(entry.getKey()), entry.getValue());
+            values.add(entry.getValue());
+        }
+        assertEquals(sorted(proxy.values(predicate)), sorted(values));
+    }
+
+    @Test
+    public void test_prefetching_partition_iterator_returns_same_results() {
+        final int partitionId = 1;
+        for (int i = 0; i < 100; i++) {
+            proxy.put(generateKeyForPartition(instance, partitionId), i);
+        }
+
+        final List<Integer> fetched = collectAll(new MapQueryPartitionIterator<>(proxy, 10, partitionId,
+                Predicates.<String, Integer>alwaysTrue(), new GetValueProjection<>(), false));
+        final List<Integer> prefetched = collectAll(new MapQueryPartitionIterator<>(proxy, 10, partitionId,
+                Predicates.<String, Integer>alwaysTrue(), new GetValueProjection<>(), true));
+
+        assertEquals(100, fetched.size());
+        assertEquals(fetched, prefetched);
+    }
+
+    private void fillMap() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            proxy.put("key" + i, i);
+        }
+    }
+
+    private static <T> List<T> collectAll(Iterator<T> iterator) {
+        final List<T> collected = new ArrayList<>();
+        while (iterator.hasNext()) {
+            collected.add(iterator.next());
+        }
+        return collected;
+    }
+
+    private static List<Integer> sorted(Iterable<Integer> values) {
+        final List<Integer> sorted = new ArrayList<>();
+        for (Integer value : values) {
+            sorted.add(value);
+        }
+        Collections.sort(sorted);
+        return sorted;
+    }
+
+    private static class EvenPredicate implements Predicate<String, Integer> {
+        @Override
+        public boolean apply(Entry<String, Integer> mapEntry) {
+            return mapEntry.getValue() % 2 == 0;
+        }
+    }
+
+    private static class GetValueProjection<T> implements Projection<Map.Entry<String, T>, T> {
+        @Override
+        public T transform(Map.Entry<String, T> input) {
+            return input.getValue();
+        }
+    }
+}
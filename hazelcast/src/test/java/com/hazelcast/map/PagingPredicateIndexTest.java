@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.query.PagingPredicate;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the pages produced by walking the sorted indexes match the ones
+ * produced by sorting the scanned entries.
+ */
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PagingPredicateIndexTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 200;
+    private static final int PAGE_SIZE = 7;
+
+    private HazelcastInstance[] instances;
+    private IMap<Integer, Integer> indexedMap;
+    private IMap<Integer, Integer> scannedMap;
+
+    @Before
+    public void setup() {
+        instances = createHazelcastInstanceFactory(2).newInstances(getConfig());
+        indexedMap = instances[0].getMap(randomMapName());
+        indexedMap.addIndex("__key", true);
+        indexedMap.addIndex("this", true);
+        scannedMap = instances[1].getMap(randomMapName());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            // plenty of duplicate values to exercise the ordering within the index groups
+            indexedMap.put(i, i % 37);
+            scannedMap.put(i, i % 37);
+        }
+    }
+
+    @Test
+    public void testKeys() {
+        assertSamePages((map, predicate) -> map.keySet(predicate), null);
+        assertTrue(indexedMap.getLocalMapStats().getIndexStats().get("__key").getQueryCount() > 0);
+    }
+
+    @Test
+    public void testValues() {
+        assertSamePages((map, predicate) -> map.values(predicate), null);
+        assertTrue(indexedMap.getLocalMapStats().getIndexStats().get("this").getQueryCount() > 0);
+    }
+
+    @Test
+    public void testEntries() {
+        assertSamePages((map, predicate) -> map.entrySet(predicate), null);
+    }
+
+    @Test
+    public void testKeys_withInnerPredicate() {
+        assertSamePages((map, predicate) -> map.keySet(predicate), new OddValuePredicate());
+    }
+
+    @Test
+    public void testValues_withInnerPredicate() {
+        assertSamePages((map, predicate) -> map.values(predicate), new OddValuePredicate());
+    }
+
+    @Test
+    public void testValues_withMixedNumericTypes() {
+        IMap<Integer, Number> indexedMixedMap = instances[0].getMap(randomMapName());
+        indexedMixedMap.addIndex("this", true);
+        IMap<Integer, Number> scannedMixedMap = instances[1].getMap(randomMapName());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            // equal values of different types have to be ordered the same way by both paths
+            Number value = i % 2 == 0 ? Integer.valueOf(i % 37) : Long.valueOf(i % 37);
+            indexedMixedMap.put(i, value);
+            scannedMixedMap.put(i, value);
+        }
+
+        assertSamePages(indexedMixedMap, scannedMixedMap, (map, predicate) -> map.values(predicate), null);
+        assertTrue(indexedMixedMap.getLocalMapStats().getIndexStats().get("this").getQueryCount() > 0);
+    }
+
+    @Test
+    public void testJumpingPages() {
+        PagingPredicate<Integer, Integer> indexed = newPredicate(null);
+        PagingPredicate<Integer, Integer> scanned = newPredicate(null);
+        for (int page : new int[]{3, 1, 7, 2, 20, 0}) {
+            indexed.setPage(page);
+            scanned.setPage(page);
+            assertEquals(toList(scannedMap.values(scanned)), toList(indexedMap.values(indexed)));
+        }
+    }
+
+    private void assertSamePages(BiFunction<IMap<Integer, Integer>, Predicate<Integer, Integer>, Collection> query,
+                                 Predicate<Integer, Integer> innerPredicate) {
+        assertSamePages(indexedMap, scannedMap, query, innerPredicate);
+    }
+
+    private static <V> void assertSamePages(IMap<Integer, V> indexedMap, IMap<Integer, V> scannedMap,
+                                            BiFunction<IMap<Integer, V>, Predicate<Integer, V>, Collection> query,
+                                            Predicate<Integer, V> innerPredicate) {
+        PagingPredicate<Integer, V> indexed = newPredicate(innerPredicate);
+        PagingPredicate<Integer, V> scanned = newPredicate(innerPredicate);
+        int pages = 0;
+        while (true) {
+            List expected = toList(query.apply(scannedMap, scanned));
+            List actual = toList(query.apply(indexedMap, indexed));
+            assertEquals("page " + pages, expected, actual);
+            if (expected.isEmpty()) {
+                break;
+            }
+            pages++;
+            indexed.nextPage();
+            scanned.nextPage();
+        }
+        assertTrue(pages > 1);
+    }
+
+    private static <V> PagingPredicate<Integer, V> newPredicate(Predicate<Integer, V> innerPredicate) {
+        return innerPredicate == null
+                ? Predicates.<Integer, V>pagingPredicate(PAGE_SIZE)
+                : Predicates.pagingPredicate(innerPredicate, PAGE_SIZE);
+    }
+
+    private static List toList(Collection collection) {
+        return new ArrayList(collection);
+    }
+
+    private static class OddValuePredicate implements Predicate<Integer, Integer> {
+        @Override
+        public boolean apply(Map.Entry<Integer, Integer> mapEntry) {
+            return mapEntry.getValue() % 2 == 1;
+        }
+    }
+}
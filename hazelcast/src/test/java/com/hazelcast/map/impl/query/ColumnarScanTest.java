@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.map.IMap;
+import com.hazelcast.query.PagingPredicate;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.HazelcastParallelParametersRunnerFactory;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Random;
+
+import static com.hazelcast.query.Predicates.and;
+import static com.hazelcast.query.Predicates.between;
+import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.greaterThan;
+import static com.hazelcast.query.Predicates.lessEqual;
+import static com.hazelcast.query.Predicates.like;
+import static com.hazelcast.query.Predicates.pagingPredicate;
+import static com.hazelcast.query.Predicates.sql;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(Parameterized.class)
+@Parameterized.UseParametersRunnerFactory(HazelcastParallelParametersRunnerFactory.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ColumnarScanTest extends HazelcastTestSupport {
+
+    @Parameterized.Parameters(name = "format:{0}, parallel:{1}")
+    public static Collection<Object[]> parameters() {
+        return asList(new Object[][]{
+                {InMemoryFormat.OBJECT, false},
+                {InMemoryFormat.BINARY, false},
+                {InMemoryFormat.BINARY, true},
+        });
+    }
+
+    @Parameterized.Parameter(0)
+    public InMemoryFormat inMemoryFormat;
+
+    @Parameterized.Parameter(1)
+    public boolean parallel;
+
+    // a separate cluster to run the columnar scan on
+    private final TestHazelcastInstanceFactory columnarFactory = new TestHazelcastInstanceFactory(1);
+
+    private IMap<Integer, Employee> expected;
+    private IMap<Integer, Employee> actual;
+
+    @Before
+    public void before() {
+        Config expectedConfig = getConfig();
+        expectedConfig.getMapConfig("employees").setInMemoryFormat(inMemoryFormat);
+        expected = createHazelcastInstance(expectedConfig).getMap("employees");
+
+        Config actualConfig = getConfig();
+        actualConfig.getMapConfig("employees").setInMemoryFormat(inMemoryFormat);
+        actualConfig.setProperty(GroupProperty.QUERY_COLUMNAR_SCAN.getName(), "true");
+        actualConfig.setProperty(GroupProperty.QUERY_PREDICATE_PARALLEL_EVALUATION.getName(), Boolean.toString(parallel));
+        actual = columnarFactory.newHazelcastInstance(actualConfig).getMap("employees");
+
+        Random random = new Random();
+        for (int i = 0; i < 3000; ++i) {
+            Integer age = random.nextInt(10) == 0 ? null : random.nextInt(60);
+            Employee employee = new Employee("name" + random.nextInt(100), age, random.nextInt(10000) / 100.0);
+            expected.put(i, employee);
+            actual.put(i, employee);
+        }
+    }
+
+    @After
+    public void after() {
+        columnarFactory.terminateAll();
+    }
+
+    @Override
+    protected Config getConfig() {
+        return smallInstanceConfig();
+    }
+
+    @Test
+    public void testQueries() {
+        assertPredicate(equal("age", 30));
+        assertPredicate(greaterThan("salary", 50));
+        assertPredicate(and(between("age", 20, 40), lessEqual("salary", "70")));
+        assertPredicate(and(greaterThan("age", 10L), like("name", "name1%")));
+        assertPredicate(sql("age >= 25 and salary < 30.5"));
+        assertPredicate(sql("age > '20' and name like 'name2%'"));
+    }
+
+    @Test
+    public void testPagingQuery() {
+        PagingPredicate<Integer, Employee> expectedPaging = pagingPredicate(greaterThan("age", 30), 25);
+        PagingPredicate<Integer, Employee> actualPaging = pagingPredicate(greaterThan("age", 30), 25);
+        for (int page = 0; page < 3; ++page) {
+            assertEquals(new ArrayList<Integer>(expected.keySet(expectedPaging)),
+                    new ArrayList<Integer>(actual.keySet(actualPaging)));
+            expectedPaging.nextPage();
+            actualPaging.nextPage();
+        }
+    }
+
+    private void assertPredicate(Predicate<Integer, Employee> predicate) {
+        assertEquals(predicate.toString(), expected.entrySet(predicate), actual.entrySet(predicate));
+    }
+
+    public static class Employee implements Serializable {
+
+        public final String name;
+        public final Integer age;
+        public final double salary;
+
+        public Employee(String name, Integer age, double salary) {
+            this.name = name;
+            this.age = age;
+            this.salary = salary;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Employee employee = (Employee) o;
+            return Double.compare(employee.salary, salary) == 0 && name.equals(employee.name)
+                    && (age != null ? age.equals(employee.age) : employee.age == null);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = name.hashCode();
+            result = 31 * result + (age != null ? age.hashCode() : 0);
+            long bits = Double.doubleToLongBits(salary);
+            return 31 * result + (int) (bits ^ (bits >>> 32));
+        }
+
+    }
+
+}
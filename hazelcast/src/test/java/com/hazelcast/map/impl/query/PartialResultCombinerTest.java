@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PartialResultCombinerTest {
+
+    @Test
+    public void testNothingOffered() {
+        PartialResultCombiner<long[]> combiner = new PartialResultCombiner<long[]>(PartialResultCombinerTest::sum);
+        assertNull(combiner.getResult());
+    }
+
+    @Test
+    public void testConcurrentOffers() throws Exception {
+        final PartialResultCombiner<long[]> combiner = new PartialResultCombiner<long[]>(PartialResultCombinerTest::sum);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<Future<?>>();
+            for (int i = 1; i <= 1000; ++i) {
+                final long value = i;
+                futures.add(executor.submit(() -> combiner.offer(new long[]{value, 1})));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        long[] result = combiner.getResult();
+        assertEquals(500500, result[0]);
+        assertEquals(1000, result[1]);
+    }
+
+    private static void sum(long[] target, long[] source) {
+        target[0] += source[0];
+        target[1] += source[1];
+    }
+
+}
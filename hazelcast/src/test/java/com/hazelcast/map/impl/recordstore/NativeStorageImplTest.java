@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.core.EntryView;
+import com.hazelcast.internal.memory.impl.UnsafeMallocMemoryManager;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.impl.iterator.MapEntriesWithCursor;
+import com.hazelcast.map.impl.iterator.MapKeysWithCursor;
+import com.hazelcast.map.impl.record.NativeRecordFactory;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.partition.strategy.DefaultPartitioningStrategy;
+import com.hazelcast.spi.serialization.SerializationService;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class NativeStorageImplTest {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    private SerializationService serializationService;
+    private UnsafeMallocMemoryManager memoryManager;
+    private NativeRecordFactory recordFactory;
+    private NativeStorageImpl storage;
+
+    @Before
+    public void setUp() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        memoryManager = new UnsafeMallocMemoryManager(1 << 24);
+        recordFactory = new NativeRecordFactory(serializationService, new DefaultPartitioningStrategy(), memoryManager);
+        storage = new NativeStorageImpl(recordFactory, memoryManager, serializationService);
+    }
+
+    @After
+    public void tearDown() {
+        storage.destroy(false);
+        assertEquals(0, memoryManager.getUsedMemory());
+    }
+
+    @Test
+    public void testPutAndGet() {
+        Data key = toData("key");
+        put(key, "value");
+
+        Record record = storage.get(toData("key"));
+
+        assertNotNull(record);
+        assertEquals(key, record.getKey());
+        assertEquals("value", serializationService.toObject(record.getValue()));
+        assertEquals(1, storage.size());
+        assertTrue(storage.containsKey(key));
+        assertFalse(storage.containsKey(toData("other")));
+    }
+
+    @Test
+    public void testPut_replacesExistingEntry() {
+        Data key = toData("key");
+        put(key, "value1");
+        put(key, "value2");
+        storage.disposeDeferredBlocks();
+
+        assertEquals(1, storage.size());
+        assertEquals("value2", serializationService.toObject(storage.get(key).getValue()));
+    }
+
+    @Test
+    public void testRecordMetadata_isKeptInNativeMemory() {
+        Data key = toData("key");
+        Record record = put(key, "value");
+        record.setTtl(1000);
+        record.setVersion(3);
+        record.onAccess(42);
+
+        Record fetched = storage.get(key);
+
+        assertEquals(1000, fetched.getTtl());
+        assertEquals(3, fetched.getVersion());
+        assertEquals(1, fetched.getHits());
+        assertEquals(42, fetched.getLastAccessTime());
+    }
+
+    @Test
+    public void testUpdateRecordValue() {
+        Data key = toData("key");
+        Record record = put(key, "value");
+        long costBefore = storage.getEntryCostEstimator().getEstimate();
+
+        storage.updateRecordValue(key, record, "a much longer value than before");
+
+        assertEquals("a much longer value than before", serializationService.toObject(storage.get(key).getValue()));
+        assertTrue(storage.getEntryCostEstimator().getEstimate() > costBefore);
+    }
+
+    @Test
+    public void testRemoveRecord() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            put(toData(i), i);
+        }
+        for (int i = 0; i < ENTRY_COUNT; i += 2) {
+            storage.removeRecord(storage.get(toData(i)));
+        }
+        storage.disposeDeferredBlocks();
+
+        assertEquals(ENTRY_COUNT / 2, storage.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(i % 2 != 0, storage.containsKey(toData(i)));
+        }
+    }
+
+    @Test
+    public void testValues_allowsRemovalWhileIterating() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            put(toData(i), i);
+        }
+
+        Set<Object> seen = new HashSet<Object>();
+        Iterator<Record> iterator = storage.values().iterator();
+        while (iterator.hasNext()) {
+            Record record = iterator.next();
+            seen.add(serializationService.toObject(record.getKey()));
+            storage.removeRecord(record);
+            iterator.remove();
+        }
+        storage.disposeDeferredBlocks();
+
+        assertEquals(ENTRY_COUNT, seen.size());
+        assertTrue(storage.isEmpty());
+    }
+
+    @Test
+    public void testMutationTolerantIterator_visitsAllEntries() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            put(toData(i), i);
+        }
+
+        Set<Object> seen = new HashSet<Object>();
+        Iterator<Record> iterator = storage.mutationTolerantIterator();
+        while (iterator.hasNext()) {
+            seen.add(serializationService.toObject(iterator.next().getKey()));
+        }
+
+        assertEquals(ENTRY_COUNT, seen.size());
+    }
+
+    @Test
+    public void testGetRandomSamples() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            put(toData(i), i);
+        }
+
+        int count = 0;
+        for (EntryView entryView : storage.getRandomSamples(15)) {
+            assertNotNull(storage.extractRecordFromLazy(entryView));
+            assertNotNull(entryView.getKey());
+            count++;
+        }
+
+        assertEquals(15, count);
+    }
+
+    @Test
+    public void testFetchKeysAndEntries() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            put(toData(i), i);
+        }
+
+        Set<Data> keys = new HashSet<Data>();
+        int tableIndex = Integer.MAX_VALUE;
+        do {
+            MapKeysWithCursor batch = storage.fetchKeys(tableIndex, 100);
+            keys.addAll(batch.getBatch());
+            tableIndex = batch.getNextTableIndexToReadFrom();
+        } while (tableIndex >= 0);
+
+        Set<Data> entryKeys = new HashSet<Data>();
+        tableIndex = Integer.MAX_VALUE;
+        do {
+            MapEntriesWithCursor batch = storage.fetchEntries(tableIndex, 100, serializationService);
+            for (Map.Entry<Data, Data> entry : batch.getBatch()) {
+                Object key = serializationService.toObject(entry.getKey());
+                Object value = serializationService.toObject(entry.getValue());
+                assertEquals(key, value);
+                entryKeys.add(entry.getKey());
+            }
+            tableIndex = batch.getNextTableIndexToReadFrom();
+        } while (tableIndex >= 0);
+
+        assertEquals(ENTRY_COUNT, keys.size());
+        assertEquals(keys, entryKeys);
+    }
+
+    @Test
+    public void testClear_freesNativeMemoryOfEntries() {
+        long usedBefore = memoryManager.getUsedMemory();
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            put(toData(i), i);
+        }
+        assertTrue(memoryManager.getUsedMemory() > usedBefore);
+
+        storage.clear(false);
+
+        assertEquals(0, storage.size());
+        assertEquals(0, storage.getEntryCostEstimator().getEstimate());
+        assertNull(storage.get(toData(0)));
+    }
+
+    @Test(expected = NativeOutOfMemoryError.class)
+    public void testPut_whenCapacityExceeded() {
+        UnsafeMallocMemoryManager smallMemoryManager = new UnsafeMallocMemoryManager(64);
+        NativeRecordFactory factory = new NativeRecordFactory(serializationService, new DefaultPartitioningStrategy(),
+                smallMemoryManager);
+
+        factory.newRecord(toData("key"), "value");
+    }
+
+    private Record put(Data key, Object value) {
+        Record record = recordFactory.newRecord(key, value);
+        storage.put(key, record);
+        return record;
+    }
+
+    private Data toData(Object object) {
+        return serializationService.toData(object);
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.nio.tcp;
+
+import com.hazelcast.internal.networking.HandlerStatus;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
+import static com.hazelcast.internal.networking.HandlerStatus.DIRTY;
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static java.lang.Math.min;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class CompressionEncoderTest extends HazelcastTestSupport {
+
+    private static final int THRESHOLD = 100;
+
+    private CompressionStats stats;
+    private CompressionEncoder encoder;
+    private CompressionDecoder decoder;
+
+    @Before
+    public void setup() {
+        stats = new CompressionStats();
+        encoder = new CompressionEncoder(THRESHOLD, stats);
+        decoder = new CompressionDecoder(stats);
+    }
+
+    @Test
+    public void whenCompressible_thenCompressed() throws Exception {
+        byte[] data = compressibleBytes(200 * 1024);
+
+        byte[] encoded = encode(data, 1000);
+
+        assertTrue(encoded.length < data.length / 2);
+        assertTrue(stats.compressionRatio() > 2);
+        assertArrayEquals(data, decode(encoded, 1000, 1000));
+    }
+
+    @Test
+    public void whenBelowThreshold_thenNotCompressed() throws Exception {
+        byte[] data = compressibleBytes(THRESHOLD - 1);
+
+        byte[] encoded = encode(data, 1000);
+
+        assertEquals(INT_SIZE_IN_BYTES + data.length, encoded.length);
+        assertArrayEquals(data, decode(encoded, 1000, 1000));
+    }
+
+    @Test
+    public void whenIncompressible_thenNotCompressed() throws Exception {
+        byte[] data = new byte[10000];
+        new Random().nextBytes(data);
+
+        byte[] encoded = encode(data, 1000);
+
+        assertEquals(INT_SIZE_IN_BYTES + data.length, encoded.length);
+        assertEquals(1, stats.compressionRatio(), 0.01);
+        assertArrayEquals(data, decode(encoded, 1000, 1000));
+    }
+
+    @Test
+    public void whenReceivedInSmallChunks_thenDecoded() throws Exception {
+        byte[] data = compressibleBytes(100 * 1024);
+
+        byte[] encoded = encode(data, 1000);
+
+        assertArrayEquals(data, decode(encoded, 3, 1000));
+    }
+
+    @Test
+    public void whenDstSmall_thenDirty() throws Exception {
+        byte[] data = compressibleBytes(10000);
+        byte[] encoded = encode(data, 1000);
+        ByteBuffer dst = ByteBuffer.allocate(100);
+        decoder.src(ByteBuffer.allocate(encoded.length));
+        decoder.dst(dst);
+        decoder.src().put(encoded);
+
+        HandlerStatus status = decoder.onRead();
+
+        assertEquals(DIRTY, status);
+        assertEquals(100, dst.position());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void whenInvalidLength_thenIllegalStateException() throws Exception {
+        decoder.src(ByteBuffer.allocate(1000));
+        decoder.dst(ByteBuffer.allocate(1000));
+        decoder.src().putInt(CompressionEncoder.MAX_BLOCK_SIZE + 1);
+
+        decoder.onRead();
+    }
+
+    // a closed deflater can't be used anymore
+    @Test(expected = NullPointerException.class)
+    public void whenChannelClosed_thenDeflaterEnded() {
+        encoder.onClose(null);
+
+        encode(compressibleBytes(10000), 1000);
+    }
+
+    // a closed inflater can't be used anymore
+    @Test(expected = NullPointerException.class)
+    public void whenChannelClosed_thenInflaterEnded() throws Exception {
+        byte[] encoded = encode(compressibleBytes(10000), 1000);
+        decoder.onClose(null);
+
+        decode(encoded, 1000, 1000);
+    }
+
+    private byte[] encode(byte[] data, int dstSize) {
+        ByteBuffer dst = ByteBuffer.allocate(dstSize);
+        dst.flip();
+        encoder.src(ByteBuffer.wrap(data));
+        encoder.dst(dst);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        HandlerStatus status;
+        do {
+            status = encoder.onWrite();
+            // drain the dst, like the socket would do
+            byte[] bytes = new byte[dst.remaining()];
+            dst.get(bytes);
+            out.write(bytes, 0, bytes.length);
+        } while (status != CLEAN);
+        return out.toByteArray();
+    }
+
+    private byte[] decode(byte[] encoded, int chunkSize, int dstSize) throws Exception {
+        ByteBuffer src = ByteBuffer.allocate(1000);
+        ByteBuffer dst = ByteBuffer.allocate(dstSize);
+        decoder.src(src);
+        decoder.dst(dst);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int offset = 0;
+        HandlerStatus status = CLEAN;
+        while (offset < encoded.length || status != CLEAN) {
+            int length = min(min(chunkSize, src.remaining()), encoded.length - offset);
+            src.put(encoded, offset, length);
+            offset += length;
+
+            status = decoder.onRead();
+
+            // drain the dst, like the next handler would do
+            dst.flip();
+            byte[] bytes = new byte[dst.remaining()];
+            dst.get(bytes);
+            out.write(bytes, 0, bytes.length);
+            dst.clear();
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] compressibleBytes(int length) {
+        byte[] bytes = new byte[length];
+        for (int k = 0; k < length; k++) {
+            bytes[k] = (byte) (k % 7 == 0 ? k : 'a');
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.nio.tcp;
+
+import com.hazelcast.internal.networking.HandlerStatus;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.PooledPayload;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.Packet;
+import com.hazelcast.nio.PacketIOHelper;
+import com.hazelcast.nio.tcp.PacketEncoderTest.PacketSupplier;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
+import static com.hazelcast.internal.networking.HandlerStatus.DIRTY;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class GatheringPacketEncoderTest extends HazelcastTestSupport {
+
+    private static final int GATHER_THRESHOLD = 1000;
+
+    private InternalSerializationService serializationService;
+    private GatheringPacketEncoder encoder;
+    private PacketSupplier src;
+
+    @Before
+    public void setup() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        encoder = new GatheringPacketEncoder(GATHER_THRESHOLD);
+        encoder.initBuffer(ByteBuffer.allocate(1000));
+        src = new PacketSupplier();
+        encoder.src(src);
+    }
+
+    @Test
+    public void whenSmallPackets_thenCopiedIntoSingleBuffer() {
+        Packet packet1 = new Packet(serializationService.toBytes("foo"));
+        Packet packet2 = new Packet(serializationService.toBytes("bar"));
+        src.queue.add(packet1);
+        src.queue.add(packet2);
+
+        HandlerStatus result = encoder.onWrite();
+
+        assertEquals(CLEAN, result);
+        ByteBuffer[] segments = encoder.dst();
+        assertFalse(segments[1].hasRemaining());
+        PacketIOHelper reader = new PacketIOHelper();
+        assertEquals(packet1, reader.readFrom(segments[0]));
+        assertEquals(packet2, reader.readFrom(segments[0]));
+    }
+
+    @Test
+    public void whenLargePacket_thenPayloadNotCopied() {
+        Packet small = new Packet(serializationService.toBytes("foo"));
+        Packet large = new Packet(serializationService.toBytes(new byte[5000]));
+        Packet trailing = new Packet(serializationService.toBytes("bar"));
+        src.queue.add(small);
+        src.queue.add(large);
+        src.queue.add(trailing);
+
+        HandlerStatus result = encoder.onWrite();
+
+        assertEquals(CLEAN, result);
+        ByteBuffer[] segments = encoder.dst();
+        assertSame(large.toByteArray(), segments[1].array());
+        assertFalse(segments[3].hasRemaining());
+
+        ByteBuffer written = concat(segments);
+        PacketIOHelper reader = new PacketIOHelper();
+        assertEquals(small, reader.readFrom(written));
+        assertEquals(large, reader.readFrom(written));
+        assertEquals(trailing, reader.readFrom(written));
+    }
+
+    @Test
+    public void whenPreviousBatchNotWritten_thenNoNewPacketsTaken() {
+        src.queue.add(new Packet(serializationService.toBytes(new byte[5000])));
+        encoder.onWrite();
+        Packet next = new Packet(serializationService.toBytes("foo"));
+        src.queue.add(next);
+
+        HandlerStatus result = encoder.onWrite();
+
+        assertEquals(DIRTY, result);
+        assertSame(next, src.queue.peek());
+    }
+
+    @Test
+    public void whenPooledPayloadGathered_thenReleasedAfterWritten() {
+        final AtomicInteger recycled = new AtomicInteger();
+        byte[] bytes = serializationService.toBytes(new byte[5000]);
+        Packet packet = new Packet(new PooledPayload(bytes, bytes.length, new Runnable() {
+            @Override
+            public void run() {
+                recycled.incrementAndGet();
+            }
+        }), -1);
+        src.queue.add(packet);
+
+        assertEquals(CLEAN, encoder.onWrite());
+        assertEquals(0, recycled.get());
+
+        concat(encoder.dst());
+        assertEquals(CLEAN, encoder.onWrite());
+        assertEquals(1, recycled.get());
+    }
+
+    @Test
+    public void whenSmallPacketDoesNotFit_thenContinuedInNextBatch() {
+        Packet packet = new Packet(serializationService.toBytes(new byte[900]));
+        src.queue.add(new Packet(serializationService.toBytes(new byte[500])));
+        src.queue.add(packet);
+
+        assertEquals(DIRTY, encoder.onWrite());
+        ByteBuffer written = ByteBuffer.allocate(2000);
+        written.put(concat(encoder.dst()));
+        assertEquals(CLEAN, encoder.onWrite());
+        written.put(concat(encoder.dst()));
+        written.flip();
+
+        PacketIOHelper reader = new PacketIOHelper();
+        assertEquals(500, reader.readFrom(written).dataSize());
+        Packet resultPacket = reader.readFrom(written);
+        assertArrayEquals(packet.toByteArray(), resultPacket.toByteArray());
+        assertNull(reader.readFrom(written));
+    }
+
+    /**
+     * Drains the segments, like a gathering write would do, into a single buffer.
+     */
+    private static ByteBuffer concat(ByteBuffer[] segments) {
+        int size = 0;
+        for (ByteBuffer segment : segments) {
+            size += segment.remaining();
+        }
+        ByteBuffer result = ByteBuffer.allocate(size);
+        for (ByteBuffer segment : segments) {
+            result.put(segment);
+        }
+        result.flip();
+        return result;
+    }
+}
@@ -68,6 +68,7 @@ public class MockIOService implements IOService {
     private final HazelcastProperties properties;
     public volatile Consumer<Packet> packetConsumer;
     private final ILogger logger;
+    private final CompressionStats compressionStats = new CompressionStats();
 
     public MockIOService(int port) throws Exception {
         loggingService = new LoggingServiceImpl("somegroup", "log4j2", BuildInfoProvider.getBuildInfo());
@@ -345,6 +346,11 @@ public class MockIOService implements IOService {
         return new OutboundHandler[]{new PacketEncoder()};
     }
 
+    @Override
+    public CompressionStats getCompressionStats() {
+        return compressionStats;
+    }
+
     @Override
     public RestApiConfig getRestApiConfig() {
         return new RestApiConfig();
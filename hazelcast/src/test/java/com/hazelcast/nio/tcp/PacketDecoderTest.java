@@ -25,6 +25,7 @@ import com.hazelcast.nio.PacketIOHelper;
 import com.hazelcast.test.HazelcastSerialClassRunner;
 import com.hazelcast.test.HazelcastTestSupport;
 import com.hazelcast.test.annotation.QuickTest;
+import com.hazelcast.util.function.BatchConsumer;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -119,6 +120,26 @@ public class PacketDecoderTest extends HazelcastTestSupport {
         assertEquals(1, priorityPacketCounter.get());
     }
 
+    @Test
+    public void whenMultiplePacketsAndBatchConsumer_thenHandedOverAsBatch() throws Exception {
+        BatchConsumerStub batchDispatcher = new BatchConsumerStub();
+        decoder = new PacketDecoder(mock(TcpIpConnection.class), batchDispatcher);
+        decoder.setNormalPacketsRead(normalPacketCounter);
+        decoder.setPriorityPacketsRead(priorityPacketCounter);
+
+        ByteBuffer src = ByteBuffer.allocate(1000);
+        Packet packet1 = new Packet(serializationService.toBytes("packet1"));
+        new PacketIOHelper().writeTo(packet1, src);
+        Packet packet2 = new Packet(serializationService.toBytes("packet2"));
+        new PacketIOHelper().writeTo(packet2, src);
+
+        decoder.src(src);
+        decoder.onRead();
+
+        assertEquals(1, batchDispatcher.batchCount);
+        assertEquals(asList(packet1, packet2), batchDispatcher.packets);
+    }
+
     class ConsumerStub implements Consumer<Packet> {
         private List<Packet> packets = new LinkedList<Packet>();
 
@@ -127,4 +148,20 @@ public class PacketDecoderTest extends HazelcastTestSupport {
             packets.add(packet);
         }
     }
+
+    class BatchConsumerStub implements BatchConsumer<Packet> {
+        private List<Packet> packets = new LinkedList<Packet>();
+        private int batchCount;
+
+        @Override
+        public void accept(Packet packet) {
+            packets.add(packet);
+        }
+
+        @Override
+        public void acceptAll(Packet[] batch, int count) {
+            batchCount++;
+            packets.addAll(asList(batch).subList(0, count));
+        }
+    }
 }
@@ -18,6 +18,7 @@ package com.hazelcast.nio.tcp;
 
 import com.hazelcast.internal.networking.HandlerStatus;
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.PooledPayload;
 import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
 import com.hazelcast.nio.Packet;
 import com.hazelcast.nio.PacketIOHelper;
@@ -31,12 +32,15 @@ import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Queue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
 import static com.hazelcast.internal.networking.HandlerStatus.DIRTY;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 @RunWith(HazelcastParallelClassRunner.class)
@@ -90,6 +94,59 @@ public class PacketEncoderTest extends HazelcastTestSupport {
         assertEquals(DIRTY, result);
     }
 
+    @Test
+    public void whenPooledPacketFullyWritten_thenPayloadReleased() {
+        final AtomicInteger recycled = new AtomicInteger();
+        byte[] bytes = serializationService.toBytes("foobar");
+        PooledPayload payload = new PooledPayload(Arrays.copyOf(bytes, bytes.length + 100), bytes.length, new Runnable() {
+            @Override
+            public void run() {
+                recycled.incrementAndGet();
+            }
+        });
+        Packet packet = new Packet(payload, -1);
+        ByteBuffer dst = ByteBuffer.allocate(1000);
+        dst.flip();
+
+        PacketSupplier src = new PacketSupplier();
+        src.queue.add(packet);
+
+        encoder.dst(dst);
+        encoder.src(src);
+
+        HandlerStatus result = encoder.onWrite();
+
+        assertEquals(CLEAN, result);
+        assertEquals(1, recycled.get());
+        Packet resultPacket = new PacketIOHelper().readFrom(dst);
+        assertArrayEquals(bytes, resultPacket.toByteArray());
+    }
+
+    @Test
+    public void whenPooledPacketNotFullyWritten_thenPayloadNotReleased() {
+        final AtomicInteger recycled = new AtomicInteger();
+        byte[] bytes = serializationService.toBytes(new byte[2000]);
+        Packet packet = new Packet(new PooledPayload(bytes, bytes.length, new Runnable() {
+            @Override
+            public void run() {
+                recycled.incrementAndGet();
+            }
+        }), -1);
+        ByteBuffer dst = ByteBuffer.allocate(1000);
+        dst.flip();
+
+        PacketSupplier src = new PacketSupplier();
+        src.queue.add(packet);
+
+        encoder.dst(dst);
+        encoder.src(src);
+
+        HandlerStatus result = encoder.onWrite();
+
+        assertEquals(DIRTY, result);
+        assertEquals(0, recycled.get());
+    }
+
     static class PacketSupplier implements Supplier<Packet> {
         Queue<Packet> queue = new LinkedBlockingQueue<Packet>();
 
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.projection;
+
+import com.hazelcast.aggregation.Aggregators;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the numeric aggregations extracting the primitive fields and
+ * getters without boxing them, the object in-memory format is used to keep
+ * the deserialization out of the picture.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Fork(value = 1, warmups = 1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class AggregationBenchmark {
+    IMap<Integer, Employee> map;
+
+    @Setup
+    public void prepare() {
+        Config config = new Config();
+        MapConfig mapConfig = new MapConfig("employees");
+        mapConfig.setInMemoryFormat(InMemoryFormat.OBJECT);
+        config.addMapConfig(mapConfig);
+
+        HazelcastInstance hz = Hazelcast.newHazelcastInstance(config);
+        map = hz.getMap("employees");
+        for (int k = 0; k < 100000; k++) {
+            Employee employee = new Employee(k % 100, 1000L * k, k / 3.0);
+            map.put(k, employee);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        Hazelcast.shutdownAll();
+    }
+
+    @Benchmark
+    public Long testLongSumField() {
+        return map.aggregate(Aggregators.longSum("salary"));
+    }
+
+    @Benchmark
+    public Long testIntegerSumGetter() {
+        return map.aggregate(Aggregators.integerSum("age"));
+    }
+
+    @Benchmark
+    public Double testDoubleAvgField() {
+        return map.aggregate(Aggregators.doubleAvg("score"));
+    }
+
+    @Benchmark
+    public Long testMaxField() {
+        return map.aggregate(Aggregators.comparableMax("salary"));
+    }
+
+    public static class Employee implements Serializable {
+        public long salary;
+        public double score;
+        private int age;
+
+        public Employee(int age, long salary, double score) {
+            this.age = age;
+            this.salary = salary;
+            this.score = score;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        @Override
+        public String toString() {
+            return "Employee{"
+                    + "age=" + age
+                    + ", salary=" + salary
+                    + ", score=" + score
+                    + '}';
+        }
+    }
+
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class BitmapResultSetTest {
+
+    private final EntryOrdinals ordinals = new EntryOrdinals();
+
+    @Test
+    public void whenOrdinalRecycled_thenSnapshotEntriesReturned() {
+        QueryableEntry entry1 = createMockQueryableEntry();
+        QueryableEntry entry2 = createMockQueryableEntry();
+        CompressedBitmap bitmap = new CompressedBitmap();
+        int ordinal1 = ordinals.acquire(entry1);
+        bitmap.add(ordinal1);
+        bitmap.add(ordinals.acquire(entry2));
+        BitmapResultSet resultSet = new BitmapResultSet(bitmap, ordinals, false);
+
+        ordinals.release(ordinal1);
+        QueryableEntry entry3 = acquireRecycled(ordinal1);
+
+        assertEquals(2, resultSet.size());
+        assertEquals(new HashSet<QueryableEntry>(asList(entry1, entry2)), new HashSet<QueryableEntry>(toList(resultSet)));
+        assertTrue(resultSet.contains(entry1));
+        assertFalse(resultSet.contains(entry3));
+    }
+
+    @Test
+    public void whenOrdinalRecycledInBetween_thenNotCombinable() {
+        QueryableEntry entry1 = createMockQueryableEntry();
+        CompressedBitmap bitmap1 = new CompressedBitmap();
+        int ordinal1 = ordinals.acquire(entry1);
+        bitmap1.add(ordinal1);
+        BitmapResultSet resultSet1 = new BitmapResultSet(bitmap1, ordinals, false);
+        BitmapResultSet resultSet2 = new BitmapResultSet(bitmap1.copy(), ordinals, false);
+        assertTrue(resultSet1.isCombinableWith(resultSet2));
+
+        ordinals.release(ordinal1);
+        acquireRecycled(ordinal1);
+        CompressedBitmap bitmap3 = new CompressedBitmap();
+        bitmap3.add(ordinal1);
+        BitmapResultSet resultSet3 = new BitmapResultSet(bitmap3, ordinals, false);
+
+        assertFalse(resultSet1.isCombinableWith(resultSet3));
+    }
+
+    @Test
+    public void testCombine() {
+        List<QueryableEntry> entries = new ArrayList<QueryableEntry>();
+        CompressedBitmap bitmap1 = new CompressedBitmap();
+        CompressedBitmap bitmap2 = new CompressedBitmap();
+        for (int i = 0; i < 100; i++) {
+            QueryableEntry entry = createMockQueryableEntry();
+            entries.add(entry);
+            int ordinal = ordinals.acquire(entry);
+            if (i % 2 == 0) {
+                bitmap1.add(ordinal);
+            }
+            if (i % 3 == 0) {
+                bitmap2.add(ordinal);
+            }
+        }
+        BitmapResultSet resultSet1 = new BitmapResultSet(bitmap1, ordinals, false);
+        BitmapResultSet resultSet2 = new BitmapResultSet(bitmap2, ordinals, false);
+
+        assertResultSet(resultSet1.and(resultSet2), entries, 6, 0);
+        assertResultSet(resultSet1.andNot(resultSet2), entries, 2, 3, 0);
+        BitmapResultSet union = resultSet1.or(resultSet2);
+        assertEquals(67, union.size());
+        for (QueryableEntry entry : union) {
+            int i = entries.indexOf(entry);
+            assertTrue(i % 2 == 0 || i % 3 == 0);
+        }
+    }
+
+    private static void assertResultSet(BitmapResultSet resultSet, List<QueryableEntry> entries, int divisor,
+                                        int nonDivisor, int remainder) {
+        int expected = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            boolean matches = i % divisor == remainder && (nonDivisor == 0 || i % nonDivisor != 0);
+            assertEquals(matches, resultSet.contains(entries.get(i)));
+            expected += matches ? 1 : 0;
+        }
+        assertEquals(expected, resultSet.size());
+        assertEquals(expected, toList(resultSet).size());
+    }
+
+    private static void assertResultSet(BitmapResultSet resultSet, List<QueryableEntry> entries, int divisor, int remainder) {
+        assertResultSet(resultSet, entries, divisor, 0, remainder);
+    }
+
+    /**
+     * Acquires ordinals for new entries until the given released ordinal is
+     * recycled, the entries hashing to the other stripes are released.
+     */
+    private QueryableEntry acquireRecycled(int ordinal) {
+        while (true) {
+            QueryableEntry entry = createMockQueryableEntry();
+            int acquired = ordinals.acquire(entry);
+            if (acquired == ordinal) {
+                return entry;
+            }
+            ordinals.release(acquired);
+        }
+    }
+
+    private static List<QueryableEntry> toList(BitmapResultSet resultSet) {
+        List<QueryableEntry> list = new ArrayList<QueryableEntry>();
+        for (QueryableEntry entry : resultSet) {
+            list.add(entry);
+        }
+        return list;
+    }
+
+    private static QueryableEntry createMockQueryableEntry() {
+        QueryableEntry entry = mock(QueryableEntry.class);
+        Data keyData = mock(Data.class);
+        when(entry.getKeyData()).thenReturn(keyData);
+        return entry;
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class CompressedBitmapTest {
+
+    private static final int MAX_MEMBER = 5000;
+
+    private final Random random = new Random();
+
+    @Test
+    public void testAddRemoveContains() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        assertTrue(bitmap.isEmpty());
+
+        assertTrue(bitmap.add(0));
+        assertTrue(bitmap.add(63));
+        assertTrue(bitmap.add(64));
+        assertTrue(bitmap.add(1000));
+        assertFalse(bitmap.add(63));
+        assertEquals(4, bitmap.cardinality());
+
+        assertTrue(bitmap.contains(0));
+        assertTrue(bitmap.contains(63));
+        assertTrue(bitmap.contains(64));
+        assertTrue(bitmap.contains(1000));
+        assertFalse(bitmap.contains(1));
+        assertFalse(bitmap.contains(999));
+
+        assertTrue(bitmap.remove(64));
+        assertFalse(bitmap.remove(64));
+        assertFalse(bitmap.remove(2000));
+        assertFalse(bitmap.contains(64));
+        assertEquals(3, bitmap.cardinality());
+
+        bitmap.remove(0);
+        bitmap.remove(63);
+        bitmap.remove(1000);
+        assertTrue(bitmap.isEmpty());
+    }
+
+    @Test
+    public void testNextMember() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        bitmap.add(5);
+        bitmap.add(64);
+        bitmap.add(700);
+
+        assertEquals(5, bitmap.nextMember(0));
+        assertEquals(5, bitmap.nextMember(5));
+        assertEquals(64, bitmap.nextMember(6));
+        assertEquals(700, bitmap.nextMember(65));
+        assertEquals(-1, bitmap.nextMember(701));
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        bitmap.add(1);
+        CompressedBitmap copy = bitmap.copy();
+        bitmap.add(2);
+        copy.remove(1);
+
+        assertTrue(bitmap.contains(1));
+        assertFalse(copy.contains(1));
+        assertFalse(copy.contains(2));
+    }
+
+    @Test
+    public void testBitwiseOperations() {
+        for (int i = 0; i < 20; ++i) {
+            BitSet leftExpected = new BitSet();
+            BitSet rightExpected = new BitSet();
+            CompressedBitmap left = randomBitmap(leftExpected);
+            CompressedBitmap right = randomBitmap(rightExpected);
+
+            BitSet expected = (BitSet) leftExpected.clone();
+            expected.and(rightExpected);
+            assertBitmap(expected, CompressedBitmap.and(left, right));
+
+            expected = (BitSet) leftExpected.clone();
+            expected.or(rightExpected);
+            assertBitmap(expected, CompressedBitmap.or(left, right));
+
+            expected = (BitSet) leftExpected.clone();
+            expected.andNot(rightExpected);
+            assertBitmap(expected, CompressedBitmap.andNot(left, right));
+
+            // the operands are left intact
+            assertBitmap(leftExpected, left);
+            assertBitmap(rightExpected, right);
+        }
+    }
+
+    private CompressedBitmap randomBitmap(BitSet expected) {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        // sparse and dense regions to cover both omitted and full words
+        int count = random.nextInt(MAX_MEMBER / 4);
+        for (int i = 0; i < count; ++i) {
+            int member = random.nextBoolean() ? random.nextInt(MAX_MEMBER) : random.nextInt(MAX_MEMBER / 20);
+            bitmap.add(member);
+            expected.set(member);
+        }
+        return bitmap;
+    }
+
+    private static void assertBitmap(BitSet expected, CompressedBitmap actual) {
+        assertEquals(expected.cardinality(), actual.cardinality());
+        assertEquals(expected.isEmpty(), actual.isEmpty());
+        int member = actual.nextMember(0);
+        for (int i = expected.nextSetBit(0); i >= 0; i = expected.nextSetBit(i + 1)) {
+            assertEquals(i, member);
+            assertTrue(actual.contains(i));
+            member = actual.nextMember(member + 1);
+        }
+        assertEquals(-1, member);
+    }
+
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.monitor.impl.PerIndexStats;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static com.hazelcast.util.ConcurrencyUtil.CALLER_RUNS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class IndexHistogramTest {
+
+    private static final double DELTA = 0.05;
+
+    private final InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+    private final Extractors extractors = Extractors.newBuilder(ss).build();
+
+    @Test
+    public void testEmptyIndex() {
+        IndexHistogram histogram = newIndex(true).getHistogram(CALLER_RUNS);
+
+        assertEquals(0, histogram.getEntryCount());
+        assertEquals(0, histogram.getDistinctCount());
+        assertEquals(0.0, histogram.estimateEqualSelectivity(), 0.0);
+        assertEquals(0.0, histogram.estimateRangeSelectivity(1, true, 10, true), 0.0);
+    }
+
+    @Test
+    public void testUniformValues() {
+        InternalIndex index = newIndex(true);
+        for (int i = 0; i < 1000; ++i) {
+            put(index, i, i);
+        }
+        IndexHistogram histogram = index.getHistogram(CALLER_RUNS);
+
+        assertEquals(1000, histogram.getEntryCount());
+        assertEquals(1000, histogram.getDistinctCount());
+        assertEquals(AbstractIndex.HISTOGRAM_BUCKET_COUNT, histogram.getBucketCount());
+        assertEquals(0.001, histogram.estimateEqualSelectivity(), 0.0);
+        assertEquals(0.5, histogram.estimateRangeSelectivity(null, false, 500, false), DELTA);
+        assertEquals(0.1, histogram.estimateRangeSelectivity(100, true, 200, false), DELTA);
+        assertEquals(0.0, histogram.estimateRangeSelectivity(2000, true, null, false), DELTA);
+        assertEquals(1.0, histogram.estimateRangeSelectivity(-10, true, null, false), DELTA);
+    }
+
+    @Test
+    public void testSkewedValues() {
+        InternalIndex index = newIndex(true);
+        for (int i = 0; i < 1000; ++i) {
+            put(index, i, i < 500 ? 0 : i);
+        }
+        IndexHistogram histogram = index.getHistogram(CALLER_RUNS);
+
+        assertEquals(1000, histogram.getEntryCount());
+        assertEquals(501, histogram.getDistinctCount());
+        assertEquals(0.5, histogram.estimateRangeSelectivity(0, false, null, false), DELTA);
+        assertEquals(0.25, histogram.estimateRangeSelectivity(750, true, null, false), DELTA);
+    }
+
+    @Test
+    public void testNullValues() {
+        InternalIndex index = newIndex(true);
+        for (int i = 0; i < 100; ++i) {
+            put(index, i, i % 2 == 0 ? null : i);
+        }
+        IndexHistogram histogram = index.getHistogram(CALLER_RUNS);
+
+        assertEquals(100, histogram.getEntryCount());
+        assertEquals(51, histogram.getDistinctCount());
+        assertEquals(0.5, histogram.estimateRangeSelectivity(null, false, null, false), DELTA);
+    }
+
+    @Test
+    public void testUnorderedIndex() {
+        InternalIndex index = newIndex(false);
+        for (int i = 0; i < 100; ++i) {
+            put(index, i, i % 10);
+        }
+        IndexHistogram histogram = index.getHistogram(CALLER_RUNS);
+
+        assertEquals(100, histogram.getEntryCount());
+        assertEquals(10, histogram.getDistinctCount());
+        assertEquals(0, histogram.getBucketCount());
+        assertEquals(0.1, histogram.estimateEqualSelectivity(), 0.0);
+        assertEquals(IndexHistogram.DEFAULT_RANGE_SELECTIVITY, histogram.estimateRangeSelectivity(1, true, 5, true), 0.0);
+    }
+
+    @Test
+    public void testHistogramIsRebuiltWhenStale() {
+        InternalIndex index = newIndex(true);
+        for (int i = 0; i < 1000; ++i) {
+            put(index, i, i);
+        }
+        IndexHistogram histogram = index.getHistogram(CALLER_RUNS);
+
+        put(index, 1000, 1000);
+        assertSame(histogram, index.getHistogram(CALLER_RUNS));
+
+        for (int i = 1001; i < 1200; ++i) {
+            put(index, i, i);
+        }
+        IndexHistogram rebuilt = index.getHistogram(CALLER_RUNS);
+        assertNotSame(histogram, rebuilt);
+        assertEquals(1200, rebuilt.getEntryCount());
+    }
+
+    @Test
+    public void testHistogramIsRebuiltOnExecutor() {
+        InternalIndex index = newIndex(true);
+        for (int i = 0; i < 1000; ++i) {
+            put(index, i, i);
+        }
+        List<Runnable> rebuilds = new ArrayList<Runnable>();
+        Executor executor = rebuilds::add;
+
+        assertNull(index.getHistogram(executor));
+        assertNull(index.getHistogram(executor));
+        assertEquals(1, rebuilds.size());
+
+        rebuilds.remove(0).run();
+        IndexHistogram histogram = index.getHistogram(executor);
+        assertEquals(1000, histogram.getEntryCount());
+
+        for (int i = 1000; i < 1200; ++i) {
+            put(index, i, i);
+        }
+        // the stale histogram is served until rebuilt
+        assertSame(histogram, index.getHistogram(executor));
+        assertEquals(1, rebuilds.size());
+        rebuilds.remove(0).run();
+        assertEquals(1200, index.getHistogram(executor).getEntryCount());
+    }
+
+    private InternalIndex newIndex(boolean ordered) {
+        return new IndexImpl("this", null, ordered, ss, extractors, IndexCopyBehavior.COPY_ON_READ, PerIndexStats.EMPTY);
+    }
+
+    private void put(InternalIndex index, int key, Integer value) {
+        index.putEntry(new QueryEntry(ss, ss.toData(key), value, extractors), null, Index.OperationSource.USER);
+    }
+
+}
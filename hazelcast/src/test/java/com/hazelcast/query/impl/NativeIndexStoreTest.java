@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.memory.impl.UnsafeMallocMemoryManager;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.impl.StoreAdapter;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.monitor.impl.IndexOperationStats;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelParametersRunnerFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.hazelcast.query.impl.AbstractIndex.NULL;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(Parameterized.class)
+@Parameterized.UseParametersRunnerFactory(HazelcastParallelParametersRunnerFactory.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class NativeIndexStoreTest {
+
+    private static final int ENTRY_COUNT = 100;
+
+    @Parameterized.Parameters(name = "ordered:{0}")
+    public static Collection<Object[]> parameters() {
+        return asList(new Object[][]{{false}, {true}});
+    }
+
+    @Parameterized.Parameter
+    public boolean ordered;
+
+    private final Map<Data, Record> records = new HashMap<Data, Record>();
+
+    private InternalSerializationService serializationService;
+    private Extractors extractors;
+    private UnsafeMallocMemoryManager memoryManager;
+    private NativeIndexStore store;
+
+    @Before
+    public void setUp() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        extractors = Extractors.newBuilder(serializationService).build();
+        memoryManager = new UnsafeMallocMemoryManager(1 << 24);
+        StoreAdapter storeAdapter = new MapStoreAdapter();
+        store = ordered
+                ? new NativeOrderedIndexStore(serializationService, extractors, memoryManager, storeAdapter)
+                : new NativeUnorderedIndexStore(serializationService, extractors, memoryManager, storeAdapter);
+    }
+
+    @After
+    public void tearDown() {
+        store.destroy();
+        assertEquals(0, memoryManager.getUsedMemory());
+    }
+
+    @Test
+    public void testPointLookup() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            put(i, i % 10);
+        }
+
+        assertKeys(store.getRecords(3), 3, 13, 23, 33, 43, 53, 63, 73, 83, 93);
+        assertKeys(store.getRecords(3L), 3, 13, 23, 33, 43, 53, 63, 73, 83, 93);
+        assertKeys(store.getRecords(10));
+    }
+
+    @Test
+    public void testNullValues() {
+        put(1, null);
+        put(2, null);
+        put(3, 0);
+
+        assertKeys(store.getRecords(NULL), 1, 2);
+        assertKeys(store.getRecords(Comparison.GREATER_OR_EQUAL, Integer.MIN_VALUE), 3);
+
+        remove(1, null);
+        remove(2, null);
+        assertKeys(store.getRecords(NULL));
+    }
+
+    @Test
+    public void testInLookup() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            put(i, i);
+        }
+        put(ENTRY_COUNT, null);
+
+        Set<Comparable> values = new HashSet<Comparable>();
+        values.add(store.canonicalizeQueryArgumentScalar(5));
+        values.add(store.canonicalizeQueryArgumentScalar(50L));
+        values.add(NULL);
+
+        assertKeys(store.getRecords(values), 5, 50, ENTRY_COUNT);
+    }
+
+    @Test
+    public void testComparisons() {
+        for (int i = 0; i < 10; i++) {
+            put(i, i);
+        }
+
+        assertKeys(store.getRecords(Comparison.LESS, 3), 0, 1, 2);
+        assertKeys(store.getRecords(Comparison.LESS_OR_EQUAL, 3), 0, 1, 2, 3);
+        assertKeys(store.getRecords(Comparison.GREATER, 7), 8, 9);
+        assertKeys(store.getRecords(Comparison.GREATER_OR_EQUAL, 7), 7, 8, 9);
+        assertKeys(store.getRecords(Comparison.NOT_EQUAL, 5), 0, 1, 2, 3, 4, 6, 7, 8, 9);
+    }
+
+    @Test
+    public void testRanges() {
+        for (int i = 0; i < 10; i++) {
+            put(i, i);
+        }
+
+        assertKeys(store.getRecords(2, true, 5, true), 2, 3, 4, 5);
+        assertKeys(store.getRecords(2, false, 5, false), 3, 4);
+        assertKeys(store.getRecords(4, true, 4, true), 4);
+        assertKeys(store.getRecords(4, true, 4, false));
+        assertKeys(store.getRecords(5, true, 2, true));
+    }
+
+    @Test
+    public void testUpdateAndRemove() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            put(i, i % 10);
+        }
+
+        store.update(3, 30, entry(3, 30), IndexOperationStats.EMPTY);
+        assertKeys(store.getRecords(30), 3);
+        assertEquals(ENTRY_COUNT / 10 - 1, store.getRecords(3).size());
+
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            if (i != 3) {
+                remove(i, i % 10);
+            }
+        }
+        remove(3, 30);
+
+        assertKeys(store.getRecords(Comparison.NOT_EQUAL, -1));
+    }
+
+    @Test
+    public void testManyDistinctValues() {
+        // enough distinct values to split and merge the pages of the ordered store
+        int count = 30 * ENTRY_COUNT;
+        for (int i = 0; i < count; i++) {
+            put(i, i);
+        }
+
+        assertKeys(store.getRecords(1234), 1234);
+        assertKeys(store.getRecords(Comparison.LESS, 10), keys(0, 10, 1));
+        assertKeys(store.getRecords(Comparison.GREATER_OR_EQUAL, count - 10), keys(count - 10, count, 1));
+        assertKeys(store.getRecords(1000, true, 2000, false), keys(1000, 2000, 1));
+
+        for (int i = 0; i < count; i++) {
+            if (i % 3 != 0) {
+                remove(i, i);
+            }
+        }
+
+        assertKeys(store.getRecords(1234));
+        assertKeys(store.getRecords(1236), 1236);
+        assertKeys(store.getRecords(Comparison.LESS, 10), keys(0, 10, 3));
+        assertKeys(store.getRecords(Comparison.GREATER_OR_EQUAL, count - 10), keys(count - 9, count, 3));
+        assertKeys(store.getRecords(1000, true, 2000, false), keys(1002, 2000, 3));
+    }
+
+    @Test
+    public void testClear() {
+        long usedBefore = memoryManager.getUsedMemory();
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            put(i, i);
+        }
+        assertTrue(memoryManager.getUsedMemory() > usedBefore);
+
+        store.clear();
+
+        assertKeys(store.getRecords(Comparison.NOT_EQUAL, -1));
+        put(1, 1);
+        assertKeys(store.getRecords(1), 1);
+    }
+
+    @Test
+    public void testEntriesRemovedFromStore_areSkipped() {
+        put(1, 1);
+        put(2, 1);
+
+        records.remove(toData(2));
+
+        assertKeys(store.getRecords(1), 1);
+    }
+
+    private void put(int key, Integer value) {
+        QueryableEntry entry = entry(key, value);
+        Record record = mock(Record.class);
+        when(record.getValue()).thenReturn(toData(value));
+        records.put(entry.getKeyData(), record);
+        store.insert(value == null ? NULL : value, entry, IndexOperationStats.EMPTY);
+    }
+
+    private void remove(int key, Integer value) {
+        records.remove(toData(key));
+        store.remove(value == null ? NULL : value, toData(key), IndexOperationStats.EMPTY);
+    }
+
+    private QueryableEntry entry(int key, Integer value) {
+        return new QueryEntry(serializationService, toData(key), value, extractors);
+    }
+
+    private Data toData(Object object) {
+        return serializationService.toData(object);
+    }
+
+    private static Integer[] keys(int from, int to, int step) {
+        List<Integer> keys = new ArrayList<Integer>();
+        for (int i = from; i < to; i += step) {
+            keys.add(i);
+        }
+        return keys.toArray(new Integer[0]);
+    }
+
+    private void assertKeys(Set<QueryableEntry> entries, Integer... expectedKeys) {
+        Set<Object> actualKeys = new HashSet<Object>();
+        for (QueryableEntry entry : entries) {
+            actualKeys.add(entry.getKey());
+        }
+        assertEquals(new HashSet<Object>(asList(expectedKeys)), actualKeys);
+    }
+
+    private class MapStoreAdapter implements StoreAdapter<Record> {
+
+        @Override
+        public boolean evictIfExpired(Record record, long now, boolean backup) {
+            return false;
+        }
+
+        @Override
+        public boolean isTtlOrMaxIdleDefined(Record record) {
+            return false;
+        }
+
+        @Override
+        public boolean isExpirable() {
+            return false;
+        }
+
+        @Override
+        public Record getRecord(Data key) {
+            return records.get(key);
+        }
+    }
+}
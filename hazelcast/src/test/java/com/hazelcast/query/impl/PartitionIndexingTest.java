@@ -22,6 +22,8 @@ import com.hazelcast.config.MapIndexConfig;
 import com.hazelcast.config.ServiceConfig;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.map.IMap;
+import com.hazelcast.memory.MemorySize;
+import com.hazelcast.memory.MemoryUnit;
 import com.hazelcast.spi.partition.MigrationAwareService;
 import com.hazelcast.spi.partition.PartitionMigrationEvent;
 import com.hazelcast.spi.partition.PartitionReplicationEvent;
@@ -59,7 +61,7 @@ public class PartitionIndexingTest extends HazelcastTestSupport {
 
     @Parameterized.Parameters(name = "format:{0}")
     public static Collection<Object[]> parameters() {
-        return asList(new Object[][]{{InMemoryFormat.OBJECT}, {InMemoryFormat.BINARY}});
+        return asList(new Object[][]{{InMemoryFormat.OBJECT}, {InMemoryFormat.BINARY}, {InMemoryFormat.NATIVE}});
     }
 
     @Parameterized.Parameter
@@ -88,6 +90,9 @@ public class PartitionIndexingTest extends HazelcastTestSupport {
         Config config = super.getConfig();
         config.setProperty(GroupProperty.PARTITION_COUNT.getName(), "101");
         config.getMapConfig(MAP_NAME).setInMemoryFormat(inMemoryFormat);
+        if (inMemoryFormat == InMemoryFormat.NATIVE) {
+            config.getNativeMemoryConfig().setEnabled(true).setSize(new MemorySize(64, MemoryUnit.MEGABYTES));
+        }
         config.getServicesConfig().addServiceConfig(
                 new ServiceConfig().setEnabled(true).setImplementation(migrationFailingService)
                                    .setName(MigrationFailingService.class.getName()));
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class QueryPlanCacheTest {
+
+    @Test
+    public void testPutIfAbsent() {
+        QueryPlanCache<String, Object> cache = new QueryPlanCache<String, Object>(10);
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+
+        Object plan = new Object();
+        assertSame(plan, cache.putIfAbsent("a", plan));
+        assertSame(plan, cache.putIfAbsent("a", new Object()));
+        assertSame(plan, cache.get("a"));
+        assertEquals(1, cache.size());
+
+        cache.clear();
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testEviction() {
+        QueryPlanCache<Integer, Object> cache = new QueryPlanCache<Integer, Object>(10);
+        for (int i = 0; i < 100; ++i) {
+            Object plan = new Object();
+            assertSame(plan, cache.putIfAbsent(i, plan));
+            // the plan just cached is never evicted
+            assertSame(plan, cache.get(i));
+            assertTrue(cache.size() <= 10);
+        }
+    }
+
+}
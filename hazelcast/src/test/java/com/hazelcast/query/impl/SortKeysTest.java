@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.hazelcast.query.impl.SortKeys.toSortKey;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class SortKeysTest {
+
+    @Test
+    public void testNumbers() {
+        List<Comparable> values = new ArrayList<Comparable>(asList(0, 0L, 0.0, -0.0, 0.0F, -0.0F, (byte) 3, (short) -7, 3, 3L,
+                3.0, 3.0F, 0.5F, Integer.MIN_VALUE, Integer.MAX_VALUE, Long.MIN_VALUE, Long.MIN_VALUE + 1, Long.MAX_VALUE,
+                Long.MAX_VALUE - 1, -0x1p63, 0x1p63, 0x1p53, (1L << 53) - 1, 1L << 53, (1L << 53) + 1, 0x1p53 + 2,
+                9223372036854774784L, 9.223372036854774784E18, -9223372036854774784L, Double.MIN_VALUE, -Double.MIN_VALUE,
+                Double.MAX_VALUE, -Double.MAX_VALUE, Double.NaN, Float.NaN, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY));
+        Random random = new Random(1);
+        for (int i = 0; i < 100; i++) {
+            long value = random.nextLong();
+            values.add(value);
+            values.add((double) value);
+            values.add(value >> random.nextInt(Long.SIZE));
+        }
+
+        assertSameOrder(values);
+    }
+
+    @Test
+    public void testStrings() {
+        assertSameOrder(asList("", "a", "ab", "abc", "a\u0000", "b", "Z", "\u0000", "\u00e9", "\uff00", "\uffff",
+                "\ud83d\ude00"));
+    }
+
+    @Test
+    public void testCharacters() {
+        assertSameOrder(asList('a', 'b', 'Z', '\u0000', '\u00e9', '\uffff'));
+    }
+
+    @Test
+    public void testBooleans() {
+        assertSameOrder(asList(true, false));
+    }
+
+    @Test
+    public void testOtherValues() {
+        assertArrayEquals(new byte[]{SortKeys.OTHER}, toSortKey(new BigDecimal(1)));
+        assertArrayEquals(new byte[]{SortKeys.OTHER}, toSortKey(new BigDecimal(2)));
+    }
+
+    private static void assertSameOrder(List<? extends Comparable> values) {
+        for (Comparable lhs : values) {
+            for (Comparable rhs : values) {
+                assertEquals(lhs + " vs " + rhs, Integer.signum(Comparables.compare(lhs, rhs)),
+                        Integer.signum(compare(toSortKey(lhs), toSortKey(rhs))));
+            }
+        }
+    }
+
+    private static int compare(byte[] lhs, byte[] rhs) {
+        for (int i = 0; i < Math.min(lhs.length, rhs.length); i++) {
+            int order = (lhs[i] & 0xFF) - (rhs[i] & 0xFF);
+            if (order != 0) {
+                return order;
+            }
+        }
+        return lhs.length - rhs.length;
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl.getters;
+
+import com.hazelcast.aggregation.Aggregators;
+import com.hazelcast.config.Config;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.IMap;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.query.impl.CachedQueryEntry;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Collection;
+import java.util.Map;
+
+import static com.hazelcast.query.impl.getters.PrimitiveValueConsumer.CONSUMED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class CompactGetterTest extends HazelcastTestSupport {
+
+    // the tests run concurrently, each of them in a single thread
+    private static final ThreadLocal<int[]> INSTANTIATIONS = new ThreadLocal<int[]>() {
+        @Override
+        protected int[] initialValue() {
+            return new int[1];
+        }
+    };
+
+    private InternalSerializationService ss;
+    private Extractors extractors;
+
+    @Before
+    public void setUp() {
+        ss = new DefaultSerializationServiceBuilder().addCompactClass(Employee.class).addCompactClass(Address.class).build();
+        extractors = Extractors.newBuilder(ss).build();
+    }
+
+    @Test
+    public void testFixedSizeFields_readInPlace() {
+        Data data = ss.toData(new Employee("joe", -40, Long.MIN_VALUE, new Address("Main")));
+        INSTANTIATIONS.get()[0] = 0;
+
+        assertEquals(-40, extractors.extract(data, "age", null));
+        assertEquals(Long.MIN_VALUE, extractors.extract(data, "salary", null));
+        assertEquals(true, extractors.extract(data, "active", null));
+        assertEquals(0, INSTANTIATIONS.get()[0]);
+    }
+
+    @Test
+    public void testVariableSizeFields_readInPlace() {
+        Address address = new Address("Main");
+        Data data = ss.toData(new Employee("joe", 40, 2000, address));
+        INSTANTIATIONS.get()[0] = 0;
+
+        assertEquals("joe", extractors.extract(data, "name", null));
+        assertEquals(address, extractors.extract(data, "address", null));
+        assertEquals(0, INSTANTIATIONS.get()[0]);
+    }
+
+    @Test
+    public void testNestedPaths_extractedFromDeserializedObject() {
+        Data data = ss.toData(new Employee("joe", 40, 2000, new Address("Main")));
+        INSTANTIATIONS.get()[0] = 0;
+
+        assertEquals("Main", extractors.extract(data, "address.street", null));
+        assertEquals(80, extractors.extract(data, "doubleAge", null));
+        assertEquals(2, INSTANTIATIONS.get()[0]);
+    }
+
+    @Test
+    public void testPrimitivesConsumed() {
+        Data data = ss.toData(new Employee("joe", 40, 2000, null));
+
+        final StringBuilder consumed = new StringBuilder();
+        PrimitiveValueConsumer consumer = new PrimitiveValueConsumer() {
+            @Override
+            public void acceptLong(long value) {
+                consumed.append(value).append(' ');
+            }
+
+            @Override
+            public void acceptDouble(double value) {
+                consumed.append(value).append(' ');
+            }
+        };
+        assertSame(CONSUMED, extractors.extract(data, "age", null, consumer));
+        assertSame(CONSUMED, extractors.extract(data, "salary", null, consumer));
+        assertEquals("joe", extractors.extract(data, "name", null, consumer));
+        assertEquals("40 2000 ", consumed.toString());
+    }
+
+    @Test
+    public void testQueriedThroughEntry() {
+        CachedQueryEntry entry = new CachedQueryEntry(ss, ss.toData(1), ss.toData(new Employee("joe", 40, 2000, null)),
+                extractors);
+        INSTANTIATIONS.get()[0] = 0;
+
+        assertEquals(40, entry.getAttributeValue("age"));
+        assertEquals("joe", entry.getAttributeValue("name"));
+        assertEquals(0, INSTANTIATIONS.get()[0]);
+    }
+
+    @Test
+    public void testQueriedThroughMap() {
+        Config config = getConfig();
+        config.getSerializationConfig().addCompactClass(Employee.class).addCompactClass(Address.class);
+        IMap<Integer, Employee> map = createHazelcastInstance(config).getMap(randomMapName());
+        for (int i = 0; i < 10; ++i) {
+            map.put(i, new Employee("employee" + i, 30 + i, 1000 * i, new Address("street" + i)));
+        }
+
+        Collection<Employee> employees = map.values(Predicates.and(Predicates.greaterEqual("age", 35),
+                Predicates.equal("address.street", "street7")));
+        assertEquals(1, employees.size());
+        assertEquals("employee7", employees.iterator().next().name);
+        assertEquals(45000L, (long) map.aggregate(Aggregators.<Map.Entry<Integer, Employee>>longSum("salary")));
+    }
+
+    static class Address {
+
+        private String street;
+
+        Address() {
+        }
+
+        Address(String street) {
+            this.street = street;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Address && street.equals(((Address) o).street);
+        }
+
+        @Override
+        public int hashCode() {
+            return street.hashCode();
+        }
+
+    }
+
+    static class Employee {
+
+        private String name;
+        private int age;
+        private long salary;
+        private boolean active = true;
+        private Address address;
+
+        Employee() {
+            INSTANTIATIONS.get()[0]++;
+        }
+
+        Employee(String name, int age, long salary, Address address) {
+            this.name = name;
+            this.age = age;
+            this.salary = salary;
+            this.address = address;
+        }
+
+        public int getDoubleAge() {
+            return age * 2;
+        }
+
+    }
+
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl.getters;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.nio.serialization.DataSerializableFactory;
+import com.hazelcast.nio.serialization.ExtractableDataSerializable;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.query.impl.CachedQueryEntry;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.internal.serialization.impl.DataSerializableSerializer.EE_FLAG;
+import static com.hazelcast.nio.Bits.BYTE_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.query.impl.getters.PrimitiveValueConsumer.CONSUMED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class InPlaceAttributeReaderTest {
+
+    private static final int FACTORY_ID = 1;
+    private static final int EMPLOYEE = 1;
+    private static final int BROKEN_EMPLOYEE = 2;
+
+    private final AtomicInteger deserializations = new AtomicInteger();
+
+    private InternalSerializationService ss;
+    private Extractors extractors;
+
+    @Before
+    public void setUp() {
+        ss = new DefaultSerializationServiceBuilder().addDataSerializableFactory(FACTORY_ID, new DataSerializableFactory() {
+            @Override
+            public IdentifiedDataSerializable create(int typeId) {
+                deserializations.incrementAndGet();
+                return typeId == EMPLOYEE ? new Employee() : new BrokenEmployee();
+            }
+        }).build();
+        extractors = Extractors.newBuilder(ss).build();
+    }
+
+    @Test
+    public void whenLayoutNotRecorded_thenDeserialized() {
+        Data data = ss.toData(new Employee(30, 1000, 0.5, "joe"));
+
+        assertNull(extractors.extractInPlace(data, "age", null));
+        assertEquals(30, extractors.extract(data, "age", null));
+        assertEquals(1, deserializations.get());
+    }
+
+    @Test
+    public void whenLayoutRecorded_thenReadInPlace() {
+        extractors.extract(ss.toData(new Employee(30, 1000, 0.5, "joe")), "age", null);
+        deserializations.set(0);
+
+        Data data = ss.toData(new Employee(-40, Long.MIN_VALUE, -1.25, "jane"));
+        assertEquals(-40, extractors.extract(data, "age", null));
+        assertEquals(Long.MIN_VALUE, extractors.extract(data, "salary", null));
+        assertEquals(-1.25, extractors.extract(data, "score", null));
+        assertEquals((short) 7, extractors.extract(data, "level", null));
+        assertEquals(true, extractors.extract(data, "active", null));
+        assertEquals(0, deserializations.get());
+
+        assertEquals("jane", extractors.extract(data, "name", null));
+        assertEquals(1, deserializations.get());
+    }
+
+    @Test
+    public void whenLayoutRecorded_thenPrimitivesConsumed() {
+        extractors.extract(ss.toData(new Employee(30, 1000, 0.5, "joe")), "age", null);
+        Data data = ss.toData(new Employee(40, 2000, 1.5, "jane"));
+
+        final StringBuilder consumed = new StringBuilder();
+        PrimitiveValueConsumer consumer = new PrimitiveValueConsumer() {
+            @Override
+            public void acceptLong(long value) {
+                consumed.append(value).append(' ');
+            }
+
+            @Override
+            public void acceptDouble(double value) {
+                consumed.append(value).append(' ');
+            }
+        };
+        assertSame(CONSUMED, extractors.extract(data, "age", null, consumer));
+        assertSame(CONSUMED, extractors.extract(data, "salary", null, consumer));
+        assertSame(CONSUMED, extractors.extractInPlace(data, "score", consumer));
+        assertEquals("40 2000 1.5 ", consumed.toString());
+    }
+
+    @Test
+    public void whenLayoutDoesNotMatch_thenDeserialized() {
+        extractors.extract(ss.toData(new BrokenEmployee(30, 1000)), "age", null);
+        deserializations.set(0);
+
+        Data data = ss.toData(new BrokenEmployee(40, 2000));
+        assertNull(extractors.extractInPlace(data, "age", null));
+        assertEquals(40, extractors.extract(data, "age", null));
+        assertEquals(2000L, extractors.extract(data, "salary", null));
+        assertEquals(2, deserializations.get());
+    }
+
+    @Test
+    public void whenVersioned_thenNotReadInPlace() {
+        extractors.extract(ss.toData(new Employee(30, 1000, 0.5, "joe")), "age", null);
+
+        Data data = toVersioned(ss.toData(new Employee(40, 2000, 1.5, "jane")));
+        assertNull(extractors.extractInPlace(data, "age", null));
+        assertNull(extractors.extractInPlace(data, "salary", null));
+    }
+
+    @Test
+    public void whenQueriedThroughEntry_thenReadInPlace() {
+        extractors.extract(ss.toData(new Employee(30, 1000, 0.5, "joe")), "age", null);
+        deserializations.set(0);
+
+        CachedQueryEntry entry = new CachedQueryEntry(ss, ss.toData(1), ss.toData(new Employee(40, 2000, 1.5, "jane")),
+                extractors);
+        assertEquals(40, entry.getAttributeValue("age"));
+        assertEquals(2000L, entry.getAttributeValue("salary"));
+        assertEquals(0, deserializations.get());
+    }
+
+    public static class Employee implements ExtractableDataSerializable {
+
+        private int age;
+        private long salary;
+        private double score;
+        private short level = 7;
+        private boolean active = true;
+        private String name;
+
+        public Employee() {
+        }
+
+        Employee(int age, long salary, double score, String name) {
+            this.age = age;
+            this.salary = salary;
+            this.score = score;
+            this.name = name;
+        }
+
+        @Override
+        public String[] getExtractableAttributeNames() {
+            return new String[]{"age", "salary", "score", "level", "active"};
+        }
+
+        @Override
+        public int getFactoryId() {
+            return FACTORY_ID;
+        }
+
+        @Override
+        public int getClassId() {
+            return EMPLOYEE;
+        }
+
+        @Override
+        public void writeData(ObjectDataOutput out) throws IOException {
+            out.writeInt(age);
+            out.writeLong(salary);
+            out.writeDouble(score);
+            out.writeShort(level);
+            out.writeBoolean(active);
+            out.writeUTF(name);
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) throws IOException {
+            age = in.readInt();
+            salary = in.readLong();
+            score = in.readDouble();
+            level = in.readShort();
+            active = in.readBoolean();
+            name = in.readUTF();
+        }
+
+    }
+
+    public static class BrokenEmployee implements ExtractableDataSerializable {
+
+        private int age;
+        private long salary;
+
+        public BrokenEmployee() {
+        }
+
+        BrokenEmployee(int age, long salary) {
+            this.age = age;
+            this.salary = salary;
+        }
+
+        @Override
+        public String[] getExtractableAttributeNames() {
+            // the declared order doesn't match the written one
+            return new String[]{"age", "salary"};
+        }
+
+        @Override
+        public int getFactoryId() {
+            return FACTORY_ID;
+        }
+
+        @Override
+        public int getClassId() {
+            return BROKEN_EMPLOYEE;
+        }
+
+        @Override
+        public void writeData(ObjectDataOutput out) throws IOException {
+            out.writeLong(salary);
+            out.writeInt(age);
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) throws IOException {
+            salary = in.readLong();
+            age = in.readInt();
+        }
+
+    }
+
+    // rewrites the given data the way the enterprise serializer writes versioned objects
+    private static Data toVersioned(Data data) {
+        byte[] bytes = data.toByteArray();
+        int versionOffset = HeapData.DATA_OFFSET + BYTE_SIZE_IN_BYTES + 2 * INT_SIZE_IN_BYTES;
+        byte[] versioned = new byte[bytes.length + 2 * BYTE_SIZE_IN_BYTES];
+        System.arraycopy(bytes, 0, versioned, 0, versionOffset);
+        System.arraycopy(bytes, versionOffset, versioned, versionOffset + 2 * BYTE_SIZE_IN_BYTES,
+                bytes.length - versionOffset);
+        versioned[HeapData.DATA_OFFSET] |= EE_FLAG;
+        return new HeapData(versioned);
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl.getters;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.nio.serialization.Portable;
+import com.hazelcast.nio.serialization.PortableFactory;
+import com.hazelcast.nio.serialization.PortableReader;
+import com.hazelcast.nio.serialization.PortableWriter;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+
+import static com.hazelcast.query.impl.getters.PrimitiveValueConsumer.CONSUMED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PrimitiveValueExtractionTest {
+
+    private final RecordingConsumer consumer = new RecordingConsumer();
+    private final Bloke bloke = new Bloke();
+
+    @Test
+    public void fieldGetter_integral() throws Exception {
+        assertSame(CONSUMED, fieldGetter("intValue").getValue(bloke, "intValue", null, consumer));
+        assertSame(CONSUMED, fieldGetter("shortValue").getValue(bloke, "shortValue", null, consumer));
+        assertSame(CONSUMED, fieldGetter("longValue").getValue(bloke, "longValue", null, consumer));
+        assertEquals("L1 L2 L3 ", consumer.toString());
+    }
+
+    @Test
+    public void fieldGetter_floatingPoint() throws Exception {
+        assertSame(CONSUMED, fieldGetter("floatValue").getValue(bloke, "floatValue", null, consumer));
+        assertSame(CONSUMED, fieldGetter("doubleValue").getValue(bloke, "doubleValue", null, consumer));
+        assertEquals("D4.5 D5.5 ", consumer.toString());
+    }
+
+    @Test
+    public void fieldGetter_nonNumeric() throws Exception {
+        assertEquals("bloke", fieldGetter("name").getValue(bloke, "name", null, consumer));
+        assertEquals('c', fieldGetter("charValue").getValue(bloke, "charValue", null, consumer));
+        assertEquals(6L, fieldGetter("boxedLong").getValue(bloke, "boxedLong", null, consumer));
+        assertEquals("", consumer.toString());
+    }
+
+    @Test
+    public void fieldGetter_withModifier() throws Exception {
+        FieldGetter getter = new FieldGetter(null, Bloke.class.getField("ints"), "[0]", null);
+        assertEquals(7, getter.getValue(bloke, "ints[0]", null, consumer));
+        assertEquals("", consumer.toString());
+    }
+
+    @Test
+    public void fieldGetter_withNullParent() throws Exception {
+        FieldGetter parent = fieldGetter("nested");
+        FieldGetter getter = new FieldGetter(parent, Bloke.class.getField("intValue"), null, null);
+        assertNull(getter.getValue(bloke, "nested.intValue", null, consumer));
+
+        bloke.nested = new Bloke();
+        assertSame(CONSUMED, getter.getValue(bloke, "nested.intValue", null, consumer));
+        assertEquals("L1 ", consumer.toString());
+    }
+
+    @Test
+    public void methodGetter_numeric() throws Exception {
+        assertSame(CONSUMED, methodGetter("getIntValue").getValue(bloke, "intValue", null, consumer));
+        assertSame(CONSUMED, methodGetter("getDoubleValue").getValue(bloke, "doubleValue", null, consumer));
+        assertEquals("L1 D5.5 ", consumer.toString());
+    }
+
+    @Test
+    public void methodGetter_nonNumeric() throws Exception {
+        assertEquals("bloke", methodGetter("getName").getValue(bloke, "name", null, consumer));
+        assertEquals("", consumer.toString());
+    }
+
+    @Test(expected = InvocationTargetException.class)
+    public void methodGetter_whenMethodThrows_thenWrapped() throws Exception {
+        methodGetter("getFailing").getValue(bloke, "failing", null, consumer);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void methodGetter_whenTargetOfWrongType_thenThrow() throws Exception {
+        methodGetter("getIntValue").getValue("bloke", "intValue", null, consumer);
+    }
+
+    @Test
+    public void portableGetter() {
+        InternalSerializationService ss = new DefaultSerializationServiceBuilder()
+                .addPortableFactory(PortableBloke.FACTORY_ID, new PortableFactory() {
+                    @Override
+                    public Portable create(int classId) {
+                        return new PortableBloke();
+                    }
+                }).build();
+        Extractors extractors = Extractors.newBuilder(ss).build();
+        Data data = ss.toData(new PortableBloke());
+
+        assertSame(CONSUMED, extractors.extract(data, "intValue", null, consumer));
+        assertSame(CONSUMED, extractors.extract(data, "longValue", null, consumer));
+        assertSame(CONSUMED, extractors.extract(data, "floatValue", null, consumer));
+        assertEquals("bloke", extractors.extract(data, "name", null, consumer));
+        assertNull(extractors.extract(data, "unknown", null, consumer));
+        assertEquals("L1 L3 D4.5 ", consumer.toString());
+    }
+
+    private static FieldGetter fieldGetter(String name) throws NoSuchFieldException {
+        return new FieldGetter(null, Bloke.class.getField(name), null, null);
+    }
+
+    private static MethodGetter methodGetter(String name) throws NoSuchMethodException {
+        return new MethodGetter(null, Bloke.class.getMethod(name), null, null);
+    }
+
+    public static final class Bloke {
+
+        public String name = "bloke";
+        public char charValue = 'c';
+        public int intValue = 1;
+        public short shortValue = 2;
+        public long longValue = 3;
+        public float floatValue = 4.5f;
+        public double doubleValue = 5.5;
+        public Long boxedLong = 6L;
+        public int[] ints = {7};
+        public Bloke nested;
+
+        public String getName() {
+            return name;
+        }
+
+        public int getIntValue() {
+            return intValue;
+        }
+
+        public double getDoubleValue() {
+            return doubleValue;
+        }
+
+        public long getFailing() {
+            throw new IllegalStateException("expected");
+        }
+
+    }
+
+    private static final class PortableBloke implements Portable {
+
+        static final int FACTORY_ID = 1;
+
+        @Override
+        public int getFactoryId() {
+            return FACTORY_ID;
+        }
+
+        @Override
+        public int getClassId() {
+            return 1;
+        }
+
+        @Override
+        public void writePortable(PortableWriter writer) throws IOException {
+            writer.writeUTF("name", "bloke");
+            writer.writeInt("intValue", 1);
+            writer.writeLong("longValue", 3);
+            writer.writeFloat("floatValue", 4.5f);
+        }
+
+        @Override
+        public void readPortable(PortableReader reader) throws IOException {
+        }
+
+    }
+
+    private static final class RecordingConsumer implements PrimitiveValueConsumer {
+
+        private final StringBuilder accepted = new StringBuilder();
+
+        @Override
+        public void acceptLong(long value) {
+            accepted.append('L').append(value).append(' ');
+        }
+
+        @Override
+        public void acceptDouble(double value) {
+            accepted.append('D').append(value).append(' ');
+        }
+
+        @Override
+        public String toString() {
+            return accepted.toString();
+        }
+
+    }
+
+}
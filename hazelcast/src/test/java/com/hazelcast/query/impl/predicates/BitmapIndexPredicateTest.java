@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.test.HazelcastParallelParametersRunnerFactory;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Random;
+
+import static com.hazelcast.query.Predicates.and;
+import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.in;
+import static com.hazelcast.query.Predicates.notEqual;
+import static com.hazelcast.query.Predicates.or;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(Parameterized.class)
+@Parameterized.UseParametersRunnerFactory(HazelcastParallelParametersRunnerFactory.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class BitmapIndexPredicateTest extends HazelcastTestSupport {
+
+    private static final int QUERY_COUNT = 10;
+
+    @Parameterized.Parameter
+    public InMemoryFormat inMemoryFormat;
+
+    private Random random;
+    private IMap<Integer, Person> map;
+    private IMap<Integer, Person> reference;
+
+    @Parameterized.Parameters(name = "format:{0}")
+    public static Collection<Object[]> parameters() {
+        return asList(new Object[][]{{InMemoryFormat.OBJECT}, {InMemoryFormat.BINARY}});
+    }
+
+    @Before
+    public void before() {
+        long seed = System.currentTimeMillis();
+        System.out.println("BitmapIndexPredicateTest seed: " + seed);
+        random = new Random(seed);
+
+        Config config = getConfig();
+        config.getMapConfig("persons").setInMemoryFormat(inMemoryFormat);
+        config.getMapConfig("reference").setInMemoryFormat(inMemoryFormat);
+
+        HazelcastInstance instance = createHazelcastInstance(config);
+        map = instance.getMap("persons");
+        reference = instance.getMap("reference");
+        map.addIndex("BITMAP(age)", false);
+        map.addIndex("bitmap( height )", false);
+
+        for (int i = 0; i < 500; ++i) {
+            Person person = new Person(randomAge(), randomHeight());
+            map.put(i, person);
+            reference.put(i, person);
+        }
+    }
+
+    @Test
+    public void testQueries() {
+        for (int i = 0; i < QUERY_COUNT; ++i) {
+            assertPredicate(equal("age", randomAge()));
+            assertPredicate(notEqual("height", randomHeight()));
+            assertPredicate(in("age", randomInAge(), randomInAge(), randomInAge()));
+
+            assertPredicate(and(equal("age", randomAge()), equal("height", randomHeight())));
+            assertPredicate(and(in("age", randomInAge(), randomInAge()), notEqual("height", randomHeight())));
+            assertPredicate(and(notEqual("age", randomAge()), notEqual("height", randomHeight())));
+            assertPredicate(or(equal("age", randomAge()), notEqual("height", randomHeight())));
+            assertPredicate(or(in("age", randomInAge(), randomInAge()), equal("height", randomHeight())));
+        }
+        assertTrue(map.getLocalMapStats().getIndexedQueryCount() > 0);
+    }
+
+    @Test
+    public void testUpdatesAndRemovals() {
+        for (int i = 0; i < 500; i += 3) {
+            Person person = new Person(randomAge(), randomHeight());
+            map.put(i, person);
+            reference.put(i, person);
+        }
+        for (int i = 0; i < 500; i += 7) {
+            map.remove(i);
+            reference.remove(i);
+        }
+
+        for (int i = 0; i < QUERY_COUNT; ++i) {
+            assertPredicate(and(equal("age", randomAge()), notEqual("height", randomHeight())));
+            assertPredicate(or(equal("age", randomAge()), in("height", randomInHeight(), randomInHeight())));
+        }
+    }
+
+    @Test
+    public void testQueriesMixedWithRegularIndexes() {
+        map.addIndex("age", true);
+
+        for (int i = 0; i < QUERY_COUNT; ++i) {
+            assertPredicate(and(equal("age", randomAge()), equal("height", randomHeight())));
+            assertPredicate(or(notEqual("age", randomAge()), equal("height", randomHeight())));
+        }
+    }
+
+    @Override
+    protected Config getConfig() {
+        return smallInstanceConfig();
+    }
+
+    private void assertPredicate(Predicate predicate) {
+        assertEquals(predicate.toString(), reference.entrySet(predicate), map.entrySet(predicate));
+    }
+
+    private Integer randomAge() {
+        int value = random.nextInt(10);
+        return value == 0 ? null : value;
+    }
+
+    private Integer randomInAge() {
+        // null IN values are matched differently by indexes and full scans
+        return random.nextInt(9) + 1;
+    }
+
+    private Long randomInHeight() {
+        return random.nextInt(4) + 1L;
+    }
+
+    private Long randomHeight() {
+        long value = random.nextInt(5);
+        return value == 0 ? null : value;
+    }
+
+    public static class Person implements Serializable {
+
+        public final Integer age;
+        public final Long height;
+
+        public Person(Integer age, Long height) {
+            this.age = age;
+            this.height = height;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+
+            Person person = (Person) o;
+
+            if (age != null ? !age.equals(person.age) : person.age != null) {
+                return false;
+            }
+            return height != null ? height.equals(person.height) : person.height == null;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = age != null ? age.hashCode() : 0;
+            return 31 * result + (height != null ? height.hashCode() : 0);
+        }
+
+        @Override
+        public String toString() {
+            return "Person{" + "age=" + age + ", height=" + height + '}';
+        }
+
+    }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.IndexCopyBehavior;
+import com.hazelcast.query.impl.Indexes;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.query.Predicates.and;
+import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.greaterThan;
+import static com.hazelcast.query.Predicates.in;
+import static com.hazelcast.query.Predicates.notEqual;
+import static com.hazelcast.query.Predicates.or;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class BitmapIndexVisitorTest {
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+
+    private Indexes indexes;
+    private BitmapIndexVisitor visitor;
+
+    @Before
+    public void before() {
+        indexes = Indexes.newBuilder(serializationService, IndexCopyBehavior.COPY_ON_READ).build();
+        indexes.addOrGetIndex("BITMAP(a)", false, null);
+        indexes.addOrGetIndex("bitmap(this.b)", false, null);
+        indexes.addOrGetIndex("c", false, null);
+        visitor = new BitmapIndexVisitor();
+    }
+
+    @Test
+    public void testUnoptimizablePredicates() {
+        checkSame(and(equal("a", 1), equal("c", 1)));
+        checkSame(and(equal("a", 1), greaterThan("b", 1)));
+        checkSame(or(equal("c", 1), equal("d", 1)));
+    }
+
+    @Test
+    public void testOptimizablePredicates() {
+        checkOptimized(and(equal("a", 1), notEqual("b", 1)), true, true);
+        checkOptimized(and(in("a", 1, 2), equal("this.b", 1), equal("c", 1)), true, true, false);
+        checkOptimized(or(notEqual("a", 1), in("b", 1, 2), greaterThan("a", 1)), true, true, false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOrderedBitmapIndex_isRejected() {
+        indexes.addOrGetIndex("BITMAP(d)", true, null);
+    }
+
+    @Test
+    public void testBitmapIndexName_isCanonicalized() {
+        assertSame(indexes.getIndex("BITMAP(a)"), indexes.addOrGetIndex(" Bitmap ( this.a ) ", false, null));
+        assertNotNull(indexes.getIndex("BITMAP(b)"));
+    }
+
+    private void checkSame(Predicate predicate) {
+        assertSame(predicate, ((VisitablePredicate) predicate).accept(visitor, indexes));
+    }
+
+    private void checkOptimized(Predicate predicate, boolean... bitmaps) {
+        Predicate optimized = ((VisitablePredicate) predicate).accept(visitor, indexes);
+        assertEquals(predicate.getClass(), optimized.getClass());
+
+        Predicate[] original = ((CompoundPredicate) predicate).getPredicates();
+        Predicate[] actual = ((CompoundPredicate) optimized).getPredicates();
+        assertEquals(bitmaps.length, actual.length);
+        for (int i = 0; i < bitmaps.length; ++i) {
+            if (bitmaps[i]) {
+                assertTrue(actual[i] instanceof BitmapIndexPredicate);
+                assertSame(original[i], ((BitmapIndexPredicate) actual[i]).predicate);
+            } else {
+                assertSame(original[i], actual[i]);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.QueryEntry;
+import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.Serializable;
+import java.util.Random;
+
+import static com.hazelcast.query.Predicates.and;
+import static com.hazelcast.query.Predicates.between;
+import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.greaterEqual;
+import static com.hazelcast.query.Predicates.greaterThan;
+import static com.hazelcast.query.Predicates.lessEqual;
+import static com.hazelcast.query.Predicates.lessThan;
+import static com.hazelcast.query.Predicates.like;
+import static com.hazelcast.query.Predicates.notEqual;
+import static com.hazelcast.query.Predicates.or;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ColumnarFilterTest {
+
+    private static final String[] ATTRIBUTES = {"integer", "longValue", "doubleValue", "floatValue", "mixed", "string"};
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+    private final Extractors extractors = Extractors.newBuilder(serializationService).build();
+
+    private Random random;
+    private QueryableEntry[] entries;
+
+    @Before
+    public void before() {
+        long seed = System.nanoTime();
+        System.out.println("ColumnarFilterTest seed: " + seed);
+        random = new Random(seed);
+
+        entries = new QueryableEntry[ColumnarFilter.CHUNK_SIZE];
+        for (int i = 0; i < entries.length; ++i) {
+            entries[i] = new QueryEntry(serializationService, serializationService.toData(i), randomValue(), extractors);
+        }
+    }
+
+    @Test
+    public void testCompile() {
+        assertNull(ColumnarFilter.compile(notEqual("integer", 1)));
+        assertNull(ColumnarFilter.compile(or(equal("integer", 1), equal("string", "a"))));
+        assertNull(ColumnarFilter.compile(and(notEqual("integer", 1), like("string", "a%"))));
+
+        assertNotNull(ColumnarFilter.compile(equal("integer", 1)));
+        assertNotNull(ColumnarFilter.compile(and(notEqual("integer", 1), between("longValue", 1, 2))));
+        assertNotNull(ColumnarFilter.compile(new SqlPredicate("integer > 1 and string like 'a%'")));
+    }
+
+    @Test
+    public void testSinglePredicates() {
+        for (int i = 0; i < 200; ++i) {
+            String attribute = randomAttribute();
+            assertFilter(equal(attribute, randomOperand()));
+            assertFilter(greaterThan(attribute, randomOperand()));
+            assertFilter(greaterEqual(attribute, randomOperand()));
+            assertFilter(lessThan(attribute, randomOperand()));
+            assertFilter(lessEqual(attribute, randomOperand()));
+            assertFilter(between(attribute, randomOperand(), randomOperand()));
+        }
+        assertFilter(equal("integer", null));
+    }
+
+    @Test
+    public void testCompoundPredicates() {
+        for (int i = 0; i < 200; ++i) {
+            assertFilter(and(greaterEqual(randomAttribute(), randomOperand()), lessThan(randomAttribute(), randomOperand())));
+            assertFilter(and(between(randomAttribute(), randomOperand(), randomOperand()),
+                    notEqual(randomAttribute(), randomOperand())));
+            assertFilter(and(equal(randomAttribute(), randomOperand()),
+                    or(lessEqual(randomAttribute(), randomOperand()), like("string", "1%"))));
+        }
+    }
+
+    @Test
+    public void testPartialChunks() {
+        Predicate predicate = greaterThan("longValue", 3);
+        ColumnarFilter filter = ColumnarFilter.compile(predicate);
+        for (int size : new int[]{0, 1, 63, 64, 65, 1000}) {
+            long[] matches = filter.filter(entries, size);
+            for (int i = 0; i < size; ++i) {
+                assertEquals(predicate.apply(entries[i]), ColumnarFilter.isMatched(matches, i));
+            }
+        }
+    }
+
+    private void assertFilter(Predicate predicate) {
+        ColumnarFilter filter = ColumnarFilter.compile(predicate);
+        int size = 1 + random.nextInt(entries.length);
+        long[] matches = filter.filter(entries, size);
+        for (int i = 0; i < size; ++i) {
+            assertEquals(predicate + " on " + entries[i].getValue(), predicate.apply(entries[i]),
+                    ColumnarFilter.isMatched(matches, i));
+        }
+    }
+
+    private String randomAttribute() {
+        return ATTRIBUTES[random.nextInt(ATTRIBUTES.length)];
+    }
+
+    private Comparable randomOperand() {
+        switch (random.nextInt(5)) {
+            case 0:
+                return random.nextInt(10);
+            case 1:
+                return (long) random.nextInt(10);
+            case 2:
+                return random.nextInt(10) + 0.5;
+            case 3:
+                return (float) random.nextInt(10);
+            default:
+                return Integer.toString(random.nextInt(10));
+        }
+    }
+
+    private Value randomValue() {
+        Comparable mixed;
+        switch (random.nextInt(4)) {
+            case 0:
+                mixed = random.nextInt(10);
+                break;
+            case 1:
+                mixed = (long) random.nextInt(10);
+                break;
+            case 2:
+                mixed = random.nextInt(10) + 0.25;
+                break;
+            default:
+                mixed = null;
+                break;
+        }
+        return new Value(random.nextInt(5) == 0 ? null : random.nextInt(10), (long) random.nextInt(10),
+                random.nextInt(5) == 0 ? null : random.nextInt(10) / 2.0, (float) random.nextInt(10), mixed,
+                Integer.toString(random.nextInt(10)));
+    }
+
+    public static class Value implements Serializable {
+
+        public final Integer integer;
+        public final long longValue;
+        public final Double doubleValue;
+        public final float floatValue;
+        public final Comparable mixed;
+        public final String string;
+
+        public Value(Integer integer, long longValue, Double doubleValue, float floatValue, Comparable mixed,
+                     String string) {
+            this.integer = integer;
+            this.longValue = longValue;
+            this.doubleValue = doubleValue;
+            this.floatValue = floatValue;
+            this.mixed = mixed;
+            this.string = string;
+        }
+
+        @Override
+        public String toString() {
+            return "Value{integer=" + integer + ", longValue=" + longValue + ", doubleValue=" + doubleValue
+                    + ", floatValue=" + floatValue + ", mixed=" + mixed + ", string=" + string + '}';
+        }
+
+    }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapIndexConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.Serializable;
+
+import static com.hazelcast.query.Predicates.and;
+import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.greaterEqual;
+import static com.hazelcast.query.Predicates.greaterThan;
+import static com.hazelcast.query.Predicates.lessThan;
+import static com.hazelcast.query.Predicates.or;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class CostBasedQueryOptimizerTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    private IMap<Integer, Record> map;
+
+    @Before
+    public void before() {
+        Config config = getConfig();
+        config.setProperty(GroupProperty.QUERY_OPTIMIZER_TYPE.getName(), QueryOptimizerFactory.Type.COST.name());
+        String mapName = randomMapName();
+        config.getMapConfig(mapName)
+                .addMapIndexConfig(new MapIndexConfig("a", true))
+                .addMapIndexConfig(new MapIndexConfig("b", true))
+                .addMapIndexConfig(new MapIndexConfig("c", false));
+        HazelcastInstance instance = createHazelcastInstance(config);
+        map = instance.getMap(mapName);
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            map.put(i, new Record(i, i % 10, i % 2, i % 3));
+        }
+    }
+
+    @Test
+    public void testQueriesReturnSameResults() {
+        checkQuery(equal("a", 1), 1);
+        checkQuery(greaterEqual("a", 0), ENTRY_COUNT);
+        checkQuery(and(equal("a", 12), greaterThan("b", 1)), 1);
+        checkQuery(and(lessThan("a", 100), equal("b", 3), equal("c", 1)), 10);
+        checkQuery(and(greaterEqual("a", 0), greaterEqual("b", 0)), ENTRY_COUNT);
+        checkQuery(or(and(equal("a", 1), greaterThan("b", 2)), lessThan("a", 10)), 10);
+        checkQuery(and(greaterThan("b", 7), equal("d", 1)), 66);
+    }
+
+    private void checkQuery(Predicate<Integer, Record> predicate, int expectedCount) {
+        assertEquals(expectedCount, map.values(predicate).size());
+        assertEquals(expectedCount, map.keySet(predicate).size());
+    }
+
+    private static class Record implements Serializable {
+
+        final int a;
+        final int b;
+        final int c;
+        final int d;
+
+        Record(int a, int b, int c, int d) {
+            this.a = a;
+            this.b = b;
+            this.c = c;
+            this.d = d;
+        }
+
+    }
+
+}
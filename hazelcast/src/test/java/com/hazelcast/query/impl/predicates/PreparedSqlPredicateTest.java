@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapIndexConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.IMap;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.query.PreparedPredicate;
+import com.hazelcast.query.SampleTestObjects.Employee;
+import com.hazelcast.query.impl.QueryEntry;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Map;
+
+import static com.hazelcast.instance.impl.TestUtil.toData;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PreparedSqlPredicateTest extends HazelcastTestSupport {
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+
+    @Test
+    public void testParameterCount() {
+        assertEquals(0, Predicates.prepare("name = 'Joe?'").getParameterCount());
+        assertEquals(1, Predicates.prepare("name = ?").getParameterCount());
+        assertEquals(3, Predicates.prepare("name = ? and age between ? and ?").getParameterCount());
+        assertEquals(2, Predicates.prepare("name=? and age>?").getParameterCount());
+    }
+
+    @Test
+    public void testBind() {
+        Map.Entry entry = createEntry(new Employee("Joe", "AUSTIN", 25, true, 10.0));
+
+        assertTrue(bind("name = ?", "Joe").apply(entry));
+        assertFalse(bind("name = ?", "Jane").apply(entry));
+        assertTrue(bind("name = ? and age > ?", "Joe", 20).apply(entry));
+        assertFalse(bind("name = ? and age > ?", "Joe", 25).apply(entry));
+        assertTrue(bind("age between ? and ?", 20, 30).apply(entry));
+        assertTrue(bind("age in (?, ?)", 24, 25).apply(entry));
+        assertFalse(bind("age in (?, ?)", 26, 27).apply(entry));
+        assertTrue(bind("name like ?", "J%").apply(entry));
+        assertTrue(bind("city = ? or name = ?", "AUSTIN", "Jane").apply(entry));
+        assertTrue(bind("name = 'Joe' and salary >= ?", 10.0).apply(entry));
+    }
+
+    @Test
+    public void testBind_questionMarksInQuotesAreValues() {
+        Map.Entry entry = createEntry(new Employee("Joe?", "?", 25, true, 10.0));
+
+        assertTrue(bind("name = 'Joe?' and city = '?' and age = ?", 25).apply(entry));
+    }
+
+    @Test
+    public void testBind_parametersAreNotParsed() {
+        Map.Entry entry = createEntry(new Employee("a' or name = 'b", "AUSTIN", 25, true, 10.0));
+
+        assertTrue(bind("name = ?", "a' or name = 'b").apply(entry));
+        assertFalse(bind("name = ?", "b").apply(entry));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBind_tooFewParameters() {
+        bind("name = ? and age = ?", "Joe");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBind_tooManyParameters() {
+        bind("name = ?", "Joe", 25);
+    }
+
+    @Test
+    public void testEquals() {
+        PreparedPredicate<Object, Object> prepared = Predicates.prepare("name = ? and age = ?");
+
+        assertEquals(prepared.bind("Joe", 25), prepared.bind("Joe", 25));
+        assertEquals(prepared.bind("Joe", 25).hashCode(), prepared.bind("Joe", 25).hashCode());
+        assertNotEquals(prepared.bind("Joe", 25), prepared.bind("Joe", 26));
+        assertNotEquals(prepared.bind("Joe", 25), Predicates.sql("name = ? and age = ?"));
+    }
+
+    @Test
+    public void testSerialization() {
+        ParameterizedSqlPredicate original = (ParameterizedSqlPredicate) bind("name = ? and age between ? and ?",
+                "Joe", 20, 30);
+
+        ParameterizedSqlPredicate deserialized = serializationService.toObject(serializationService.toData(original));
+
+        assertEquals(original, deserialized);
+        assertArrayEquals(new Object[]{"Joe", 20, 30}, deserialized.getParameters());
+        assertTrue(deserialized.apply(createEntry(new Employee("Joe", "AUSTIN", 25, true, 10.0))));
+    }
+
+    @Test
+    public void testMapQueries() {
+        Config config = getConfig();
+        String mapName = randomMapName();
+        config.getMapConfig(mapName)
+                .addMapIndexConfig(new MapIndexConfig("age", true))
+                .addMapIndexConfig(new MapIndexConfig("name", false));
+        HazelcastInstance instance = createHazelcastInstance(config);
+        IMap<Integer, Employee> map = instance.getMap(mapName);
+        for (int i = 0; i < 100; ++i) {
+            map.put(i, new Employee("name" + i % 10, "city", i, true, i));
+        }
+
+        PreparedPredicate<Integer, Employee> prepared = Predicates.prepare("age >= ? and age < ? and name = ?");
+        for (int i = 0; i < 10; ++i) {
+            assertEquals(1, map.values(prepared.bind(i * 10, i * 10 + 10, "name" + i)).size());
+            // the same query is served by the cached plan
+            assertEquals(1, map.values(prepared.bind(i * 10, i * 10 + 10, "name" + i)).size());
+        }
+        assertEquals(10, map.values(prepared.bind(0, 100, "name3")).size());
+        assertEquals(0, map.values(prepared.bind(50, 10, "name3")).size());
+
+        map.addIndex("city", false);
+        assertEquals(10, map.values(prepared.bind(0, 100, "name3")).size());
+    }
+
+    private static Predicate bind(String sql, Object... parameters) {
+        return Predicates.prepare(sql).bind(parameters);
+    }
+
+    private Map.Entry createEntry(Object value) {
+        return new QueryEntry(serializationService, toData(1), value, Extractors.newBuilder(serializationService).build());
+    }
+
+}
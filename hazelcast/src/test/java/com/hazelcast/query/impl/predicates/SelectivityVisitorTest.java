@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.Index;
+import com.hazelcast.query.impl.IndexCopyBehavior;
+import com.hazelcast.query.impl.Indexes;
+import com.hazelcast.query.impl.QueryEntry;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.Serializable;
+
+import static com.hazelcast.query.Predicates.and;
+import static com.hazelcast.query.Predicates.between;
+import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.greaterThan;
+import static com.hazelcast.query.Predicates.in;
+import static com.hazelcast.query.Predicates.lessThan;
+import static com.hazelcast.query.Predicates.like;
+import static com.hazelcast.query.Predicates.or;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class SelectivityVisitorTest {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+
+    private Indexes indexes;
+    private SelectivityVisitor visitor;
+
+    @Before
+    public void before() {
+        Extractors extractors = Extractors.newBuilder(serializationService).build();
+        indexes = Indexes.newBuilder(serializationService, IndexCopyBehavior.COPY_ON_READ).extractors(extractors).build();
+        // a is unique, b has 10 distinct values, c has 2 distinct values
+        indexes.addOrGetIndex("a", true, null);
+        indexes.addOrGetIndex("b", true, null);
+        indexes.addOrGetIndex("c", false, null);
+        for (int i = 0; i < ENTRY_COUNT; ++i) {
+            Record record = new Record(i, i % 10, i % 2);
+            indexes.putEntry(new QueryEntry(serializationService, serializationService.toData(i), record, extractors), null,
+                    Index.OperationSource.USER);
+        }
+        visitor = new SelectivityVisitor();
+    }
+
+    @Test
+    public void testSelectivityEstimation() {
+        assertEquals(0.001, estimate(equal("a", 1)), 0.0);
+        assertEquals(0.1, estimate(equal("b", 1)), 0.0);
+        assertEquals(0.5, estimate(equal("c", 1)), 0.0);
+        assertEquals(0.3, estimate(in("b", 1, 2, 3)), 1e-9);
+        assertEquals(0.1, estimate(lessThan("a", 100)), 0.05);
+        assertEquals(0.5, estimate(between("a", 250, 750)), 0.05);
+        assertEquals(0.7, estimate(greaterThan("b", "2")), 0.1);
+
+        assertTrue(Double.isNaN(estimate(equal("d", 1))));
+        assertTrue(Double.isNaN(estimate(like("a", "1%"))));
+    }
+
+    @Test
+    public void testMostSelectiveOperandIsFirst() {
+        Predicate lessThan = lessThan("a", 20);
+        Predicate equal = equal("b", 1);
+        Predicate unindexed = equal("d", 1);
+
+        checkOptimized(and(unindexed, equal, lessThan), lessThan, equal, unindexed);
+        checkOptimized(and(equal, unindexed, lessThan), lessThan, equal, unindexed);
+    }
+
+    @Test
+    public void testWeaklySelectiveOperandIsSkipped() {
+        Predicate equal = equal("a", 1);
+        Predicate range = greaterThan("b", 2);
+
+        Predicate[] actual = optimize(and(range, equal));
+        assertEquals(2, actual.length);
+        assertSame(equal, actual[0]);
+        assertSame(range, ((SkipIndexPredicate) actual[1]).getTarget());
+    }
+
+    @Test
+    public void testEqualOperandIsNeverSkipped() {
+        Predicate selective = equal("a", 1);
+        Predicate weak = equal("c", 1);
+
+        checkOptimized(and(weak, selective), selective, weak);
+    }
+
+    @Test
+    public void testUnselectivePredicateIsScanned() {
+        Predicate predicate = and(greaterThan("a", -1), greaterThan("b", -1));
+
+        Predicate optimized = visitor.visit((AndPredicate) predicate, indexes);
+        assertSame(predicate, ((SkipIndexPredicate) optimized).getTarget());
+    }
+
+    @Test
+    public void testOpaqueIndexedOperandPreventsScan() {
+        Predicate predicate = and(greaterThan("a", -1), or(equal("b", 1), equal("b", 2)));
+
+        Predicate optimized = visitor.visit((AndPredicate) predicate, indexes);
+        assertTrue(optimized instanceof AndPredicate);
+    }
+
+    @Test
+    public void testUnoptimizablePredicates() {
+        Predicate sameSelectivity = and(lessThan("a", 500), lessThan("b", 5));
+        assertSame(sameSelectivity, visitor.visit((AndPredicate) sameSelectivity, indexes));
+
+        Predicate unindexed = and(equal("d", 1), equal("e", 1));
+        assertSame(unindexed, visitor.visit((AndPredicate) unindexed, indexes));
+
+        Predicate orPredicate = or(equal("a", 1), greaterThan("b", -1));
+        assertSame(orPredicate, visitor.visit((OrPredicate) orPredicate, indexes));
+    }
+
+    @Test
+    public void testCostBasedOptimizer() {
+        CostBasedQueryOptimizer optimizer = new CostBasedQueryOptimizer();
+
+        Predicate selective = equal("a", 1);
+        assertSame(selective, optimizer.optimize(selective, indexes));
+
+        Predicate unselective = greaterThan("a", -1);
+        assertSame(unselective, ((SkipIndexPredicate) optimizer.optimize(unselective, indexes)).getTarget());
+
+        Predicate nested = or(and(equal("a", 1), greaterThan("b", 2)), equal("a", 2));
+        Predicate[] operands = ((OrPredicate) optimizer.optimize(nested, indexes)).predicates;
+        Predicate[] andOperands = ((AndPredicate) operands[0]).predicates;
+        assertTrue(andOperands[1] instanceof SkipIndexPredicate);
+    }
+
+    private double estimate(Predicate predicate) {
+        return SelectivityVisitor.estimateSelectivity(predicate, indexes);
+    }
+
+    private Predicate[] optimize(Predicate predicate) {
+        Predicate optimized = visitor.visit((AndPredicate) predicate, indexes);
+        return ((AndPredicate) optimized).predicates;
+    }
+
+    private void checkOptimized(Predicate predicate, Predicate... expected) {
+        assertArrayEquals(expected, optimize(predicate));
+    }
+
+    private static class Record implements Serializable {
+
+        final int a;
+        final int b;
+        final int c;
+
+        Record(int a, int b, int c) {
+            this.a = a;
+            this.b = b;
+            this.c = c;
+        }
+
+    }
+
+}
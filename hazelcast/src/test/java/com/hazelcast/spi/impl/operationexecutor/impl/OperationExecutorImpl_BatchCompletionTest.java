@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.spi.impl.operationexecutor.BatchCompletionHandler;
+import com.hazelcast.spi.properties.HazelcastProperties;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.spi.impl.operationexecutor.impl.OperationExecutorImpl.BATCH_SIZE;
+import static com.hazelcast.spi.properties.GroupProperty.PARTITION_OPERATION_THREAD_COUNT;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class OperationExecutorImpl_BatchCompletionTest extends OperationExecutorImpl_AbstractTest {
+
+    private final CountingBatchCompletionHandler batchCompletionHandler = new CountingBatchCompletionHandler();
+
+    @Test
+    public void whenBatchingDisabled_thenHandlerNotCalled() {
+        config.setProperty(PARTITION_OPERATION_THREAD_COUNT.getName(), "1");
+        initBatchingExecutor();
+
+        executor.execute(new DummyPartitionOperation());
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(1, executedOperationCount());
+            }
+        });
+        assertTrueAllTheTime(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(0, batchCompletionHandler.count.get());
+            }
+        }, 1);
+    }
+
+    @Test
+    public void whenTasksWaiting_thenProcessedAsBatch() {
+        config.setProperty(PARTITION_OPERATION_THREAD_COUNT.getName(), "1");
+        config.setProperty(BATCH_SIZE.getName(), "4");
+        initBatchingExecutor();
+
+        // keeps the partition thread busy while the other operations are queued
+        executor.execute(new DummyPartitionOperation().durationMs(1000));
+        for (int k = 0; k < 10; k++) {
+            executor.execute(new DummyPartitionOperation());
+        }
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(11, executedOperationCount());
+                // 2 full batches of 4 operations and a batch of the 3 remaining operations
+                assertEquals(3, batchCompletionHandler.count.get());
+            }
+        });
+    }
+
+    private int executedOperationCount() {
+        // all operations are for partition 0
+        return ((DummyOperationRunner) executor.getPartitionOperationRunners()[0]).operations.size();
+    }
+
+    private void initBatchingExecutor() {
+        props = new HazelcastProperties(config);
+        executor = new OperationExecutorImpl(props, loggingService, thisAddress, handlerFactory, nodeExtension, "hzName",
+                Thread.currentThread().getContextClassLoader(), batchCompletionHandler);
+        executor.start();
+    }
+
+    private static class CountingBatchCompletionHandler implements BatchCompletionHandler {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public void onBatchCompleted() {
+            count.incrementAndGet();
+        }
+    }
+}
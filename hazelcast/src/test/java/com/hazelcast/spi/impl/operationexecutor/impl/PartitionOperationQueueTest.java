@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import com.hazelcast.util.concurrent.BusySpinIdleStrategy;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PartitionOperationQueueTest extends HazelcastTestSupport {
+
+    private PartitionOperationQueue queue;
+
+    @Before
+    public void setup() {
+        queue = new PartitionOperationQueue(new BusySpinIdleStrategy());
+        queue.setConsumerThread(Thread.currentThread());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void add_whenNull() {
+        queue.add(null, false);
+    }
+
+    @Test
+    public void add_whenPriority() {
+        queue.add("task", true);
+
+        assertEquals(1, queue.prioritySize());
+        // the trigger task
+        assertEquals(1, queue.normalSize());
+        assertEquals(2, queue.size());
+    }
+
+    @Test
+    public void take_whenPriorityItemAvailable() throws Exception {
+        queue.add("normal", false);
+        queue.add("priority", true);
+
+        assertSame("priority", queue.take(false));
+        assertSame("normal", queue.take(false));
+        assertEquals(0, queue.size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void take_whenPriorityOnly() throws Exception {
+        queue.take(true);
+    }
+
+    @Test
+    public void take_whenNormal_thenWaitTimeTracked() throws Exception {
+        assertEquals(0, queue.lastWaitTimeNanos());
+        assertEquals(0, queue.averageWaitTimeNanos());
+
+        queue.add("task", false);
+        sleepMillis(10);
+
+        assertSame("task", queue.take(false));
+        assertTrue(queue.lastWaitTimeNanos() >= MILLISECONDS.toNanos(10));
+        assertEquals(queue.lastWaitTimeNanos(), queue.averageWaitTimeNanos());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setDelayTarget_whenNegative() {
+        queue.setDelayTarget(-1, 0);
+    }
+
+    @Test
+    public void take_whenNoDelayTarget_thenNeverOverdue() throws Exception {
+        queue.add("task", false);
+        sleepMillis(5);
+
+        queue.take(false);
+        assertFalse(queue.isLastTakenOverdue());
+    }
+
+    @Test
+    public void take_whenAboveTargetForInterval_thenOverdue() throws Exception {
+        queue.setDelayTarget(MILLISECONDS.toNanos(1), MILLISECONDS.toNanos(5));
+        queue.add("task1", false);
+        queue.add("task2", false);
+        queue.add("task3", false);
+        sleepMillis(2);
+
+        // above the target, but not for a whole interval yet
+        queue.take(false);
+        assertFalse(queue.isLastTakenOverdue());
+
+        sleepMillis(10);
+        queue.take(false);
+        assertTrue(queue.isLastTakenOverdue());
+
+        // a priority task is never overdue
+        queue.add("priority", true);
+        assertSame("priority", queue.take(false));
+        assertFalse(queue.isLastTakenOverdue());
+
+        queue.take(false);
+        assertTrue(queue.isLastTakenOverdue());
+    }
+
+    @Test
+    public void take_whenBelowTarget_thenNoLongerOverdue() throws Exception {
+        queue.setDelayTarget(MILLISECONDS.toNanos(1), 0);
+        queue.add("task1", false);
+        queue.add("task2", false);
+        sleepMillis(2);
+        queue.take(false);
+        queue.take(false);
+        assertTrue(queue.isLastTakenOverdue());
+
+        queue.add("task3", false);
+        queue.take(false);
+        assertFalse(queue.isLastTakenOverdue());
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.logging.Logger;
+import com.hazelcast.nio.Address;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
+import com.hazelcast.spi.impl.operationexecutor.OperationExecutor;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.impl.operations.Backup;
+import com.hazelcast.spi.impl.operationservice.impl.operations.BackupBatch;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class BackupCoalescerTest extends HazelcastTestSupport {
+
+    private OutboundOperationHandler outboundOperationHandler;
+    private OperationExecutor operationExecutor;
+    private Address target1;
+    private Address target2;
+    private BackupCoalescer coalescer;
+
+    @Before
+    public void setup() throws Exception {
+        outboundOperationHandler = mock(OutboundOperationHandler.class);
+        operationExecutor = mock(OperationExecutor.class);
+        // runs the flush right away instead of on a partition thread
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                ((PartitionSpecificRunnable) invocation.getArgument(0)).run();
+                return null;
+            }
+        }).when(operationExecutor).execute(any(PartitionSpecificRunnable.class));
+        target1 = new Address("127.0.0.1", 5701);
+        target2 = new Address("127.0.0.1", 5702);
+    }
+
+    @After
+    public void tearDown() {
+        if (coalescer != null) {
+            coalescer.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenMaxBatchSizeTooSmall() {
+        newCoalescer(MINUTES.toNanos(1), 0);
+    }
+
+    @Test
+    public void whenMaxBatchSizeReached_thenBatchSent() {
+        newCoalescer(MINUTES.toNanos(1), 3);
+        Backup backup1 = newBackup(0, 1);
+        Backup backup2 = newBackup(0, 1);
+        Backup backup3 = newBackup(0, 1);
+
+        coalescer.add(backup1, target1);
+        coalescer.add(backup2, target1);
+        verify(outboundOperationHandler, never()).send(any(Operation.class), any(Address.class));
+
+        coalescer.add(backup3, target1);
+
+        ArgumentCaptor<Operation> captor = ArgumentCaptor.forClass(Operation.class);
+        verify(outboundOperationHandler).send(captor.capture(), eq(target1));
+        BackupBatch batch = (BackupBatch) captor.getValue();
+        assertEquals(0, batch.getPartitionId());
+        assertEquals(1, batch.getReplicaIndex());
+        assertArrayEquals(new Backup[]{backup1, backup2, backup3}, batch.getBackups());
+    }
+
+    @Test
+    public void whenWindowEnds_thenPendingBackupsSent() {
+        newCoalescer(MILLISECONDS.toNanos(10), 100);
+        coalescer.start(operationExecutor);
+        final Backup backup1 = newBackup(0, 1);
+        Backup backup2 = newBackup(0, 2);
+
+        coalescer.add(backup1, target1);
+        coalescer.add(backup2, target2);
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                verify(outboundOperationHandler).send(backup1, target1);
+            }
+        });
+        verify(outboundOperationHandler).send(backup2, target2);
+    }
+
+    @Test
+    public void whenWindowEnds_thenFlushedByPartitionThread() {
+        newCoalescer(MILLISECONDS.toNanos(10), 100);
+        coalescer.start(operationExecutor);
+
+        coalescer.add(newBackup(1, 1), target1);
+
+        final ArgumentCaptor<PartitionSpecificRunnable> captor = ArgumentCaptor.forClass(PartitionSpecificRunnable.class);
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                verify(operationExecutor).execute(captor.capture());
+            }
+        });
+        assertEquals(1, captor.getValue().getPartitionId());
+    }
+
+    @Test
+    public void whenPartitionsDiffer_thenSentSeparately() {
+        newCoalescer(MINUTES.toNanos(1), 2);
+
+        coalescer.add(newBackup(0, 1), target1);
+        coalescer.add(newBackup(1, 1), target1);
+        coalescer.add(newBackup(0, 1), target1);
+        coalescer.add(newBackup(1, 1), target1);
+
+        verify(outboundOperationHandler, times(2)).send(any(BackupBatch.class), eq(target1));
+    }
+
+    private void newCoalescer(long windowNanos, int maxBatchSize) {
+        coalescer = new BackupCoalescer(outboundOperationHandler, Logger.getLogger(BackupCoalescer.class),
+                randomName(), 2, windowNanos, maxBatchSize);
+    }
+
+    private static Backup newBackup(int partitionId, int replicaIndex) {
+        Backup backup = new Backup((Data) null, null, new long[0], false);
+        backup.setPartitionId(partitionId).setReplicaIndex(replicaIndex);
+        return backup;
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.metrics.LongGauge;
+import com.hazelcast.internal.metrics.ProbeLevel;
+import com.hazelcast.internal.partition.impl.InternalPartitionServiceImpl;
+import com.hazelcast.internal.partition.impl.PartitionReplicaManager;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.spi.ObjectNamespace;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import static com.hazelcast.internal.diagnostics.Diagnostics.METRICS_LEVEL;
+import static com.hazelcast.spi.impl.operationexecutor.impl.OperationExecutorImpl.BATCH_SIZE;
+import static com.hazelcast.spi.properties.GroupProperty.OPERATION_BACKUP_COALESCING_MAX_BATCH_SIZE;
+import static com.hazelcast.spi.properties.GroupProperty.OPERATION_BACKUP_COALESCING_WINDOW_MICROS;
+import static com.hazelcast.spi.properties.GroupProperty.PARTITION_OPERATION_THREAD_COUNT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class OperationBackupHandler_BatchingTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    @Test
+    public void whenBatching_thenAllBackupsApplied() throws Exception {
+        Config config = smallInstanceConfig()
+                .setProperty(BATCH_SIZE.getName(), "16")
+                // a single partition thread, so the operations queue up and get batched
+                .setProperty(PARTITION_OPERATION_THREAD_COUNT.getName(), "1");
+
+        assertAllBackupsApplied(config);
+    }
+
+    @Test
+    public void whenCoalescing_thenAllBackupsApplied() throws Exception {
+        Config config = smallInstanceConfig()
+                .setProperty(OPERATION_BACKUP_COALESCING_WINDOW_MICROS.getName(), "200")
+                .setProperty(OPERATION_BACKUP_COALESCING_MAX_BATCH_SIZE.getName(), "8");
+
+        assertAllBackupsApplied(config);
+    }
+
+    @Test
+    public void whenBatching_thenReplicaVersionsNotDirty() throws Exception {
+        Config config = smallInstanceConfig()
+                .setProperty(BATCH_SIZE.getName(), "16")
+                .setProperty(PARTITION_OPERATION_THREAD_COUNT.getName(), "1");
+
+        assertReplicaVersionsInSync(config);
+    }
+
+    @Test
+    public void whenCoalescing_thenReplicaVersionsNotDirty() throws Exception {
+        Config config = smallInstanceConfig()
+                .setProperty(OPERATION_BACKUP_COALESCING_WINDOW_MICROS.getName(), "1000")
+                .setProperty(OPERATION_BACKUP_COALESCING_MAX_BATCH_SIZE.getName(), "16");
+
+        assertReplicaVersionsInSync(config);
+    }
+
+    /**
+     * Puts entries of a single partition, so the backups of a batch share the
+     * version array of the partition, and checks the replica has received the
+     * versions in order: it isn't dirty and hasn't requested a replica sync.
+     */
+    private void assertReplicaVersionsInSync(Config config) throws Exception {
+        config.setProperty(METRICS_LEVEL.getName(), ProbeLevel.INFO.name());
+        config.getMapConfig("map").setBackupCount(1);
+
+        HazelcastInstance[] cluster = createHazelcastInstanceFactory(2).newInstances(config);
+        final HazelcastInstance owner = cluster[0];
+        final HazelcastInstance replica = cluster[1];
+        warmUpPartitions(cluster);
+        waitAllForSafeState(cluster);
+
+        final int partitionId = getPartitionService(owner).getPartitionId(generateKeyOwnedBy(owner));
+        final ObjectNamespace namespace = MapService.getObjectNamespace("map");
+        LongGauge replicaSyncRequests = getNodeEngineImpl(replica).getMetricsRegistry()
+                .newLongGauge("partitions.replicaSyncRequestsCounter");
+        long replicaSyncRequestsBefore = replicaSyncRequests.read();
+
+        IMap<String, Integer> map = owner.getMap("map");
+        List<Future> futures = new ArrayList<Future>();
+        for (int k = 0; k < ENTRY_COUNT; k++) {
+            futures.add(map.putAsync(generateKeyForPartition(owner, partitionId), k));
+        }
+        for (Future future : futures) {
+            future.get();
+        }
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                long[] ownerVersions = getReplicaManager(owner).getPartitionReplicaVersions(partitionId, namespace);
+                long[] replicaVersions = getReplicaManager(replica).getPartitionReplicaVersions(partitionId, namespace);
+                assertEquals(ownerVersions[0], replicaVersions[0]);
+            }
+        });
+        assertFalse(getReplicaManager(replica).isPartitionReplicaVersionDirty(partitionId, namespace));
+        assertEquals(replicaSyncRequestsBefore, replicaSyncRequests.read());
+    }
+
+    private static PartitionReplicaManager getReplicaManager(HazelcastInstance hz) {
+        return ((InternalPartitionServiceImpl) getPartitionService(hz)).getReplicaManager();
+    }
+
+    private void assertAllBackupsApplied(Config config) throws Exception {
+        config.getMapConfig("map").setBackupCount(1);
+
+        HazelcastInstance[] cluster = createHazelcastInstanceFactory(2).newInstances(config);
+        warmUpPartitions(cluster);
+        final IMap<Integer, Integer> map1 = cluster[0].getMap("map");
+        final IMap<Integer, Integer> map2 = cluster[1].getMap("map");
+
+        List<Future> futures = new ArrayList<Future>();
+        for (int k = 0; k < ENTRY_COUNT; k++) {
+            futures.add(map1.putAsync(k, k));
+        }
+        for (Future future : futures) {
+            // completes only when the sync backup has been acknowledged
+            future.get();
+        }
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                long backupEntryCount = map1.getLocalMapStats().getBackupEntryCount()
+                        + map2.getLocalMapStats().getBackupEntryCount();
+                assertEquals(ENTRY_COUNT, backupEntryCount);
+            }
+        });
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.spi.InternalCompletableFuture;
+import com.hazelcast.spi.exception.OperationQueueOverloadException;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import static com.hazelcast.spi.properties.GroupProperty.BACKPRESSURE_QUEUE_DELAY_INTERVAL_MILLIS;
+import static com.hazelcast.spi.properties.GroupProperty.BACKPRESSURE_QUEUE_DELAY_TARGET_MILLIS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class OperationServiceImpl_rejectOverdueTest extends HazelcastTestSupport {
+
+    private static final int OPERATION_COUNT = 10;
+
+    @Test
+    public void whenQueueDelayTargetNotSet_thenNothingRejected() throws Exception {
+        int rejected = invokeBehindSlowOperation(smallInstanceConfig());
+
+        assertEquals(0, rejected);
+    }
+
+    @Test
+    public void whenStandingQueue_thenOverdueOperationsRejected() throws Exception {
+        Config config = smallInstanceConfig()
+                .setProperty(BACKPRESSURE_QUEUE_DELAY_TARGET_MILLIS.getName(), "10")
+                .setProperty(BACKPRESSURE_QUEUE_DELAY_INTERVAL_MILLIS.getName(), "0");
+
+        int rejected = invokeBehindSlowOperation(config);
+
+        // the first operation after the slow one detects the standing queue, the others are rejected
+        assertEquals(OPERATION_COUNT - 1, rejected);
+    }
+
+    private int invokeBehindSlowOperation(Config config) throws Exception {
+        HazelcastInstance hz = createHazelcastInstance(config);
+        OperationServiceImpl operationService = getOperationServiceImpl(hz);
+
+        // blocks the partition thread, so the operations behind it have to wait in its queue
+        InternalCompletableFuture<Object> slowFuture = operationService.invokeOnPartition(null, new SlowOperation(1000), 0);
+        List<InternalCompletableFuture<Object>> futures = new ArrayList<InternalCompletableFuture<Object>>();
+        for (int k = 0; k < OPERATION_COUNT; k++) {
+            futures.add(operationService.<Object>invokeOnPartition(null, new DummyOperation(k), 0));
+        }
+        slowFuture.get();
+
+        int rejected = 0;
+        for (InternalCompletableFuture<Object> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof OperationQueueOverloadException);
+                rejected++;
+            }
+        }
+        assertEquals(rejected, operationService.rejectedOverdueCount.get());
+        return rejected;
+    }
+}
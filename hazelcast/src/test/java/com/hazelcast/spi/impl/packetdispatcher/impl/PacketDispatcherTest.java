@@ -24,6 +24,7 @@ import com.hazelcast.test.ExpectedRuntimeException;
 import com.hazelcast.test.HazelcastParallelClassRunner;
 import com.hazelcast.test.HazelcastTestSupport;
 import com.hazelcast.test.annotation.QuickTest;
+import com.hazelcast.util.function.BatchConsumer;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -35,8 +36,10 @@ import java.util.function.Consumer;
 import static com.hazelcast.nio.Packet.FLAG_OP_CONTROL;
 import static com.hazelcast.nio.Packet.FLAG_OP_RESPONSE;
 import static com.hazelcast.nio.Packet.FLAG_URGENT;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.verifyZeroInteractions;
 
 @RunWith(HazelcastParallelClassRunner.class)
@@ -113,6 +116,45 @@ public class PacketDispatcherTest extends HazelcastTestSupport {
     }
 
 
+    @Test
+    public void whenBatch_thenResponsesHandedOverAtOnce() {
+        BatchConsumer<Packet> batchResponseHandler = mock(BatchConsumer.class);
+        dispatcher = new PacketDispatcher(
+                Logger.getLogger(getClass()),
+                operationExecutor,
+                batchResponseHandler,
+                invocationMonitor,
+                eventService,
+                jetService);
+        Packet response1 = new Packet().setPacketType(Packet.Type.OPERATION).raiseFlags(FLAG_OP_RESPONSE);
+        Packet operation = new Packet().setPacketType(Packet.Type.OPERATION);
+        Packet response2 = new Packet().setPacketType(Packet.Type.OPERATION).raiseFlags(FLAG_OP_RESPONSE);
+        Packet event = new Packet().setPacketType(Packet.Type.EVENT);
+        Packet[] packets = {response1, operation, response2, event};
+
+        dispatcher.acceptAll(packets, packets.length);
+
+        verify(operationExecutor).accept(operation);
+        verify(eventService).accept(event);
+        verify(batchResponseHandler).acceptAll(packets, 2);
+        assertSame(response1, packets[0]);
+        assertSame(response2, packets[1]);
+        verifyNoMoreInteractions(batchResponseHandler);
+        verifyZeroInteractions(invocationMonitor, jetService);
+    }
+
+    @Test
+    public void whenBatchAndResponseHandlerNotBatching_thenResponsesHandedOverOneByOne() {
+        Packet response1 = new Packet().setPacketType(Packet.Type.OPERATION).raiseFlags(FLAG_OP_RESPONSE);
+        Packet response2 = new Packet().setPacketType(Packet.Type.OPERATION).raiseFlags(FLAG_OP_RESPONSE);
+
+        dispatcher.acceptAll(new Packet[]{response1, response2}, 2);
+
+        verify(responseHandler).accept(response1);
+        verify(responseHandler).accept(response2);
+        verifyZeroInteractions(operationExecutor, eventService, invocationMonitor, jetService);
+    }
+
     @Test
     public void whenOperationControlPacket() {
         Packet packet = new Packet().setPacketType(Packet.Type.OPERATION).raiseFlags(FLAG_OP_CONTROL);
@@ -19,7 +19,9 @@ package com.hazelcast.test.compatibility;
 import com.hazelcast.core.ManagedContext;
 import com.hazelcast.partition.PartitioningStrategy;
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.PooledPayload;
 import com.hazelcast.internal.serialization.PortableContext;
+import com.hazelcast.internal.serialization.impl.CompactSchema;
 import com.hazelcast.nio.BufferObjectDataInput;
 import com.hazelcast.nio.BufferObjectDataOutput;
 import com.hazelcast.nio.ObjectDataInput;
@@ -31,6 +33,7 @@ import com.hazelcast.test.TestEnvironment;
 
 import java.io.IOException;
 import java.nio.ByteOrder;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -118,6 +121,20 @@ public class SamplingSerializationService implements InternalSerializationServic
         return bytes;
     }
 
+    @Override
+    public PooledPayload toPooledBytes(Object obj) {
+        PooledPayload payload = delegate.toPooledBytes(obj);
+        sampleObject(obj, Arrays.copyOf(payload.bytes(), payload.size()));
+        return payload;
+    }
+
+    @Override
+    public PooledPayload toPooledBytes(Object obj, int leftPadding, boolean insertPartitionHash) {
+        PooledPayload payload = delegate.toPooledBytes(obj, leftPadding, insertPartitionHash);
+        sampleObject(obj, Arrays.copyOf(payload.bytes(), payload.size()));
+        return payload;
+    }
+
     @Override
     public <B extends Data> B toData(Object obj, DataType type) {
         return toData(obj);
@@ -164,6 +181,11 @@ public class SamplingSerializationService implements InternalSerializationServic
         return delegate.createPortableReader(data);
     }
 
+    @Override
+    public CompactSchema getCompactSchema(Data data) {
+        return delegate.getCompactSchema(data);
+    }
+
     @Override
     public PortableContext getPortableContext() {
         return delegate.getPortableContext();
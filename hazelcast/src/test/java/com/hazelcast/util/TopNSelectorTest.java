@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2008-2019, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.util;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class TopNSelectorTest {
+
+    private static final Comparator<Integer> NATURAL = Comparator.naturalOrder();
+
+    @Test
+    public void testSelectsSmallest() {
+        TopNSelector<Integer> selector = new TopNSelector<Integer>(NATURAL, 3);
+        for (int value : new int[]{5, 1, 9, 3, 7, 2, 8}) {
+            selector.offer(value);
+        }
+        assertEquals(3, selector.size());
+        assertEquals(asList(1, 2, 3), selector.toSortedList());
+    }
+
+    @Test
+    public void testOfferReportsSelection() {
+        TopNSelector<Integer> selector = new TopNSelector<Integer>(NATURAL, 2);
+        assertTrue(selector.offer(5));
+        assertTrue(selector.offer(4));
+        assertFalse(selector.offer(6));
+        assertFalse(selector.offer(5));
+        assertTrue(selector.offer(1));
+        assertEquals(asList(1, 4), selector.toSortedList());
+    }
+
+    @Test
+    public void testZeroLimit() {
+        TopNSelector<Integer> selector = new TopNSelector<Integer>(NATURAL, 0);
+        assertFalse(selector.offer(1));
+        assertTrue(selector.toSortedList().isEmpty());
+    }
+
+    @Test
+    public void testSelectSorted_matchesFullSort() {
+        Random random = new Random(42);
+        List<Integer> list = new ArrayList<Integer>();
+        for (int i = 0; i < 1000; i++) {
+            list.add(random.nextInt(100));
+        }
+        List<Integer> sorted = new ArrayList<Integer>(list);
+        Collections.sort(sorted);
+
+        assertEquals(sorted.subList(0, 10), TopNSelector.selectSorted(new ArrayList<Integer>(list), NATURAL, 10));
+        assertEquals(sorted.subList(0, 999), TopNSelector.selectSorted(new ArrayList<Integer>(list), NATURAL, 999));
+    }
+
+    @Test
+    public void testSelectSorted_sortsSmallListInPlace() {
+        List<Integer> list = new ArrayList<Integer>(asList(3, 1, 2));
+        assertSame(list, TopNSelector.selectSorted(list, NATURAL, 5));
+        assertEquals(asList(1, 2, 3), list);
+    }
+}